@@ -0,0 +1,234 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import com.reportservice.domain.model.Chart;
+import com.reportservice.domain.model.ColumnarDataSet;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.ui.Drawable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the chart path in {@link ChartGenerationAdapter}, stage by stage: building the
+ * columnar data set, creating the chart for each type, {@code customizeChart}, drawing and PNG
+ * encoding, for data sets of 10 to 1M rows. Not part of the default build; run it with
+ * {@code mvn -Pjmh test-compile exec:exec}, which reports ops/s with the GC profiler's allocation
+ * rate. Other JMH options go through {@code -Djmh.args}, e.g.
+ * {@code -Djmh.args="ChartGenerationBenchmark.createChart -p type=LINE -prof gc -rf json"}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx4g"})
+public class ChartGenerationBenchmark {
+
+    private static final String TITLE = "Benchmark Chart";
+    private static final Chart.ImageTarget TARGET = Chart.ImageTarget.DOCX;
+    private static final int CATEGORIES = 8;
+    private static final int DISTINCT_LABELS = 10_000;
+
+    /** Raw columns of a scraped table, so data set construction is measured without string building. */
+    @State(Scope.Benchmark)
+    public static class Rows {
+
+        @Param({"10", "1000", "100000", "1000000"})
+        int points;
+
+        String[] labels;
+        double[] values;
+        String[] categories;
+        LocalDate[] dates;
+
+        @Setup
+        public void generate() {
+            Random random = new Random(42);
+            String[] labelPool = new String[Math.min(points, DISTINCT_LABELS)];
+            for (int i = 0; i < labelPool.length; i++) {
+                labelPool[i] = "Item " + i;
+            }
+            String[] categoryPool = new String[CATEGORIES];
+            for (int i = 0; i < CATEGORIES; i++) {
+                categoryPool[i] = "Group " + i;
+            }
+
+            labels = new String[points];
+            values = new double[points];
+            categories = new String[points];
+            dates = new LocalDate[points];
+            LocalDate start = LocalDate.of(2020, 1, 1);
+            double level = 100;
+            for (int i = 0; i < points; i++) {
+                // Random walk, so line charts have structure for LTTB to keep
+                level += random.nextGaussian();
+                labels[i] = labelPool[i % labelPool.length];
+                values[i] = level;
+                categories[i] = categoryPool[i % CATEGORIES];
+                dates[i] = start.plusDays(i / CATEGORIES);
+            }
+        }
+
+        ColumnarDataSet dataSet() {
+            ColumnarDataSet.Builder builder = ColumnarDataSet.builder(points);
+            for (int i = 0; i < points; i++) {
+                builder.add(labels[i], values[i], categories[i], dates[i], "units", null);
+            }
+            return builder.build();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Charts {
+
+        @Param({"10", "1000", "100000", "1000000"})
+        int points;
+
+        @Param({"BAR", "PIE", "LINE", "SCATTER", "HISTOGRAM", "SMALL_MULTIPLES"})
+        Chart.ChartType type;
+
+        ChartGenerationAdapter adapter;
+        ColumnarDataSet dataSet;
+        Drawable drawing;
+        BufferedImage image;
+
+        @Setup
+        public void prepare() {
+            Rows rows = new Rows();
+            rows.points = points;
+            rows.generate();
+            dataSet = rows.dataSet();
+            adapter = adapter();
+            drawing = adapter.createDrawing(type, dataSet, TITLE, TARGET.pixelWidth(), TARGET.pixelHeight());
+            image = new BufferedImage(TARGET.pixelWidth(), TARGET.pixelHeight(), BufferedImage.TYPE_INT_ARGB);
+        }
+
+        @TearDown
+        public void shutdown() {
+            adapter.shutdown();
+        }
+    }
+
+    /** {@code customizeChart} only restyles the chart, so its cost does not depend on the data size. */
+    @State(Scope.Benchmark)
+    public static class Styling {
+
+        @Param({"BAR", "PIE", "LINE", "SCATTER", "HISTOGRAM"})
+        Chart.ChartType type;
+
+        ChartGenerationAdapter adapter;
+        JFreeChart chart;
+
+        @Setup
+        public void prepare() {
+            Rows rows = new Rows();
+            rows.points = 1_000;
+            rows.generate();
+            adapter = adapter();
+            chart = (JFreeChart) adapter.createDrawing(type, rows.dataSet(), TITLE,
+                    TARGET.pixelWidth(), TARGET.pixelHeight());
+        }
+
+        @TearDown
+        public void shutdown() {
+            adapter.shutdown();
+        }
+    }
+
+    /** A rendered line chart, the most detailed image, encoded at each compression level. */
+    @State(Scope.Benchmark)
+    public static class Images {
+
+        @Param({"10", "1000", "100000", "1000000"})
+        int points;
+
+        // By name, since the generated benchmark code cannot see the package-private enum
+        @Param({"FAST", "BALANCED", "MAX"})
+        String compression;
+
+        ChartPngEncoder encoder;
+        BufferedImage image;
+
+        @Setup
+        public void render() {
+            Rows rows = new Rows();
+            rows.points = points;
+            rows.generate();
+            ChartGenerationAdapter adapter = adapter();
+            try {
+                Drawable drawing = adapter.createDrawing(Chart.ChartType.LINE, rows.dataSet(), TITLE,
+                        TARGET.pixelWidth(), TARGET.pixelHeight());
+                image = new BufferedImage(TARGET.pixelWidth(), TARGET.pixelHeight(), BufferedImage.TYPE_INT_ARGB);
+                draw(drawing, image);
+            } finally {
+                adapter.shutdown();
+            }
+            encoder = new ChartPngEncoder(ChartPngEncoder.Compression.valueOf(compression), true);
+        }
+    }
+
+    @Benchmark
+    public ColumnarDataSet buildDataSet(Rows rows) {
+        return rows.dataSet();
+    }
+
+    @Benchmark
+    public Drawable createChart(Charts charts) {
+        return charts.adapter.createDrawing(charts.type, charts.dataSet, TITLE,
+                TARGET.pixelWidth(), TARGET.pixelHeight());
+    }
+
+    @Benchmark
+    public JFreeChart customizeChart(Styling styling) {
+        styling.adapter.customizeChart(styling.chart);
+        return styling.chart;
+    }
+
+    @Benchmark
+    public BufferedImage drawChart(Charts charts) {
+        draw(charts.drawing, charts.image);
+        return charts.image;
+    }
+
+    @Benchmark
+    public byte[] encodePng(Images images) throws IOException {
+        return images.encoder.encode(images.image);
+    }
+
+    /** Adapter with the cache disabled and no warm-up, used only for its chart-building methods. */
+    private static ChartGenerationAdapter adapter() {
+        ChartImageCache cache = new ChartImageCache(false, DataSize.ofMegabytes(32), "",
+                DataSize.ofMegabytes(200), new SimpleMeterRegistry());
+        return new ChartGenerationAdapter(cache, new ChartPngEncoder(ChartPngEncoder.Compression.BALANCED, true), 1, false);
+    }
+
+    /** Same transform as the adapter's PNG path: laid out in points, scaled to the target's pixels. */
+    private static void draw(Drawable drawing, BufferedImage image) {
+        Graphics2D graphics = image.createGraphics();
+        try {
+            double scale = TARGET.dpi() / 72.0;
+            graphics.scale(scale, scale);
+            drawing.draw(graphics, new Rectangle2D.Double(0, 0, TARGET.widthPoints(), TARGET.heightPoints()));
+        } finally {
+            graphics.dispose();
+        }
+    }
+}
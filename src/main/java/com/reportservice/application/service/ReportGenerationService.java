@@ -1,23 +1,36 @@
 package com.reportservice.application.service;
 
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
 import org.springframework.stereotype.Service;
 
 import com.reportservice.domain.model.Chart;
+import com.reportservice.domain.model.ColumnarDataSet;
+import com.reportservice.domain.model.DataPoint;
 import com.reportservice.domain.model.ExtractedData;
 import com.reportservice.domain.model.GeneratedReport;
+import com.reportservice.domain.model.JobStatus;
 import com.reportservice.domain.model.ReportContent;
 import com.reportservice.domain.model.ReportRequest;
 import com.reportservice.domain.model.Table;
+import com.reportservice.domain.model.TextSection;
 import com.reportservice.domain.port.in.ReportGenerationUseCase;
 import com.reportservice.domain.port.out.AiAnalysisPort;
+import com.reportservice.domain.port.out.AnalysisProgressListener;
 import com.reportservice.domain.port.out.ChartGenerationPort;
 import com.reportservice.domain.port.out.DataExtractionPort;
+import com.reportservice.domain.port.out.JobStatusPort;
 import com.reportservice.domain.port.out.NotificationPort;
 import com.reportservice.domain.port.out.ReportRenderingPort;
 import com.reportservice.domain.port.out.ReportStoragePort;
@@ -30,33 +43,87 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class ReportGenerationService implements ReportGenerationUseCase {
     
+    private static final String STATISTICS_KEY = "statistics";
+
     private final DataExtractionPort dataExtractionPort;
     private final AiAnalysisPort aiAnalysisPort;
     private final ChartGenerationPort chartGenerationPort;
     private final ReportRenderingPort reportRenderingPort;
     private final ReportStoragePort reportStoragePort;
     private final NotificationPort notificationPort;
+    private final JobStatusPort jobStatusPort;
 
     @Override
     public CompletableFuture<List<GeneratedReport>> generateReport(ReportRequest request) {
         log.info("Starting report generation for URL: {}", request.getSourceUrl());
+        startJob(request, "Fetching source");
+
+        if (hasExtension(request.getSourceUrl(), ".xlsx")) {
+            CompletableFuture<ExtractedData> extracted = dataExtractionPort.fetchToFile(request.getSourceUrl())
+                .thenCompose(workbook -> dataExtractionPort.extractFromSpreadsheet(workbook, request.getSourceUrl())
+                    .whenComplete((data, throwable) -> deleteQuietly(workbook)));
+            return completeReport(extracted, request);
+        }
+
+        if (hasExtension(request.getSourceUrl(), ".ndjson", ".jsonl")) {
+            CompletableFuture<ExtractedData> extracted = dataExtractionPort.fetchToFile(request.getSourceUrl())
+                .thenCompose(file -> dataExtractionPort.extractFromJsonLines(file, request.getSourceUrl())
+                    .whenComplete((data, throwable) -> deleteQuietly(file)));
+            return completeReport(extracted, request);
+        }
         
-        return dataExtractionPort.fetchRawData(request.getSourceUrl())
-            .thenCompose(rawData -> aiAnalysisPort.analyzeAndStructureData(rawData, request.getSourceUrl()))
-            .thenCompose(this::enrichWithCharts)
-            .thenCompose(extractedData -> buildReportContent(extractedData, request))
-            .thenCompose(content -> renderReports(content, request))
+        CompletableFuture<ExtractedData> extracted = dataExtractionPort.fetchRawData(request.getSourceUrl())
+            .thenCompose(rawData -> {
+                updateStage(request, JobStatus.Stage.ANALYZING, "Analyzing " + rawData.length() + " characters");
+                AnalysisProgressListener listener = new JobProgressListener(request.getId());
+                CompletableFuture<ExtractedData> structured = extractStructuredData(rawData, request.getSourceUrl());
+                // Markup is mostly tags and page chrome, so the model gets the extracted, deduplicated text instead
+                CompletableFuture<ExtractedData> analyzed = isMarkup(rawData)
+                    ? structured.thenCompose(data -> aiAnalysisPort.analyzeAndStructureData(
+                        analysisInput(rawData, data), request.getSourceUrl(), listener))
+                    : aiAnalysisPort.analyzeAndStructureData(rawData, request.getSourceUrl(), listener);
+                return structured.thenCombine(analyzed, this::mergeStructuredData);
+            });
+        return completeReport(extracted, request);
+    }
+
+    @Override
+    public CompletableFuture<List<GeneratedReport>> generateReportFromSpreadsheet(ReportRequest request, Path workbook) {
+        log.info("Starting spreadsheet report generation for: {}", request.getSourceUrl());
+        startJob(request, "Reading workbook");
+        return completeReport(dataExtractionPort.extractFromSpreadsheet(workbook, request.getSourceUrl()), request);
+    }
+
+    private CompletableFuture<List<GeneratedReport>> completeReport(CompletableFuture<ExtractedData> extracted,
+            ReportRequest request) {
+        return extracted
+            .thenCompose(extractedData -> {
+                updateStage(request, JobStatus.Stage.CHARTING, "Generating charts");
+                return chartGenerationPort.generateCharts(extractedData)
+                    .thenCompose(charts -> buildReportContent(extractedData, charts, request));
+            })
+            .thenCompose(content -> {
+                updateStage(request, JobStatus.Stage.RENDERING, "Rendering " + request.getFormat());
+                return renderReports(content, request);
+            })
             .thenApply(reports -> {
                 reports.forEach(report -> {
                     reportStoragePort.saveReport(report);
                     notificationPort.notifyReportGenerated(report);
                 });
+                List<String> reportIds = reports.stream().map(GeneratedReport::getId).toList();
+                jobStatusPort.update(request.getId(), status -> status.toBuilder()
+                    .stage(JobStatus.Stage.COMPLETED)
+                    .message("Generated " + reports.size() + " report(s)")
+                    .reportIds(reportIds)
+                    .build());
                 log.info("Report generation completed for request: {}", request.getId());
                 return reports;
             })
             .exceptionally(throwable -> {
                 log.error("Report generation failed for request: {}", request.getId(), throwable);
                 notificationPort.notifyReportFailed(request.getId(), throwable.getMessage());
+                updateStage(request, JobStatus.Stage.FAILED, throwable.getMessage());
                 throw new RuntimeException("Report generation failed", throwable);
             });
     }
@@ -80,31 +147,183 @@ public class ReportGenerationService implements ReportGenerationUseCase {
             .thenApply(reports -> reports.get(0));
     }
 
-    private CompletableFuture<ExtractedData> enrichWithCharts(ExtractedData extractedData) {
-        return chartGenerationPort.generateCharts(extractedData)
-            .thenApply(charts -> extractedData.toBuilder()
-                .metadata(extractedData.getMetadata())
+    private void startJob(ReportRequest request, String message) {
+        OffsetDateTime now = OffsetDateTime.now();
+        jobStatusPort.save(JobStatus.builder()
+            .requestId(request.getId())
+            .sourceUrl(request.getSourceUrl())
+            .stage(JobStatus.Stage.FETCHING)
+            .message(message)
+            .startedAt(now)
+            .updatedAt(now)
+            .build());
+    }
+
+    private void updateStage(ReportRequest request, JobStatus.Stage stage, String message) {
+        jobStatusPort.update(request.getId(), status -> status.toBuilder()
+            .stage(stage)
+            .message(message)
+            .build());
+    }
+
+    /** Mirrors streamed AI analysis progress into the job status while the response is still arriving. */
+    private final class JobProgressListener implements AnalysisProgressListener {
+        private final String requestId;
+
+        private JobProgressListener(String requestId) {
+            this.requestId = requestId;
+        }
+
+        @Override
+        public void onTokens(int streamedTokens) {
+            jobStatusPort.update(requestId, status -> status.toBuilder().streamedTokens(streamedTokens).build());
+        }
+
+        @Override
+        public void onChartTypes(List<Chart.ChartType> chartTypes) {
+            if (chartTypes.isEmpty()) {
+                return;
+            }
+            // Chart selection is settled as soon as the model ranks chart types, ahead of the data points
+            jobStatusPort.update(requestId, status -> status.getChartType() != null ? status
+                : status.toBuilder().chartType(chartTypes.get(0)).build());
+        }
+
+        @Override
+        public void onDataPoint(DataPoint dataPoint) {
+            jobStatusPort.update(requestId, status -> status.toBuilder()
+                .parsedDataPoints(status.getParsedDataPoints() + 1)
+                .build());
+        }
+
+        @Override
+        public void onSection(TextSection section) {
+            jobStatusPort.update(requestId, status -> status.toBuilder()
+                .parsedSections(status.getParsedSections() + 1)
+                .build());
+        }
+
+        @Override
+        public void onTokenUsage(int promptTokens, int completionTokens) {
+            jobStatusPort.update(requestId, status -> status.toBuilder()
+                .aiCalls(status.getAiCalls() + 1)
+                .promptTokens(status.getPromptTokens() + promptTokens)
+                .completionTokens(status.getCompletionTokens() + completionTokens)
                 .build());
+        }
+    }
+
+    private boolean hasExtension(String sourceUrl, String... extensions) {
+        try {
+            String path = URI.create(sourceUrl).getPath();
+            if (path == null) {
+                return false;
+            }
+            String lowerCasePath = path.toLowerCase();
+            for (String extension : extensions) {
+                if (lowerCasePath.endsWith(extension)) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete temporary file {}", file, e);
+        }
+    }
+
+    private CompletableFuture<ExtractedData> extractStructuredData(String rawData, String sourceUrl) {
+        return dataExtractionPort.extractAndAnalyzeData(rawData, sourceUrl)
+            .exceptionally(throwable -> {
+                log.warn("Structured extraction failed for {}, continuing with AI analysis only", sourceUrl, throwable);
+                return null;
+            });
+    }
+
+    private static boolean isMarkup(String rawData) {
+        return rawData != null && rawData.stripLeading().startsWith("<");
+    }
+
+    /**
+     * Title, text sections and table rows of the extracted data as plain text, or the raw data if
+     * nothing was extracted.
+     */
+    private static String analysisInput(String rawData, ExtractedData structured) {
+        if (structured == null || (structured.getTextSections().isEmpty() && structured.getTables().isEmpty())) {
+            return rawData;
+        }
+        StringBuilder input = new StringBuilder();
+        if (structured.getTitle() != null) {
+            input.append(structured.getTitle()).append("\n\n");
+        }
+        for (TextSection section : structured.getTextSections()) {
+            if (section.getType() == TextSection.SectionType.HEADER) {
+                input.append("## ");
+            }
+            input.append(section.getContent()).append("\n\n");
+        }
+        for (Table table : structured.getTables()) {
+            input.append(String.join(" | ", table.getHeaders())).append('\n');
+            table.getRows().forEach(row -> input.append(String.join(" | ", row)).append('\n'));
+            input.append('\n');
+        }
+        return input.toString();
+    }
+
+    /**
+     * The analysis with the tables of the structured extraction. Values read from tables or records
+     * cover the whole source, so they replace the analysis' data points together with the statistics
+     * over them. Numbers the extractor only found in running text carry no labels, so the analysis'
+     * points are kept then, and its statistics are computed over those points.
+     */
+    private ExtractedData mergeStructuredData(ExtractedData structured, ExtractedData analyzed) {
+        if (structured == null) {
+            return analyzed;
+        }
+        ExtractedData.ExtractedDataBuilder merged = analyzed.toBuilder().tables(structured.getTables());
+        boolean tabular = structured.getDataOrigin() == ExtractedData.DataOrigin.TABLES
+            || structured.getDataOrigin() == ExtractedData.DataOrigin.RECORDS;
+        if (!tabular || structured.getDataSet().isEmpty()) {
+            return merged.build();
+        }
+
+        // The chart and the statistics table then describe the same numbers
+        Map<String, Object> metadata = new HashMap<>();
+        if (analyzed.getMetadata() != null) {
+            metadata.putAll(analyzed.getMetadata());
+        }
+        if (structured.getMetadata() != null && structured.getMetadata().containsKey(STATISTICS_KEY)) {
+            metadata.put(STATISTICS_KEY, structured.getMetadata().get(STATISTICS_KEY));
+        } else {
+            metadata.remove(STATISTICS_KEY);
+        }
+        return merged
+            .dataSet(structured.getDataSet())
+            .dataOrigin(structured.getDataOrigin())
+            .metadata(metadata)
+            .build();
     }
 
-    private CompletableFuture<ReportContent> buildReportContent(ExtractedData extractedData, ReportRequest request) {
+    /** Report content around the charts the chart generation port rendered for the extracted data. */
+    private CompletableFuture<ReportContent> buildReportContent(ExtractedData extractedData, List<Chart> charts,
+            ReportRequest request) {
         return CompletableFuture.supplyAsync(() -> {
-            List<Chart> charts = new ArrayList<>();
             List<Table> tables = new ArrayList<>();
-            
-            // Generate charts based on extracted data
-            if (extractedData.getDataPoints() != null && !extractedData.getDataPoints().isEmpty()) {
-                Chart chart = Chart.builder()
-                    .title("Data Analysis")
-                    .type(determineChartType(extractedData))
-                    .dataPoints(extractedData.getDataPoints())
-                    .description("Generated chart based on extracted data")
-                    .build();
-                charts.add(chart);
-            }
-            
+
             // Create tables if applicable
-            if (extractedData.getDataType() == ExtractedData.DataType.TABLE_DATA) {
+            Table statisticsTable = createStatisticsTable(extractedData);
+            if (statisticsTable != null) {
+                tables.add(statisticsTable);
+            }
+            tables.addAll(extractedData.getTables());
+            if (extractedData.getDataType() == ExtractedData.DataType.TABLE_DATA && extractedData.getTables().isEmpty()) {
                 Table table = createTableFromData(extractedData);
                 tables.add(table);
             }
@@ -141,24 +360,72 @@ public class ReportGenerationService implements ReportGenerationUseCase {
                 .toList());
     }
 
-    private Chart.ChartType determineChartType(ExtractedData data) {
-        if (data.getDataPoints().size() <= 5) {
-            return Chart.ChartType.PIE;
-        } else if (data.getDataPoints().stream().anyMatch(dp -> dp.getDate() != null)) {
-            return Chart.ChartType.LINE;
-        } else {
-            return Chart.ChartType.BAR;
+    private Table createStatisticsTable(ExtractedData data) {
+        Map<?, ?> statistics = null;
+        String description = null;
+        if (data.getMetadata() != null && data.getMetadata().get(STATISTICS_KEY) instanceof Map<?, ?> map) {
+            statistics = map;
+            description = "Computed in a single pass during extraction; quantiles are t-digest estimates "
+                + "and distinct labels a HyperLogLog estimate";
+        } else if (!data.getDataSet().isEmpty()) {
+            statistics = data.getDataSet().statistics().toMap();
+            description = "Computed over the charted data points; quantiles are t-digest estimates "
+                + "and distinct labels a HyperLogLog estimate";
+        }
+        if (statistics == null || statistics.isEmpty()) {
+            return null;
+        }
+
+        List<List<String>> rows = new ArrayList<>();
+        for (Map.Entry<?, ?> entry : statistics.entrySet()) {
+            rows.add(List.of(statisticLabel(String.valueOf(entry.getKey())), formatStatistic(entry.getValue())));
+        }
+
+        return Table.builder()
+            .title("Key statistics")
+            .description(description)
+            .headers(List.of("Statistic", "Value"))
+            .rows(rows)
+            .build();
+    }
+
+    private String statisticLabel(String key) {
+        return switch (key) {
+            case "count" -> "Count";
+            case "min" -> "Minimum";
+            case "max" -> "Maximum";
+            case "mean" -> "Mean";
+            case "variance" -> "Variance";
+            case "standardDeviation" -> "Standard deviation";
+            case "p50" -> "Median";
+            case "p95" -> "95th percentile";
+            case "p99" -> "99th percentile";
+            case "distinctLabels" -> "Distinct labels";
+            default -> key;
+        };
+    }
+
+    private String formatStatistic(Object value) {
+        if (value instanceof Double number) {
+            return Double.isNaN(number) ? "-" : String.format("%,.2f", number);
         }
+        if (value instanceof Number number) {
+            return String.format("%,d", number.longValue());
+        }
+        return String.valueOf(value);
     }
 
     private Table createTableFromData(ExtractedData data) {
         List<String> headers = List.of("Label", "Value", "Category");
-        List<List<String>> rows = data.getDataPoints().stream()
-            .map(dp -> List.of(
-                dp.getLabel() != null ? dp.getLabel() : "",
-                dp.getValue() != null ? dp.getValue().toString() : "",
-                dp.getCategory() != null ? dp.getCategory() : ""
-            )).toList();
+        List<List<String>> rows = new ArrayList<>(data.getDataSet().size());
+        ColumnarDataSet.Cursor cursor = data.getDataSet().cursor();
+        while (cursor.next()) {
+            rows.add(List.of(
+                cursor.label() != null ? cursor.label() : "",
+                cursor.hasValue() ? Double.toString(cursor.value()) : "",
+                cursor.category() != null ? cursor.category() : ""
+            ));
+        }
             
         return Table.builder()
             .title("Data Summary")
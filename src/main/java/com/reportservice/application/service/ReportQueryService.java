@@ -6,7 +6,9 @@ import java.util.Optional;
 import org.springframework.stereotype.Service;
 
 import com.reportservice.domain.model.GeneratedReport;
+import com.reportservice.domain.model.JobStatus;
 import com.reportservice.domain.port.in.ReportQueryUseCase;
+import com.reportservice.domain.port.out.JobStatusPort;
 import com.reportservice.domain.port.out.ReportStoragePort;
 
 import lombok.RequiredArgsConstructor;
@@ -16,6 +18,7 @@ import lombok.RequiredArgsConstructor;
 public class ReportQueryService implements ReportQueryUseCase {
     
     private final ReportStoragePort reportStoragePort;
+    private final JobStatusPort jobStatusPort;
 
     @Override
     public Optional<GeneratedReport> getReport(String reportId) {
@@ -31,4 +34,9 @@ public class ReportQueryService implements ReportQueryUseCase {
     public void deleteReport(String reportId) {
         reportStoragePort.deleteById(reportId);
     }
+
+    @Override
+    public Optional<JobStatus> getJobStatus(String requestId) {
+        return jobStatusPort.findById(requestId);
+    }
 }
@@ -2,8 +2,8 @@ package com.reportservice.domain.model;
 
 import lombok.Builder;
 import lombok.Data;
-import lombok.Singular;
 
+import java.util.Collection;
 import java.util.List;
 
 @Data
@@ -14,13 +14,70 @@ public class Chart {
     private String xAxisLabel;
     private String yAxisLabel;
     
-    @Singular
-    private List<DataPoint> dataPoints;
+    private ColumnarDataSet dataSet;
     
     private byte[] imageData;
     private String description;
+
+    public ColumnarDataSet getDataSet() {
+        return dataSet != null ? dataSet : ColumnarDataSet.empty();
+    }
+
+    /** Compatibility view over {@link #getDataSet()}. */
+    public List<DataPoint> getDataPoints() {
+        return getDataSet().asDataPoints();
+    }
     
     public enum ChartType {
-        BAR, PIE, LINE, SCATTER, HISTOGRAM
+        BAR, PIE, LINE, SCATTER, HISTOGRAM, SMALL_MULTIPLES
+    }
+
+    /**
+     * Raster outputs a chart is rendered for, as the physical size it is laid out at and the
+     * resolution it is printed or displayed at. Charts are laid out in points and scaled to the
+     * pixel size, so text keeps its physical size in every target.
+     */
+    public enum ImageTarget {
+        /** Low-resolution thumbnail carried in {@link Chart#getImageData()}. */
+        PREVIEW(320, 240, 72),
+        /** Embedded picture in Word documents, 400x300 pt at print resolution. */
+        DOCX(400, 300, 144);
+
+        private final int widthPoints;
+        private final int heightPoints;
+        private final int dpi;
+
+        ImageTarget(int widthPoints, int heightPoints, int dpi) {
+            this.widthPoints = widthPoints;
+            this.heightPoints = heightPoints;
+            this.dpi = dpi;
+        }
+
+        public int widthPoints() {
+            return widthPoints;
+        }
+
+        public int heightPoints() {
+            return heightPoints;
+        }
+
+        public int dpi() {
+            return dpi;
+        }
+
+        public int pixelWidth() {
+            return Math.round(widthPoints * dpi / 72f);
+        }
+
+        public int pixelHeight() {
+            return Math.round(heightPoints * dpi / 72f);
+        }
+    }
+
+    public static class ChartBuilder {
+        public ChartBuilder dataPoints(Collection<DataPoint> dataPoints) {
+            this.dataSet = ColumnarDataSet.of(dataPoints);
+            return this;
+        }
     }
 }
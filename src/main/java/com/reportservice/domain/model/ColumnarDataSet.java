@@ -0,0 +1,466 @@
+package com.reportservice.domain.model;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import com.reportservice.domain.statistics.StreamingStatistics;
+
+/**
+ * Immutable, column-oriented store for extracted data points.
+ * <p>
+ * Values live in a primitive {@code double[]} (missing values are {@code NaN}),
+ * labels, categories, units and descriptions are dictionary-encoded into {@code int[]}
+ * columns and dates are kept as epoch days. Optional columns are only allocated once a
+ * value is actually present. Consumers should iterate with {@link #cursor()};
+ * {@link #asDataPoints()} exists for code that still expects {@link DataPoint} objects.
+ * Summary statistics are accumulated by the builder as rows are appended.
+ */
+public final class ColumnarDataSet {
+
+    private static final int NONE = -1;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final ColumnarDataSet EMPTY = new Builder(0).build();
+
+    private final int size;
+    private final double[] values;
+    private final int[] labelIds;
+    private final int[] categoryIds;
+    private final int[] unitIds;
+    private final int[] descriptionIds;
+    private final int[] epochDays;
+    private final String[] labels;
+    private final String[] categories;
+    private final String[] units;
+    private final String[] descriptions;
+    private final StatisticsSummary statistics;
+
+    private ColumnarDataSet(Builder builder) {
+        this.size = builder.size;
+        this.values = Arrays.copyOf(builder.values, size);
+        this.labelIds = Arrays.copyOf(builder.labelIds, size);
+        this.categoryIds = Arrays.copyOf(builder.categoryIds, size);
+        this.unitIds = builder.unitIds != null ? Arrays.copyOf(builder.unitIds, size) : null;
+        this.descriptionIds = builder.descriptionIds != null ? Arrays.copyOf(builder.descriptionIds, size) : null;
+        this.epochDays = builder.epochDays != null ? Arrays.copyOf(builder.epochDays, size) : null;
+        this.labels = builder.labels.values.toArray(String[]::new);
+        this.categories = builder.categories.values.toArray(String[]::new);
+        this.units = builder.units.values.toArray(String[]::new);
+        this.descriptions = builder.descriptions.values.toArray(String[]::new);
+        this.statistics = builder.statistics.snapshot();
+    }
+
+    public static ColumnarDataSet empty() {
+        return EMPTY;
+    }
+
+    public static ColumnarDataSet of(Collection<DataPoint> dataPoints) {
+        if (dataPoints == null || dataPoints.isEmpty()) {
+            return EMPTY;
+        }
+        Builder builder = new Builder(dataPoints.size());
+        for (DataPoint dataPoint : dataPoints) {
+            builder.add(dataPoint);
+        }
+        return builder.build();
+    }
+
+    public static Builder builder() {
+        return new Builder(16);
+    }
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public double value(int index) {
+        checkIndex(index);
+        return values[index];
+    }
+
+    public boolean hasValue(int index) {
+        return !Double.isNaN(value(index));
+    }
+
+    public String label(int index) {
+        checkIndex(index);
+        return lookup(labels, labelIds[index]);
+    }
+
+    public int labelId(int index) {
+        checkIndex(index);
+        return labelIds[index];
+    }
+
+    public String category(int index) {
+        checkIndex(index);
+        return lookup(categories, categoryIds[index]);
+    }
+
+    public int categoryId(int index) {
+        checkIndex(index);
+        return categoryIds[index];
+    }
+
+    public String unit(int index) {
+        checkIndex(index);
+        return unitIds != null ? lookup(units, unitIds[index]) : null;
+    }
+
+    public String description(int index) {
+        checkIndex(index);
+        return descriptionIds != null ? lookup(descriptions, descriptionIds[index]) : null;
+    }
+
+    public LocalDate date(int index) {
+        checkIndex(index);
+        if (epochDays == null || epochDays[index] == NO_DATE) {
+            return null;
+        }
+        return LocalDate.ofEpochDay(epochDays[index]);
+    }
+
+    /** Distinct labels in first-seen order; indexes match {@link #labelId(int)}. */
+    public List<String> labelDictionary() {
+        return Collections.unmodifiableList(Arrays.asList(labels));
+    }
+
+    /** Distinct categories in first-seen order; indexes match {@link #categoryId(int)}. */
+    public List<String> categoryDictionary() {
+        return Collections.unmodifiableList(Arrays.asList(categories));
+    }
+
+    public boolean hasDates() {
+        if (epochDays == null) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (epochDays[i] != NO_DATE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean hasCategories() {
+        for (String category : categories) {
+            if (!category.trim().isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** First non-blank unit in the data set, or {@code null}. */
+    public String firstUnit() {
+        for (String unit : units) {
+            if (!unit.trim().isEmpty()) {
+                return unit;
+            }
+        }
+        return null;
+    }
+
+    /** Copy of the value column, with missing values replaced by {@code missingValue}. */
+    public double[] values(double missingValue) {
+        double[] copy = Arrays.copyOf(values, size);
+        for (int i = 0; i < size; i++) {
+            if (Double.isNaN(copy[i])) {
+                copy[i] = missingValue;
+            }
+        }
+        return copy;
+    }
+
+    /** New data set containing the rows at {@code indexes}, in the given order. */
+    public ColumnarDataSet select(int[] indexes) {
+        Builder builder = new Builder(indexes.length);
+        for (int index : indexes) {
+            builder.addRow(this, index);
+        }
+        return builder.build();
+    }
+
+    /** Count, moments, quantiles and distinct-label estimate computed while the data set was built. */
+    public StatisticsSummary statistics() {
+        return statistics;
+    }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /** Read-only {@link DataPoint} view; each element is materialized on access. */
+    public List<DataPoint> asDataPoints() {
+        return new DataPointView();
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+
+    private static String lookup(String[] dictionary, int id) {
+        return id == NONE ? null : dictionary[id];
+    }
+
+    /** Forward-only iterator over rows that avoids allocating per-row objects. */
+    public final class Cursor {
+        private int index = -1;
+
+        public boolean next() {
+            if (index + 1 >= size) {
+                index = size;
+                return false;
+            }
+            index++;
+            return true;
+        }
+
+        public int index() {
+            return index;
+        }
+
+        public double value() {
+            return values[index];
+        }
+
+        public boolean hasValue() {
+            return !Double.isNaN(values[index]);
+        }
+
+        public double valueOr(double missingValue) {
+            double value = values[index];
+            return Double.isNaN(value) ? missingValue : value;
+        }
+
+        public String label() {
+            return lookup(labels, labelIds[index]);
+        }
+
+        public int labelId() {
+            return labelIds[index];
+        }
+
+        public String category() {
+            return lookup(categories, categoryIds[index]);
+        }
+
+        public int categoryId() {
+            return categoryIds[index];
+        }
+
+        public String unit() {
+            return unitIds != null ? lookup(units, unitIds[index]) : null;
+        }
+
+        public String description() {
+            return descriptionIds != null ? lookup(descriptions, descriptionIds[index]) : null;
+        }
+
+        public boolean hasDate() {
+            return epochDays != null && epochDays[index] != NO_DATE;
+        }
+
+        public int epochDay() {
+            return epochDays != null ? epochDays[index] : NO_DATE;
+        }
+
+        public LocalDate date() {
+            return hasDate() ? LocalDate.ofEpochDay(epochDays[index]) : null;
+        }
+
+        public DataPoint toDataPoint() {
+            return DataPoint.builder()
+                .label(label())
+                .value(hasValue() ? value() : null)
+                .category(category())
+                .date(date())
+                .unit(unit())
+                .description(description())
+                .build();
+        }
+    }
+
+    private final class DataPointView extends AbstractList<DataPoint> implements RandomAccess {
+        @Override
+        public DataPoint get(int index) {
+            checkIndex(index);
+            return DataPoint.builder()
+                .label(label(index))
+                .value(hasValue(index) ? values[index] : null)
+                .category(category(index))
+                .date(date(index))
+                .unit(unit(index))
+                .description(description(index))
+                .build();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /** Append-only builder; not thread-safe. */
+    public static final class Builder {
+        private int size;
+        private double[] values;
+        private int[] labelIds;
+        private int[] categoryIds;
+        private int[] unitIds;
+        private int[] descriptionIds;
+        private int[] epochDays;
+        private final Dictionary labels = new Dictionary();
+        private final Dictionary categories = new Dictionary();
+        private final Dictionary units = new Dictionary();
+        private final Dictionary descriptions = new Dictionary();
+        private final StreamingStatistics statistics = new StreamingStatistics();
+
+        private Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 1);
+            this.values = new double[capacity];
+            this.labelIds = new int[capacity];
+            this.categoryIds = new int[capacity];
+        }
+
+        public Builder add(String label, double value, String category) {
+            int row = nextRow();
+            values[row] = value;
+            labelIds[row] = labels.encode(label);
+            categoryIds[row] = categories.encode(category);
+            statistics.accept(value);
+            statistics.acceptLabel(label);
+            return this;
+        }
+
+        public Builder add(String label, Double value, String category, LocalDate date, String unit,
+                String description) {
+            int row = nextRow();
+            values[row] = value != null ? value : Double.NaN;
+            labelIds[row] = labels.encode(label);
+            categoryIds[row] = categories.encode(category);
+            if (date != null) {
+                dateColumn()[row] = (int) date.toEpochDay();
+            }
+            if (unit != null) {
+                unitColumn()[row] = units.encode(unit);
+            }
+            if (description != null) {
+                descriptionColumn()[row] = descriptions.encode(description);
+            }
+            statistics.accept(values[row]);
+            statistics.acceptLabel(label);
+            return this;
+        }
+
+        public Builder add(DataPoint dataPoint) {
+            return add(dataPoint.getLabel(), dataPoint.getValue(), dataPoint.getCategory(),
+                dataPoint.getDate(), dataPoint.getUnit(), dataPoint.getDescription());
+        }
+
+        public Builder addAll(ColumnarDataSet dataSet) {
+            for (int i = 0; i < dataSet.size; i++) {
+                addRow(dataSet, i);
+            }
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public ColumnarDataSet build() {
+            return new ColumnarDataSet(this);
+        }
+
+        private void addRow(ColumnarDataSet source, int index) {
+            add(source.label(index), source.hasValue(index) ? source.values[index] : null, source.category(index),
+                source.date(index), source.unit(index), source.description(index));
+        }
+
+        private int nextRow() {
+            if (size == values.length) {
+                int capacity = values.length + (values.length >> 1) + 1;
+                values = Arrays.copyOf(values, capacity);
+                labelIds = Arrays.copyOf(labelIds, capacity);
+                categoryIds = Arrays.copyOf(categoryIds, capacity);
+                unitIds = growFilled(unitIds, capacity, NONE);
+                descriptionIds = growFilled(descriptionIds, capacity, NONE);
+                epochDays = growFilled(epochDays, capacity, NO_DATE);
+            }
+            return size++;
+        }
+
+        private int[] dateColumn() {
+            if (epochDays == null) {
+                epochDays = filled(values.length, NO_DATE);
+            }
+            return epochDays;
+        }
+
+        private int[] unitColumn() {
+            if (unitIds == null) {
+                unitIds = filled(values.length, NONE);
+            }
+            return unitIds;
+        }
+
+        private int[] descriptionColumn() {
+            if (descriptionIds == null) {
+                descriptionIds = filled(values.length, NONE);
+            }
+            return descriptionIds;
+        }
+
+        private static int[] filled(int length, int value) {
+            int[] column = new int[length];
+            Arrays.fill(column, value);
+            return column;
+        }
+
+        private static int[] growFilled(int[] column, int capacity, int value) {
+            if (column == null) {
+                return null;
+            }
+            int previous = column.length;
+            int[] grown = Arrays.copyOf(column, capacity);
+            Arrays.fill(grown, previous, capacity, value);
+            return grown;
+        }
+    }
+
+    private static final class Dictionary {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int encode(String value) {
+            if (value == null) {
+                return NONE;
+            }
+            Integer id = ids.get(value);
+            if (id == null) {
+                id = values.size();
+                ids.put(value, id);
+                values.add(value);
+            }
+            return id;
+        }
+    }
+}
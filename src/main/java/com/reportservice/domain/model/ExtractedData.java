@@ -4,26 +4,84 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.Singular;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
 @Data
-@Builder(toBuilder = true)
+@Builder(toBuilder = true, buildMethodName = "buildFields")
 public class ExtractedData {
     private String sourceUrl;
     private String title;
     private String summary;
     private DataType dataType;
 
-    @Singular
-    private List<DataPoint> dataPoints;
+    private ColumnarDataSet dataSet;
+    /** Where the values of the data set were read from; {@code null} when nothing was extracted. */
+    private DataOrigin dataOrigin;
     @Singular
     private List<TextSection> textSections;
+    @Singular
+    private List<Table> tables;
+    /** Chart types suggested by AI analysis, best first; empty when none were suggested. */
+    @Singular
+    private List<Chart.ChartType> recommendedChartTypes;
 
     private Map<String, Object> metadata;
 
+    public ColumnarDataSet getDataSet() {
+        return dataSet != null ? dataSet : ColumnarDataSet.empty();
+    }
+
+    /** Compatibility view over {@link #getDataSet()}; prefer the data set's cursor for iteration. */
+    public List<DataPoint> getDataPoints() {
+        return getDataSet().asDataPoints();
+    }
+
     public enum DataType {
         NUMERICAL, CATEGORICAL, MIXED, TEXT_ONLY, TABLE_DATA
     }
-}
 
+    public enum DataOrigin {
+        /** Cells of tables, spreadsheets or CSV rows. */
+        TABLES,
+        /** Fields of JSON documents or JSON Lines records. */
+        RECORDS,
+        /** Numbers found in running text, without labels or units. */
+        TEXT
+    }
+
+    public static class ExtractedDataBuilder {
+        /** Rows appended one at a time by {@link #dataPoint}, turned into the data set on {@link #build()}. */
+        private ColumnarDataSet.Builder pendingPoints;
+
+        public ExtractedDataBuilder dataSet(ColumnarDataSet dataSet) {
+            this.dataSet = dataSet;
+            this.pendingPoints = null;
+            return this;
+        }
+
+        public ExtractedDataBuilder dataPoints(Collection<DataPoint> dataPoints) {
+            return dataSet(ColumnarDataSet.of(dataPoints));
+        }
+
+        /** Appends one point after those already set, in amortized constant time. */
+        public ExtractedDataBuilder dataPoint(DataPoint dataPoint) {
+            if (pendingPoints == null) {
+                pendingPoints = ColumnarDataSet.builder();
+                if (dataSet != null) {
+                    pendingPoints.addAll(dataSet);
+                }
+            }
+            pendingPoints.add(dataPoint);
+            return this;
+        }
+
+        public ExtractedData build() {
+            if (pendingPoints != null) {
+                this.dataSet = pendingPoints.build();
+            }
+            return buildFields();
+        }
+    }
+}
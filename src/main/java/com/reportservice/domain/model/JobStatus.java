@@ -0,0 +1,34 @@
+package com.reportservice.domain.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Data
+@Builder(toBuilder = true)
+public class JobStatus {
+    private String requestId;
+    private String sourceUrl;
+    private Stage stage;
+    private String message;
+    /** Completion tokens received so far while the AI response streams in. */
+    private int streamedTokens;
+    /** Data points and text sections parsed from the AI response so far. */
+    private int parsedDataPoints;
+    private int parsedSections;
+    /** Chart type chosen as soon as the AI response named one, before the response completed. */
+    private Chart.ChartType chartType;
+    /** Model calls made for this report and the prompt and completion tokens they consumed. */
+    private int aiCalls;
+    private long promptTokens;
+    private long completionTokens;
+    private List<String> reportIds;
+    private OffsetDateTime startedAt;
+    private OffsetDateTime updatedAt;
+
+    public enum Stage {
+        QUEUED, FETCHING, ANALYZING, CHARTING, RENDERING, COMPLETED, FAILED
+    }
+}
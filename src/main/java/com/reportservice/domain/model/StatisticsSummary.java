@@ -0,0 +1,37 @@
+package com.reportservice.domain.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@Builder
+public class StatisticsSummary {
+    private long count;
+    private double min;
+    private double max;
+    private double mean;
+    private double variance;
+    private double standardDeviation;
+    private double p50;
+    private double p95;
+    private double p99;
+    private long distinctLabels;
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("count", count);
+        map.put("min", min);
+        map.put("max", max);
+        map.put("mean", mean);
+        map.put("variance", variance);
+        map.put("standardDeviation", standardDeviation);
+        map.put("p50", p50);
+        map.put("p95", p95);
+        map.put("p99", p99);
+        map.put("distinctLabels", distinctLabels);
+        return map;
+    }
+}
@@ -1,5 +1,6 @@
 package com.reportservice.domain.port.in;
 
+import java.nio.file.Path;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
@@ -8,6 +9,7 @@ import com.reportservice.domain.model.ReportRequest;
 
 public interface ReportGenerationUseCase {
     CompletableFuture<List<GeneratedReport>> generateReport(ReportRequest request);
+    CompletableFuture<List<GeneratedReport>> generateReportFromSpreadsheet(ReportRequest request, Path workbook);
     CompletableFuture<GeneratedReport> generatePdfReport(ReportRequest request);
     CompletableFuture<GeneratedReport> generateDocxReport(ReportRequest request);
-}
\ No newline at end of file
+}
@@ -4,9 +4,11 @@ import java.util.List;
 import java.util.Optional;
 
 import com.reportservice.domain.model.GeneratedReport;
+import com.reportservice.domain.model.JobStatus;
 
 public interface ReportQueryUseCase {
     Optional<GeneratedReport> getReport(String reportId);
     List<GeneratedReport> getReportsBySourceUrl(String sourceUrl);
     void deleteReport(String reportId);
+    Optional<JobStatus> getJobStatus(String requestId);
 }
\ No newline at end of file
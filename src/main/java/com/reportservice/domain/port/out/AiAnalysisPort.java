@@ -6,6 +6,8 @@ import com.reportservice.domain.model.ExtractedData;
 
 public interface AiAnalysisPort {
     CompletableFuture<ExtractedData> analyzeAndStructureData(String rawData, String sourceUrl);
+    CompletableFuture<ExtractedData> analyzeAndStructureData(String rawData, String sourceUrl,
+            AnalysisProgressListener listener);
     CompletableFuture<String> generateSummary(String content);
     CompletableFuture<String> suggestChartType(ExtractedData data);
 }
@@ -0,0 +1,21 @@
+package com.reportservice.domain.port.out;
+
+import java.util.List;
+
+import com.reportservice.domain.model.Chart;
+import com.reportservice.domain.model.DataPoint;
+import com.reportservice.domain.model.TextSection;
+
+/**
+ * Receives parts of an AI analysis as they are parsed from a streamed response, before the
+ * complete {@link com.reportservice.domain.model.ExtractedData} is available. Callbacks may arrive
+ * on any thread.
+ */
+public interface AnalysisProgressListener {
+    void onTokens(int streamedTokens);
+    void onChartTypes(List<Chart.ChartType> chartTypes);
+    void onDataPoint(DataPoint dataPoint);
+    void onSection(TextSection section);
+    /** Called once per completed model call with the tokens it consumed; cached responses are not reported. */
+    void onTokenUsage(int promptTokens, int completionTokens);
+}
@@ -4,10 +4,15 @@ import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 import com.reportservice.domain.model.Chart;
+import com.reportservice.domain.model.ColumnarDataSet;
 import com.reportservice.domain.model.ExtractedData;
 
 public interface ChartGenerationPort {
     CompletableFuture<List<Chart>> generateCharts(ExtractedData data);
     CompletableFuture<Chart> generateChart(Chart.ChartType type, List<com.reportservice.domain.model.DataPoint> dataPoints, String title);
+    CompletableFuture<Chart> generateChart(Chart.ChartType type, ColumnarDataSet dataSet, String title);
     byte[] chartToImage(Chart chart);
-}
\ No newline at end of file
+
+    /** PNG of the chart at the size and resolution of {@code target}, shared by targets of equal size. */
+    byte[] chartToImage(Chart chart, Chart.ImageTarget target);
+}
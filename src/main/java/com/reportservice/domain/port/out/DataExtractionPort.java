@@ -1,10 +1,14 @@
 package com.reportservice.domain.port.out;
 
+import java.nio.file.Path;
 import java.util.concurrent.CompletableFuture;
 
 import com.reportservice.domain.model.ExtractedData;
 
 public interface DataExtractionPort {
     CompletableFuture<String> fetchRawData(String url);
+    CompletableFuture<Path> fetchToFile(String url);
     CompletableFuture<ExtractedData> extractAndAnalyzeData(String rawData, String sourceUrl);
-}
\ No newline at end of file
+    CompletableFuture<ExtractedData> extractFromSpreadsheet(Path workbook, String sourceUrl);
+    CompletableFuture<ExtractedData> extractFromJsonLines(Path file, String sourceUrl);
+}
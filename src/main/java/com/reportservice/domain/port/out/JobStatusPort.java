@@ -0,0 +1,13 @@
+package com.reportservice.domain.port.out;
+
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+import com.reportservice.domain.model.JobStatus;
+
+public interface JobStatusPort {
+    void save(JobStatus status);
+    /** Atomically replaces the status of {@code requestId}, if one exists, with {@code update} applied to it. */
+    void update(String requestId, UnaryOperator<JobStatus> update);
+    Optional<JobStatus> findById(String requestId);
+}
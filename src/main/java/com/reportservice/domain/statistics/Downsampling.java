@@ -0,0 +1,158 @@
+package com.reportservice.domain.statistics;
+
+import java.util.Arrays;
+
+/**
+ * Point reduction for charts whose input has far more points than the image has pixels.
+ * <p>
+ * {@link #largestTriangleThreeBuckets} keeps the visual shape of an ordered series (Steinarsson's
+ * LTTB): the first and last points are kept and each equal-sized bucket in between contributes the
+ * point forming the largest triangle with the previously kept point and the next bucket's average.
+ * {@link #binnedMeans} reduces an unordered point cloud to the mean of each occupied grid cell.
+ * Both run in linear time.
+ */
+public final class Downsampling {
+
+    private Downsampling() {
+    }
+
+    /**
+     * Indexes of the at most {@code threshold} points that best preserve the shape of the series,
+     * in ascending order. {@code x} must be ascending. All indexes are returned when the series
+     * already fits the threshold.
+     */
+    public static int[] largestTriangleThreeBuckets(double[] x, double[] y, int threshold) {
+        int n = x.length;
+        if (y.length != n) {
+            throw new IllegalArgumentException("x and y must have the same length");
+        }
+        if (threshold < 3) {
+            throw new IllegalArgumentException("Threshold must keep at least 3 points: " + threshold);
+        }
+        if (threshold >= n) {
+            return identity(n);
+        }
+
+        int[] selected = new int[threshold];
+        // Buckets cover the points between the fixed first and last points
+        double bucketSize = (double) (n - 2) / (threshold - 2);
+        int previous = 0;
+        selected[0] = 0;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int start = (int) (bucket * bucketSize) + 1;
+            int end = (int) ((bucket + 1) * bucketSize) + 1;
+
+            // Average of the next bucket, or the last point for the final bucket
+            int nextStart = end;
+            int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, n);
+            double averageX = 0;
+            double averageY = 0;
+            if (nextStart >= n - 1) {
+                averageX = x[n - 1];
+                averageY = y[n - 1];
+            } else {
+                for (int i = nextStart; i < nextEnd; i++) {
+                    averageX += x[i];
+                    averageY += y[i];
+                }
+                averageX /= nextEnd - nextStart;
+                averageY /= nextEnd - nextStart;
+            }
+
+            double previousX = x[previous];
+            double previousY = y[previous];
+            double maxArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                // Twice the triangle area; the factor does not change the maximum
+                double area = Math.abs((previousX - averageX) * (y[i] - previousY)
+                        - (previousX - x[i]) * (averageY - previousY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            selected[bucket + 1] = chosen;
+            previous = chosen;
+        }
+        selected[threshold - 1] = n - 1;
+        return selected;
+    }
+
+    /**
+     * Mean position of the points in each occupied cell of a {@code columns} by {@code rows} grid
+     * spanning the points' bounding box, ordered by column then row. Points with a non-finite
+     * coordinate are ignored.
+     */
+    public static BinnedPoints binnedMeans(double[] x, double[] y, int columns, int rows) {
+        if (y.length != x.length) {
+            throw new IllegalArgumentException("x and y must have the same length");
+        }
+        if (columns < 1 || rows < 1) {
+            throw new IllegalArgumentException("Grid must have at least one cell: " + columns + "x" + rows);
+        }
+        double minX = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < x.length; i++) {
+            if (Double.isFinite(x[i]) && Double.isFinite(y[i])) {
+                minX = Math.min(minX, x[i]);
+                maxX = Math.max(maxX, x[i]);
+                minY = Math.min(minY, y[i]);
+                maxY = Math.max(maxY, y[i]);
+            }
+        }
+
+        double[] sumX = new double[columns * rows];
+        double[] sumY = new double[columns * rows];
+        int[] counts = new int[columns * rows];
+        double scaleX = maxX > minX ? columns / (maxX - minX) : 0;
+        double scaleY = maxY > minY ? rows / (maxY - minY) : 0;
+        for (int i = 0; i < x.length; i++) {
+            if (Double.isFinite(x[i]) && Double.isFinite(y[i])) {
+                int column = Math.min((int) ((x[i] - minX) * scaleX), columns - 1);
+                int row = Math.min((int) ((y[i] - minY) * scaleY), rows - 1);
+                int cell = column * rows + row;
+                sumX[cell] += x[i];
+                sumY[cell] += y[i];
+                counts[cell]++;
+            }
+        }
+
+        int occupied = 0;
+        for (int count : counts) {
+            if (count > 0) {
+                occupied++;
+            }
+        }
+        double[] meanX = new double[occupied];
+        double[] meanY = new double[occupied];
+        int[] cellCounts = new int[occupied];
+        int next = 0;
+        for (int cell = 0; cell < counts.length; cell++) {
+            if (counts[cell] > 0) {
+                meanX[next] = sumX[cell] / counts[cell];
+                meanY[next] = sumY[cell] / counts[cell];
+                cellCounts[next] = counts[cell];
+                next++;
+            }
+        }
+        return new BinnedPoints(meanX, meanY, cellCounts);
+    }
+
+    private static int[] identity(int n) {
+        int[] indexes = new int[n];
+        Arrays.setAll(indexes, i -> i);
+        return indexes;
+    }
+
+    /** Cell means and the number of input points each one stands for. */
+    public record BinnedPoints(double[] x, double[] y, int[] counts) {
+
+        public int size() {
+            return x.length;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.reportservice.domain.statistics;
+
+import com.reportservice.domain.model.StatisticsSummary;
+
+/**
+ * One-pass accumulator for count, min, max, mean and variance (Welford), t-digest quantiles
+ * and a HyperLogLog estimate of distinct labels. Extractors feed it while emitting values so
+ * reports get summary figures without a second pass over the data. Not thread-safe; combine
+ * per-thread instances with {@link #merge(StreamingStatistics)}.
+ */
+public final class StreamingStatistics {
+
+    private long count;
+    private double mean;
+    private double m2;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private final TDigest digest = new TDigest();
+    private final HyperLogLog distinctLabels = new HyperLogLog();
+
+    public void accept(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        digest.add(value);
+    }
+
+    public void acceptLabel(String label) {
+        distinctLabels.add(label);
+    }
+
+    public void merge(StreamingStatistics other) {
+        if (other.count > 0) {
+            long combined = count + other.count;
+            double delta = other.mean - mean;
+            mean += delta * other.count / combined;
+            m2 += other.m2 + delta * delta * count * other.count / combined;
+            count = combined;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+            digest.merge(other.digest);
+        }
+        distinctLabels.merge(other.distinctLabels);
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public double min() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    public double max() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    public double mean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    /** Sample variance; zero for fewer than two values. */
+    public double variance() {
+        return count < 2 ? 0.0 : m2 / (count - 1);
+    }
+
+    public double quantile(double q) {
+        return digest.quantile(q);
+    }
+
+    public long distinctLabels() {
+        return distinctLabels.estimate();
+    }
+
+    public StatisticsSummary snapshot() {
+        double variance = variance();
+        return StatisticsSummary.builder()
+            .count(count)
+            .min(min())
+            .max(max())
+            .mean(mean())
+            .variance(variance)
+            .standardDeviation(Math.sqrt(variance))
+            .p50(quantile(0.5))
+            .p95(quantile(0.95))
+            .p99(quantile(0.99))
+            .distinctLabels(distinctLabels())
+            .build();
+    }
+}
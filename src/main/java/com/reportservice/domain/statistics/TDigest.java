@@ -0,0 +1,192 @@
+package com.reportservice.domain.statistics;
+
+import java.util.Arrays;
+
+/**
+ * Merging t-digest for streaming quantile estimation.
+ * <p>
+ * Values are buffered and periodically merged into a bounded set of weighted centroids, so
+ * quantiles can be read at any time without keeping or sorting the full input. Accuracy is
+ * highest at the tails, which is what p95/p99 reporting needs. Not thread-safe.
+ */
+public final class TDigest {
+
+    private static final double DEFAULT_COMPRESSION = 100;
+
+    private final double compression;
+    private double[] means;
+    private double[] weights;
+    private int centroidCount;
+    private double centroidWeight;
+
+    private final double[] buffer;
+    private int bufferSize;
+
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public TDigest() {
+        this(DEFAULT_COMPRESSION);
+    }
+
+    public TDigest(double compression) {
+        this.compression = compression;
+        int capacity = (int) Math.ceil(compression * 2) + 10;
+        this.means = new double[capacity];
+        this.weights = new double[capacity];
+        this.buffer = new double[capacity * 5];
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        buffer[bufferSize++] = value;
+        if (bufferSize == buffer.length) {
+            flush();
+        }
+    }
+
+    public void merge(TDigest other) {
+        if (other.size() == 0) {
+            return;
+        }
+        flush();
+        other.flush();
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+
+        int total = centroidCount + other.centroidCount;
+        double[] mergedMeans = new double[total];
+        double[] mergedWeights = new double[total];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < centroidCount || j < other.centroidCount) {
+            if (j >= other.centroidCount || i < centroidCount && means[i] <= other.means[j]) {
+                mergedMeans[k] = means[i];
+                mergedWeights[k++] = weights[i++];
+            } else {
+                mergedMeans[k] = other.means[j];
+                mergedWeights[k++] = other.weights[j++];
+            }
+        }
+        compress(mergedMeans, mergedWeights, total, centroidWeight + other.centroidWeight);
+    }
+
+    public long size() {
+        return (long) centroidWeight + bufferSize;
+    }
+
+    public double min() {
+        return size() == 0 ? Double.NaN : min;
+    }
+
+    public double max() {
+        return size() == 0 ? Double.NaN : max;
+    }
+
+    /** Estimated value at quantile {@code q} in [0, 1], or {@code NaN} when empty. */
+    public double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be in [0, 1]: " + q);
+        }
+        flush();
+        if (centroidCount == 0) {
+            return Double.NaN;
+        }
+        if (centroidCount == 1) {
+            return means[0];
+        }
+
+        double index = q * centroidWeight;
+        if (index <= weights[0] / 2) {
+            return interpolate(min, means[0], index / (weights[0] / 2));
+        }
+
+        double cumulative = weights[0] / 2;
+        for (int i = 0; i < centroidCount - 1; i++) {
+            double step = (weights[i] + weights[i + 1]) / 2;
+            if (cumulative + step >= index) {
+                return interpolate(means[i], means[i + 1], (index - cumulative) / step);
+            }
+            cumulative += step;
+        }
+
+        int last = centroidCount - 1;
+        double tail = weights[last] / 2;
+        return interpolate(means[last], max, Math.min(1.0, (index - cumulative) / tail));
+    }
+
+    private void flush() {
+        if (bufferSize == 0) {
+            return;
+        }
+        Arrays.sort(buffer, 0, bufferSize);
+
+        int total = centroidCount + bufferSize;
+        double[] mergedMeans = new double[total];
+        double[] mergedWeights = new double[total];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < centroidCount || j < bufferSize) {
+            if (j >= bufferSize || i < centroidCount && means[i] <= buffer[j]) {
+                mergedMeans[k] = means[i];
+                mergedWeights[k++] = weights[i++];
+            } else {
+                mergedMeans[k] = buffer[j++];
+                mergedWeights[k++] = 1;
+            }
+        }
+        double totalWeight = centroidWeight + bufferSize;
+        bufferSize = 0;
+        compress(mergedMeans, mergedWeights, total, totalWeight);
+    }
+
+    private void compress(double[] sortedMeans, double[] sortedWeights, int length, double totalWeight) {
+        double[] newMeans = new double[Math.max(means.length, 16)];
+        double[] newWeights = new double[newMeans.length];
+        int count = 0;
+
+        double currentMean = sortedMeans[0];
+        double currentWeight = sortedWeights[0];
+        double weightSoFar = 0;
+        for (int i = 1; i < length; i++) {
+            double proposed = currentWeight + sortedWeights[i];
+            double q = (weightSoFar + proposed / 2) / totalWeight;
+            double limit = Math.max(1, 4 * totalWeight * q * (1 - q) / compression);
+            if (proposed <= limit) {
+                currentMean += (sortedMeans[i] - currentMean) * sortedWeights[i] / proposed;
+                currentWeight = proposed;
+            } else {
+                if (count == newMeans.length) {
+                    newMeans = Arrays.copyOf(newMeans, count * 2);
+                    newWeights = Arrays.copyOf(newWeights, count * 2);
+                }
+                newMeans[count] = currentMean;
+                newWeights[count++] = currentWeight;
+                weightSoFar += currentWeight;
+                currentMean = sortedMeans[i];
+                currentWeight = sortedWeights[i];
+            }
+        }
+        if (count == newMeans.length) {
+            newMeans = Arrays.copyOf(newMeans, count + 1);
+            newWeights = Arrays.copyOf(newWeights, count + 1);
+        }
+        newMeans[count] = currentMean;
+        newWeights[count++] = currentWeight;
+
+        means = newMeans;
+        weights = newWeights;
+        centroidCount = count;
+        centroidWeight = totalWeight;
+    }
+
+    private static double interpolate(double from, double to, double fraction) {
+        return from + (to - from) * Math.max(0.0, Math.min(1.0, fraction));
+    }
+}
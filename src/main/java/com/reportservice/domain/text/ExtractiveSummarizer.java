@@ -0,0 +1,322 @@
+package com.reportservice.domain.text;
+
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Builds an extractive summary from the most representative sentences of a text, without a model.
+ * <p>
+ * The text is split into paragraphs, which are split into sentences and tokenized in parallel.
+ * Term statistics are then computed once for the whole document: an inverse sentence frequency per
+ * term and the centroid of all TF-IDF sentence vectors. Sentences are scored in parallel windows of
+ * up to {@value #WINDOW_SENTENCES} consecutive sentences: each score is the sentence's similarity to
+ * the document centroid, weighted by its TextRank centrality within the window. The best sentences
+ * that do not repeat an already chosen one are returned in document order. Headings, table rows and
+ * other short lines count towards the term statistics but are never chosen.
+ * Stateless and thread-safe.
+ */
+public final class ExtractiveSummarizer {
+
+    public static final int DEFAULT_SENTENCES = 3;
+
+    private static final int WINDOW_SENTENCES = 64;
+    private static final int MAX_SENTENCES = 20_000;
+    private static final int MIN_CANDIDATE_WORDS = 6;
+    private static final int MAX_CANDIDATE_WORDS = 60;
+    /** Lines shorter than this without closing punctuation are headings or rows, not wrapped prose. */
+    private static final int MAX_STANDALONE_LINE = 60;
+    private static final double DAMPING = 0.85;
+    private static final int RANK_ITERATIONS = 20;
+    private static final double LEAD_BONUS = 1.1;
+    private static final double MAX_REDUNDANCY = 0.6;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "been", "but", "by", "can", "could", "did", "do",
+            "does", "for", "from", "had", "has", "have", "he", "her", "his", "i", "if", "in", "into", "is",
+            "it", "its", "may", "more", "most", "no", "not", "of", "on", "or", "our", "she", "so", "such",
+            "than", "that", "the", "their", "them", "then", "there", "these", "they", "this", "those", "to",
+            "was", "we", "were", "what", "when", "which", "while", "who", "will", "with", "would", "you",
+            "your");
+
+    /** Summary of at most {@value #DEFAULT_SENTENCES} sentences, or an empty string if none qualify. */
+    public String summarize(String text) {
+        return summarize(text, DEFAULT_SENTENCES);
+    }
+
+    /** Summary of at most {@code maxSentences} sentences, or an empty string if none qualify. */
+    public String summarize(String text, int maxSentences) {
+        if (text == null || text.isBlank() || maxSentences <= 0) {
+            return "";
+        }
+        List<String> paragraphs = paragraphs(text);
+        @SuppressWarnings("unchecked")
+        List<Sentence>[] parsed = new List[paragraphs.size()];
+        IntStream.range(0, paragraphs.size()).parallel()
+                .forEach(i -> parsed[i] = sentences(paragraphs.get(i)));
+
+        List<Sentence> sentences = new ArrayList<>();
+        for (List<Sentence> paragraph : parsed) {
+            for (Sentence sentence : paragraph) {
+                if (sentences.size() == MAX_SENTENCES) {
+                    break;
+                }
+                sentence.position = sentences.size();
+                sentences.add(sentence);
+            }
+        }
+        if (sentences.stream().noneMatch(sentence -> sentence.candidate)) {
+            return "";
+        }
+
+        double[] centroid = vectorize(sentences);
+        int windows = (sentences.size() + WINDOW_SENTENCES - 1) / WINDOW_SENTENCES;
+        IntStream.range(0, windows).parallel().forEach(window -> score(
+                sentences.subList(window * WINDOW_SENTENCES,
+                        Math.min(sentences.size(), (window + 1) * WINDOW_SENTENCES)),
+                centroid));
+
+        return select(sentences, maxSentences);
+    }
+
+    /**
+     * Assigns term ids, weights every sentence as a unit-length TF-IDF vector and returns the
+     * unit-length centroid of those vectors, indexed by term id.
+     */
+    private static double[] vectorize(List<Sentence> sentences) {
+        Map<String, Integer> termIds = new HashMap<>();
+        List<int[]> documentFrequency = new ArrayList<>();
+        for (Sentence sentence : sentences) {
+            Map<Integer, Integer> counts = new HashMap<>();
+            for (String term : sentence.words) {
+                if (!isStopWord(term)) {
+                    int id = termIds.computeIfAbsent(term, key -> {
+                        documentFrequency.add(new int[1]);
+                        return documentFrequency.size() - 1;
+                    });
+                    counts.merge(id, 1, Integer::sum);
+                }
+            }
+            sentence.terms = counts.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+            sentence.weights = new double[sentence.terms.length];
+            for (int i = 0; i < sentence.terms.length; i++) {
+                sentence.weights[i] = counts.get(sentence.terms[i]);
+                documentFrequency.get(sentence.terms[i])[0]++;
+            }
+        }
+
+        double[] idf = new double[documentFrequency.size()];
+        for (int term = 0; term < idf.length; term++) {
+            idf[term] = Math.log((sentences.size() + 1.0) / (documentFrequency.get(term)[0] + 1.0)) + 1;
+        }
+        double[] centroid = new double[idf.length];
+        for (Sentence sentence : sentences) {
+            for (int i = 0; i < sentence.terms.length; i++) {
+                sentence.weights[i] = (1 + Math.log(sentence.weights[i])) * idf[sentence.terms[i]];
+            }
+            normalize(sentence.weights);
+            for (int i = 0; i < sentence.terms.length; i++) {
+                centroid[sentence.terms[i]] += sentence.weights[i];
+            }
+        }
+        normalize(centroid);
+        return centroid;
+    }
+
+    /** Scores the candidates of one window by centroid similarity times TextRank centrality. */
+    private static void score(List<Sentence> window, double[] centroid) {
+        int size = window.size();
+        double[][] similarity = new double[size][size];
+        double[] outWeight = new double[size];
+        for (int i = 0; i < size; i++) {
+            for (int j = i + 1; j < size; j++) {
+                double value = cosine(window.get(i), window.get(j));
+                similarity[i][j] = value;
+                similarity[j][i] = value;
+                outWeight[i] += value;
+                outWeight[j] += value;
+            }
+        }
+
+        double[] rank = new double[size];
+        Arrays.fill(rank, 1);
+        double[] next = new double[size];
+        for (int iteration = 0; iteration < RANK_ITERATIONS; iteration++) {
+            for (int i = 0; i < size; i++) {
+                double incoming = 0;
+                for (int j = 0; j < size; j++) {
+                    if (outWeight[j] > 0) {
+                        incoming += similarity[j][i] / outWeight[j] * rank[j];
+                    }
+                }
+                next[i] = 1 - DAMPING + DAMPING * incoming;
+            }
+            double[] swap = rank;
+            rank = next;
+            next = swap;
+        }
+        double maxRank = Arrays.stream(rank).max().orElse(1);
+
+        for (int i = 0; i < size; i++) {
+            Sentence sentence = window.get(i);
+            if (!sentence.candidate) {
+                continue;
+            }
+            double centrality = 0;
+            for (int t = 0; t < sentence.terms.length; t++) {
+                centrality += sentence.weights[t] * centroid[sentence.terms[t]];
+            }
+            sentence.score = centrality * (0.5 + 0.5 * rank[i] / maxRank) * (sentence.lead ? LEAD_BONUS : 1);
+        }
+    }
+
+    private static String select(List<Sentence> sentences, int maxSentences) {
+        List<Sentence> ranked = sentences.stream()
+                .filter(sentence -> sentence.candidate && sentence.score > 0)
+                .sorted(Comparator.comparingDouble((Sentence sentence) -> sentence.score).reversed())
+                .toList();
+        List<Sentence> chosen = new ArrayList<>(maxSentences);
+        for (Sentence sentence : ranked) {
+            if (chosen.size() == maxSentences) {
+                break;
+            }
+            if (chosen.stream().allMatch(other -> cosine(sentence, other) < MAX_REDUNDANCY)) {
+                chosen.add(sentence);
+            }
+        }
+        chosen.sort(Comparator.comparingInt(sentence -> sentence.position));
+
+        StringBuilder summary = new StringBuilder();
+        for (Sentence sentence : chosen) {
+            if (summary.length() > 0) {
+                summary.append(' ');
+            }
+            summary.append(sentence.text);
+            if (".!?".indexOf(sentence.text.charAt(sentence.text.length() - 1)) < 0) {
+                summary.append('.');
+            }
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Splits on blank lines, and also after short lines without closing punctuation so headings
+     * and table rows do not merge into the prose that follows them. Other line breaks are treated
+     * as wrapped text.
+     */
+    private static List<String> paragraphs(String text) {
+        List<String> paragraphs = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String line : text.split("\\R")) {
+            String trimmed = line.strip();
+            if (trimmed.isEmpty()) {
+                flush(current, paragraphs);
+                continue;
+            }
+            if (current.length() > 0) {
+                current.append(' ');
+            }
+            current.append(trimmed);
+            if (trimmed.length() < MAX_STANDALONE_LINE && ".,;:!?".indexOf(trimmed.charAt(trimmed.length() - 1)) < 0) {
+                flush(current, paragraphs);
+            }
+        }
+        flush(current, paragraphs);
+        return paragraphs;
+    }
+
+    private static void flush(StringBuilder current, List<String> paragraphs) {
+        if (current.length() > 0) {
+            paragraphs.add(current.toString());
+            current.setLength(0);
+        }
+    }
+
+    private static List<Sentence> sentences(String paragraph) {
+        BreakIterator iterator = BreakIterator.getSentenceInstance(Locale.ROOT);
+        iterator.setText(paragraph);
+        List<Sentence> sentences = new ArrayList<>();
+        for (int start = iterator.first(), end = iterator.next(); end != BreakIterator.DONE;
+                start = end, end = iterator.next()) {
+            String text = paragraph.substring(start, end).strip();
+            if (!text.isEmpty()) {
+                sentences.add(new Sentence(text, words(text), sentences.isEmpty()));
+            }
+        }
+        return sentences;
+    }
+
+    /** Case-folded runs of letters and digits. */
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    private static boolean isStopWord(String word) {
+        return word.length() < 2 || STOP_WORDS.contains(word);
+    }
+
+    private static double cosine(Sentence a, Sentence b) {
+        double dot = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.terms.length && j < b.terms.length) {
+            if (a.terms[i] == b.terms[j]) {
+                dot += a.weights[i++] * b.weights[j++];
+            } else if (a.terms[i] < b.terms[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return dot;
+    }
+
+    private static void normalize(double[] vector) {
+        double norm = 0;
+        for (double value : vector) {
+            norm += value * value;
+        }
+        if (norm > 0) {
+            norm = Math.sqrt(norm);
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] /= norm;
+            }
+        }
+    }
+
+    private static final class Sentence {
+        private final String text;
+        private final List<String> words;
+        private final boolean lead;
+        private final boolean candidate;
+        private int position;
+        private int[] terms;
+        private double[] weights;
+        private double score;
+
+        private Sentence(String text, List<String> words, boolean lead) {
+            this.text = text;
+            this.words = words;
+            this.lead = lead;
+            this.candidate = words.size() >= MIN_CANDIDATE_WORDS && words.size() <= MAX_CANDIDATE_WORDS;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.reportservice.domain.text;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import com.reportservice.domain.model.TextSection;
+
+/**
+ * Drops near-duplicate and boilerplate text sections, keeping the first occurrence of each block.
+ * <p>
+ * Each section becomes a MinHash signature of {@value #SIGNATURE_SIZE} minima over its word
+ * 3-shingles. Signatures are indexed by locality-sensitive hashing in {@value #BANDS} bands of
+ * {@value #ROWS_PER_BAND} rows, so each section is compared only with earlier sections that share
+ * a band rather than with all of them. Candidates whose estimated Jaccard similarity reaches the
+ * threshold are duplicates. Short fragments without figures (navigation links, "Read more") and
+ * short blocks matching common footer phrases are dropped as boilerplate; headings are kept.
+ * Stateless and thread-safe.
+ */
+public final class SectionDeduplicator {
+
+    public static final double DEFAULT_SIMILARITY = 0.8;
+
+    private static final int SIGNATURE_SIZE = 64;
+    private static final int BANDS = 16;
+    private static final int ROWS_PER_BAND = SIGNATURE_SIZE / BANDS;
+    private static final int SHINGLE_WORDS = 3;
+    private static final int MIN_WORDS = 3;
+    private static final int MAX_BOILERPLATE_WORDS = 40;
+    private static final long[] SEEDS = seeds(0x5DEECE66DL);
+    private static final long[] MULTIPLIERS = oddSeeds(0x2545F4914F6CDD1DL);
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    /** Phrases of cookie banners, newsletter prompts and footers; bare words such as "cookies" are too common. */
+    private static final Pattern BOILERPLATE = Pattern.compile(
+            "(?i)\u00a9|\\(c\\)\\s*\\d{4}|\\ball rights reserved\\b|\\bprivacy policy\\b|\\bterms of (use|service)\\b"
+                    + "|\\bwe use cookies\\b|\\b(accept|allow|reject) (all )?cookies\\b|\\bcookie (settings|preferences)\\b"
+                    + "|\\bsubscribe to our (newsletter|mailing list)\\b|\\bsign up for our newsletter\\b"
+                    + "|\\bfollow us on\\b|\\bskip to (main )?content\\b|\\bback to top\\b");
+
+    private final double similarity;
+
+    public SectionDeduplicator() {
+        this(DEFAULT_SIMILARITY);
+    }
+
+    public SectionDeduplicator(double similarity) {
+        if (similarity <= 0 || similarity > 1) {
+            throw new IllegalArgumentException("Similarity must be in (0, 1]: " + similarity);
+        }
+        this.similarity = similarity;
+    }
+
+    /** Sections left after removing duplicates and boilerplate, renumbered in their original order. */
+    public List<TextSection> deduplicate(List<TextSection> sections) {
+        List<TextSection> kept = new ArrayList<>(sections.size());
+        List<long[]> signatures = new ArrayList<>(sections.size());
+        Map<Long, List<Integer>> buckets = new HashMap<>();
+
+        for (TextSection section : sections) {
+            String content = section.getContent();
+            if (content == null || content.isBlank()) {
+                continue;
+            }
+            long[] wordHashes = wordHashes(content);
+            if (isBoilerplate(section, content, wordHashes.length)) {
+                continue;
+            }
+            long[] signature = signature(wordHashes);
+            long[] bandKeys = bandKeys(signature);
+            if (hasNearDuplicate(signature, bandKeys, signatures, buckets)) {
+                continue;
+            }
+            int index = signatures.size();
+            signatures.add(signature);
+            for (long bandKey : bandKeys) {
+                buckets.computeIfAbsent(bandKey, key -> new ArrayList<>(1)).add(index);
+            }
+            kept.add(TextSection.builder()
+                    .title(section.getTitle())
+                    .content(section.getContent())
+                    .type(section.getType())
+                    .order(kept.size())
+                    .build());
+        }
+        return kept;
+    }
+
+    private boolean hasNearDuplicate(long[] signature, long[] bandKeys, List<long[]> signatures,
+            Map<Long, List<Integer>> buckets) {
+        for (long bandKey : bandKeys) {
+            List<Integer> candidates = buckets.get(bandKey);
+            if (candidates == null) {
+                continue;
+            }
+            for (int candidate : candidates) {
+                if (estimatedSimilarity(signature, signatures.get(candidate)) >= similarity) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isBoilerplate(TextSection section, String content, int wordCount) {
+        if (section.getType() == TextSection.SectionType.HEADER) {
+            return false;
+        }
+        if (wordCount < MIN_WORDS && content.chars().noneMatch(Character::isDigit)) {
+            return true;
+        }
+        return wordCount <= MAX_BOILERPLATE_WORDS && BOILERPLATE.matcher(content).find();
+    }
+
+    /**
+     * FNV-1a hash of each case-folded run of letters and digits, computed in one pass without
+     * allocating the words themselves.
+     */
+    private static long[] wordHashes(String content) {
+        long[] hashes = new long[16];
+        int count = 0;
+        long hash = FNV_OFFSET;
+        boolean inWord = false;
+        for (int i = 0; i <= content.length(); i++) {
+            char c = i < content.length() ? content.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                hash = (hash ^ Character.toLowerCase(c)) * FNV_PRIME;
+                inWord = true;
+            } else if (inWord) {
+                if (count == hashes.length) {
+                    hashes = Arrays.copyOf(hashes, count * 2);
+                }
+                hashes[count++] = hash;
+                hash = FNV_OFFSET;
+                inWord = false;
+            }
+        }
+        return Arrays.copyOf(hashes, count);
+    }
+
+    /** MinHash over word 3-shingles; texts shorter than one shingle hash as a whole. */
+    private static long[] signature(long[] words) {
+        long[] minima = new long[SIGNATURE_SIZE];
+        Arrays.fill(minima, Long.MAX_VALUE);
+        int shingles = Math.max(1, words.length - SHINGLE_WORDS + 1);
+        for (int start = 0; start < shingles; start++) {
+            long hash = FNV_OFFSET;
+            for (int i = start; i < Math.min(words.length, start + SHINGLE_WORDS); i++) {
+                hash = mix(hash * 31 + words[i]);
+            }
+            long mixed = mix(hash);
+            for (int i = 0; i < SIGNATURE_SIZE; i++) {
+                // Odd multipliers make each permutation a bijection of the well-mixed shingle hash
+                long permuted = Long.rotateLeft(mixed * MULTIPLIERS[i], 29) ^ SEEDS[i];
+                if (permuted < minima[i]) {
+                    minima[i] = permuted;
+                }
+            }
+        }
+        return minima;
+    }
+
+    private static double estimatedSimilarity(long[] a, long[] b) {
+        int equal = 0;
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / SIGNATURE_SIZE;
+    }
+
+    private static long[] bandKeys(long[] signature) {
+        long[] keys = new long[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            long key = band;
+            for (int i = band * ROWS_PER_BAND; i < (band + 1) * ROWS_PER_BAND; i++) {
+                key = mix(key * 31 + signature[i]);
+            }
+            keys[band] = key;
+        }
+        return keys;
+    }
+
+    /** SplitMix64 finalizer. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long[] seeds(long state) {
+        long[] seeds = new long[SIGNATURE_SIZE];
+        for (int i = 0; i < seeds.length; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            seeds[i] = mix(state);
+        }
+        return seeds;
+    }
+
+    private static long[] oddSeeds(long state) {
+        long[] seeds = seeds(state);
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] |= 1;
+        }
+        return seeds;
+    }
+}
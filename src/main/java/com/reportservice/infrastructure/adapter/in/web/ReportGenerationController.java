@@ -1,5 +1,8 @@
 package com.reportservice.infrastructure.adapter.in.web;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -20,8 +23,10 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
 
 import com.reportservice.domain.model.GeneratedReport;
+import com.reportservice.domain.model.JobStatus;
 import com.reportservice.domain.model.ReportRequest;
 import com.reportservice.domain.port.in.ReportGenerationUseCase;
 import com.reportservice.domain.port.in.ReportQueryUseCase;
@@ -58,7 +63,42 @@ public class ReportGenerationController {
             .createdAt(LocalDateTime.now())
             .build();
 
-        return reportGenerationUseCase.generateReport(reportRequest)
+        return toResponse(reportRequest, reportGenerationUseCase.generateReport(reportRequest));
+    }
+
+    @PostMapping(value = "/generate/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public CompletableFuture<ResponseEntity<ReportGenerationResponse>> generateReportFromUpload(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "title", required = false) String title,
+            @RequestParam(value = "format", required = false) ReportRequest.ReportFormat format) throws IOException {
+
+        String fileName = file.getOriginalFilename() != null ? file.getOriginalFilename() : "upload.xlsx";
+        if (file.isEmpty() || !fileName.toLowerCase().endsWith(".xlsx")) {
+            throw new IllegalArgumentException("Upload must be a non-empty .xlsx workbook");
+        }
+        log.info("Received spreadsheet upload: {} ({} bytes)", fileName, file.getSize());
+
+        // Copy to our own temp file so the workbook outlives the multipart cleanup of the async request
+        Path workbook = Files.createTempFile("report-upload-", ".xlsx");
+        file.transferTo(workbook);
+
+        ReportRequest reportRequest = ReportRequest.builder()
+            .id(UUID.randomUUID().toString())
+            .sourceUrl("upload://" + fileName)
+            .title(title)
+            .format(format != null ? format : ReportRequest.ReportFormat.BOTH)
+            .createdAt(LocalDateTime.now())
+            .build();
+
+        CompletableFuture<List<GeneratedReport>> reports = reportGenerationUseCase
+            .generateReportFromSpreadsheet(reportRequest, workbook)
+            .whenComplete((result, throwable) -> deleteQuietly(workbook));
+        return toResponse(reportRequest, reports);
+    }
+
+    private CompletableFuture<ResponseEntity<ReportGenerationResponse>> toResponse(ReportRequest reportRequest,
+            CompletableFuture<List<GeneratedReport>> generation) {
+        return generation
             .thenApply(reports -> {
                 ReportGenerationResponse response = ReportGenerationResponse.builder()
                     .requestId(reportRequest.getId())
@@ -93,6 +133,13 @@ public class ReportGenerationController {
         }
     }
 
+    @GetMapping("/jobs/{requestId}")
+    public ResponseEntity<JobStatus> getJobStatus(@PathVariable String requestId) {
+        return reportQueryUseCase.getJobStatus(requestId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/{reportId}/download")
     public ResponseEntity<ByteArrayResource> downloadReport(@PathVariable String reportId) {
         Optional<GeneratedReport> reportOpt = reportQueryUseCase.getReport(reportId);
@@ -132,6 +179,14 @@ public class ReportGenerationController {
         return ResponseEntity.ok(reportInfos);
     }
 
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete temporary upload {}", file, e);
+        }
+    }
+
     private ReportInfo mapToReportInfo(GeneratedReport report) {
         return ReportInfo.builder()
             .id(report.getId())
@@ -1,23 +1,39 @@
 package com.reportservice.infrastructure.adapter.out;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reportservice.domain.model.Chart;
+import com.reportservice.domain.model.ColumnarDataSet;
 import com.reportservice.domain.model.DataPoint;
 import com.reportservice.domain.model.ExtractedData;
 import com.reportservice.domain.model.TextSection;
 import com.reportservice.domain.port.out.AiAnalysisPort;
+import com.reportservice.domain.port.out.AnalysisProgressListener;
+import com.reportservice.domain.text.ExtractiveSummarizer;
+import com.reportservice.domain.text.SectionDeduplicator;
 import com.theokanning.openai.completion.chat.ChatCompletionRequest;
 import com.theokanning.openai.completion.chat.ChatMessage;
-import com.theokanning.openai.service.OpenAiService;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -26,61 +42,112 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class AiAnalysisAdapter implements AiAnalysisPort {
 
-    @Value("${openai.api.key:}")
-    private String openaiApiKey;
-
     @Value("${openai.model:gpt-3.5-turbo}")
     private String model;
 
-    // private final ObjectMapper objectMapper;
-    private OpenAiService openAiService;
+    @Value("${ai.analysis.structured:true}")
+    private boolean structuredAnalysis;
+
+    @Value("${ai.analysis.streaming:true}")
+    private boolean streamingAnalysis;
+
+    @Value("${ai.analysis.chunked:true}")
+    private boolean chunkedAnalysis;
+
+    @Value("${ai.analysis.max-chunks:24}")
+    private int maxChunks = 24;
+
+    @Value("${ai.tokens.context-window:16385}")
+    private int contextWindow = 16385;
+
+    @Value("${ai.tokens.content-budget:3000}")
+    private int contentTokenBudget = 3000;
+
+    @Value("${ai.tokens.summary-budget:800}")
+    private int summaryTokenBudget = 800;
+
+    private static final int STRUCTURED_MAX_TOKENS = 2000;
+
+    /** Allowance for system instructions and the response schema when fitting content to the context window. */
+    private static final int INSTRUCTION_TOKENS = 512;
 
-    private OpenAiService getOpenAiService() {
-        if (openAiService == null && !openaiApiKey.isEmpty()) {
-            openAiService = new OpenAiService(openaiApiKey);
-            log.info("Initialized OpenAiService with provided API key.");
+    private static final AnalysisProgressListener NO_PROGRESS = new AnalysisProgressListener() {
+        @Override
+        public void onTokens(int streamedTokens) {
         }
-        return openAiService;
-    }
+
+        @Override
+        public void onChartTypes(List<Chart.ChartType> chartTypes) {
+        }
+
+        @Override
+        public void onDataPoint(DataPoint dataPoint) {
+        }
+
+        @Override
+        public void onSection(TextSection section) {
+        }
+
+        @Override
+        public void onTokenUsage(int promptTokens, int completionTokens) {
+        }
+    };
+
+    private final ObjectMapper objectMapper;
+    private final AiResponseCache responseCache;
+    private final OpenAiClient openAiClient;
+    private final MeterRegistry meterRegistry;
+    private final DeadlineHedge deadlineHedge;
+    private final SectionDeduplicator sectionDeduplicator = new SectionDeduplicator();
+    private final ExtractiveSummarizer summarizer = new ExtractiveSummarizer();
 
     @Override
     public CompletableFuture<ExtractedData> analyzeAndStructureData(String rawData, String sourceUrl) {
-        return CompletableFuture.supplyAsync(() -> {
+        return analyzeAndStructureData(rawData, sourceUrl, NO_PROGRESS);
+    }
+
+    /**
+     * Analyzes with the model, hedged by {@link DeadlineHedge}: a call that misses the soft deadline
+     * races the heuristic analysis, and the listener stops receiving progress once a result is
+     * returned.
+     */
+    @Override
+    public CompletableFuture<ExtractedData> analyzeAndStructureData(String rawData, String sourceUrl,
+            AnalysisProgressListener listener) {
+        if (!openAiClient.isAvailable()) {
+            log.warn("OpenAI service not available, using fallback analysis");
+            return CompletableFuture.supplyAsync(() -> analyzeWithFallback(rawData, sourceUrl));
+        }
+        TokenTally tally = new TokenTally(listener);
+        CompletableFuture<ExtractedData> result = deadlineHedge.call("analysis", () -> {
             try {
-                if (getOpenAiService() != null) {
-                    return analyzeWithOpenAI(rawData, sourceUrl);
-                } else {
-                    log.warn("OpenAI service not available, using fallback analysis");
-                    return analyzeWithFallback(rawData, sourceUrl);
-                }
-            } catch (Exception e) {
-                log.error("Error in AI analysis, falling back to basic analysis", e);
-                return analyzeWithFallback(rawData, sourceUrl);
+                return analyzeWithOpenAI(rawData, sourceUrl, tally);
+            } finally {
+                tally.record(meterRegistry);
             }
-        });
+        }, () -> analyzeWithFallback(rawData, sourceUrl));
+        result.whenComplete((data, error) -> tally.detach());
+        return result;
     }
 
     @Override
     public CompletableFuture<String> generateSummary(String content) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                if (getOpenAiService() != null) {
-                    return generateSummaryWithOpenAI(content);
-                } else {
-                    return generateFallbackSummary(content);
-                }
-            } catch (Exception e) {
-                log.error("Error generating summary", e);
-                return generateFallbackSummary(content);
-            }
-        });
+        if (!openAiClient.isAvailable()) {
+            return CompletableFuture.supplyAsync(() -> generateFallbackSummary(content));
+        }
+        return deadlineHedge.call("summary", () -> generateSummaryWithOpenAI(content),
+                () -> generateFallbackSummary(content));
     }
 
     @Override
     public CompletableFuture<String> suggestChartType(ExtractedData data) {
+        if (!data.getRecommendedChartTypes().isEmpty()) {
+            // Already answered by the structured analysis call
+            return CompletableFuture.completedFuture(data.getRecommendedChartTypes().get(0).name());
+        }
         return CompletableFuture.supplyAsync(() -> {
             try {
-                if (getOpenAiService() != null) {
+                if (openAiClient.isAvailable()) {
                     return suggestChartTypeWithOpenAI(data);
                 } else {
                     return suggestChartTypeWithFallback(data);
@@ -92,7 +159,10 @@ public class AiAnalysisAdapter implements AiAnalysisPort {
         });
     }
 
-    private ExtractedData analyzeWithOpenAI(String rawData, String sourceUrl) {
+    private ExtractedData analyzeWithOpenAI(String rawData, String sourceUrl, AnalysisProgressListener listener) {
+        if (structuredAnalysis) {
+            return analyzeStructuredWithOpenAI(rawData, sourceUrl, listener);
+        }
         String prompt = buildAnalysisPrompt(rawData);
 
         ChatCompletionRequest request = ChatCompletionRequest.builder()
@@ -108,12 +178,243 @@ public class AiAnalysisAdapter implements AiAnalysisPort {
                 .temperature(0.3)
                 .build();
 
-        String response = getOpenAiService().createChatCompletion(request)
-                .getChoices().get(0).getMessage().getContent();
+        String response = complete(request, listener);
 
         return parseAiResponse(response, rawData, sourceUrl);
     }
 
+    /**
+     * Single round trip that asks for data points, sections, summary and chart types as one JSON
+     * object, replacing separate analysis, summary and chart suggestion calls.
+     */
+    private ExtractedData analyzeStructuredWithOpenAI(String rawData, String sourceUrl,
+            AnalysisProgressListener listener) {
+        // Chunks get the same token budget a single prompt would, so chunking starts exactly where fitting would cut
+        int chunkTokens = contentTokens(contentTokenBudget, STRUCTURED_MAX_TOKENS);
+        if (chunkedAnalysis && TokenEstimator.estimate(rawData) > chunkTokens) {
+            return analyzeInChunks(rawData, sourceUrl, chunkTokens, listener);
+        }
+
+        ChatCompletionRequest request = buildStructuredAnalysisRequest(
+                fitContent(rawData, contentTokenBudget, STRUCTURED_MAX_TOKENS));
+        if (streamingAnalysis) {
+            return streamStructuredAnalysis(request, rawData, sourceUrl, listener);
+        }
+        Response response = fetch(request, listener);
+
+        ExtractedData parsed;
+        try {
+            parsed = new StructuredAnalysisParser(objectMapper).parse(response.content(), sourceUrl);
+        } catch (IOException e) {
+            log.warn("Structured AI response could not be parsed, falling back to text parsing: {}", e.getMessage());
+            return parseAiResponse(response.content(), rawData, sourceUrl);
+        }
+        cache(response);
+        return withFallbackFields(parsed, rawData);
+    }
+
+    /**
+     * Map-reduce analysis for sources longer than one prompt: chunks split on structural boundaries
+     * are analyzed in parallel on the client's pool, so wall-clock time stays close to a single call,
+     * then merged by {@link #reduceChunkAnalyses}. Chunks whose analysis fails are left out.
+     */
+    private ExtractedData analyzeInChunks(String rawData, String sourceUrl, int chunkTokens,
+            AnalysisProgressListener listener) {
+        List<String> chunks = ContentChunker.split(rawData, chunkTokens);
+        if (chunks.size() > maxChunks) {
+            log.warn("Source {} splits into {} chunks; analyzing the first {}", sourceUrl, chunks.size(), maxChunks);
+            chunks = chunks.subList(0, maxChunks);
+        }
+        log.info("Analyzing {} characters from {} in {} chunks", rawData.length(), sourceUrl, chunks.size());
+
+        StructuredAnalysisParser parser = new StructuredAnalysisParser(objectMapper);
+        List<CompletableFuture<ExtractedData>> partials = new ArrayList<>(chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            String chunk = chunks.get(i);
+            int chunkNumber = i + 1;
+            partials.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    Response response = fetch(buildStructuredAnalysisRequest(chunk), listener);
+                    ExtractedData partial = parser.parse(response.content(), sourceUrl);
+                    cache(response);
+                    partial.getDataPoints().forEach(listener::onDataPoint);
+                    partial.getTextSections().forEach(listener::onSection);
+                    return partial;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, openAiClient.executor()).exceptionally(throwable -> {
+                log.warn("Analysis of chunk {} of {} failed: {}", chunkNumber, sourceUrl, throwable.getMessage());
+                return null;
+            }));
+        }
+
+        List<ExtractedData> results = partials.stream()
+                .map(CompletableFuture::join)
+                .filter(Objects::nonNull)
+                .toList();
+        if (results.isEmpty()) {
+            throw new IllegalStateException("AI analysis failed for every chunk of " + sourceUrl);
+        }
+        ExtractedData reduced = reduceChunkAnalyses(results, sourceUrl, listener);
+        listener.onChartTypes(reduced.getRecommendedChartTypes());
+        return withFallbackFields(reduced, rawData);
+    }
+
+    /**
+     * Streams the structured analysis and parses it as it arrives, so the listener sees chart types,
+     * data points and sections while the model is still generating. Cached responses are replayed
+     * through the same parser.
+     */
+    private ExtractedData streamStructuredAnalysis(ChatCompletionRequest request, String rawData, String sourceUrl,
+            AnalysisProgressListener listener) {
+        StreamingAnalysisParser parser;
+        try {
+            parser = new StreamingAnalysisParser(objectMapper, listener);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        String cacheKey = cacheKey(request);
+        Optional<String> cached = responseCache.get(cacheKey);
+        Response response;
+        if (cached.isPresent()) {
+            parser.feed(cached.get());
+            response = Response.cached(cacheKey, cached.get());
+        } else {
+            OpenAiClient.Completion completion = openAiClient.stream(request, parser::feed);
+            listener.onTokenUsage(completion.promptTokens(), completion.completionTokens());
+            response = Response.fresh(cacheKey, completion);
+        }
+
+        ExtractedData parsed;
+        try {
+            parsed = parser.result(sourceUrl);
+        } catch (IOException e) {
+            log.warn("Streamed AI response could not be parsed incrementally: {}", e.getMessage());
+            try {
+                parsed = new StructuredAnalysisParser(objectMapper).parse(parser.text(), sourceUrl);
+            } catch (IOException notJson) {
+                return parseAiResponse(parser.text(), rawData, sourceUrl);
+            }
+        }
+        cache(response);
+        return withFallbackFields(parsed, rawData);
+    }
+
+    /**
+     * Concatenates data points and sections in chunk order (dropping near-duplicate sections), ranks
+     * chart types by a Borda count over the chunks' rankings and condenses the chunk summaries
+     * with one more model call.
+     */
+    private ExtractedData reduceChunkAnalyses(List<ExtractedData> partials, String sourceUrl,
+            AnalysisProgressListener listener) {
+        ColumnarDataSet.Builder dataSet = ColumnarDataSet.builder();
+        List<TextSection> sections = new ArrayList<>();
+        Map<Chart.ChartType, Integer> chartVotes = new EnumMap<>(Chart.ChartType.class);
+        Set<ExtractedData.DataType> dataTypes = EnumSet.noneOf(ExtractedData.DataType.class);
+        List<String> summaries = new ArrayList<>();
+        String title = null;
+
+        for (ExtractedData partial : partials) {
+            dataSet.addAll(partial.getDataSet());
+            sections.addAll(partial.getTextSections());
+            List<Chart.ChartType> ranked = partial.getRecommendedChartTypes();
+            for (int rank = 0; rank < ranked.size(); rank++) {
+                chartVotes.merge(ranked.get(rank), ranked.size() - rank, Integer::sum);
+            }
+            if (partial.getDataType() != null) {
+                dataTypes.add(partial.getDataType());
+            }
+            if (partial.getSummary() != null && !partial.getSummary().isBlank()) {
+                summaries.add(partial.getSummary());
+            }
+            if (title == null && partial.getTitle() != null && !partial.getTitle().isBlank()) {
+                title = partial.getTitle();
+            }
+        }
+
+        List<Chart.ChartType> chartTypes = chartVotes.entrySet().stream()
+                .sorted(Map.Entry.<Chart.ChartType, Integer>comparingByValue().reversed())
+                .map(Map.Entry::getKey)
+                .toList();
+
+        return ExtractedData.builder()
+                .sourceUrl(sourceUrl)
+                .title(title)
+                .summary(reduceSummaries(summaries, listener))
+                .dataType(dataTypes.size() == 1 ? dataTypes.iterator().next()
+                        : dataTypes.isEmpty() ? null : ExtractedData.DataType.MIXED)
+                .dataSet(dataSet.build())
+                .textSections(sectionDeduplicator.deduplicate(sections))
+                .recommendedChartTypes(chartTypes)
+                .metadata(Map.of("analyzedChunks", partials.size()))
+                .build();
+    }
+
+    private String reduceSummaries(List<String> summaries, AnalysisProgressListener listener) {
+        if (summaries.size() <= 1) {
+            return summaries.isEmpty() ? null : summaries.get(0);
+        }
+        ChatCompletionRequest request = ChatCompletionRequest.builder()
+                .model(model)
+                .messages(Arrays.asList(
+                        new ChatMessage("system",
+                                "You are a professional report writer. The following are summaries of consecutive " +
+                                        "parts of one document. Combine them into a single concise, professional " +
+                                        "summary of the whole document in 2-3 sentences."),
+                        new ChatMessage("user", String.join("\n\n", summaries))))
+                .maxTokens(200)
+                .temperature(0.3)
+                .build();
+        try {
+            return complete(request, listener);
+        } catch (Exception e) {
+            log.warn("Summary reduction failed, joining chunk summaries: {}", e.getMessage());
+            return String.join(" ", summaries);
+        }
+    }
+
+    private ChatCompletionRequest buildStructuredAnalysisRequest(String content) {
+        return ChatCompletionRequest.builder()
+                .model(model)
+                .messages(Arrays.asList(
+                        new ChatMessage("system",
+                                "You are a data analyst AI. Analyze the provided data for a report: extract the key " +
+                                        "numerical data points, the important text sections, a summary and the best " +
+                                        "chart types. Respond with a single JSON object and nothing else, " +
+                                        "using exactly this structure:\n" + StructuredAnalysisParser.RESPONSE_SCHEMA),
+                        new ChatMessage("user", "Data: " + content)))
+                .maxTokens(STRUCTURED_MAX_TOKENS)
+                .temperature(0.2)
+                .build();
+    }
+
+    /**
+     * Fills whatever the model left out with the heuristic fallbacks computed from the raw data, and
+     * drops sections the model repeated.
+     */
+    private ExtractedData withFallbackFields(ExtractedData parsed, String rawData) {
+        ColumnarDataSet dataPoints = parsed.getDataSet().isEmpty()
+                ? extractNumericDataFallback(rawData)
+                : parsed.getDataSet();
+        List<TextSection> sections = sectionDeduplicator.deduplicate(parsed.getTextSections());
+        return parsed.toBuilder()
+                .clearTextSections()
+                .textSections(sections)
+                .title(parsed.getTitle() != null && !parsed.getTitle().isBlank()
+                        ? parsed.getTitle()
+                        : extractTitleFallback(rawData))
+                .summary(parsed.getSummary() != null && !parsed.getSummary().isBlank()
+                        ? parsed.getSummary()
+                        : generateFallbackSummary(rawData))
+                .dataType(parsed.getDataType() != null
+                        ? parsed.getDataType()
+                        : determineDataTypeFallback(dataPoints, sections))
+                .dataSet(dataPoints)
+                .build();
+    }
+
     private String generateSummaryWithOpenAI(String content) {
         ChatCompletionRequest request = ChatCompletionRequest.builder()
                 .model(model)
@@ -121,13 +422,13 @@ public class AiAnalysisAdapter implements AiAnalysisPort {
                         new ChatMessage("system",
                                 "You are a professional report writer. Create a concise, professional summary " +
                                         "of the provided content in 2-3 sentences."),
-                        new ChatMessage("user", "Please summarize this content: " + truncateContent(content, 3000))))
+                        new ChatMessage("user", "Please summarize this content: "
+                                + fitContent(content, summaryTokenBudget, 200))))
                 .maxTokens(200)
                 .temperature(0.3)
                 .build();
 
-        return getOpenAiService().createChatCompletion(request)
-                .getChoices().get(0).getMessage().getContent();
+        return complete(request, NO_PROGRESS);
     }
 
     private String suggestChartTypeWithOpenAI(ExtractedData data) {
@@ -138,20 +439,73 @@ public class AiAnalysisAdapter implements AiAnalysisPort {
                 .messages(Arrays.asList(
                         new ChatMessage("system",
                                 "You are a data visualization expert. Based on the provided data characteristics, " +
-                                        "suggest the most appropriate chart type. Respond with only one of: BAR, PIE, LINE, SCATTER, HISTOGRAM"),
+                                        "suggest the most appropriate chart type. Respond with only one of: BAR, PIE, LINE, SCATTER, HISTOGRAM, SMALL_MULTIPLES"),
                         new ChatMessage("user", "What chart type would be best for this data? " + dataDescription)))
                 .maxTokens(50)
                 .temperature(0.1)
                 .build();
 
-        return getOpenAiService().createChatCompletion(request)
-                .getChoices().get(0).getMessage().getContent().trim().toUpperCase();
+        return complete(request, NO_PROGRESS).trim().toUpperCase();
+    }
+
+    /**
+     * Returns the content of the first choice for {@code request}, serving byte-identical requests
+     * from {@link AiResponseCache} instead of calling the model again. For responses used as plain
+     * text; structured responses are fetched and cached separately once they parse.
+     */
+    private String complete(ChatCompletionRequest request, AnalysisProgressListener listener) {
+        Response response = fetch(request, listener);
+        cache(response);
+        return response.content();
+    }
+
+    /**
+     * Cached content for {@code request}, or the content of a model call that is not cached yet, so
+     * that the caller can {@link #cache} it only once it proves usable. Token usage of actual calls
+     * is reported to {@code listener}.
+     */
+    private Response fetch(ChatCompletionRequest request, AnalysisProgressListener listener) {
+        String cacheKey = cacheKey(request);
+        Optional<String> cached = responseCache.get(cacheKey);
+        if (cached.isPresent()) {
+            return Response.cached(cacheKey, cached.get());
+        }
+        OpenAiClient.Completion completion = openAiClient.complete(request);
+        listener.onTokenUsage(completion.promptTokens(), completion.completionTokens());
+        return Response.fresh(cacheKey, completion);
+    }
+
+    /** Caches a fresh response unless the model was cut off, which would replay a truncated answer. */
+    private void cache(Response response) {
+        if (response.cacheable()) {
+            responseCache.put(response.cacheKey(), response.content());
+        }
+    }
+
+    /**
+     * Fits content to {@code budgetTokens}, and to whatever the context window leaves after the
+     * instructions and {@code maxTokens} of completion, keeping the most informative lines.
+     */
+    private String fitContent(String content, int budgetTokens, int maxTokens) {
+        return PromptBudget.fit(content, contentTokens(budgetTokens, maxTokens));
+    }
+
+    /** Content tokens a prompt may carry: {@code budgetTokens}, capped by what the context window leaves. */
+    private int contentTokens(int budgetTokens, int maxTokens) {
+        return Math.max(1, Math.min(budgetTokens, contextWindow - maxTokens - INSTRUCTION_TOKENS));
+    }
+
+    private static String cacheKey(ChatCompletionRequest request) {
+        return AiResponseCache.key(request.getModel(), request.getTemperature(), request.getMaxTokens(),
+                request.getMessages().stream()
+                        .map(message -> message.getRole() + ":" + message.getContent())
+                        .toList());
     }
 
     private ExtractedData analyzeWithFallback(String rawData, String sourceUrl) {
         log.info("Using fallback AI analysis for: {}", sourceUrl);
 
-        List<DataPoint> dataPoints = extractNumericDataFallback(rawData);
+        ColumnarDataSet dataPoints = extractNumericDataFallback(rawData);
         List<TextSection> textSections = extractTextSectionsFallback(rawData);
 
         String title = extractTitleFallback(rawData);
@@ -162,12 +516,20 @@ public class AiAnalysisAdapter implements AiAnalysisPort {
                 .title(title)
                 .summary(summary)
                 .dataType(determineDataTypeFallback(dataPoints, textSections))
-                .dataPoints(dataPoints)
+                .dataSet(dataPoints)
                 .textSections(textSections)
                 .build();
     }
 
+    /**
+     * Extractive summary of the most representative sentences, computed locally in milliseconds;
+     * content without any prose sentence is described by its size instead.
+     */
     private String generateFallbackSummary(String content) {
+        String summary = summarizer.summarize(content);
+        if (!summary.isEmpty()) {
+            return summary;
+        }
         String truncated = truncateContent(content, 500);
         int wordCount = truncated.split("\\s+").length;
         int sentenceCount = truncated.split("[.!?]+").length;
@@ -178,15 +540,14 @@ public class AiAnalysisAdapter implements AiAnalysisPort {
     }
 
     private String suggestChartTypeWithFallback(ExtractedData data) {
-        if (data.getDataPoints().isEmpty()) {
+        ColumnarDataSet dataSet = data.getDataSet();
+        if (dataSet.isEmpty()) {
             return "BAR";
         }
 
-        int dataPointCount = data.getDataPoints().size();
-        boolean hasTimeData = data.getDataPoints().stream()
-                .anyMatch(dp -> dp.getDate() != null);
-        boolean hasCategoricalData = data.getDataPoints().stream()
-                .anyMatch(dp -> dp.getCategory() != null && !dp.getCategory().isEmpty());
+        int dataPointCount = dataSet.size();
+        boolean hasTimeData = dataSet.hasDates();
+        boolean hasCategoricalData = dataSet.hasCategories();
 
         if (hasTimeData) {
             return "LINE";
@@ -200,7 +561,7 @@ public class AiAnalysisAdapter implements AiAnalysisPort {
     }
 
     private String buildAnalysisPrompt(String rawData) {
-        String truncatedData = truncateContent(rawData, 4000);
+        String truncatedData = fitContent(rawData, contentTokenBudget, 2000);
         return String.format("""
                 Please analyze the following data and provide insights:
 
@@ -218,13 +579,12 @@ public class AiAnalysisAdapter implements AiAnalysisPort {
 
     private String buildDataDescription(ExtractedData data) {
         StringBuilder desc = new StringBuilder();
-        desc.append("Data points: ").append(data.getDataPoints().size());
+        ColumnarDataSet dataSet = data.getDataSet();
+        desc.append("Data points: ").append(dataSet.size());
 
-        if (!data.getDataPoints().isEmpty()) {
-            boolean hasCategories = data.getDataPoints().stream()
-                    .anyMatch(dp -> dp.getCategory() != null);
-            boolean hasTime = data.getDataPoints().stream()
-                    .anyMatch(dp -> dp.getDate() != null);
+        if (!dataSet.isEmpty()) {
+            boolean hasCategories = !dataSet.categoryDictionary().isEmpty();
+            boolean hasTime = dataSet.hasDates();
 
             desc.append(", Has categories: ").append(hasCategories);
             desc.append(", Has time data: ").append(hasTime);
@@ -237,7 +597,7 @@ public class AiAnalysisAdapter implements AiAnalysisPort {
     private ExtractedData parseAiResponse(String response, String rawData, String sourceUrl) {
         // This is a simplified parser - in a real implementation, you'd want more
         // robust parsing
-        List<DataPoint> dataPoints = new ArrayList<>();
+        ColumnarDataSet.Builder extracted = ColumnarDataSet.builder();
         List<TextSection> textSections = new ArrayList<>();
 
         // Extract numerical data mentioned in the response
@@ -246,20 +606,13 @@ public class AiAnalysisAdapter implements AiAnalysisPort {
 
         while (matcher.find()) {
             String label = matcher.group(1).trim();
-            Double value = Double.valueOf(matcher.group(2));
+            double value = Double.parseDouble(matcher.group(2));
 
-            DataPoint dataPoint = DataPoint.builder()
-                    .label(label)
-                    .value(value)
-                    .category("AI Extracted")
-                    .build();
-            dataPoints.add(dataPoint);
+            extracted.add(label, value, "AI Extracted");
         }
 
         // If no structured data found, fall back to original extraction
-        if (dataPoints.isEmpty()) {
-            dataPoints = extractNumericDataFallback(rawData);
-        }
+        ColumnarDataSet dataPoints = extracted.size() > 0 ? extracted.build() : extractNumericDataFallback(rawData);
 
         // Extract title from response or generate one
         String title = extractTitleFromResponse(response);
@@ -285,40 +638,35 @@ public class AiAnalysisAdapter implements AiAnalysisPort {
                 .title(title)
                 .summary(generateFallbackSummary(response))
                 .dataType(determineDataTypeFallback(dataPoints, textSections))
-                .dataPoints(dataPoints)
+                .dataSet(dataPoints)
                 .textSections(textSections)
                 .build();
     }
 
-    private List<DataPoint> extractNumericDataFallback(String rawData) {
-        List<DataPoint> dataPoints = new ArrayList<>();
+    private ColumnarDataSet extractNumericDataFallback(String rawData) {
+        ColumnarDataSet.Builder dataPoints = ColumnarDataSet.builder(20);
         Pattern numberPattern = Pattern.compile("\\b(\\d+(?:\\.\\d+)?)\\b");
         Matcher matcher = numberPattern.matcher(rawData);
 
         int count = 0;
         while (matcher.find() && count < 20) {
             try {
-                Double value = Double.valueOf(matcher.group(1));
-                DataPoint dataPoint = DataPoint.builder()
-                        .label("Value " + (count + 1))
-                        .value(value)
-                        .category("Extracted")
-                        .build();
-                dataPoints.add(dataPoint);
+                double value = Double.parseDouble(matcher.group(1));
+                dataPoints.add("Value " + (count + 1), value, "Extracted");
                 count++;
             } catch (NumberFormatException e) {
                 // Skip invalid numbers
             }
         }
 
-        return dataPoints;
+        return dataPoints.build();
     }
 
     private List<TextSection> extractTextSectionsFallback(String rawData) {
         List<TextSection> sections = new ArrayList<>();
         String[] paragraphs = rawData.split("\n\n");
 
-        for (int i = 0; i < Math.min(paragraphs.length, 10); i++) {
+        for (int i = 0; i < paragraphs.length; i++) {
             String paragraph = paragraphs[i].trim();
             if (!paragraph.isEmpty() && paragraph.length() > 20) {
                 TextSection section = TextSection.builder()
@@ -330,7 +678,9 @@ public class AiAnalysisAdapter implements AiAnalysisPort {
             }
         }
 
-        return sections;
+        // Deduplicate before taking the first ten, so repeated blocks do not crowd out distinct ones
+        List<TextSection> distinct = sectionDeduplicator.deduplicate(sections);
+        return distinct.size() > 10 ? distinct.subList(0, 10) : distinct;
     }
 
     private String extractTitleFallback(String rawData) {
@@ -365,7 +715,7 @@ public class AiAnalysisAdapter implements AiAnalysisPort {
         return null;
     }
 
-    private ExtractedData.DataType determineDataTypeFallback(List<DataPoint> dataPoints,
+    private ExtractedData.DataType determineDataTypeFallback(ColumnarDataSet dataPoints,
             List<TextSection> textSections) {
         if (dataPoints.isEmpty() && !textSections.isEmpty()) {
             return ExtractedData.DataType.TEXT_ONLY;
@@ -378,6 +728,86 @@ public class AiAnalysisAdapter implements AiAnalysisPort {
         }
     }
 
+    /** Response content and whether it still has to be written to the cache. */
+    private record Response(String cacheKey, String content, boolean cacheable) {
+
+        static Response cached(String cacheKey, String content) {
+            return new Response(cacheKey, content, false);
+        }
+
+        static Response fresh(String cacheKey, OpenAiClient.Completion completion) {
+            return new Response(cacheKey, completion.content(), completion.finished());
+        }
+    }
+
+    /**
+     * Sums the token usage of one analysis and records it as a per-report distribution. Once
+     * detached, progress of a call that outlived its deadline is no longer forwarded.
+     */
+    private static final class TokenTally implements AnalysisProgressListener {
+        private final AnalysisProgressListener delegate;
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicLong promptTokens = new AtomicLong();
+        private final AtomicLong completionTokens = new AtomicLong();
+        private volatile boolean detached;
+
+        private TokenTally(AnalysisProgressListener delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void onTokens(int streamedTokens) {
+            if (!detached) {
+                delegate.onTokens(streamedTokens);
+            }
+        }
+
+        @Override
+        public void onChartTypes(List<Chart.ChartType> chartTypes) {
+            if (!detached) {
+                delegate.onChartTypes(chartTypes);
+            }
+        }
+
+        @Override
+        public void onDataPoint(DataPoint dataPoint) {
+            if (!detached) {
+                delegate.onDataPoint(dataPoint);
+            }
+        }
+
+        @Override
+        public void onSection(TextSection section) {
+            if (!detached) {
+                delegate.onSection(section);
+            }
+        }
+
+        @Override
+        public void onTokenUsage(int prompt, int completion) {
+            calls.incrementAndGet();
+            promptTokens.addAndGet(prompt);
+            completionTokens.addAndGet(completion);
+            if (!detached) {
+                delegate.onTokenUsage(prompt, completion);
+            }
+        }
+
+        void detach() {
+            detached = true;
+        }
+
+        void record(MeterRegistry registry) {
+            if (calls.get() == 0) {
+                // Served entirely from the cache
+                return;
+            }
+            registry.summary("ai.report.tokens", "type", "prompt").record(promptTokens.get());
+            registry.summary("ai.report.tokens", "type", "completion").record(completionTokens.get());
+            registry.summary("ai.report.calls").record(calls.get());
+        }
+    }
+
     private String truncateContent(String content, int maxLength) {
         if (content == null)
             return "";
@@ -0,0 +1,275 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Two-tier cache for model responses, keyed by a SHA-256 of the model, the request parameters and
+ * the exact prompt messages. The memory tier is a bounded LRU map; the disk tier keeps one file per
+ * key, expires entries by modification time and evicts the oldest files once the size budget is
+ * exceeded. Disk hits are promoted to memory.
+ */
+@Slf4j
+@Component
+class AiResponseCache {
+
+    private final boolean enabled;
+    private final int maxMemoryEntries;
+    private final Duration ttl;
+    private final Path directory;
+    private final long maxDiskBytes;
+    private final Map<String, Entry> memory;
+    private final AtomicLong diskBytes = new AtomicLong();
+    private volatile boolean diskAvailable;
+
+    private final Counter memoryHits;
+    private final Counter diskHits;
+    private final Counter misses;
+
+    AiResponseCache(
+            @Value("${ai.cache.enabled:true}") boolean enabled,
+            @Value("${ai.cache.memory.max-entries:500}") int maxMemoryEntries,
+            @Value("${ai.cache.ttl:24h}") Duration ttl,
+            @Value("${ai.cache.disk.directory:${java.io.tmpdir}/report-ai-cache}") String directory,
+            @Value("${ai.cache.disk.max-size:100MB}") DataSize maxDiskSize,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxMemoryEntries = maxMemoryEntries;
+        this.ttl = ttl;
+        this.directory = directory == null || directory.isBlank() ? null : Paths.get(directory);
+        this.maxDiskBytes = maxDiskSize.toBytes();
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > AiResponseCache.this.maxMemoryEntries;
+            }
+        };
+
+        this.memoryHits = Counter.builder("ai.cache.requests").tag("result", "hit").tag("tier", "memory")
+            .description("AI response cache lookups").register(meterRegistry);
+        this.diskHits = Counter.builder("ai.cache.requests").tag("result", "hit").tag("tier", "disk")
+            .description("AI response cache lookups").register(meterRegistry);
+        this.misses = Counter.builder("ai.cache.requests").tag("result", "miss").tag("tier", "none")
+            .description("AI response cache lookups").register(meterRegistry);
+        Gauge.builder("ai.cache.hit.ratio", this, AiResponseCache::hitRatio)
+            .description("Fraction of AI response lookups served from either cache tier")
+            .register(meterRegistry);
+        Gauge.builder("ai.cache.disk.bytes", diskBytes, AtomicLong::get)
+            .baseUnit("bytes")
+            .register(meterRegistry);
+
+        initializeDiskTier();
+    }
+
+    /** Cache key for a model call; any change in model, parameters or message text changes the key. */
+    static String key(String model, Double temperature, Integer maxTokens, List<String> messages) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            update(digest, model);
+            update(digest, String.valueOf(temperature));
+            update(digest, String.valueOf(maxTokens));
+            for (String message : messages) {
+                update(digest, message);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    Optional<String> get(String key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        long now = System.currentTimeMillis();
+        synchronized (memory) {
+            Entry entry = memory.get(key);
+            if (entry != null) {
+                if (now - entry.storedAt() <= ttl.toMillis()) {
+                    memoryHits.increment();
+                    return Optional.of(entry.value());
+                }
+                memory.remove(key);
+            }
+        }
+
+        Optional<Entry> fromDisk = readFromDisk(key, now);
+        if (fromDisk.isPresent()) {
+            diskHits.increment();
+            // Promoted with the file's write time, so the entry still expires when the file does
+            synchronized (memory) {
+                memory.put(key, fromDisk.get());
+            }
+            return Optional.of(fromDisk.get().value());
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    void put(String key, String value) {
+        if (!enabled || value == null) {
+            return;
+        }
+        synchronized (memory) {
+            memory.put(key, new Entry(value, System.currentTimeMillis()));
+        }
+        writeToDisk(key, value);
+    }
+
+    double hitRatio() {
+        double hits = memoryHits.count() + diskHits.count();
+        double total = hits + misses.count();
+        return total == 0 ? 0.0 : hits / total;
+    }
+
+    private Optional<Entry> readFromDisk(String key, long now) {
+        if (!diskAvailable) {
+            return Optional.empty();
+        }
+        Path file = directory.resolve(key);
+        try {
+            if (!Files.isRegularFile(file)) {
+                return Optional.empty();
+            }
+            long modified = Files.getLastModifiedTime(file).toMillis();
+            if (now - modified > ttl.toMillis()) {
+                long size = Files.size(file);
+                if (delete(file)) {
+                    diskBytes.addAndGet(-size);
+                }
+                return Optional.empty();
+            }
+            return Optional.of(new Entry(Files.readString(file, StandardCharsets.UTF_8), modified));
+        } catch (IOException e) {
+            log.debug("Failed to read cached AI response {}", file, e);
+            return Optional.empty();
+        }
+    }
+
+    private void writeToDisk(String key, String value) {
+        if (!diskAvailable) {
+            return;
+        }
+        Path target = directory.resolve(key);
+        try {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            long previous = Files.exists(target) ? Files.size(target) : 0;
+            Path temp = Files.createTempFile(directory, key, ".tmp");
+            Files.write(temp, bytes);
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (diskBytes.addAndGet(bytes.length - previous) > maxDiskBytes) {
+                evictOldest();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to persist cached AI response {}", target, e);
+        }
+    }
+
+    private void initializeDiskTier() {
+        if (!enabled || directory == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            long now = System.currentTimeMillis();
+            long total = 0;
+            for (CachedFile cached : listFiles()) {
+                if (now - cached.modified().toMillis() > ttl.toMillis()) {
+                    delete(cached.path());
+                } else {
+                    total += cached.size();
+                }
+            }
+            diskBytes.set(total);
+            diskAvailable = true;
+            log.info("AI response cache at {} holds {} bytes", directory, total);
+        } catch (IOException e) {
+            log.warn("Disabling disk tier of AI response cache; {} is not usable", directory, e);
+        }
+    }
+
+    /** Deletes the least recently written files until the tier is back under 90% of its budget. */
+    private synchronized void evictOldest() throws IOException {
+        List<CachedFile> files = listFiles();
+        files.sort(Comparator.comparing(CachedFile::modified));
+        long total = files.stream().mapToLong(CachedFile::size).sum();
+        long target = maxDiskBytes * 9 / 10;
+        for (CachedFile cached : files) {
+            if (total <= target) {
+                break;
+            }
+            if (delete(cached.path())) {
+                total -= cached.size();
+            }
+        }
+        diskBytes.set(total);
+    }
+
+    private List<CachedFile> listFiles() throws IOException {
+        List<CachedFile> files = new ArrayList<>();
+        try (Stream<Path> paths = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                if (Files.isRegularFile(path) && !path.getFileName().toString().endsWith(".tmp")) {
+                    try {
+                        files.add(new CachedFile(path, Files.getLastModifiedTime(path), Files.size(path)));
+                    } catch (IOException e) {
+                        // Removed concurrently
+                    }
+                }
+            }
+        }
+        return files;
+    }
+
+    private boolean delete(Path file) {
+        try {
+            return Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Failed to delete cached AI response {}", file, e);
+            return false;
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        // Separator so that ("ab", "c") and ("a", "bc") hash differently
+        digest.update((byte) 0);
+    }
+
+    private record Entry(String value, long storedAt) {
+    }
+
+    private record CachedFile(Path path, FileTime modified, long size) {
+    }
+}
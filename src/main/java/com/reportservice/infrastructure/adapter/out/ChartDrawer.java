@@ -0,0 +1,16 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+
+import com.reportservice.domain.model.Chart;
+
+/**
+ * Draws charts as vector graphics for the renderers in this package. Kept out of
+ * {@link com.reportservice.domain.port.out.ChartGenerationPort} so the domain does not depend on AWT.
+ */
+interface ChartDrawer {
+
+    /** Draws the chart into {@code area}, without rasterizing it. */
+    void drawChart(Chart chart, Graphics2D graphics, Rectangle2D area);
+}
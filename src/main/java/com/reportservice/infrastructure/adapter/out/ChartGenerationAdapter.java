@@ -3,39 +3,75 @@ package com.reportservice.infrastructure.adapter.out;
 import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Font;
-import java.io.ByteArrayOutputStream;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.text.FieldPosition;
+import java.text.NumberFormat;
+import java.text.ParsePosition;
+import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.jfree.chart.ChartFactory;
-import org.jfree.chart.ChartUtils;
 import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.NumberAxis;
 import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.text.TextUtils;
+import org.jfree.chart.ui.Drawable;
 import org.jfree.data.category.DefaultCategoryDataset;
 import org.jfree.data.general.DefaultPieDataset;
 import org.jfree.data.statistics.HistogramDataset;
 import org.jfree.data.xy.XYSeries;
 import org.jfree.data.xy.XYSeriesCollection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
 import com.reportservice.domain.model.Chart;
+import com.reportservice.domain.model.ColumnarDataSet;
 import com.reportservice.domain.model.DataPoint;
 import com.reportservice.domain.model.ExtractedData;
+import com.reportservice.domain.model.StatisticsSummary;
 import com.reportservice.domain.port.out.ChartGenerationPort;
+import com.reportservice.domain.statistics.Downsampling;
 
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @Component
-public class ChartGenerationAdapter implements ChartGenerationPort {
+public class ChartGenerationAdapter implements ChartGenerationPort, ChartDrawer {
 
+    /** Canvas for outputs without a raster target of their own, such as native Word charts. */
     private static final int CHART_WIDTH = 800;
     private static final int CHART_HEIGHT = 600;
+    static final int PIE_SLICES = 10;
+    /** Line series are reduced to about one point per horizontal pixel. */
+    static final int LINE_POINTS_PER_SERIES = CHART_WIDTH;
+    /** Bars narrower than about 16 pixels are unreadable, so further labels go to "Other". */
+    private static final int MIN_BAR_PIXELS = 16;
+    static final int MAX_BAR_LABELS = CHART_WIDTH / MIN_BAR_PIXELS;
+    static final int MAX_BAR_SERIES = 10;
+    private static final int SCATTER_CELL_PIXELS = 8;
+    /** Categories from which a line per category no longer reads and a grid of panels is drawn. */
+    static final int SMALL_MULTIPLES_MIN_PANELS = 6;
+    static final int SMALL_MULTIPLES_MAX_PANELS = 24;
+    private static final String OTHER = "Other";
     private static final Color[] CHART_COLORS = {
             new Color(31, 119, 180),
             new Color(255, 127, 14),
@@ -49,73 +85,149 @@ public class ChartGenerationAdapter implements ChartGenerationPort {
             new Color(23, 190, 207)
     };
 
+    static {
+        // Rotated labels otherwise go through a TextLayout, which reaches Graphics2D as glyph outlines
+        // and so leaves the y axis label out of the text of vector PDF charts; current JDKs draw
+        // rotated strings correctly, which is all the workaround was for
+        TextUtils.setUseDrawRotatedStringWorkaround(false);
+    }
+
+    private final ChartImageCache imageCache;
+    private final ChartPngEncoder pngEncoder;
+    private final ExecutorService renderPool;
+    private final ImageBufferPool bufferPool;
+    private final Map<String, CompletableFuture<byte[]>> rendersInFlight = new ConcurrentHashMap<>();
+    private final boolean warmUp;
+
+    ChartGenerationAdapter(
+            ChartImageCache imageCache,
+            ChartPngEncoder pngEncoder,
+            @Value("${chart.render.threads:0}") int renderThreads,
+            @Value("${chart.render.warm-up:true}") boolean warmUp) {
+        this.imageCache = imageCache;
+        this.pngEncoder = pngEncoder;
+        this.warmUp = warmUp;
+        // Rendering is CPU-bound, so one thread per core unless configured otherwise
+        int threads = renderThreads > 0 ? renderThreads : Runtime.getRuntime().availableProcessors();
+        // Every render thread holds at most one image at a time
+        this.bufferPool = new ImageBufferPool(threads);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.renderPool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "chart-render-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Renders the primary, alternative and category charts concurrently on the render pool. The
+     * primary chart has the type the analysis recommended, if any, except that a recommended line or
+     * bar chart becomes small multiples when the data has too many categories for one legend. A
+     * chart that fails to render is logged and left out without affecting the others.
+     */
     @Override
     public CompletableFuture<List<Chart>> generateCharts(ExtractedData data) {
-        return CompletableFuture.supplyAsync(() -> {
-            List<Chart> charts = new ArrayList<>();
+        ColumnarDataSet dataSet = data.getDataSet();
+        if (dataSet.isEmpty()) {
+            log.info("No data points available for chart generation");
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        }
 
-            if (data.getDataPoints() == null || data.getDataPoints().isEmpty()) {
-                log.info("No data points available for chart generation");
-                return charts;
-            }
+        List<CompletableFuture<Chart>> charts = new ArrayList<>(3);
 
-            try {
-                // Determine the best chart type based on data characteristics
-                Chart.ChartType bestChartType = determineBestChartType(data);
-
-                // Generate the primary chart
-                Chart primaryChart = generateChart(bestChartType, data.getDataPoints(),
-                        data.getTitle() != null ? data.getTitle() : "Data Analysis").join();
-                charts.add(primaryChart);
-
-                // Generate additional charts if data supports it
-                if (data.getDataPoints().size() > 5) {
-                    // Generate a secondary chart with different visualization
-                    Chart.ChartType secondaryType = getSecondaryChartType(bestChartType);
-                    Chart secondaryChart = generateChart(secondaryType, data.getDataPoints(),
-                            "Alternative View - " + (data.getTitle() != null ? data.getTitle() : "Data")).join();
-                    charts.add(secondaryChart);
-                }
+        Chart.ChartType bestChartType = primaryChartType(data.getRecommendedChartTypes(), dataSet);
+        charts.add(isolated(bestChartType, generateChart(bestChartType, dataSet,
+                data.getTitle() != null ? data.getTitle() : "Data Analysis")));
 
-                // Generate category-based charts if categories are present
-                if (hasCategoricalData(data.getDataPoints())) {
-                    Chart categoryChart = generateCategoryChart(data.getDataPoints()).join();
-                    charts.add(categoryChart);
-                }
+        // Generate a secondary chart with different visualization if data supports it
+        if (dataSet.size() > 5) {
+            Chart.ChartType secondaryType = getSecondaryChartType(bestChartType);
+            charts.add(isolated(secondaryType, generateChart(secondaryType, dataSet,
+                    "Alternative View - " + (data.getTitle() != null ? data.getTitle() : "Data"))));
+        }
 
-            } catch (Exception e) {
-                log.error("Error generating charts", e);
-                // Return empty list if chart generation fails
-            }
+        // Generate category-based charts if categories are present
+        if (dataSet.hasCategories()) {
+            charts.add(isolated(Chart.ChartType.PIE, CompletableFuture.supplyAsync(
+                    () -> buildChart(Chart.ChartType.PIE, categoryTotals(dataSet), "Category Summary"), renderPool)));
+        }
 
-            return charts;
-        });
+        return CompletableFuture.allOf(charts.toArray(CompletableFuture[]::new))
+                .thenApply(done -> charts.stream()
+                        .map(CompletableFuture::join)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toCollection(ArrayList::new)));
     }
 
     @Override
     public CompletableFuture<Chart> generateChart(Chart.ChartType type, List<DataPoint> dataPoints, String title) {
-        return CompletableFuture.supplyAsync(() -> {
+        return generateChart(type, ColumnarDataSet.of(dataPoints), title);
+    }
+
+    @Override
+    public CompletableFuture<Chart> generateChart(Chart.ChartType type, ColumnarDataSet dataSet, String title) {
+        return CompletableFuture.supplyAsync(() -> buildChart(type, dataSet, title), renderPool);
+    }
+
+    /**
+     * Loads AWT, the chart fonts and the JFreeChart and PNG encoder classes in the background by
+     * rendering a synthetic chart of every type, so the first report after startup does not pay
+     * seconds of class loading and font initialization. The images are not cached.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    void warmUp() {
+        if (!warmUp) {
+            return;
+        }
+        renderPool.execute(() -> {
+            long start = System.nanoTime();
             try {
-                JFreeChart jfreeChart = createJFreeChart(type, dataPoints, title);
-                byte[] imageData = chartToByteArray(jfreeChart);
-
-                return Chart.builder()
-                        .title(title)
-                        .type(type)
-                        .dataPoints(dataPoints)
-                        .imageData(imageData)
-                        .description(generateChartDescription(type, dataPoints))
-                        .xAxisLabel(determineXAxisLabel(dataPoints))
-                        .yAxisLabel(determineYAxisLabel(dataPoints))
-                        .build();
-
-            } catch (IOException e) {
-                log.error("Error generating {} chart: {}", type, e.getMessage(), e);
-                throw new RuntimeException("Failed to generate chart", e);
+                GraphicsEnvironment.getLocalGraphicsEnvironment();
+                ColumnarDataSet sample = warmUpSample();
+                for (Chart.ChartType type : Chart.ChartType.values()) {
+                    chartToByteArray(type, sample, "Warm-up", Chart.ImageTarget.PREVIEW);
+                }
+                log.info("Chart rendering warmed up in {} ms", (System.nanoTime() - start) / 1_000_000);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Chart rendering warm-up failed: {}", e.getMessage());
             }
         });
     }
 
+    @PreDestroy
+    void shutdown() {
+        renderPool.shutdownNow();
+    }
+
+    private Chart buildChart(Chart.ChartType type, ColumnarDataSet dataSet, String title) {
+        try {
+            // Formats render their own size on demand; the chart only carries a thumbnail
+            byte[] imageData = renderImage(type, dataSet, title, Chart.ImageTarget.PREVIEW);
+
+            return Chart.builder()
+                    .title(title)
+                    .type(type)
+                    .dataSet(dataSet)
+                    .imageData(imageData)
+                    .description(generateChartDescription(type, dataSet))
+                    .xAxisLabel(determineXAxisLabel(dataSet))
+                    .yAxisLabel(determineYAxisLabel(dataSet))
+                    .build();
+
+        } catch (IOException e) {
+            log.error("Error generating {} chart: {}", type, e.getMessage(), e);
+            throw new RuntimeException("Failed to generate chart", e);
+        }
+    }
+
+    /** Completes with {@code null} instead of failing, so one broken chart does not fail the report. */
+    private CompletableFuture<Chart> isolated(Chart.ChartType type, CompletableFuture<Chart> chart) {
+        return chart.exceptionally(throwable -> {
+            log.warn("Leaving out {} chart that failed to render: {}", type, throwable.getMessage());
+            return null;
+        });
+    }
+
     @Override
     public byte[] chartToImage(Chart chart) {
         try {
@@ -124,8 +236,7 @@ public class ChartGenerationAdapter implements ChartGenerationPort {
             }
 
             // Regenerate chart if image data is not available
-            JFreeChart jfreeChart = createJFreeChart(chart.getType(), chart.getDataPoints(), chart.getTitle());
-            return chartToByteArray(jfreeChart);
+            return renderImage(chart.getType(), chart.getDataSet(), chart.getTitle(), Chart.ImageTarget.PREVIEW);
 
         } catch (IOException e) {
             log.error("Error converting chart to image", e);
@@ -133,32 +244,90 @@ public class ChartGenerationAdapter implements ChartGenerationPort {
         }
     }
 
-    private JFreeChart createJFreeChart(Chart.ChartType type, List<DataPoint> dataPoints, String title) {
+    @Override
+    public byte[] chartToImage(Chart chart, Chart.ImageTarget target) {
+        try {
+            if (chart.getDataSet().isEmpty() || chart.getType() == null) {
+                return chart.getImageData() != null ? chart.getImageData() : new byte[0];
+            }
+            return renderImage(chart.getType(), chart.getDataSet(), chart.getTitle(), target);
+        } catch (IOException e) {
+            log.error("Error converting chart to {} image", target, e);
+            return new byte[0];
+        }
+    }
+
+    @Override
+    public void drawChart(Chart chart, Graphics2D graphics, Rectangle2D area) {
+        createDrawing(chart.getType(), chart.getDataSet(), chart.getTitle(),
+                (int) area.getWidth(), (int) area.getHeight()).draw(graphics, area);
+    }
+
+    /**
+     * PNG of the chart for {@code target}, rendered only if an identical chart is not already in
+     * {@link ChartImageCache}. Images are keyed by layout size and resolution rather than by target,
+     * so concurrent requests for the same image wait for one render even with the cache disabled;
+     * later requests are only spared a render by the cache.
+     */
+    private byte[] renderImage(Chart.ChartType type, ColumnarDataSet dataSet, String title,
+            Chart.ImageTarget target) throws IOException {
+        String key = ChartImageCache.key(type, title, target.widthPoints(), target.heightPoints(), target.dpi(),
+                pngEncoder.settings(), dataSet);
+        CompletableFuture<byte[]> render = new CompletableFuture<>();
+        CompletableFuture<byte[]> running = rendersInFlight.putIfAbsent(key, render);
+        if (running != null) {
+            return awaitRender(running);
+        }
+        try {
+            byte[] image = imageCache.get(key, () -> chartToByteArray(type, dataSet, title, target));
+            render.complete(image);
+            return image;
+        } catch (IOException | RuntimeException e) {
+            render.completeExceptionally(e);
+            throw e;
+        } finally {
+            rendersInFlight.remove(key, render);
+        }
+    }
+
+    private static byte[] awaitRender(CompletableFuture<byte[]> render) throws IOException {
+        try {
+            return render.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    Drawable createDrawing(Chart.ChartType type, ColumnarDataSet dataSet, String title,
+            int width, int height) {
         return switch (type) {
-            case BAR -> createBarChart(dataPoints, title);
-            case PIE -> createPieChart(dataPoints, title);
-            case LINE -> createLineChart(dataPoints, title);
-            case SCATTER -> createScatterChart(dataPoints, title);
-            case HISTOGRAM -> createHistogramChart(dataPoints, title);
+            case BAR -> createBarChart(dataSet, title, width);
+            case PIE -> createPieChart(dataSet, title);
+            case LINE -> createLineChart(dataSet, title, width);
+            case SCATTER -> createScatterChart(dataSet, title, width, height);
+            case HISTOGRAM -> createHistogramChart(dataSet, title);
+            case SMALL_MULTIPLES -> createSmallMultiplesChart(dataSet, title, width, height);
         };
     }
 
-    private JFreeChart createBarChart(List<DataPoint> dataPoints, String title) {
+    private JFreeChart createBarChart(ColumnarDataSet dataSet, String title, int width) {
         DefaultCategoryDataset dataset = new DefaultCategoryDataset();
 
-        for (DataPoint dataPoint : dataPoints) {
-            String category = dataPoint.getCategory() != null ? dataPoint.getCategory() : "Data";
-            String label = dataPoint.getLabel() != null ? dataPoint.getLabel() : "Value";
-            Double valueObj = dataPoint.getValue();
-            double value = valueObj != null ? valueObj : 0.0;
-            dataset.addValue(value, category, label);
-
+        int maxLabels = Math.max(2, width / MIN_BAR_PIXELS);
+        ColumnarDataSet.Cursor cursor = limitBars(dataSet, maxLabels, MAX_BAR_SERIES).cursor();
+        while (cursor.next()) {
+            String category = cursor.category() != null ? cursor.category() : "Data";
+            String label = cursor.label() != null ? cursor.label() : "Value";
+            dataset.addValue(cursor.valueOr(0.0), category, label);
         }
 
         JFreeChart chart = ChartFactory.createBarChart(
                 title,
-                determineXAxisLabel(dataPoints),
-                determineYAxisLabel(dataPoints),
+                determineXAxisLabel(dataSet),
+                determineYAxisLabel(dataSet),
                 dataset,
                 PlotOrientation.VERTICAL,
                 true,
@@ -169,22 +338,10 @@ public class ChartGenerationAdapter implements ChartGenerationPort {
         return chart;
     }
 
-    private JFreeChart createPieChart(List<DataPoint> dataPoints, String title) {
+    private JFreeChart createPieChart(ColumnarDataSet dataSet, String title) {
         DefaultPieDataset<String> dataset = new DefaultPieDataset<>();
 
-        // Limit to top 10 data points to avoid cluttered pie chart
-        List<DataPoint> topDataPoints = dataPoints.stream()
-                .sorted(Comparator.comparingDouble(
-                        dp -> ((DataPoint) dp).getValue() != null ? ((DataPoint) dp).getValue() : 0.0).reversed())
-                .limit(10)
-                .collect(Collectors.toList());
-
-        for (DataPoint dataPoint : topDataPoints) {
-            String label = dataPoint.getLabel() != null ? dataPoint.getLabel() : "Unknown";
-            Double valueObj = dataPoint.getValue();
-            double value = valueObj != null ? valueObj.doubleValue() : 0.0;
-            dataset.setValue(label, value);
-        }
+        pieSlices(dataSet, PIE_SLICES).forEach(dataset::setValue);
 
         JFreeChart chart = ChartFactory.createPieChart(
                 title,
@@ -198,29 +355,17 @@ public class ChartGenerationAdapter implements ChartGenerationPort {
         return chart;
     }
 
-    private JFreeChart createLineChart(List<DataPoint> dataPoints, String title) {
+    private JFreeChart createLineChart(ColumnarDataSet dataSet, String title, int width) {
         XYSeriesCollection dataset = new XYSeriesCollection();
+        boolean epochDays = onEpochDays(dataSet);
 
-        // Group data points by category
-        Map<String, List<DataPoint>> categorizedData = dataPoints.stream()
-                .collect(Collectors.groupingBy(dp -> dp.getCategory() != null ? dp.getCategory() : "Default"));
-
-        for (Map.Entry<String, List<DataPoint>> entry : categorizedData.entrySet()) {
+        for (Map.Entry<String, LineSeries> entry : lineSeries(dataSet, Math.max(3, width)).entrySet()) {
             XYSeries series = new XYSeries(entry.getKey());
 
-            List<DataPoint> sortedPoints = entry.getValue().stream()
-                    .sorted((a, b) -> {
-                        if (a.getDate() != null && b.getDate() != null) {
-                            return a.getDate().compareTo(b.getDate());
-                        }
-                        return 0;
-                    })
-                    .collect(Collectors.toList());
-
-            for (int i = 0; i < sortedPoints.size(); i++) {
-                DataPoint dp = sortedPoints.get(i);
-                Double value = dp.getValue() != null ? dp.getValue() : 0.0;
-                series.add(i, value);
+            int[] rows = entry.getValue().rows();
+            for (int i = 0; i < rows.length; i++) {
+                double value = dataSet.hasValue(rows[i]) ? dataSet.value(rows[i]) : 0.0;
+                series.add(entry.getValue().x(dataSet, i, epochDays), value, false);
             }
 
             dataset.addSeries(series);
@@ -228,8 +373,8 @@ public class ChartGenerationAdapter implements ChartGenerationPort {
 
         JFreeChart chart = ChartFactory.createXYLineChart(
                 title,
-                determineXAxisLabel(dataPoints),
-                determineYAxisLabel(dataPoints),
+                determineXAxisLabel(dataSet),
+                determineYAxisLabel(dataSet),
                 dataset,
                 PlotOrientation.VERTICAL,
                 true,
@@ -237,25 +382,40 @@ public class ChartGenerationAdapter implements ChartGenerationPort {
                 false);
 
         customizeChart(chart);
+        if (epochDays) {
+            labelEpochDays((NumberAxis) chart.getXYPlot().getDomainAxis());
+        }
         return chart;
     }
 
-    private JFreeChart createScatterChart(List<DataPoint> dataPoints, String title) {
+    private Drawable createSmallMultiplesChart(ColumnarDataSet dataSet, String title, int width, int height) {
+        int panelCount = Math.min(SMALL_MULTIPLES_MAX_PANELS, Math.max(1, dataSet.categoryDictionary().size()));
+        int pointBudget = Math.max(3, width / SmallMultiplesChart.columns(panelCount, width, height));
+        List<SmallMultiplesChart.Panel> panels = smallMultiplesPanels(dataSet, SMALL_MULTIPLES_MAX_PANELS, pointBudget);
+
+        int categories = dataSet.categoryDictionary().size();
+        String fullTitle = categories > panels.size() && title != null
+                ? String.format("%s (%d of %d categories)", title, panels.size(), categories)
+                : title;
+        return new SmallMultiplesChart(fullTitle, determineXAxisLabel(dataSet), determineYAxisLabel(dataSet),
+                panels, onEpochDays(dataSet), CHART_COLORS[0]);
+    }
+
+    private JFreeChart createScatterChart(ColumnarDataSet dataSet, String title, int width, int height) {
         XYSeriesCollection dataset = new XYSeriesCollection();
         XYSeries series = new XYSeries("Data Points");
 
-        for (int i = 0; i < dataPoints.size(); i++) {
-            DataPoint dp = dataPoints.get(i);
-            Double value = dp.getValue() != null ? dp.getValue() : 0.0;
-            series.add(i, value);
+        Downsampling.BinnedPoints points = scatterPoints(dataSet, width, height);
+        for (int i = 0; i < points.size(); i++) {
+            series.add(points.x()[i], points.y()[i], false);
         }
 
         dataset.addSeries(series);
 
         JFreeChart chart = ChartFactory.createScatterPlot(
                 title,
-                determineXAxisLabel(dataPoints),
-                determineYAxisLabel(dataPoints),
+                determineXAxisLabel(dataSet),
+                determineYAxisLabel(dataSet),
                 dataset,
                 PlotOrientation.VERTICAL,
                 true,
@@ -266,17 +426,15 @@ public class ChartGenerationAdapter implements ChartGenerationPort {
         return chart;
     }
 
-    private JFreeChart createHistogramChart(List<DataPoint> dataPoints, String title) {
-        double[] values = dataPoints.stream()
-                .mapToDouble(dp -> dp.getValue() != null ? dp.getValue() : 0.0)
-                .toArray();
+    private JFreeChart createHistogramChart(ColumnarDataSet dataSet, String title) {
+        double[] values = dataSet.values(0.0);
 
         HistogramDataset dataset = new HistogramDataset();
-        dataset.addSeries("Frequency", values, Math.min(20, values.length / 2));
+        dataset.addSeries("Frequency", values, histogramBins(values.length));
 
         JFreeChart chart = ChartFactory.createHistogram(
                 title,
-                determineXAxisLabel(dataPoints),
+                determineXAxisLabel(dataSet),
                 "Frequency",
                 dataset,
                 PlotOrientation.VERTICAL,
@@ -287,8 +445,7 @@ public class ChartGenerationAdapter implements ChartGenerationPort {
         customizeChart(chart);
         return chart;
     }
-
-    private void customizeChart(JFreeChart chart) {
+    void customizeChart(JFreeChart chart) {
         // Set background color
         chart.setBackgroundPaint(Color.WHITE);
 
@@ -315,87 +472,377 @@ public class ChartGenerationAdapter implements ChartGenerationPort {
         }
     }
 
-    private byte[] chartToByteArray(JFreeChart chart) throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        ChartUtils.writeChartAsPNG(baos, chart, CHART_WIDTH, CHART_HEIGHT);
-        return baos.toByteArray();
+    /**
+     * Lays the chart out at the target's size in points and draws it scaled to the target's pixel
+     * size, into a pooled frame instead of the fresh image {@code ChartUtils.writeChartAsPNG}
+     * allocates. The frame is encoded with the configured {@link ChartPngEncoder}, and drawn without
+     * antialiasing when that encodes with a palette, since smoothed edges would not fit one.
+     */
+    private byte[] chartToByteArray(Chart.ChartType type, ColumnarDataSet dataSet, String title,
+            Chart.ImageTarget target) throws IOException {
+        int width = target.pixelWidth();
+        int height = target.pixelHeight();
+        Drawable chart = createDrawing(type, dataSet, title, width, height);
+        if (pngEncoder.palette()) {
+            disableAntiAliasing(chart);
+        }
+        BufferedImage image = bufferPool.acquire(width, height);
+        try {
+            Graphics2D graphics = image.createGraphics();
+            try {
+                double scale = target.dpi() / 72.0;
+                graphics.scale(scale, scale);
+                chart.draw(graphics, new Rectangle2D.Double(0, 0, target.widthPoints(), target.heightPoints()));
+            } finally {
+                graphics.dispose();
+            }
+            return pngEncoder.encode(image);
+        } finally {
+            bufferPool.release(image);
+        }
     }
 
-    private Chart.ChartType determineBestChartType(ExtractedData data) {
-        List<DataPoint> dataPoints = data.getDataPoints();
+    private static void disableAntiAliasing(Drawable chart) {
+        if (chart instanceof JFreeChart jfreeChart) {
+            jfreeChart.setAntiAlias(false);
+            jfreeChart.setTextAntiAlias(false);
+        } else if (chart instanceof SmallMultiplesChart smallMultiples) {
+            smallMultiples.setAntiAlias(false);
+        }
+    }
 
-        if (dataPoints.size() <= 5 && hasCategoricalData(dataPoints)) {
+    /** Labelled, categorized and dated rows, so every chart type takes its full code path. */
+    private static ColumnarDataSet warmUpSample() {
+        ColumnarDataSet.Builder sample = ColumnarDataSet.builder(24);
+        LocalDate day = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < 24; i++) {
+            sample.add("Item " + i, (double) (i * 7 % 11), "Group " + i % 3, day.plusDays(i), "units", null);
+        }
+        return sample.build();
+    }
+
+    /** Prefers the analysis' recommendation, otherwise chooses by data characteristics. */
+    static Chart.ChartType primaryChartType(List<Chart.ChartType> recommended, ColumnarDataSet dataSet) {
+        if (recommended.isEmpty()) {
+            return determineBestChartType(dataSet);
+        }
+        Chart.ChartType type = recommended.get(0);
+        // The model does not see how many series a single line or bar chart would have to fit
+        if ((type == Chart.ChartType.LINE || type == Chart.ChartType.BAR) && suitsSmallMultiples(dataSet)) {
+            return Chart.ChartType.SMALL_MULTIPLES;
+        }
+        return type;
+    }
+
+    private static Chart.ChartType determineBestChartType(ColumnarDataSet dataSet) {
+        boolean hasCategories = dataSet.hasCategories();
+
+        if (dataSet.size() <= 5 && hasCategories) {
             return Chart.ChartType.PIE;
-        } else if (hasTimeSeriesData(dataPoints)) {
+        } else if (suitsSmallMultiples(dataSet)) {
+            return Chart.ChartType.SMALL_MULTIPLES;
+        } else if (dataSet.hasDates()) {
             return Chart.ChartType.LINE;
-        } else if (dataPoints.size() > 20) {
+        } else if (dataSet.size() > 20) {
             return Chart.ChartType.HISTOGRAM;
-        } else if (hasCategoricalData(dataPoints)) {
-            return Chart.ChartType.BAR;
         } else {
             return Chart.ChartType.BAR;
         }
     }
 
+    /** Enough points per category for a trend each, too many categories for one legend. */
+    private static boolean suitsSmallMultiples(ColumnarDataSet dataSet) {
+        int categories = dataSet.categoryDictionary().size();
+        return categories >= SMALL_MULTIPLES_MIN_PANELS && dataSet.size() >= 3 * categories;
+    }
+
     private Chart.ChartType getSecondaryChartType(Chart.ChartType primaryType) {
         return switch (primaryType) {
             case BAR -> Chart.ChartType.PIE;
             case PIE -> Chart.ChartType.BAR;
             case LINE -> Chart.ChartType.SCATTER;
             case SCATTER -> Chart.ChartType.LINE;
-            case HISTOGRAM -> Chart.ChartType.BAR;
+            case HISTOGRAM, SMALL_MULTIPLES -> Chart.ChartType.BAR;
         };
     }
 
-    private CompletableFuture<Chart> generateCategoryChart(List<DataPoint> dataPoints) {
-        return CompletableFuture.supplyAsync(() -> {
-            // Group by category and sum values
-            Map<String, Double> categoryTotals = dataPoints.stream()
-                    .filter(dp -> dp.getCategory() != null && dp.getValue() != null)
-                    .collect(Collectors.groupingBy(
-                            DataPoint::getCategory,
-                            Collectors.summingDouble(DataPoint::getValue)));
-
-            List<DataPoint> categoryDataPoints = categoryTotals.entrySet().stream()
-                    .map(entry -> DataPoint.builder()
-                            .label(entry.getKey())
-                            .value(entry.getValue())
-                            .category("Summary")
-                            .build())
-                    .collect(Collectors.toList());
-
-            return generateChart(Chart.ChartType.PIE, categoryDataPoints, "Category Summary").join();
+    private ColumnarDataSet categoryTotals(ColumnarDataSet dataSet) {
+        // Sum values per dictionary-encoded category id
+        List<String> categories = dataSet.categoryDictionary();
+        double[] totals = new double[categories.size()];
+        boolean[] seen = new boolean[categories.size()];
+
+        ColumnarDataSet.Cursor cursor = dataSet.cursor();
+        while (cursor.next()) {
+            if (cursor.categoryId() >= 0 && cursor.hasValue()) {
+                totals[cursor.categoryId()] += cursor.value();
+                seen[cursor.categoryId()] = true;
+            }
+        }
+
+        ColumnarDataSet.Builder categoryData = ColumnarDataSet.builder(categories.size());
+        for (int id = 0; id < categories.size(); id++) {
+            if (seen[id]) {
+                categoryData.add(categories.get(id), totals[id], "Summary");
+            }
+        }
+        return categoryData.build();
+    }
+
+    /**
+     * Rows of each line series, one series per category in first-seen order, ordered by date when
+     * the data set has dates. Series longer than {@code pointBudget} are reduced with LTTB; the
+     * positions of the kept rows within the full series remain the x values.
+     */
+    static Map<String, LineSeries> lineSeries(ColumnarDataSet dataSet, int pointBudget) {
+        Map<String, IntList> categorizedRows = new LinkedHashMap<>();
+        ColumnarDataSet.Cursor cursor = dataSet.cursor();
+        while (cursor.next()) {
+            String category = cursor.category() != null ? cursor.category() : "Default";
+            categorizedRows.computeIfAbsent(category, key -> new IntList()).add(cursor.index());
+        }
+
+        Map<String, LineSeries> series = new LinkedHashMap<>();
+        for (Map.Entry<String, IntList> entry : categorizedRows.entrySet()) {
+            int[] rows = entry.getValue().toArray();
+            if (dataSet.hasDates()) {
+                rows = sortByDate(dataSet, rows);
+            }
+
+            double[] x = new double[rows.length];
+            double[] y = new double[rows.length];
+            for (int i = 0; i < rows.length; i++) {
+                x[i] = i;
+                y[i] = dataSet.hasValue(rows[i]) ? dataSet.value(rows[i]) : 0.0;
+            }
+            int[] positions = Downsampling.largestTriangleThreeBuckets(x, y, pointBudget);
+            int[] keptRows = new int[positions.length];
+            for (int i = 0; i < positions.length; i++) {
+                keptRows[i] = rows[positions[i]];
+            }
+            series.put(entry.getKey(), new LineSeries(positions, keptRows));
+        }
+        return series;
+    }
+
+    /**
+     * Whether line x values are epoch days rather than positions within each series. Only when every
+     * row has a date, so that series with different dates still line up on one time axis; the Word
+     * chart table follows the same rule.
+     */
+    static boolean onEpochDays(ColumnarDataSet dataSet) {
+        if (!dataSet.hasDates()) {
+            return false;
+        }
+        ColumnarDataSet.Cursor cursor = dataSet.cursor();
+        while (cursor.next()) {
+            if (!cursor.hasDate()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Whole-day ticks labelled as ISO dates, for an axis whose values are epoch days. */
+    static void labelEpochDays(NumberAxis axis) {
+        axis.setStandardTickUnits(NumberAxis.createIntegerTickUnits());
+        axis.setNumberFormatOverride(new EpochDayFormat());
+    }
+
+    /**
+     * One panel per category as (x, value), each reduced to {@code pointBudget} points, with x
+     * values as decided by {@link #onEpochDays}.
+     * Beyond {@code maxPanels} categories, those with the largest absolute totals are kept in
+     * first-seen order.
+     */
+    static List<SmallMultiplesChart.Panel> smallMultiplesPanels(ColumnarDataSet dataSet, int maxPanels,
+            int pointBudget) {
+        List<String> categories = dataSet.categoryDictionary();
+        // Panels have no "Other", so every category beyond maxPanels is dropped
+        boolean[] kept = categories.size() > maxPanels ? largest(dataSet, categories.size(), maxPanels, false) : null;
+        boolean epochDays = onEpochDays(dataSet);
+
+        List<SmallMultiplesChart.Panel> panels = new ArrayList<>();
+        for (Map.Entry<String, LineSeries> entry : lineSeries(dataSet, pointBudget).entrySet()) {
+            int id = categories.indexOf(entry.getKey());
+            if (kept != null && (id < 0 || !kept[id])) {
+                continue;
+            }
+            int[] rows = entry.getValue().rows();
+            double[] x = new double[rows.length];
+            double[] y = new double[rows.length];
+            for (int i = 0; i < rows.length; i++) {
+                x[i] = entry.getValue().x(dataSet, i, epochDays);
+                y[i] = dataSet.hasValue(rows[i]) ? dataSet.value(rows[i]) : 0.0;
+            }
+            panels.add(new SmallMultiplesChart.Panel(entry.getKey(), x, y));
+        }
+        return panels;
+    }
+
+    static Downsampling.BinnedPoints scatterPoints(ColumnarDataSet dataSet) {
+        return scatterPoints(dataSet, CHART_WIDTH, CHART_HEIGHT);
+    }
+
+    /**
+     * Scatter points as (row position, value) for a chart of {@code width} by {@code height} pixels.
+     * Beyond one point per grid cell a few pixels wide, the cloud is reduced to the mean of each
+     * occupied cell, so the drawing cost is bounded by the image size rather than the data.
+     */
+    static Downsampling.BinnedPoints scatterPoints(ColumnarDataSet dataSet, int width, int height) {
+        double[] y = dataSet.values(0.0);
+        double[] x = new double[y.length];
+        Arrays.setAll(x, i -> i);
+        int columns = Math.max(1, width / SCATTER_CELL_PIXELS);
+        int rows = Math.max(1, height / SCATTER_CELL_PIXELS);
+        if (y.length <= columns * rows) {
+            int[] counts = new int[y.length];
+            Arrays.fill(counts, 1);
+            return new Downsampling.BinnedPoints(x, y, counts);
+        }
+        return Downsampling.binnedMeans(x, y, columns, rows);
+    }
+
+    /**
+     * Keeps the {@code maxLabels - 1} labels and {@code maxSeries - 1} categories with the largest
+     * absolute totals and sums the remaining rows per (label, category) into an "Other" label and
+     * category. Rows of kept labels and categories are returned unchanged.
+     */
+    static ColumnarDataSet limitBars(ColumnarDataSet dataSet, int maxLabels, int maxSeries) {
+        boolean[] keptLabels = largestTotals(dataSet, dataSet.labelDictionary().size(), maxLabels, true);
+        boolean[] keptCategories = largestTotals(dataSet, dataSet.categoryDictionary().size(), maxSeries, false);
+        if (keptLabels == null && keptCategories == null) {
+            return dataSet;
+        }
+
+        // Rows going to "Other" are summed per (label id, category id) cell, with -2 standing for "Other"
+        IntList kept = new IntList();
+        Map<Long, Double> other = new LinkedHashMap<>();
+        ColumnarDataSet.Cursor cursor = dataSet.cursor();
+        while (cursor.next()) {
+            int labelId = cursor.labelId();
+            int categoryId = cursor.categoryId();
+            boolean labelKept = keptLabels == null || labelId < 0 || keptLabels[labelId];
+            boolean categoryKept = keptCategories == null || categoryId < 0 || keptCategories[categoryId];
+            if (labelKept && categoryKept) {
+                kept.add(cursor.index());
+            } else {
+                long cell = ((long) (labelKept ? labelId : -2) << 32)
+                        | ((categoryKept ? categoryId : -2) & 0xFFFFFFFFL);
+                other.merge(cell, cursor.valueOr(0.0), Double::sum);
+            }
+        }
+
+        List<String> labels = dataSet.labelDictionary();
+        List<String> categories = dataSet.categoryDictionary();
+        ColumnarDataSet.Builder limited = ColumnarDataSet.builder(kept.size() + other.size())
+                .addAll(dataSet.select(kept.toArray()));
+        other.forEach((cell, total) -> {
+            int labelId = (int) (cell >> 32);
+            int categoryId = (int) (long) cell;
+            limited.add(labelId == -2 ? OTHER : labelId >= 0 ? labels.get(labelId) : null, total,
+                    categoryId == -2 ? OTHER : categoryId >= 0 ? categories.get(categoryId) : null,
+                    null, dataSet.firstUnit(), null);
         });
+        return limited.build();
+    }
+
+    /**
+     * Totals per label, largest first, with the labels beyond {@code slices - 1} summed into a
+     * single "Other" slice.
+     */
+    static Map<String, Double> pieSlices(ColumnarDataSet dataSet, int slices) {
+        Map<String, Double> totals = new LinkedHashMap<>();
+        ColumnarDataSet.Cursor cursor = dataSet.cursor();
+        while (cursor.next()) {
+            totals.merge(cursor.label() != null ? cursor.label() : "Unknown", cursor.valueOr(0.0), Double::sum);
+        }
+
+        List<Map.Entry<String, Double>> ranked = new ArrayList<>(totals.entrySet());
+        ranked.sort(Map.Entry.<String, Double>comparingByValue().reversed());
+        Map<String, Double> pie = new LinkedHashMap<>();
+        int shown = ranked.size() > slices ? slices - 1 : ranked.size();
+        for (int i = 0; i < shown; i++) {
+            pie.put(ranked.get(i).getKey(), ranked.get(i).getValue());
+        }
+        if (shown < ranked.size()) {
+            double rest = 0.0;
+            for (int i = shown; i < ranked.size(); i++) {
+                rest += ranked.get(i).getValue();
+            }
+            pie.merge(OTHER, rest, Double::sum);
+        }
+        return pie;
+    }
+
+    /** Number of equal-width histogram bins: half the values, capped at 20. */
+    static int histogramBins(int valueCount) {
+        return Math.max(1, Math.min(20, valueCount / 2));
+    }
+
+    /**
+     * Marks the {@code limit - 1} dictionary entries with the largest absolute totals, or returns
+     * {@code null} when all {@code dictionarySize} entries fit within {@code limit}.
+     */
+    private static boolean[] largestTotals(ColumnarDataSet dataSet, int dictionarySize, int limit, boolean byLabel) {
+        if (dictionarySize <= limit) {
+            return null;
+        }
+        return largest(dataSet, dictionarySize, limit - 1, byLabel);
     }
 
-    private boolean hasCategoricalData(List<DataPoint> dataPoints) {
-        return dataPoints.stream().anyMatch(dp -> dp.getCategory() != null && !dp.getCategory().trim().isEmpty());
+    /** Marks the {@code count} dictionary entries with the largest absolute totals. */
+    private static boolean[] largest(ColumnarDataSet dataSet, int dictionarySize, int count, boolean byLabel) {
+        double[] totals = new double[dictionarySize];
+        ColumnarDataSet.Cursor cursor = dataSet.cursor();
+        while (cursor.next()) {
+            int id = byLabel ? cursor.labelId() : cursor.categoryId();
+            if (id >= 0) {
+                totals[id] += Math.abs(cursor.valueOr(0.0));
+            }
+        }
+
+        Integer[] ids = new Integer[dictionarySize];
+        Arrays.setAll(ids, id -> id);
+        Arrays.sort(ids, (a, b) -> Double.compare(totals[b], totals[a]));
+        boolean[] kept = new boolean[dictionarySize];
+        for (int i = 0; i < count; i++) {
+            kept[ids[i]] = true;
+        }
+        return kept;
     }
 
-    private boolean hasTimeSeriesData(List<DataPoint> dataPoints) {
-        return dataPoints.stream().anyMatch(dp -> dp.getDate() != null);
+    private static int[] sortByDate(ColumnarDataSet dataSet, int[] rows) {
+        Integer[] boxed = new Integer[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            boxed[i] = rows[i];
+        }
+        // Stable sort; rows without a date keep their relative position at the end
+        Arrays.sort(boxed, (a, b) -> {
+            long dayA = dataSet.date(a) != null ? dataSet.date(a).toEpochDay() : Long.MAX_VALUE;
+            long dayB = dataSet.date(b) != null ? dataSet.date(b).toEpochDay() : Long.MAX_VALUE;
+            return Long.compare(dayA, dayB);
+        });
+        int[] sorted = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            sorted[i] = boxed[i];
+        }
+        return sorted;
     }
 
-    private String determineXAxisLabel(List<DataPoint> dataPoints) {
-        if (hasTimeSeriesData(dataPoints)) {
+    static String determineXAxisLabel(ColumnarDataSet dataSet) {
+        if (dataSet.hasDates()) {
             return "Time";
-        } else if (hasCategoricalData(dataPoints)) {
+        } else if (dataSet.hasCategories()) {
             return "Category";
         } else {
             return "Items";
         }
     }
 
-    private String determineYAxisLabel(List<DataPoint> dataPoints) {
-        // Check if all data points have the same unit
-        String commonUnit = dataPoints.stream()
-                .map(DataPoint::getUnit)
-                .filter(unit -> unit != null && !unit.trim().isEmpty())
-                .distinct()
-                .collect(Collectors.toList())
-                .stream()
-                .findFirst()
-                .orElse(null);
+    static String determineYAxisLabel(ColumnarDataSet dataSet) {
+        // Use the first unit found in the data set, if any
+        String commonUnit = dataSet.firstUnit();
 
         if (commonUnit != null) {
             return "Value (" + commonUnit + ")";
@@ -404,18 +851,62 @@ public class ChartGenerationAdapter implements ChartGenerationPort {
         }
     }
 
-    private String generateChartDescription(Chart.ChartType type, List<DataPoint> dataPoints) {
-        int dataPointCount = dataPoints.size();
-        double maxValue = dataPoints.stream()
-                .mapToDouble(dp -> dp.getValue() != null ? dp.getValue() : 0.0)
-                .max()
-                .orElse(0.0);
-        double minValue = dataPoints.stream()
-                .mapToDouble(dp -> dp.getValue() != null ? dp.getValue() : 0.0)
-                .min()
-                .orElse(0.0);
+    private String generateChartDescription(Chart.ChartType type, ColumnarDataSet dataSet) {
+        // Range comes from the statistics accumulated while the data set was built
+        StatisticsSummary statistics = dataSet.statistics();
+        double minValue = statistics.getCount() > 0 ? statistics.getMin() : 0.0;
+        double maxValue = statistics.getCount() > 0 ? statistics.getMax() : 0.0;
 
         return String.format("%s chart displaying %d data points with values ranging from %.2f to %.2f",
-                type.name().toLowerCase(), dataPointCount, minValue, maxValue);
+                type.name().toLowerCase().replace('_', ' '), dataSet.size(), minValue, maxValue);
+    }
+
+    /** Minimal growable int array used to group row indexes without boxing. */
+    private static final class IntList {
+        private int[] items = new int[8];
+        private int size;
+
+        void add(int value) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(items, size);
+        }
+    }
+
+    /** Kept rows of a line series and their positions within the full series. */
+    record LineSeries(int[] positions, int[] rows) {
+
+        /** X value of the {@code i}th kept point: its row's epoch day, or its position in the series. */
+        long x(ColumnarDataSet dataSet, int i, boolean epochDays) {
+            return epochDays ? dataSet.date(rows[i]).toEpochDay() : positions[i];
+        }
+    }
+
+    /** Tick labels for epoch-day axes; they are never parsed back. */
+    private static final class EpochDayFormat extends NumberFormat {
+
+        @Override
+        public StringBuffer format(double number, StringBuffer target, FieldPosition position) {
+            return format(Math.round(number), target, position);
+        }
+
+        @Override
+        public StringBuffer format(long number, StringBuffer target, FieldPosition position) {
+            return target.append(LocalDate.ofEpochDay(number));
+        }
+
+        @Override
+        public Number parse(String source, ParsePosition position) {
+            throw new UnsupportedOperationException("Epoch day labels are not parsed");
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,315 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.reportservice.domain.model.Chart;
+import com.reportservice.domain.model.ColumnarDataSet;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Two-tier cache for rendered chart images, keyed by a SHA-256 of the render version, the PNG
+ * encoder settings, the chart type, title, size and resolution, and a fingerprint of every value,
+ * label, category and date the chart draws. The memory tier is an
+ * LRU map bounded by the total size of the cached images; the optional disk tier keeps one file per
+ * key and evicts the least recently written files once its size budget is exceeded. Disk hits are
+ * promoted to memory. Images depend only on their key, so entries never expire.
+ */
+@Slf4j
+@Component
+class ChartImageCache {
+
+    private final boolean enabled;
+    private final long maxMemoryBytes;
+    private final Path directory;
+    private final long maxDiskBytes;
+    private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong memoryBytes = new AtomicLong();
+    private final AtomicLong diskBytes = new AtomicLong();
+    private volatile boolean diskAvailable;
+
+    private final Counter memoryHits;
+    private final Counter diskHits;
+    private final Counter misses;
+
+    ChartImageCache(
+            @Value("${chart.cache.enabled:true}") boolean enabled,
+            @Value("${chart.cache.memory.max-size:32MB}") DataSize maxMemorySize,
+            @Value("${chart.cache.disk.directory:}") String directory,
+            @Value("${chart.cache.disk.max-size:200MB}") DataSize maxDiskSize,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxMemoryBytes = maxMemorySize.toBytes();
+        this.directory = directory == null || directory.isBlank() ? null : Paths.get(directory);
+        this.maxDiskBytes = maxDiskSize.toBytes();
+
+        this.memoryHits = Counter.builder("chart.cache.requests").tag("result", "hit").tag("tier", "memory")
+            .description("Chart image cache lookups").register(meterRegistry);
+        this.diskHits = Counter.builder("chart.cache.requests").tag("result", "hit").tag("tier", "disk")
+            .description("Chart image cache lookups").register(meterRegistry);
+        this.misses = Counter.builder("chart.cache.requests").tag("result", "miss").tag("tier", "none")
+            .description("Chart image cache lookups").register(meterRegistry);
+        Gauge.builder("chart.cache.memory.bytes", memoryBytes, AtomicLong::get)
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("chart.cache.disk.bytes", diskBytes, AtomicLong::get)
+            .baseUnit("bytes")
+            .register(meterRegistry);
+
+        initializeDiskTier();
+    }
+
+    /**
+     * Version of the chart drawing code, part of every key. Bump it whenever rendering changes how an
+     * unchanged chart looks, such as fonts, colors or layout, so that the disk tier stops serving
+     * images drawn by older code.
+     */
+    static final int RENDER_VERSION = 1;
+
+    /**
+     * Cache key for a chart laid out at {@code width} by {@code height} points, rendered at
+     * {@code dpi} and written with the PNG {@code encoding} settings; any change in what the image
+     * shows or how its bytes are encoded changes the key.
+     */
+    static String key(Chart.ChartType type, String title, int width, int height, int dpi, String encoding,
+            ColumnarDataSet dataSet) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            update(digest, "v" + RENDER_VERSION);
+            update(digest, encoding);
+            update(digest, String.valueOf(type));
+            update(digest, title);
+            update(digest, width + "x" + height + "@" + dpi);
+            update(digest, dataSet.firstUnit());
+            for (String label : dataSet.labelDictionary()) {
+                update(digest, label);
+            }
+            update(digest, "");
+            for (String category : dataSet.categoryDictionary()) {
+                update(digest, category);
+            }
+            update(digest, "");
+
+            // Rows as dictionary ids and raw bits, buffered to keep the digest calls coarse
+            ByteBuffer rows = ByteBuffer.allocate(8_192);
+            ColumnarDataSet.Cursor cursor = dataSet.cursor();
+            while (cursor.next()) {
+                if (rows.remaining() < 20) {
+                    digest.update(rows.flip());
+                    rows.clear();
+                }
+                rows.putLong(Double.doubleToLongBits(cursor.valueOr(Double.NaN)))
+                    .putInt(cursor.labelId())
+                    .putInt(cursor.categoryId())
+                    .putInt(cursor.hasDate() ? cursor.epochDay() : Integer.MIN_VALUE);
+            }
+            digest.update(rows.flip());
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /** Returns the cached image for {@code key}, rendering and caching it on a miss. */
+    <E extends Exception> byte[] get(String key, ImageRenderer<E> renderer) throws E {
+        Optional<byte[]> cached = get(key);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        byte[] image = renderer.render();
+        put(key, image);
+        return image;
+    }
+
+    Optional<byte[]> get(String key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        synchronized (memory) {
+            byte[] image = memory.get(key);
+            if (image != null) {
+                memoryHits.increment();
+                return Optional.of(image);
+            }
+        }
+
+        Optional<byte[]> fromDisk = readFromDisk(key);
+        if (fromDisk.isPresent()) {
+            diskHits.increment();
+            putInMemory(key, fromDisk.get());
+            return fromDisk;
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    void put(String key, byte[] image) {
+        if (!enabled || image == null || image.length == 0) {
+            return;
+        }
+        putInMemory(key, image);
+        writeToDisk(key, image);
+    }
+
+    double hitRatio() {
+        double hits = memoryHits.count() + diskHits.count();
+        double total = hits + misses.count();
+        return total == 0 ? 0.0 : hits / total;
+    }
+
+    long memoryBytes() {
+        return memoryBytes.get();
+    }
+
+    /** Adds the image and evicts least recently used images until the tier is within its budget. */
+    private void putInMemory(String key, byte[] image) {
+        if (image.length > maxMemoryBytes) {
+            return;
+        }
+        synchronized (memory) {
+            byte[] previous = memory.put(key, image);
+            long total = memoryBytes.addAndGet(image.length - (previous != null ? previous.length : 0));
+            Iterator<Map.Entry<String, byte[]>> eldest = memory.entrySet().iterator();
+            while (total > maxMemoryBytes && eldest.hasNext()) {
+                total = memoryBytes.addAndGet(-eldest.next().getValue().length);
+                eldest.remove();
+            }
+        }
+    }
+
+    private Optional<byte[]> readFromDisk(String key) {
+        if (!diskAvailable) {
+            return Optional.empty();
+        }
+        Path file = directory.resolve(key + ".png");
+        try {
+            if (!Files.isRegularFile(file)) {
+                return Optional.empty();
+            }
+            return Optional.of(Files.readAllBytes(file));
+        } catch (IOException e) {
+            log.debug("Failed to read cached chart image {}", file, e);
+            return Optional.empty();
+        }
+    }
+
+    private void writeToDisk(String key, byte[] image) {
+        if (!diskAvailable) {
+            return;
+        }
+        Path target = directory.resolve(key + ".png");
+        try {
+            long previous = Files.exists(target) ? Files.size(target) : 0;
+            Path temp = Files.createTempFile(directory, key, ".tmp");
+            Files.write(temp, image);
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (diskBytes.addAndGet(image.length - previous) > maxDiskBytes) {
+                evictOldest();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to persist cached chart image {}", target, e);
+        }
+    }
+
+    private void initializeDiskTier() {
+        if (!enabled || directory == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            diskBytes.set(listFiles().stream().mapToLong(CachedFile::size).sum());
+            diskAvailable = true;
+            log.info("Chart image cache at {} holds {} bytes", directory, diskBytes.get());
+        } catch (IOException e) {
+            log.warn("Disabling disk tier of chart image cache; {} is not usable", directory, e);
+        }
+    }
+
+    /** Deletes the least recently written files until the tier is back under 90% of its budget. */
+    private synchronized void evictOldest() throws IOException {
+        List<CachedFile> files = listFiles();
+        files.sort(Comparator.comparing(CachedFile::modified));
+        long total = files.stream().mapToLong(CachedFile::size).sum();
+        long target = maxDiskBytes * 9 / 10;
+        for (CachedFile cached : files) {
+            if (total <= target) {
+                break;
+            }
+            if (delete(cached.path())) {
+                total -= cached.size();
+            }
+        }
+        diskBytes.set(total);
+    }
+
+    private List<CachedFile> listFiles() throws IOException {
+        List<CachedFile> files = new ArrayList<>();
+        try (Stream<Path> paths = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                if (Files.isRegularFile(path) && path.getFileName().toString().endsWith(".png")) {
+                    try {
+                        files.add(new CachedFile(path, Files.getLastModifiedTime(path), Files.size(path)));
+                    } catch (IOException e) {
+                        // Removed concurrently
+                    }
+                }
+            }
+        }
+        return files;
+    }
+
+    private boolean delete(Path file) {
+        try {
+            return Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Failed to delete cached chart image {}", file, e);
+            return false;
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        // Separator so that ("ab", "c") and ("a", "bc") hash differently
+        digest.update((byte) 0);
+    }
+
+    /** Renders a chart image on a cache miss. */
+    @FunctionalInterface
+    interface ImageRenderer<E extends Exception> {
+        byte[] render() throws E;
+    }
+
+    private record CachedFile(Path path, FileTime modified, long size) {
+    }
+}
@@ -0,0 +1,347 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * PNG encoder for rendered charts. Charts are flat colors on an opaque background, so instead of the
+ * generic ImageIO path on a full ARGB image it writes the smallest lossless form: an 8-bit palette
+ * when the image has at most 256 distinct colors, otherwise RGB, or RGBA only when some pixel is
+ * translucent. Antialiased edges alone exceed 256 colors, so renderers check {@link #palette()} and
+ * draw without antialiasing when it is on. Compression trades encode time for size:
+ * <ul>
+ *   <li>{@code fast} deflates at level 1 with the Sub filter, for interactive latency</li>
+ *   <li>{@code balanced} deflates at level 6 with per-row adaptive filtering</li>
+ *   <li>{@code max} deflates at level 9 with per-row adaptive filtering, for archival</li>
+ * </ul>
+ * Stateless and thread-safe.
+ */
+@Slf4j
+@Component
+class ChartPngEncoder {
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final int MAX_PALETTE_SIZE = 256;
+
+    private static final int COLOR_TYPE_RGB = 2;
+    private static final int COLOR_TYPE_INDEXED = 3;
+    private static final int COLOR_TYPE_RGBA = 6;
+
+    private static final int FILTER_NONE = 0;
+    private static final int FILTER_SUB = 1;
+    private static final int FILTER_UP = 2;
+    private static final int FILTER_AVERAGE = 3;
+    private static final int FILTER_PAETH = 4;
+
+    enum Compression {
+        FAST(Deflater.BEST_SPEED),
+        BALANCED(6),
+        MAX(Deflater.BEST_COMPRESSION);
+
+        private final int level;
+
+        Compression(int level) {
+            this.level = level;
+        }
+    }
+
+    private final Compression compression;
+    private final boolean palette;
+
+    ChartPngEncoder(
+            @Value("${chart.png.compression:balanced}") String compression,
+            @Value("${chart.png.palette:true}") boolean palette) {
+        this(Compression.valueOf(compression.trim().toUpperCase(Locale.ROOT)), palette);
+    }
+
+    ChartPngEncoder(Compression compression, boolean palette) {
+        this.compression = compression;
+        this.palette = palette;
+        log.debug("Chart PNG encoding uses {} compression, palette {}", compression, palette ? "on" : "off");
+    }
+
+    /** Whether images are encoded with a palette when they fit one. */
+    boolean palette() {
+        return palette;
+    }
+
+    /** Settings that change the encoded bytes, for cache keys of encoded images. */
+    String settings() {
+        return compression.name() + (palette ? "+palette" : "");
+    }
+
+    byte[] encode(BufferedImage image) throws IOException {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = argbPixels(image);
+
+        boolean opaque = true;
+        for (int pixel : pixels) {
+            if (pixel >>> 24 != 0xFF) {
+                opaque = false;
+                break;
+            }
+        }
+        Palette colors = palette ? Palette.of(pixels) : null;
+
+        ByteArrayOutputStream png = new ByteArrayOutputStream(width * height / 8 + 1_024);
+        png.write(SIGNATURE);
+        int colorType = colors != null ? COLOR_TYPE_INDEXED : opaque ? COLOR_TYPE_RGB : COLOR_TYPE_RGBA;
+        writeChunk(png, "IHDR", header(width, height, colorType));
+        if (colors != null) {
+            writeChunk(png, "PLTE", colors.rgb());
+            if (!opaque) {
+                writeChunk(png, "tRNS", colors.alpha());
+            }
+        }
+        writeChunk(png, "IDAT", compress(pixels, width, height, colorType, colors));
+        writeChunk(png, "IEND", new byte[0]);
+        return png.toByteArray();
+    }
+
+    private byte[] compress(int[] pixels, int width, int height, int colorType, Palette colors) throws IOException {
+        int bytesPerPixel = colorType == COLOR_TYPE_INDEXED ? 1 : colorType == COLOR_TYPE_RGB ? 3 : 4;
+        int stride = width * bytesPerPixel;
+        byte[] previous = new byte[stride];
+        byte[] current = new byte[stride];
+        byte[][] candidates = new byte[5][stride];
+
+        Deflater deflater = new Deflater(compression.level);
+        ByteArrayOutputStream idat = new ByteArrayOutputStream(stride * height / 8 + 1_024);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(idat, deflater, 64 * 1_024)) {
+            for (int y = 0; y < height; y++) {
+                int offset = y * width;
+                if (colorType == COLOR_TYPE_INDEXED) {
+                    for (int x = 0; x < width; x++) {
+                        current[x] = (byte) colors.indexOf(pixels[offset + x]);
+                    }
+                } else {
+                    for (int x = 0, i = 0; x < width; x++) {
+                        int pixel = pixels[offset + x];
+                        current[i++] = (byte) (pixel >> 16);
+                        current[i++] = (byte) (pixel >> 8);
+                        current[i++] = (byte) pixel;
+                        if (bytesPerPixel == 4) {
+                            current[i++] = (byte) (pixel >>> 24);
+                        }
+                    }
+                }
+
+                // Palette indexes do not correlate numerically, so the PNG spec recommends no filter
+                int filter = colorType == COLOR_TYPE_INDEXED ? FILTER_NONE
+                        : compression == Compression.FAST ? FILTER_SUB
+                        : bestFilter(current, previous, bytesPerPixel, candidates);
+                out.write(filter);
+                if (filter == FILTER_NONE) {
+                    out.write(current);
+                } else {
+                    applyFilter(filter, current, previous, bytesPerPixel, candidates[filter]);
+                    out.write(candidates[filter]);
+                }
+
+                byte[] swap = previous;
+                previous = current;
+                current = swap;
+            }
+        } finally {
+            deflater.end();
+        }
+        return idat.toByteArray();
+    }
+
+    /** Filter with the smallest sum of absolute signed bytes, the heuristic from the PNG spec. */
+    private static int bestFilter(byte[] row, byte[] previous, int bytesPerPixel, byte[][] candidates) {
+        int best = FILTER_NONE;
+        long bestSum = absoluteSum(row);
+        for (int filter = FILTER_SUB; filter <= FILTER_PAETH; filter++) {
+            applyFilter(filter, row, previous, bytesPerPixel, candidates[filter]);
+            long sum = absoluteSum(candidates[filter]);
+            if (sum < bestSum) {
+                bestSum = sum;
+                best = filter;
+            }
+        }
+        return best;
+    }
+
+    private static void applyFilter(int filter, byte[] row, byte[] previous, int bytesPerPixel, byte[] out) {
+        for (int i = 0; i < row.length; i++) {
+            int raw = row[i] & 0xFF;
+            int left = i >= bytesPerPixel ? row[i - bytesPerPixel] & 0xFF : 0;
+            int up = previous[i] & 0xFF;
+            int upLeft = i >= bytesPerPixel ? previous[i - bytesPerPixel] & 0xFF : 0;
+            int predicted = switch (filter) {
+                case FILTER_SUB -> left;
+                case FILTER_UP -> up;
+                case FILTER_AVERAGE -> (left + up) >>> 1;
+                case FILTER_PAETH -> paeth(left, up, upLeft);
+                default -> 0;
+            };
+            out[i] = (byte) (raw - predicted);
+        }
+    }
+
+    private static int paeth(int left, int up, int upLeft) {
+        int estimate = left + up - upLeft;
+        int distanceLeft = Math.abs(estimate - left);
+        int distanceUp = Math.abs(estimate - up);
+        int distanceUpLeft = Math.abs(estimate - upLeft);
+        if (distanceLeft <= distanceUp && distanceLeft <= distanceUpLeft) {
+            return left;
+        }
+        return distanceUp <= distanceUpLeft ? up : upLeft;
+    }
+
+    private static long absoluteSum(byte[] row) {
+        long sum = 0;
+        for (byte value : row) {
+            sum += Math.abs(value);
+        }
+        return sum;
+    }
+
+    /** Pixels as packed ARGB, read straight from the raster for the int-packed images charts use. */
+    private static int[] argbPixels(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        boolean packed = image.getType() == BufferedImage.TYPE_INT_ARGB
+                || image.getType() == BufferedImage.TYPE_INT_RGB;
+        if (packed && image.getRaster().getDataBuffer() instanceof DataBufferInt buffer
+                && image.getRaster().getSampleModel() instanceof SinglePixelPackedSampleModel model
+                && model.getScanlineStride() == width && buffer.getOffset() == 0
+                && image.getRaster().getSampleModelTranslateX() == 0
+                && image.getRaster().getSampleModelTranslateY() == 0) {
+            int[] data = buffer.getData();
+            if (image.getType() == BufferedImage.TYPE_INT_ARGB) {
+                return data;
+            }
+            int[] opaque = new int[width * height];
+            for (int i = 0; i < opaque.length; i++) {
+                opaque[i] = data[i] | 0xFF000000;
+            }
+            return opaque;
+        }
+        return image.getRGB(0, 0, width, height, null, 0, width);
+    }
+
+    private static byte[] header(int width, int height, int colorType) throws IOException {
+        ByteArrayOutputStream header = new ByteArrayOutputStream(13);
+        DataOutputStream out = new DataOutputStream(header);
+        out.writeInt(width);
+        out.writeInt(height);
+        out.writeByte(8);
+        out.writeByte(colorType);
+        out.writeByte(0);
+        out.writeByte(0);
+        out.writeByte(0);
+        return header.toByteArray();
+    }
+
+    private static void writeChunk(ByteArrayOutputStream png, String type, byte[] data) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+
+        DataOutputStream out = new DataOutputStream(png);
+        out.writeInt(data.length);
+        out.write(typeBytes);
+        out.write(data);
+        out.writeInt((int) crc.getValue());
+    }
+
+    /** Up to 256 distinct ARGB colors in first-seen order, found with an open-addressing table. */
+    private static final class Palette {
+        private static final int TABLE_SIZE = 1_024;
+
+        private final int[] keys = new int[TABLE_SIZE];
+        private final short[] indexes = new short[TABLE_SIZE];
+        private final int[] colors = new int[MAX_PALETTE_SIZE];
+        private int size;
+
+        private Palette() {
+            Arrays.fill(indexes, (short) -1);
+        }
+
+        /** Palette of the image, or {@code null} when it has more than 256 colors. */
+        static Palette of(int[] pixels) {
+            Palette palette = new Palette();
+            int last = 0;
+            boolean any = false;
+            for (int pixel : pixels) {
+                // Runs of the same color are the common case in charts
+                if (any && pixel == last) {
+                    continue;
+                }
+                if (palette.indexOf(pixel) < 0 && !palette.add(pixel)) {
+                    return null;
+                }
+                last = pixel;
+                any = true;
+            }
+            return palette;
+        }
+
+        int indexOf(int color) {
+            int slot = slot(color);
+            while (indexes[slot] >= 0) {
+                if (keys[slot] == color) {
+                    return indexes[slot];
+                }
+                slot = (slot + 1) & (TABLE_SIZE - 1);
+            }
+            return -1;
+        }
+
+        private boolean add(int color) {
+            if (size == MAX_PALETTE_SIZE) {
+                return false;
+            }
+            int slot = slot(color);
+            while (indexes[slot] >= 0) {
+                slot = (slot + 1) & (TABLE_SIZE - 1);
+            }
+            keys[slot] = color;
+            indexes[slot] = (short) size;
+            colors[size++] = color;
+            return true;
+        }
+
+        byte[] rgb() {
+            byte[] rgb = new byte[size * 3];
+            for (int i = 0; i < size; i++) {
+                rgb[i * 3] = (byte) (colors[i] >> 16);
+                rgb[i * 3 + 1] = (byte) (colors[i] >> 8);
+                rgb[i * 3 + 2] = (byte) colors[i];
+            }
+            return rgb;
+        }
+
+        byte[] alpha() {
+            byte[] alpha = new byte[size];
+            for (int i = 0; i < size; i++) {
+                alpha[i] = (byte) (colors[i] >>> 24);
+            }
+            return alpha;
+        }
+
+        private static int slot(int color) {
+            return (color * 0x9E3779B9 >>> 22) & (TABLE_SIZE - 1);
+        }
+    }
+}
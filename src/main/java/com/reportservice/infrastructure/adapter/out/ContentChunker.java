@@ -0,0 +1,65 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits text into chunks of at most {@code maxTokens} as counted by {@link TokenEstimator},
+ * cutting at the strongest structural boundary available inside each window: a blank line, then a
+ * line break, then a sentence end, then whitespace. Only text without any of those is cut mid-word.
+ * <p>
+ * Windows are sized in characters from the document's average token density and shrunk in
+ * proportion whenever a chunk is denser than that, such as a run of figures in otherwise plain
+ * prose.
+ */
+final class ContentChunker {
+
+    private static final String[] BOUNDARIES = {"\n\n", "\n", ". ", " "};
+
+    private ContentChunker() {
+    }
+
+    static List<String> split(String content, int maxTokens) {
+        List<String> chunks = new ArrayList<>();
+        if (content == null || content.isBlank()) {
+            return chunks;
+        }
+        int length = content.length();
+        int tokens = Math.max(1, TokenEstimator.estimate(content));
+        int limit = Math.max(1, maxTokens);
+        int averageWindow = (int) Math.max(1, Math.min(length, (long) length * limit / tokens));
+        int window = averageWindow;
+        int start = 0;
+        while (start < length) {
+            int end = Math.min(length, start + window);
+            if (end < length) {
+                end = boundaryBefore(content, start, end);
+            }
+            String chunk = content.substring(start, end).trim();
+            int chunkTokens = TokenEstimator.estimate(chunk);
+            if (chunkTokens > limit && end - start > 1) {
+                // Denser than average: retry with a proportionally smaller window
+                window = Math.max(1, (int) ((long) (end - start) * limit / chunkTokens) - 1);
+                continue;
+            }
+            if (!chunk.isEmpty()) {
+                chunks.add(chunk);
+            }
+            start = end;
+            window = averageWindow;
+        }
+        return chunks;
+    }
+
+    /** End offset of the last boundary in the second half of the window, or the window end. */
+    private static int boundaryBefore(String content, int start, int end) {
+        int minimum = start + (end - start) / 2;
+        for (String boundary : BOUNDARIES) {
+            int index = content.lastIndexOf(boundary, end - boundary.length());
+            if (index >= minimum) {
+                return index + boundary.length();
+            }
+        }
+        return end;
+    }
+}
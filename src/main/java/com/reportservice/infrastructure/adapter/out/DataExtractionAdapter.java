@@ -1,17 +1,25 @@
 package com.reportservice.infrastructure.adapter.out;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -19,14 +27,17 @@ import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.reportservice.domain.model.DataPoint;
+import com.reportservice.domain.model.ColumnarDataSet;
 import com.reportservice.domain.model.ExtractedData;
+import com.reportservice.domain.model.Table;
 import com.reportservice.domain.model.TextSection;
 import com.reportservice.domain.port.out.DataExtractionPort;
+import com.reportservice.domain.text.SectionDeduplicator;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -38,6 +49,18 @@ public class DataExtractionAdapter implements DataExtractionPort {
     
     private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
+    private final HtmlTableExtractor tableExtractor = new HtmlTableExtractor(ForkJoinPool.commonPool());
+    private final XlsxStreamingExtractor xlsxExtractor = new XlsxStreamingExtractor();
+    private final SectionDeduplicator sectionDeduplicator = new SectionDeduplicator();
+
+    @Value("${extraction.json-lines.fields:}")
+    private String jsonLinesFields;
+
+    @Value("${extraction.json-lines.timestamp-field:}")
+    private String jsonLinesTimestampField;
+
+    @Value("${extraction.json-lines.batch-size:2048}")
+    private int jsonLinesBatchSize = 2048;
     
     public DataExtractionAdapter() {
         this.httpClient = HttpClient.newBuilder()
@@ -49,15 +72,8 @@ public class DataExtractionAdapter implements DataExtractionPort {
     @Override
     public CompletableFuture<String> fetchRawData(String url) {
         log.info("Fetching data from URL: {}", url);
-        
-        HttpRequest request = HttpRequest.newBuilder()
-            .uri(URI.create(url))
-            .timeout(Duration.ofSeconds(30))
-            .header("User-Agent", "Mozilla/5.0 (ReportGenerator/1.0)")
-            .GET()
-            .build();
 
-        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+        return httpClient.sendAsync(buildRequest(url), HttpResponse.BodyHandlers.ofString())
             .thenApply(HttpResponse::body)
             .thenApply(body -> {
                 log.info("Successfully fetched {} characters from {}", body.length(), url);
@@ -65,12 +81,127 @@ public class DataExtractionAdapter implements DataExtractionPort {
             });
     }
 
+    @Override
+    public CompletableFuture<Path> fetchToFile(String url) {
+        log.info("Downloading {} to a temporary file", url);
+
+        Path target;
+        try {
+            target = Files.createTempFile("report-source-", ".tmp");
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new UncheckedIOException(e));
+        }
+
+        return httpClient.sendAsync(buildRequest(url), HttpResponse.BodyHandlers.ofFile(target))
+            .thenApply(HttpResponse::body)
+            .whenComplete((file, throwable) -> {
+                if (throwable != null) {
+                    deleteQuietly(target);
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<ExtractedData> extractFromSpreadsheet(Path workbook, String sourceUrl) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                XlsxStreamingExtractor.Result result = xlsxExtractor.extract(workbook);
+                ColumnarDataSet dataSet = result.dataSet();
+                log.info("Extracted {} values from {} rows in {} sheets of {}",
+                    dataSet.size(), result.rowCount(), result.sheetCount(), sourceUrl);
+
+                return ExtractedData.builder()
+                    .sourceUrl(sourceUrl)
+                    .title("Spreadsheet Data Analysis")
+                    .summary(String.format("Excel workbook with %d sheets, %d data rows and %d numeric values",
+                        result.sheetCount(), result.rowCount(), dataSet.size()))
+                    .dataType(ExtractedData.DataType.TABLE_DATA)
+                    .dataSet(dataSet)
+                    .dataOrigin(ExtractedData.DataOrigin.TABLES)
+                    .tables(result.tables())
+                    .metadata(withStatistics(Map.of("sheetCount", result.sheetCount(), "rowCount", result.rowCount()),
+                        dataSet))
+                    .build();
+            } catch (IOException e) {
+                log.error("Error extracting spreadsheet data from source: {}", sourceUrl, e);
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<ExtractedData> extractFromJsonLines(Path file, String sourceUrl) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                return extractFromJsonLines(reader, sourceUrl);
+            } catch (IOException e) {
+                log.error("Error extracting JSON Lines data from source: {}", sourceUrl, e);
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private ExtractedData extractFromJsonLines(BufferedReader reader, String sourceUrl) throws IOException {
+        List<String> fields = jsonLinesFields == null || jsonLinesFields.isBlank()
+            ? List.of()
+            : Arrays.stream(jsonLinesFields.split(",")).map(String::trim).filter(f -> !f.isEmpty()).toList();
+        NdjsonStreamingExtractor extractor = new NdjsonStreamingExtractor(objectMapper, ForkJoinPool.commonPool(),
+            fields, jsonLinesTimestampField, jsonLinesBatchSize);
+        NdjsonStreamingExtractor.Result result = extractor.extract(reader);
+        ColumnarDataSet dataSet = result.dataSet();
+        log.info("Aggregated {} JSON Lines records ({} skipped) into {} values from {}",
+            result.records(), result.skipped(), dataSet.size(), sourceUrl);
+
+        String keyedBy = result.timestampField() != null ? "\"" + result.timestampField() + "\"" : "record order";
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("recordCount", result.records());
+        metadata.put("skippedRecords", result.skipped());
+        metadata.put("fields", result.fields());
+        if (result.timestampField() != null) {
+            metadata.put("timestampField", result.timestampField());
+        }
+        // Statistics over the raw field values, not the bucket averages in the data set
+        metadata.put("statistics", result.statistics().snapshot().toMap());
+
+        return ExtractedData.builder()
+            .sourceUrl(sourceUrl)
+            .title("JSON Lines Data Analysis")
+            .summary(String.format("JSON Lines source with %d records; fields %s aggregated over %s",
+                result.records(), String.join(", ", result.fields()), keyedBy))
+            .dataType(result.fields().size() > 1 ? ExtractedData.DataType.MIXED : ExtractedData.DataType.NUMERICAL)
+            .dataSet(dataSet)
+            .dataOrigin(ExtractedData.DataOrigin.RECORDS)
+            .metadata(metadata)
+            .build();
+    }
+
+    private HttpRequest buildRequest(String url) {
+        return HttpRequest.newBuilder()
+            .uri(URI.create(url))
+            .timeout(Duration.ofSeconds(30))
+            .header("User-Agent", "Mozilla/5.0 (ReportGenerator/1.0)")
+            .GET()
+            .build();
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete temporary file {}", file, e);
+        }
+    }
+
     @Override
     public CompletableFuture<ExtractedData> extractAndAnalyzeData(String rawData, String sourceUrl) {
         return CompletableFuture.supplyAsync(() -> {
             try {
-                // Try to parse as JSON first
-                if (isJsonData(rawData)) {
+                // JSON Lines must be checked before JSON, which would only read the first record
+                if (isJsonLinesData(rawData)) {
+                    return extractFromJsonLines(new BufferedReader(new StringReader(rawData)), sourceUrl);
+                }
+                // Try to parse as JSON
+                else if (isJsonData(rawData)) {
                     return extractFromJson(rawData, sourceUrl);
                 }
                 // Try to parse as HTML
@@ -92,6 +223,34 @@ public class DataExtractionAdapter implements DataExtractionPort {
         });
     }
 
+    private boolean isJsonLinesData(String data) {
+        int objectLines = 0;
+        int start = 0;
+        while (start < data.length() && objectLines < 3) {
+            int end = data.indexOf('\n', start);
+            if (end < 0) {
+                end = data.length();
+            }
+            String line = data.substring(start, end).trim();
+            start = end + 1;
+            if (line.isEmpty()) {
+                continue;
+            }
+            if (!line.startsWith("{") || !line.endsWith("}")) {
+                return false;
+            }
+            try {
+                if (!objectMapper.readTree(line).isObject()) {
+                    return false;
+                }
+            } catch (IOException e) {
+                return false;
+            }
+            objectLines++;
+        }
+        return objectLines > 1;
+    }
+
     private boolean isJsonData(String data) {
         try {
             objectMapper.readTree(data);
@@ -113,7 +272,7 @@ public class DataExtractionAdapter implements DataExtractionPort {
     private ExtractedData extractFromJson(String jsonData, String sourceUrl) throws IOException {
         JsonNode rootNode = objectMapper.readTree(jsonData);
         
-        List<DataPoint> dataPoints = new ArrayList<>();
+        ColumnarDataSet.Builder dataPoints = ColumnarDataSet.builder();
         List<TextSection> textSections = new ArrayList<>();
         Map<String, Object> metadata = new HashMap<>();
         
@@ -125,22 +284,24 @@ public class DataExtractionAdapter implements DataExtractionPort {
         
         String title = extractTitle(rootNode);
         String summary = generateSummaryFromJson(rootNode);
+        ColumnarDataSet dataSet = dataPoints.build();
         
         return ExtractedData.builder()
             .sourceUrl(sourceUrl)
             .title(title)
             .summary(summary)
-            .dataType(determineDataType(dataPoints, textSections))
-            .dataPoints(dataPoints)
+            .dataType(determineDataType(dataPoints.size(), textSections))
+            .dataSet(dataSet)
+            .dataOrigin(ExtractedData.DataOrigin.RECORDS)
             .textSections(textSections)
-            .metadata(metadata)
+            .metadata(withStatistics(metadata, dataSet))
             .build();
     }
 
     private ExtractedData extractFromHtml(String htmlData, String sourceUrl) {
         Document doc = Jsoup.parse(htmlData);
         
-        List<DataPoint> dataPoints = new ArrayList<>();
+        ColumnarDataSet.Builder dataPoints = ColumnarDataSet.builder();
         List<TextSection> textSections = new ArrayList<>();
         
         // Extract title
@@ -151,10 +312,11 @@ public class DataExtractionAdapter implements DataExtractionPort {
             title = (firstH1 == null || h1.isEmpty()) ? "Extracted Report" : firstH1.text();
         }
         
-        // Extract tables for numerical data
-        Elements tables = doc.select("table");
-        for (Element table : tables) {
-            extractDataFromTable(table, dataPoints);
+        // Extract tables for numerical data, one fork-join task per table
+        List<Table> tables = new ArrayList<>();
+        for (HtmlTableExtractor.ExtractedTable extracted : tableExtractor.extract(doc.select("table"))) {
+            dataPoints.addAll(extracted.dataSet());
+            tables.add(extracted.table());
         }
         
         // Extract text content
@@ -171,25 +333,34 @@ public class DataExtractionAdapter implements DataExtractionPort {
                 textSections.add(section);
             }
         }
+        // Pages repeat navigation, teasers and footers; drop them before they reach the prompt and the report
+        textSections = sectionDeduplicator.deduplicate(textSections);
         
-        // Extract numbers from text
-        extractNumbersFromText(doc.text(), dataPoints);
+        // Without table data, fall back to numbers in the text; with it, the text would only count the cells again
+        ExtractedData.DataOrigin origin = ExtractedData.DataOrigin.TABLES;
+        if (dataPoints.size() == 0) {
+            extractNumbersFromText(doc.text(), dataPoints);
+            origin = ExtractedData.DataOrigin.TEXT;
+        }
         
         String summary = generateSummaryFromHtml(doc);
+        ColumnarDataSet dataSet = dataPoints.build();
         
         return ExtractedData.builder()
             .sourceUrl(sourceUrl)
             .title(title)
             .summary(summary)
-            .dataType(determineDataType(dataPoints, textSections))
-            .dataPoints(dataPoints)
+            .dataType(determineDataType(dataPoints.size(), textSections))
+            .dataSet(dataSet)
+            .dataOrigin(origin)
             .textSections(textSections)
-            .metadata(Map.of("wordCount", doc.text().split("\\s+").length))
+            .tables(tables)
+            .metadata(withStatistics(Map.of("wordCount", doc.text().split("\\s+").length), dataSet))
             .build();
     }
 
     private ExtractedData extractFromCsv(String csvData, String sourceUrl) {
-        List<DataPoint> dataPoints = new ArrayList<>();
+        ColumnarDataSet.Builder dataPoints = ColumnarDataSet.builder();
         List<TextSection> textSections = new ArrayList<>();
         
         String[] lines = csvData.split("\n");
@@ -205,34 +376,31 @@ public class DataExtractionAdapter implements DataExtractionPort {
             if (values.length >= 2) {
                 try {
                     String label = values[0].trim();
-                    Double value = Double.valueOf(values[1].trim());
+                    double value = Double.parseDouble(values[1].trim());
                     String category = values.length > 2 ? values[2].trim() : "Default";
                     
-                    DataPoint dataPoint = DataPoint.builder()
-                        .label(label)
-                        .value(value)
-                        .category(category)
-                        .build();
-                    dataPoints.add(dataPoint);
+                    dataPoints.add(label, value, category);
                 } catch (NumberFormatException e) {
                     // Skip non-numeric rows
                 }
             }
         }
         
+        ColumnarDataSet dataSet = dataPoints.build();
         return ExtractedData.builder()
             .sourceUrl(sourceUrl)
             .title("CSV Data Analysis")
-            .summary(String.format("CSV data with %d records", dataPoints.size()))
+            .summary(String.format("CSV data with %d records", dataSet.size()))
             .dataType(ExtractedData.DataType.TABLE_DATA)
-            .dataPoints(dataPoints)
+            .dataSet(dataSet)
+            .dataOrigin(ExtractedData.DataOrigin.TABLES)
             .textSections(textSections)
-            .metadata(Map.of("rowCount", lines.length - 1, "columnCount", headers.length))
+            .metadata(withStatistics(Map.of("rowCount", lines.length - 1, "columnCount", headers.length), dataSet))
             .build();
     }
 
     private ExtractedData extractFromPlainText(String textData, String sourceUrl) {
-        List<DataPoint> dataPoints = new ArrayList<>();
+        ColumnarDataSet.Builder dataPoints = ColumnarDataSet.builder();
         List<TextSection> textSections = new ArrayList<>();
         
         // Extract numbers from text
@@ -251,26 +419,24 @@ public class DataExtractionAdapter implements DataExtractionPort {
                 textSections.add(section);
             }
         }
+        textSections = sectionDeduplicator.deduplicate(textSections);
         
+        ColumnarDataSet dataSet = dataPoints.build();
         return ExtractedData.builder()
             .sourceUrl(sourceUrl)
             .title("Text Analysis")
             .summary("Extracted data from plain text")
             .dataType(ExtractedData.DataType.TEXT_ONLY)
-            .dataPoints(dataPoints)
+            .dataSet(dataSet)
+            .dataOrigin(ExtractedData.DataOrigin.TEXT)
             .textSections(textSections)
-            .metadata(Map.of("characterCount", textData.length()))
+            .metadata(withStatistics(Map.of("characterCount", textData.length()), dataSet))
             .build();
     }
 
-    private void extractNumericDataFromJson(JsonNode node, String path, List<DataPoint> dataPoints) {
+    private void extractNumericDataFromJson(JsonNode node, String path, ColumnarDataSet.Builder dataPoints) {
         if (node.isNumber()) {
-            DataPoint dataPoint = DataPoint.builder()
-                .label(path.isEmpty() ? "value" : path)
-                .value(node.asDouble())
-                .category("JSON")
-                .build();
-            dataPoints.add(dataPoint);
+            dataPoints.add(path.isEmpty() ? "value" : path, node.asDouble(), "JSON");
         } else if (node.isObject()) {
             node.fields().forEachRemaining(entry -> {
                 String newPath = path.isEmpty() ? entry.getKey() : path + "." + entry.getKey();
@@ -306,51 +472,15 @@ public class DataExtractionAdapter implements DataExtractionPort {
         }
     }
 
-    private void extractDataFromTable(Element table, List<DataPoint> dataPoints) {
-        Elements rows = table.select("tr");
-        if (rows.size() < 2) return;
-        
-        Element headerRow = rows.first();
-        if (headerRow == null) {
-            return;
-        }
-        Elements headers = headerRow.select("th, td");
-        
-        for (int i = 1; i < rows.size(); i++) {
-            Elements cells = rows.get(i).select("td");
-            if (cells.size() >= 2) {
-                try {
-                    String label = cells.get(0).text().trim();
-                    String valueText = cells.get(1).text().trim().replaceAll("[^0-9.-]", "");
-                    Double value = Double.valueOf(valueText);
-                    
-                    DataPoint dataPoint = DataPoint.builder()
-                        .label(label)
-                        .value(value)
-                        .category("Table")
-                        .build();
-                    dataPoints.add(dataPoint);
-                } catch (NumberFormatException e) {
-                    // Skip non-numeric data
-                }
-            }
-        }
-    }
-
-    private void extractNumbersFromText(String text, List<DataPoint> dataPoints) {
+    private void extractNumbersFromText(String text, ColumnarDataSet.Builder dataPoints) {
         Pattern numberPattern = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
         Matcher matcher = numberPattern.matcher(text);
         
         int count = 0;
         while (matcher.find() && count < 50) { // Limit to prevent too many data points
             try {
-                Double value = Double.valueOf(matcher.group());
-                DataPoint dataPoint = DataPoint.builder()
-                    .label("Number " + (count + 1))
-                    .value(value)
-                    .category("Text")
-                    .build();
-                dataPoints.add(dataPoint);
+                double value = Double.parseDouble(matcher.group());
+                dataPoints.add("Number " + (count + 1), value, "Text");
                 count++;
             } catch (NumberFormatException e) {
                 // Skip invalid numbers
@@ -396,18 +526,27 @@ public class DataExtractionAdapter implements DataExtractionPort {
         };
     }
 
-    private ExtractedData.DataType determineDataType(List<DataPoint> dataPoints, List<TextSection> textSections) {
-        if (dataPoints.isEmpty() && !textSections.isEmpty()) {
+    private ExtractedData.DataType determineDataType(int dataPointCount, List<TextSection> textSections) {
+        if (dataPointCount == 0 && !textSections.isEmpty()) {
             return ExtractedData.DataType.TEXT_ONLY;
-        } else if (!dataPoints.isEmpty() && textSections.isEmpty()) {
+        } else if (dataPointCount > 0 && textSections.isEmpty()) {
             return ExtractedData.DataType.NUMERICAL;
-        } else if (!dataPoints.isEmpty() && !textSections.isEmpty()) {
+        } else if (dataPointCount > 0 && !textSections.isEmpty()) {
             return ExtractedData.DataType.MIXED;
         } else {
             return ExtractedData.DataType.TEXT_ONLY;
         }
     }
 
+    private Map<String, Object> withStatistics(Map<String, Object> metadata, ColumnarDataSet dataSet) {
+        if (dataSet.isEmpty()) {
+            return metadata;
+        }
+        Map<String, Object> enriched = new HashMap<>(metadata);
+        enriched.put("statistics", dataSet.statistics().toMap());
+        return enriched;
+    }
+
     private ExtractedData createFallbackExtractedData(String rawData, String sourceUrl) {
         return ExtractedData.builder()
             .sourceUrl(sourceUrl)
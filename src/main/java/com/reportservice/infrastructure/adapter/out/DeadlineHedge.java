@@ -0,0 +1,183 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Races a model call against its heuristic fallback. The fallback starts only when the call fails
+ * or misses the soft deadline; until the hard deadline the call's result is still preferred, and
+ * from then on whichever result is ready wins. The model call is never cancelled, so a late
+ * response still completes and is written to {@link AiResponseCache} for the next identical
+ * request. Winners are counted as {@code ai.hedge.results} by operation and outcome, and responses
+ * that arrive after the fallback won as {@code ai.hedge.late}.
+ * <p>
+ * Model calls, fallbacks and deadline timers each have their own threads, so model calls blocked
+ * on the provider can never delay the fallback that is meant to replace them, and none of them
+ * occupy the common pool.
+ */
+@Slf4j
+@Component
+class DeadlineHedge {
+
+    enum Outcome {
+        AI, AI_AFTER_SOFT_DEADLINE, FALLBACK_AFTER_HARD_DEADLINE, FALLBACK_AFTER_ERROR
+    }
+
+    private final Duration softDeadline;
+    private final Duration hardDeadline;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Map<Outcome, Counter>> results = new ConcurrentHashMap<>();
+    private final Map<String, Counter> late = new ConcurrentHashMap<>();
+    private final ExecutorService callPool;
+    private final ExecutorService fallbackPool;
+    private final ScheduledExecutorService timer;
+
+    DeadlineHedge(
+            @Value("${ai.hedge.soft-deadline:15s}") Duration softDeadline,
+            @Value("${ai.hedge.hard-deadline:45s}") Duration hardDeadline,
+            @Value("${ai.hedge.call-threads:16}") int callThreads,
+            @Value("${ai.hedge.fallback-threads:0}") int fallbackThreads,
+            MeterRegistry meterRegistry) {
+        this.softDeadline = softDeadline;
+        this.hardDeadline = hardDeadline.compareTo(softDeadline) < 0 ? softDeadline : hardDeadline;
+        this.meterRegistry = meterRegistry;
+        // Model calls mostly wait on the provider; fallbacks are CPU-bound, so one thread per core by default
+        this.callPool = Executors.newFixedThreadPool(Math.max(1, callThreads), daemonThreads("ai-hedge-call-"));
+        this.fallbackPool = Executors.newFixedThreadPool(
+                fallbackThreads > 0 ? fallbackThreads : Runtime.getRuntime().availableProcessors(),
+                daemonThreads("ai-hedge-fallback-"));
+        this.timer = Executors.newSingleThreadScheduledExecutor(daemonThreads("ai-hedge-timer-"));
+    }
+
+    /**
+     * Runs {@code call} asynchronously and completes with its result or the fallback's, as described
+     * above. The returned future fails only if the fallback itself fails.
+     */
+    <T> CompletableFuture<T> call(String operation, Supplier<T> call, Supplier<T> fallback) {
+        Race<T> race = new Race<>(operation, fallback);
+        CompletableFuture.supplyAsync(call, callPool).whenComplete(race::onCallResult);
+        if (!softDeadline.isZero()) {
+            timer.schedule(race::onSoftDeadline, softDeadline.toMillis(), TimeUnit.MILLISECONDS);
+            timer.schedule(race::onHardDeadline, hardDeadline.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return race.result;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdownNow();
+        callPool.shutdownNow();
+        fallbackPool.shutdownNow();
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private Counter counter(String operation, Outcome outcome) {
+        return results.computeIfAbsent(operation, key -> new EnumMap<>(Outcome.class))
+                .computeIfAbsent(outcome, key -> Counter.builder("ai.hedge.results")
+                        .tag("operation", operation)
+                        .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                        .description("Model calls raced against the heuristic fallback, by winner")
+                        .register(meterRegistry));
+    }
+
+    private Counter lateCounter(String operation) {
+        return late.computeIfAbsent(operation, key -> Counter.builder("ai.hedge.late")
+                .tag("operation", operation)
+                .description("Model responses that completed after the fallback had won")
+                .register(meterRegistry));
+    }
+
+    private final class Race<T> {
+        private final String operation;
+        private final Supplier<T> fallback;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final AtomicBoolean decided = new AtomicBoolean();
+        private CompletableFuture<T> fallbackResult;
+        private volatile boolean softDeadlinePassed;
+
+        private Race(String operation, Supplier<T> fallback) {
+            this.operation = operation;
+            this.fallback = fallback;
+        }
+
+        private synchronized CompletableFuture<T> fallback() {
+            if (fallbackResult == null) {
+                fallbackResult = CompletableFuture.supplyAsync(fallback, fallbackPool);
+            }
+            return fallbackResult;
+        }
+
+        private void onCallResult(T value, Throwable error) {
+            if (error == null) {
+                if (!complete(value, softDeadlinePassed ? Outcome.AI_AFTER_SOFT_DEADLINE : Outcome.AI)) {
+                    lateCounter(operation).increment();
+                }
+                return;
+            }
+            log.error("AI {} failed, using the fallback", operation, error);
+            fallback().whenComplete((fallbackValue, fallbackError) -> {
+                if (fallbackError == null) {
+                    complete(fallbackValue, Outcome.FALLBACK_AFTER_ERROR);
+                } else {
+                    result.completeExceptionally(fallbackError);
+                }
+            });
+        }
+
+        private void onSoftDeadline() {
+            if (!result.isDone()) {
+                log.info("AI {} missed the {} soft deadline, preparing the fallback", operation, softDeadline);
+                softDeadlinePassed = true;
+                fallback();
+            }
+        }
+
+        private void onHardDeadline() {
+            if (!result.isDone()) {
+                fallback().thenAccept(value -> {
+                    if (complete(value, Outcome.FALLBACK_AFTER_HARD_DEADLINE)) {
+                        log.warn("AI {} missed the {} hard deadline, returned the fallback", operation, hardDeadline);
+                    }
+                });
+            }
+        }
+
+        private boolean complete(T value, Outcome outcome) {
+            if (!decided.compareAndSet(false, true)) {
+                return false;
+            }
+            // Counted before completing, so whoever sees the result also sees its outcome
+            counter(operation, outcome).increment();
+            result.complete(value);
+            return true;
+        }
+    }
+}
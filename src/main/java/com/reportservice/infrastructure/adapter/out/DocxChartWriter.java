@@ -0,0 +1,367 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.util.Units;
+import org.apache.poi.xddf.usermodel.XDDFLineProperties;
+import org.apache.poi.xddf.usermodel.XDDFNoFillProperties;
+import org.apache.poi.xddf.usermodel.XDDFShapeProperties;
+import org.apache.poi.xddf.usermodel.chart.AxisCrosses;
+import org.apache.poi.xddf.usermodel.chart.AxisPosition;
+import org.apache.poi.xddf.usermodel.chart.BarDirection;
+import org.apache.poi.xddf.usermodel.chart.BarGrouping;
+import org.apache.poi.xddf.usermodel.chart.ChartTypes;
+import org.apache.poi.xddf.usermodel.chart.LegendPosition;
+import org.apache.poi.xddf.usermodel.chart.MarkerStyle;
+import org.apache.poi.xddf.usermodel.chart.ScatterStyle;
+import org.apache.poi.xddf.usermodel.chart.XDDFBarChartData;
+import org.apache.poi.xddf.usermodel.chart.XDDFCategoryAxis;
+import org.apache.poi.xddf.usermodel.chart.XDDFChartAxis;
+import org.apache.poi.xddf.usermodel.chart.XDDFChartData;
+import org.apache.poi.xddf.usermodel.chart.XDDFDataSource;
+import org.apache.poi.xddf.usermodel.chart.XDDFDataSourcesFactory;
+import org.apache.poi.xddf.usermodel.chart.XDDFLineChartData;
+import org.apache.poi.xddf.usermodel.chart.XDDFNumericalDataSource;
+import org.apache.poi.xddf.usermodel.chart.XDDFScatterChartData;
+import org.apache.poi.xddf.usermodel.chart.XDDFValueAxis;
+import org.apache.poi.xwpf.usermodel.XWPFChart;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.openxmlformats.schemas.drawingml.x2006.chart.CTChart;
+import org.openxmlformats.schemas.drawingml.x2006.chart.STDispBlanksAs;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.reportservice.domain.model.Chart;
+import com.reportservice.domain.model.ColumnarDataSet;
+import com.reportservice.domain.statistics.Downsampling;
+
+/**
+ * Writes charts into Word documents as native DrawingML charts built with POI's XDDF API. The
+ * series are shaped like the JFreeChart images of {@link ChartGenerationAdapter}, and the values
+ * are kept in the chart's embedded workbook, so the chart stays editable and restylable in Word.
+ */
+@Component
+class DocxChartWriter {
+
+    /** Same layout box as the PNG fallback, so switching modes does not reflow the document. */
+    private static final int WIDTH_EMU = Units.toEMU(Chart.ImageTarget.DOCX.widthPoints());
+    private static final int HEIGHT_EMU = Units.toEMU(Chart.ImageTarget.DOCX.heightPoints());
+
+    private final boolean enabled;
+
+    DocxChartWriter(@Value("${chart.docx.native:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Appends the chart in a new paragraph. Returns {@code false} without touching the document when
+     * native charts are disabled, the chart has no data, its values do not form a complete table or
+     * Word has no equivalent chart type (small multiples), in which case the caller embeds an image.
+     * The table is built and checked before the chart part is created; if POI still fails while
+     * filling the chart, the paragraph and the document's relationship to the chart are removed
+     * again before the exception is rethrown, so the caller's image is not preceded by an empty frame.
+     */
+    boolean write(XWPFDocument document, Chart chart) throws IOException, InvalidFormatException {
+        if (!enabled || chart.getType() == null || chart.getDataSet().isEmpty()
+                || chart.getType() == Chart.ChartType.SMALL_MULTIPLES) {
+            return false;
+        }
+        ColumnarDataSet dataSet = chart.getDataSet();
+        SeriesTable table = switch (chart.getType()) {
+            case BAR -> barTable(dataSet);
+            case PIE -> pieTable(dataSet);
+            case LINE -> lineTable(dataSet);
+            case SCATTER -> scatterTable(dataSet);
+            case HISTOGRAM -> histogramTable(dataSet);
+            case SMALL_MULTIPLES -> throw new IllegalStateException("Small multiples have no native Word chart");
+        };
+        if (!table.isComplete()) {
+            return false;
+        }
+
+        XWPFParagraph paragraph = document.createParagraph();
+        XWPFChart docxChart;
+        try {
+            docxChart = document.createChart(paragraph.createRun(), WIDTH_EMU, HEIGHT_EMU);
+        } catch (IOException | InvalidFormatException | RuntimeException e) {
+            document.removeBodyElement(document.getPosOfParagraph(paragraph));
+            throw e;
+        }
+        try {
+            plot(docxChart, chart, dataSet, table);
+        } catch (RuntimeException e) {
+            document.removeBodyElement(document.getPosOfParagraph(paragraph));
+            document.getPackagePart().removeRelationship(document.getRelationId(docxChart));
+            throw e;
+        }
+        return true;
+    }
+
+    private void plot(XWPFChart docxChart, Chart chart, ColumnarDataSet dataSet, SeriesTable table) {
+        if (chart.getTitle() != null) {
+            docxChart.setTitleText(chart.getTitle());
+            docxChart.setTitleOverlay(false);
+        }
+
+        XDDFChartData data = switch (chart.getType()) {
+            case PIE -> pieData(docxChart);
+            case SCATTER -> scatterData(docxChart, dataSet);
+            case LINE -> lineData(docxChart, dataSet);
+            case BAR -> barData(docxChart, dataSet, ChartGenerationAdapter.determineYAxisLabel(dataSet), 150);
+            case HISTOGRAM -> barData(docxChart, dataSet, "Frequency", 0);
+            case SMALL_MULTIPLES -> throw new IllegalStateException("Small multiples have no native Word chart");
+        };
+        addSeries(docxChart, data, table);
+        docxChart.plot(data);
+
+        if (chart.getType() == Chart.ChartType.PIE || table.series().size() > 1) {
+            docxChart.getOrAddLegend().setPosition(LegendPosition.BOTTOM);
+        }
+    }
+
+    /** Category column plus one value column per series, written to the embedded sheet in this order. */
+    private void addSeries(XWPFChart docxChart, XDDFChartData data, SeriesTable table) {
+        int rows = table.xValues() != null ? table.xValues().length : table.categories().length;
+        String categoryRange = docxChart.formatRange(new CellRangeAddress(1, rows, 0, 0));
+        XDDFDataSource<?> categories = table.xValues() != null
+            ? XDDFDataSourcesFactory.fromArray(table.xValues(), categoryRange, 0)
+            : XDDFDataSourcesFactory.fromArray(table.categories(), categoryRange, 0);
+
+        int column = 1;
+        for (Map.Entry<String, Double[]> entry : table.series().entrySet()) {
+            String valueRange = docxChart.formatRange(new CellRangeAddress(1, rows, column, column));
+            XDDFNumericalDataSource<Double> values =
+                XDDFDataSourcesFactory.fromArray(entry.getValue(), valueRange, column);
+            XDDFChartData.Series series = data.addSeries(categories, values);
+            series.setTitle(entry.getKey(), docxChart.setSheetTitle(entry.getKey(), column));
+            styleSeries(series);
+            column++;
+        }
+    }
+
+    private void styleSeries(XDDFChartData.Series series) {
+        if (series instanceof XDDFLineChartData.Series line) {
+            line.setSmooth(false);
+            line.setMarkerStyle(MarkerStyle.NONE);
+        } else if (series instanceof XDDFScatterChartData.Series scatter) {
+            scatter.setSmooth(false);
+            scatter.setMarkerStyle(MarkerStyle.CIRCLE);
+            scatter.setMarkerSize((short) 5);
+            // Markers only; Word connects scatter points unless the series line is hidden
+            XDDFShapeProperties shape = new XDDFShapeProperties();
+            shape.setLineProperties(new XDDFLineProperties(new XDDFNoFillProperties()));
+            scatter.setShapeProperties(shape);
+        }
+    }
+
+    private XDDFChartData barData(XWPFChart docxChart, ColumnarDataSet dataSet, String valueTitle, int gapWidth) {
+        XDDFCategoryAxis categoryAxis = docxChart.createCategoryAxis(AxisPosition.BOTTOM);
+        XDDFValueAxis valueAxis = valueAxis(docxChart, categoryAxis, valueTitle);
+        categoryAxis.setTitle(ChartGenerationAdapter.determineXAxisLabel(dataSet));
+
+        XDDFBarChartData bar = (XDDFBarChartData) docxChart.createData(ChartTypes.BAR, categoryAxis, valueAxis);
+        bar.setBarDirection(BarDirection.COL);
+        bar.setBarGrouping(BarGrouping.CLUSTERED);
+        bar.setGapWidth(gapWidth);
+        bar.setVaryColors(false);
+        return bar;
+    }
+
+    private XDDFChartData lineData(XWPFChart docxChart, ColumnarDataSet dataSet) {
+        XDDFCategoryAxis categoryAxis = docxChart.createCategoryAxis(AxisPosition.BOTTOM);
+        XDDFValueAxis valueAxis =
+            valueAxis(docxChart, categoryAxis, ChartGenerationAdapter.determineYAxisLabel(dataSet));
+        categoryAxis.setTitle(ChartGenerationAdapter.determineXAxisLabel(dataSet));
+
+        XDDFChartData line = docxChart.createData(ChartTypes.LINE, categoryAxis, valueAxis);
+        line.setVaryColors(false);
+        // Series share one date axis and leave the dates they have no point for empty; Word would
+        // otherwise break each line at every such gap
+        CTChart ctChart = docxChart.getCTChart();
+        (ctChart.isSetDispBlanksAs() ? ctChart.getDispBlanksAs() : ctChart.addNewDispBlanksAs())
+            .setVal(STDispBlanksAs.SPAN);
+        return line;
+    }
+
+    private XDDFChartData scatterData(XWPFChart docxChart, ColumnarDataSet dataSet) {
+        XDDFValueAxis xAxis = docxChart.createValueAxis(AxisPosition.BOTTOM);
+        XDDFValueAxis yAxis = valueAxis(docxChart, xAxis, ChartGenerationAdapter.determineYAxisLabel(dataSet));
+        xAxis.setTitle(ChartGenerationAdapter.determineXAxisLabel(dataSet));
+
+        XDDFScatterChartData scatter =
+            (XDDFScatterChartData) docxChart.createData(ChartTypes.SCATTER, xAxis, yAxis);
+        scatter.setStyle(ScatterStyle.MARKER);
+        scatter.setVaryColors(false);
+        return scatter;
+    }
+
+    private XDDFChartData pieData(XWPFChart docxChart) {
+        XDDFChartData pie = docxChart.createData(ChartTypes.PIE, null, null);
+        pie.setVaryColors(true);
+        return pie;
+    }
+
+    private XDDFValueAxis valueAxis(XWPFChart docxChart, XDDFChartAxis crossAxis, String title) {
+        XDDFValueAxis valueAxis = docxChart.createValueAxis(AxisPosition.LEFT);
+        valueAxis.setCrosses(AxisCrosses.AUTO_ZERO);
+        crossAxis.setCrosses(AxisCrosses.AUTO_ZERO);
+        valueAxis.setTitle(title);
+        return valueAxis;
+    }
+
+    /**
+     * Labels along the axis and a series per category, limited with "Other" like the image, last
+     * value winning like a category dataset.
+     */
+    static SeriesTable barTable(ColumnarDataSet dataSet) {
+        Map<String, Integer> labelIndexes = new LinkedHashMap<>();
+        Map<String, Map<Integer, Double>> cells = new LinkedHashMap<>();
+        ColumnarDataSet.Cursor cursor = ChartGenerationAdapter.limitBars(dataSet,
+            ChartGenerationAdapter.MAX_BAR_LABELS, ChartGenerationAdapter.MAX_BAR_SERIES).cursor();
+        while (cursor.next()) {
+            String category = cursor.category() != null ? cursor.category() : "Data";
+            String label = cursor.label() != null ? cursor.label() : "Value";
+            int labelIndex = labelIndexes.computeIfAbsent(label, key -> labelIndexes.size());
+            cells.computeIfAbsent(category, key -> new LinkedHashMap<>()).put(labelIndex, cursor.valueOr(0.0));
+        }
+
+        Map<String, Double[]> series = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<Integer, Double>> entry : cells.entrySet()) {
+            Double[] values = new Double[labelIndexes.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = entry.getValue().getOrDefault(i, 0.0);
+            }
+            series.put(entry.getKey(), values);
+        }
+        return new SeriesTable(labelIndexes.keySet().toArray(String[]::new), series);
+    }
+
+    /** The same slices as the image: the largest label totals and "Other". */
+    static SeriesTable pieTable(ColumnarDataSet dataSet) {
+        Map<String, Double> slices = ChartGenerationAdapter.pieSlices(dataSet, ChartGenerationAdapter.PIE_SLICES);
+        return new SeriesTable(slices.keySet().toArray(String[]::new),
+            Map.of("Value", slices.values().toArray(Double[]::new)));
+    }
+
+    /**
+     * One column per category series, each reduced to the image's point budget, on an axis shared by
+     * all series. The axis holds every x value any series kept, in ascending order: the dates when
+     * the image plots epoch days, otherwise the positions within each series. A series leaves the
+     * cells it has no point for empty, and the chart spans such gaps (see {@link #lineData}), so
+     * downsampled series that kept different dates are still drawn as continuous lines.
+     */
+    static SeriesTable lineTable(ColumnarDataSet dataSet) {
+        Map<String, ChartGenerationAdapter.LineSeries> lines =
+            ChartGenerationAdapter.lineSeries(dataSet, ChartGenerationAdapter.LINE_POINTS_PER_SERIES);
+        boolean epochDays = ChartGenerationAdapter.onEpochDays(dataSet);
+
+        Map<String, Map<Long, Double>> points = new LinkedHashMap<>();
+        TreeSet<Long> axis = new TreeSet<>();
+        for (Map.Entry<String, ChartGenerationAdapter.LineSeries> entry : lines.entrySet()) {
+            int[] rows = entry.getValue().rows();
+            Map<Long, Double> values = points.computeIfAbsent(entry.getKey(), key -> new HashMap<>());
+            for (int i = 0; i < rows.length; i++) {
+                long key = entry.getValue().x(dataSet, i, epochDays);
+                values.put(key, dataSet.hasValue(rows[i]) ? dataSet.value(rows[i]) : 0.0);
+                axis.add(key);
+            }
+        }
+
+        Long[] keys = axis.toArray(Long[]::new);
+        String[] labels = new String[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            labels[i] = epochDays ? LocalDate.ofEpochDay(keys[i]).toString() : String.valueOf(keys[i] + 1);
+        }
+        Map<String, Double[]> series = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<Long, Double>> entry : points.entrySet()) {
+            Double[] values = new Double[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                values[i] = entry.getValue().get(keys[i]);
+            }
+            series.put(entry.getKey(), values);
+        }
+        return new SeriesTable(labels, series);
+    }
+
+    /** Row position against value, binned like the scatter image. */
+    static SeriesTable scatterTable(ColumnarDataSet dataSet) {
+        Downsampling.BinnedPoints points = ChartGenerationAdapter.scatterPoints(dataSet);
+        Double[] positions = new Double[points.size()];
+        Double[] values = new Double[points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            positions[i] = points.x()[i];
+            values[i] = points.y()[i];
+        }
+        return new SeriesTable(null, positions, Map.of("Data Points", values));
+    }
+
+    /** Counts in equal-width bins over the value range, with the bin count used for the image. */
+    static SeriesTable histogramTable(ColumnarDataSet dataSet) {
+        double[] values = dataSet.values(0.0);
+        int bins = ChartGenerationAdapter.histogramBins(values.length);
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (double value : values) {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        double width = (max - min) / bins;
+
+        Double[] counts = new Double[bins];
+        Arrays.fill(counts, 0.0);
+        for (double value : values) {
+            int bin = width > 0 ? (int) ((value - min) / width) : 0;
+            counts[Math.min(bin, bins - 1)]++;
+        }
+
+        String[] ranges = new String[bins];
+        for (int i = 0; i < bins; i++) {
+            ranges[i] = String.format("%.2f - %.2f", min + i * width, min + (i + 1) * width);
+        }
+        return new SeriesTable(ranges, Map.of("Frequency", counts));
+    }
+
+    /** Axis categories, or numeric x values for scatter charts, and the named value columns over them. */
+    record SeriesTable(String[] categories, Double[] xValues, Map<String, Double[]> series) {
+
+        SeriesTable(String[] categories, Map<String, Double[]> series) {
+            this(categories, null, series);
+        }
+
+        /**
+         * At least one row and one series, every series as long as the axis and every value finite;
+         * {@code null} cells are gaps. Anything else would leave the chart's cache and its embedded
+         * sheet disagreeing, which Word reports as a damaged document.
+         */
+        boolean isComplete() {
+            int rows = xValues != null ? xValues.length : categories != null ? categories.length : 0;
+            if (rows == 0 || series.isEmpty() || (xValues != null && !allFinite(xValues))) {
+                return false;
+            }
+            for (Double[] values : series.values()) {
+                if (values.length != rows || !allFinite(values)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean allFinite(Double[] values) {
+            for (Double value : values) {
+                if (value != null && !Double.isFinite(value)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import org.jsoup.nodes.Element;
+
+import com.reportservice.domain.model.ColumnarDataSet;
+import com.reportservice.domain.model.Table;
+
+/**
+ * Extracts every HTML {@code <table>} of a document on a fork-join pool: one task per table,
+ * split further into row chunks for very large tables. All numeric columns are extracted,
+ * named after the header row, and each table is also returned as a multi-column {@link Table}.
+ */
+class HtmlTableExtractor {
+
+    private static final int ROW_CHUNK_SIZE = 2_000;
+    private static final int MAX_REPORT_ROWS = 100;
+    private static final double NUMERIC_COLUMN_RATIO = 0.5;
+
+    private final ForkJoinPool pool;
+
+    HtmlTableExtractor(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    List<ExtractedTable> extract(List<Element> tables) {
+        if (tables.isEmpty()) {
+            return List.of();
+        }
+        List<TableTask> tasks = new ArrayList<>(tables.size());
+        for (int i = 0; i < tables.size(); i++) {
+            tasks.add(new TableTask(tables.get(i), i + 1));
+        }
+        return pool.invoke(new RecursiveTask<List<ExtractedTable>>() {
+            @Override
+            protected List<ExtractedTable> compute() {
+                ForkJoinTask.invokeAll(tasks);
+                List<ExtractedTable> results = new ArrayList<>(tasks.size());
+                for (TableTask task : tasks) {
+                    ExtractedTable result = task.join();
+                    if (result != null) {
+                        results.add(result);
+                    }
+                }
+                return results;
+            }
+        });
+    }
+
+    record ExtractedTable(Table table, ColumnarDataSet dataSet) {
+    }
+
+    private static final class TableTask extends RecursiveTask<ExtractedTable> {
+        private final Element table;
+        private final int tableNumber;
+
+        TableTask(Element table, int tableNumber) {
+            this.table = table;
+            this.tableNumber = tableNumber;
+        }
+
+        @Override
+        protected ExtractedTable compute() {
+            List<Element> rows = directRows(table);
+            if (rows.size() < 2) {
+                return null;
+            }
+
+            Element headerRow = rows.get(0);
+            boolean hasHeader = isHeaderRow(headerRow);
+            List<Element> bodyRows = hasHeader ? rows.subList(1, rows.size()) : rows;
+            int columnCount = 0;
+            for (Element row : rows) {
+                columnCount = Math.max(columnCount, row.children().size());
+            }
+            if (bodyRows.isEmpty() || columnCount == 0) {
+                return null;
+            }
+
+            String[] headers = new String[columnCount];
+            List<Element> headerCells = headerRow.children();
+            for (int col = 0; col < columnCount; col++) {
+                String text = hasHeader && col < headerCells.size() ? headerCells.get(col).text().trim() : "";
+                headers[col] = text.isEmpty() ? "Column " + (col + 1) : text;
+            }
+
+            RowChunk chunk = new RowChunkTask(bodyRows, 0, bodyRows.size(), columnCount).compute();
+            return toExtractedTable(headers, chunk);
+        }
+
+        private ExtractedTable toExtractedTable(String[] headers, RowChunk chunk) {
+            int columnCount = headers.length;
+            boolean[] numeric = new boolean[columnCount];
+            int labelColumn = -1;
+            for (int col = 0; col < columnCount; col++) {
+                numeric[col] = chunk.nonEmpty[col] > 0
+                    && chunk.numeric[col] >= chunk.nonEmpty[col] * NUMERIC_COLUMN_RATIO;
+                if (!numeric[col] && labelColumn < 0 && chunk.nonEmpty[col] > 0) {
+                    labelColumn = col;
+                }
+            }
+
+            int rowCount = chunk.cells.length;
+            ColumnarDataSet.Builder dataSet = ColumnarDataSet.builder(rowCount);
+            int numericColumns = 0;
+            for (int col = 0; col < columnCount; col++) {
+                if (!numeric[col]) {
+                    continue;
+                }
+                numericColumns++;
+                for (int row = 0; row < rowCount; row++) {
+                    double value = chunk.values[row][col];
+                    if (!Double.isNaN(value)) {
+                        String label = labelColumn >= 0 ? chunk.cells[row][labelColumn] : "Row " + (row + 1);
+                        dataSet.add(label, value, headers[col]);
+                    }
+                }
+            }
+
+            Element caption = table.selectFirst("caption");
+            String title = caption != null && !caption.text().isBlank()
+                ? caption.text().trim()
+                : "Table " + tableNumber;
+
+            int shownRows = Math.min(rowCount, MAX_REPORT_ROWS);
+            List<List<String>> rows = new ArrayList<>(shownRows);
+            for (int row = 0; row < shownRows; row++) {
+                rows.add(List.of(chunk.cells[row]));
+            }
+
+            String description = String.format("Extracted from HTML table %d (%d rows, %d numeric columns)",
+                tableNumber, rowCount, numericColumns);
+            if (shownRows < rowCount) {
+                description += String.format("; showing first %d rows", shownRows);
+            }
+
+            Table reportTable = Table.builder()
+                .title(title)
+                .description(description)
+                .headers(List.of(headers))
+                .rows(rows)
+                .build();
+            return new ExtractedTable(reportTable, dataSet.build());
+        }
+    }
+
+    private static final class RowChunkTask extends RecursiveTask<RowChunk> {
+        private final List<Element> rows;
+        private final int from;
+        private final int to;
+        private final int columnCount;
+
+        RowChunkTask(List<Element> rows, int from, int to, int columnCount) {
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+            this.columnCount = columnCount;
+        }
+
+        @Override
+        protected RowChunk compute() {
+            if (to - from <= ROW_CHUNK_SIZE) {
+                return parseRows();
+            }
+            int middle = (from + to) >>> 1;
+            RowChunkTask left = new RowChunkTask(rows, from, middle, columnCount);
+            RowChunkTask right = new RowChunkTask(rows, middle, to, columnCount);
+            left.fork();
+            RowChunk rightChunk = right.compute();
+            return left.join().append(rightChunk);
+        }
+
+        private RowChunk parseRows() {
+            RowChunk chunk = new RowChunk(to - from, columnCount);
+            for (int row = from; row < to; row++) {
+                List<Element> cells = rows.get(row).children();
+                String[] texts = new String[columnCount];
+                double[] values = new double[columnCount];
+                for (int col = 0; col < columnCount; col++) {
+                    String text = col < cells.size() ? cells.get(col).text().trim() : "";
+                    texts[col] = text;
+                    values[col] = parseNumber(text);
+                    if (!text.isEmpty()) {
+                        chunk.nonEmpty[col]++;
+                        if (!Double.isNaN(values[col])) {
+                            chunk.numeric[col]++;
+                        }
+                    }
+                }
+                chunk.cells[row - from] = texts;
+                chunk.values[row - from] = values;
+            }
+            return chunk;
+        }
+    }
+
+    private static final class RowChunk {
+        private String[][] cells;
+        private double[][] values;
+        private final int[] nonEmpty;
+        private final int[] numeric;
+
+        RowChunk(int rowCount, int columnCount) {
+            this.cells = new String[rowCount][];
+            this.values = new double[rowCount][];
+            this.nonEmpty = new int[columnCount];
+            this.numeric = new int[columnCount];
+        }
+
+        RowChunk append(RowChunk other) {
+            String[][] mergedCells = new String[cells.length + other.cells.length][];
+            System.arraycopy(cells, 0, mergedCells, 0, cells.length);
+            System.arraycopy(other.cells, 0, mergedCells, cells.length, other.cells.length);
+            double[][] mergedValues = new double[values.length + other.values.length][];
+            System.arraycopy(values, 0, mergedValues, 0, values.length);
+            System.arraycopy(other.values, 0, mergedValues, values.length, other.values.length);
+            cells = mergedCells;
+            values = mergedValues;
+            for (int col = 0; col < nonEmpty.length; col++) {
+                nonEmpty[col] += other.nonEmpty[col];
+                numeric[col] += other.numeric[col];
+            }
+            return this;
+        }
+    }
+
+    private static List<Element> directRows(Element table) {
+        List<Element> rows = new ArrayList<>();
+        for (Element child : table.children()) {
+            switch (child.normalName()) {
+                case "tr" -> rows.add(child);
+                case "thead", "tbody", "tfoot" -> {
+                    for (Element row : child.children()) {
+                        if (row.normalName().equals("tr")) {
+                            rows.add(row);
+                        }
+                    }
+                }
+                default -> {
+                    // Ignore captions, colgroups and nested content
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static boolean isHeaderRow(Element row) {
+        int numericCells = 0;
+        for (Element cell : row.children()) {
+            if (cell.normalName().equals("th") || row.parent() != null && row.parent().normalName().equals("thead")) {
+                return true;
+            }
+            if (!Double.isNaN(parseNumber(cell.text().trim()))) {
+                numericCells++;
+            }
+        }
+        return numericCells == 0;
+    }
+
+    /**
+     * Parses cell text such as {@code "$1,234.50"}, {@code "-12 %"}, {@code "(3.5)"}, {@code "1.5E7"}
+     * or {@code "1 000 000"} without regex. Spaces between digits are only read as thousands
+     * separators in front of a group of exactly three digits, so {@code "10 20"} is not one number.
+     * Returns {@code NaN} for text that contains anything other than a number with common decorations.
+     */
+    static double parseNumber(String text) {
+        int length = text.length();
+        if (length == 0) {
+            return Double.NaN;
+        }
+        char[] buffer = new char[length + 1];
+        int size = 0;
+        int group = 0;
+        boolean digits = false;
+        boolean fraction = false;
+        boolean negative = false;
+        boolean exponent = false;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                buffer[size++] = c;
+                digits = true;
+                group++;
+            } else if ((c == 'e' || c == 'E') && digits && !exponent && i + 1 < length) {
+                exponent = true;
+                buffer[size++] = 'E';
+                char next = text.charAt(i + 1);
+                if (next == '-' || next == '+') {
+                    buffer[size++] = next;
+                    i++;
+                }
+            } else if (c == '.') {
+                buffer[size++] = c;
+                fraction = true;
+            } else if (c == '-' && size == 0) {
+                negative = true;
+            } else if (c == '(' && size == 0) {
+                negative = true;
+            } else if (isSpace(c)) {
+                if (group > 0 && i + 1 < length && isDigit(text.charAt(i + 1))) {
+                    // Between digits only as a separator of the integer part's groups of three
+                    if (fraction || exponent || group > 3 || digitsFrom(text, i + 1) != 3) {
+                        return Double.NaN;
+                    }
+                }
+                group = 0;
+            } else if (c == ',' || c == ')' || c == '+' || c == '%' || c == '$' || c == '\u20AC'
+                || c == '\u00A3' || c == '\u00A5') {
+                // Thousands separators, signs, percent and currency decorations
+                group = 0;
+            } else {
+                return Double.NaN;
+            }
+        }
+        if (!digits) {
+            return Double.NaN;
+        }
+        try {
+            double value = Double.parseDouble(new String(buffer, 0, size));
+            return negative ? -value : value;
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static boolean isSpace(char c) {
+        return c == '\u00A0' || c == '\u202F' || Character.isWhitespace(c);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int digitsFrom(String text, int start) {
+        int end = start;
+        while (end < text.length() && isDigit(text.charAt(end))) {
+            end++;
+        }
+        return end - start;
+    }
+}
@@ -0,0 +1,52 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pool of ARGB images keyed by size, so steady-state chart rendering reuses a few frames instead of
+ * allocating a new 2 MB image per chart. At most {@code maxPerSize} idle images are kept per size,
+ * which matches the number of render threads; further images are allocated and dropped as usual.
+ * Images are cleared to transparent when acquired.
+ */
+final class ImageBufferPool {
+
+    private final int maxPerSize;
+    private final Map<Long, BlockingQueue<BufferedImage>> idle = new ConcurrentHashMap<>();
+
+    ImageBufferPool(int maxPerSize) {
+        if (maxPerSize < 1) {
+            throw new IllegalArgumentException("Pool must keep at least one image per size: " + maxPerSize);
+        }
+        this.maxPerSize = maxPerSize;
+    }
+
+    BufferedImage acquire(int width, int height) {
+        BufferedImage image = queue(width, height).poll();
+        if (image == null) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+        Arrays.fill(((DataBufferInt) image.getRaster().getDataBuffer()).getData(), 0);
+        return image;
+    }
+
+    /** Returns the image for reuse; the caller must not touch it afterwards. */
+    void release(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_ARGB) {
+            queue(image.getWidth(), image.getHeight()).offer(image);
+        }
+    }
+
+    int idleCount(int width, int height) {
+        return queue(width, height).size();
+    }
+
+    private BlockingQueue<BufferedImage> queue(int width, int height) {
+        return idle.computeIfAbsent(((long) width << 32) | height, size -> new ArrayBlockingQueue<>(maxPerSize));
+    }
+}
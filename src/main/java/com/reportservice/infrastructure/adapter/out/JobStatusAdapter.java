@@ -0,0 +1,57 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.reportservice.domain.model.JobStatus;
+import com.reportservice.domain.port.out.JobStatusPort;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+public class JobStatusAdapter implements JobStatusPort {
+
+    @Value("${app.jobs.retention:1h}")
+    private Duration retention = Duration.ofHours(1);
+
+    private final Map<String, JobStatus> statuses = new ConcurrentHashMap<>();
+
+    @Override
+    public void save(JobStatus status) {
+        evictExpired();
+        statuses.put(status.getRequestId(), status.toBuilder().updatedAt(OffsetDateTime.now()).build());
+    }
+
+    @Override
+    public void update(String requestId, UnaryOperator<JobStatus> update) {
+        statuses.computeIfPresent(requestId,
+            (id, status) -> update.apply(status).toBuilder().updatedAt(OffsetDateTime.now()).build());
+    }
+
+    @Override
+    public Optional<JobStatus> findById(String requestId) {
+        return Optional.ofNullable(statuses.get(requestId));
+    }
+
+    private void evictExpired() {
+        OffsetDateTime cutoff = OffsetDateTime.now().minus(retention);
+        Iterator<JobStatus> iterator = statuses.values().iterator();
+        while (iterator.hasNext()) {
+            JobStatus status = iterator.next();
+            boolean finished = status.getStage() == JobStatus.Stage.COMPLETED || status.getStage() == JobStatus.Stage.FAILED;
+            if (finished && status.getUpdatedAt() != null && status.getUpdatedAt().isBefore(cutoff)) {
+                iterator.remove();
+                log.debug("Evicted job status {}", status.getRequestId());
+            }
+        }
+    }
+}
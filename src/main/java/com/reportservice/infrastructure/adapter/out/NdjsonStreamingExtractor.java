@@ -0,0 +1,306 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reportservice.domain.model.ColumnarDataSet;
+import com.reportservice.domain.statistics.StreamingStatistics;
+
+/**
+ * Streams newline-delimited JSON records in fixed-size batches. Each batch is parsed in parallel
+ * while the next one is read, and the projected numeric fields are folded into time buckets whose
+ * width doubles whenever the bucket count would exceed {@link #MAX_BUCKETS}. Memory is therefore
+ * bounded by batch size and bucket count, not by the number of records.
+ * <p>
+ * Fields and the timestamp field can be configured; otherwise numeric top-level fields and a
+ * conventionally named timestamp field are inferred from the first batch. Without a timestamp,
+ * records are bucketed by their position in the stream.
+ */
+class NdjsonStreamingExtractor {
+
+    private static final int MAX_BUCKETS = 500;
+    private static final int MAX_INFERRED_FIELDS = 10;
+    private static final List<String> TIMESTAMP_CANDIDATES = List.of(
+        "timestamp", "@timestamp", "time", "ts", "date", "datetime", "created_at", "createdAt", "eventTime");
+
+    private final ObjectMapper objectMapper;
+    private final ForkJoinPool pool;
+    private final List<String> configuredFields;
+    private final String configuredTimestampField;
+    private final int batchSize;
+
+    NdjsonStreamingExtractor(ObjectMapper objectMapper, ForkJoinPool pool, List<String> configuredFields,
+            String configuredTimestampField, int batchSize) {
+        this.objectMapper = objectMapper;
+        this.pool = pool;
+        this.configuredFields = configuredFields;
+        this.configuredTimestampField = configuredTimestampField;
+        this.batchSize = batchSize;
+    }
+
+    Result extract(BufferedReader reader) throws IOException {
+        List<String> batch = readBatch(reader);
+        if (batch.isEmpty()) {
+            return new Result(ColumnarDataSet.empty(), List.of(), null, 0, 0, new StreamingStatistics());
+        }
+
+        List<JsonNode> sample = new ArrayList<>();
+        for (String line : batch) {
+            JsonNode node = parseLine(line);
+            if (node != null && node.isObject()) {
+                sample.add(node);
+            }
+        }
+        String timestampField = configuredTimestampField != null && !configuredTimestampField.isBlank()
+            ? configuredTimestampField
+            : inferTimestampField(sample);
+        List<String> fields = configuredFields.isEmpty()
+            ? inferNumericFields(sample, timestampField)
+            : configuredFields;
+
+        Aggregation aggregation = new Aggregation(fields, timestampField != null);
+        while (!batch.isEmpty()) {
+            List<String> current = batch;
+            CompletableFuture<ParsedBatch> parsed = CompletableFuture.supplyAsync(
+                () -> parseBatch(current, fields, timestampField), pool);
+            batch = readBatch(reader);
+            aggregation.accept(parsed.join());
+        }
+
+        return new Result(aggregation.toDataSet(), fields, timestampField, aggregation.records,
+            aggregation.skipped, aggregation.statistics);
+    }
+
+    record Result(ColumnarDataSet dataSet, List<String> fields, String timestampField, long records,
+            long skipped, StreamingStatistics statistics) {
+    }
+
+    private List<String> readBatch(BufferedReader reader) throws IOException {
+        List<String> lines = new ArrayList<>(batchSize);
+        String line;
+        while (lines.size() < batchSize && (line = reader.readLine()) != null) {
+            if (!line.isBlank()) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    private ParsedBatch parseBatch(List<String> lines, List<String> fields, String timestampField) {
+        int size = lines.size();
+        double[][] values = new double[size][];
+        long[] timestamps = new long[size];
+        boolean[] valid = new boolean[size];
+
+        IntStream.range(0, size).parallel().forEach(i -> {
+            JsonNode node = parseLine(lines.get(i));
+            if (node == null || !node.isObject()) {
+                return;
+            }
+            double[] row = new double[fields.size()];
+            for (int f = 0; f < row.length; f++) {
+                JsonNode value = node.path(fields.get(f));
+                row[f] = value.isNumber() ? value.asDouble() : parseNumericText(value);
+            }
+            if (timestampField != null) {
+                Long timestamp = parseTimestamp(node.path(timestampField));
+                if (timestamp == null) {
+                    return;
+                }
+                timestamps[i] = timestamp;
+            }
+            values[i] = row;
+            valid[i] = true;
+        });
+        return new ParsedBatch(values, timestamps, valid);
+    }
+
+    private JsonNode parseLine(String line) {
+        try {
+            return objectMapper.readTree(line);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private List<String> inferNumericFields(List<JsonNode> sample, String timestampField) {
+        Map<String, Integer> numericCounts = new LinkedHashMap<>();
+        for (JsonNode node : sample) {
+            Iterator<Map.Entry<String, JsonNode>> entries = node.fields();
+            while (entries.hasNext()) {
+                Map.Entry<String, JsonNode> entry = entries.next();
+                if (entry.getValue().isNumber() && !entry.getKey().equals(timestampField)) {
+                    numericCounts.merge(entry.getKey(), 1, Integer::sum);
+                }
+            }
+        }
+        List<String> fields = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : numericCounts.entrySet()) {
+            if (entry.getValue() * 2 >= sample.size() && fields.size() < MAX_INFERRED_FIELDS) {
+                fields.add(entry.getKey());
+            }
+        }
+        return fields;
+    }
+
+    private String inferTimestampField(List<JsonNode> sample) {
+        if (sample.isEmpty()) {
+            return null;
+        }
+        for (String candidate : TIMESTAMP_CANDIDATES) {
+            if (parseTimestamp(sample.get(0).path(candidate)) != null) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static double parseNumericText(JsonNode value) {
+        if (value.isTextual()) {
+            try {
+                return Double.parseDouble(value.asText().trim());
+            } catch (NumberFormatException e) {
+                return Double.NaN;
+            }
+        }
+        return Double.NaN;
+    }
+
+    /** Epoch seconds for numeric (seconds or milliseconds) or ISO-8601 text timestamps. */
+    private static Long parseTimestamp(JsonNode value) {
+        if (value.isNumber()) {
+            long raw = value.asLong();
+            return Math.abs(raw) > 100_000_000_000L ? raw / 1000 : raw;
+        }
+        if (!value.isTextual()) {
+            return null;
+        }
+        String text = value.asText().trim();
+        try {
+            return Instant.parse(text).getEpochSecond();
+        } catch (DateTimeParseException ignored) {
+            // Try the next format
+        }
+        try {
+            return OffsetDateTime.parse(text).toEpochSecond();
+        } catch (DateTimeParseException ignored) {
+            // Try the next format
+        }
+        try {
+            return LocalDateTime.parse(text).toEpochSecond(ZoneOffset.UTC);
+        } catch (DateTimeParseException ignored) {
+            // Try the next format
+        }
+        try {
+            return LocalDate.parse(text).toEpochDay() * 86_400L;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private record ParsedBatch(double[][] values, long[] timestamps, boolean[] valid) {
+    }
+
+    /** Per-field sums and counts in adaptive-width buckets keyed by timestamp or record position. */
+    private static final class Aggregation {
+        private final List<String> fields;
+        private final boolean timeBased;
+        private final StreamingStatistics statistics = new StreamingStatistics();
+        private TreeMap<Long, double[]> buckets = new TreeMap<>();
+        private long width = 1;
+        private long firstKey = Long.MAX_VALUE;
+        private long records;
+        private long skipped;
+
+        Aggregation(List<String> fields, boolean timeBased) {
+            this.fields = fields;
+            this.timeBased = timeBased;
+        }
+
+        void accept(ParsedBatch batch) {
+            for (int i = 0; i < batch.valid().length; i++) {
+                if (!batch.valid()[i]) {
+                    skipped++;
+                    continue;
+                }
+                long key = timeBased ? batch.timestamps()[i] : records;
+                firstKey = Math.min(firstKey, key);
+                records++;
+                double[] bucket = buckets.computeIfAbsent(Math.floorDiv(key, width), k -> new double[fields.size() * 2]);
+                double[] row = batch.values()[i];
+                for (int f = 0; f < row.length; f++) {
+                    if (!Double.isNaN(row[f])) {
+                        bucket[f * 2] += row[f];
+                        bucket[f * 2 + 1]++;
+                        statistics.accept(row[f]);
+                    }
+                }
+                if (buckets.size() > MAX_BUCKETS) {
+                    widen();
+                }
+            }
+        }
+
+        private void widen() {
+            while (buckets.size() > MAX_BUCKETS) {
+                width *= 2;
+                TreeMap<Long, double[]> merged = new TreeMap<>();
+                for (Map.Entry<Long, double[]> entry : buckets.entrySet()) {
+                    merged.merge(Math.floorDiv(entry.getKey(), 2), entry.getValue(), (a, b) -> {
+                        for (int j = 0; j < a.length; j++) {
+                            a[j] += b[j];
+                        }
+                        return a;
+                    });
+                }
+                buckets = merged;
+            }
+        }
+
+        ColumnarDataSet toDataSet() {
+            ColumnarDataSet.Builder builder = ColumnarDataSet.builder(buckets.size() * Math.max(1, fields.size()));
+            Map<Long, String> labels = new HashMap<>();
+            for (Map.Entry<Long, double[]> entry : buckets.entrySet()) {
+                // Buckets are aligned to multiples of their width, so the first may start before any record
+                long start = Math.max(entry.getKey() * width, firstKey);
+                String label = labels.computeIfAbsent(start, this::bucketLabel);
+                LocalDate date = timeBased ? LocalDate.ofEpochDay(Math.floorDiv(start, 86_400L)) : null;
+                double[] sums = entry.getValue();
+                for (int f = 0; f < fields.size(); f++) {
+                    if (sums[f * 2 + 1] > 0) {
+                        builder.add(label, sums[f * 2] / sums[f * 2 + 1], fields.get(f), date, null, null);
+                    }
+                }
+            }
+            return builder.build();
+        }
+
+        private String bucketLabel(long start) {
+            if (!timeBased) {
+                return width == 1 ? "Record " + (start + 1) : "Records " + (start + 1) + "-" + (start + width);
+            }
+            Instant instant = Instant.ofEpochSecond(start);
+            return width >= 86_400L
+                ? LocalDate.ofInstant(instant, ZoneOffset.UTC).toString()
+                : LocalDateTime.ofInstant(instant, ZoneOffset.UTC).toString();
+        }
+    }
+}
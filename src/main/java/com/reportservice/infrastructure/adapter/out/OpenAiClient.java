@@ -0,0 +1,351 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.theokanning.openai.OpenAiHttpException;
+import com.theokanning.openai.client.OpenAiApi;
+import com.theokanning.openai.completion.chat.ChatCompletionChoice;
+import com.theokanning.openai.completion.chat.ChatCompletionRequest;
+import com.theokanning.openai.completion.chat.ChatCompletionResult;
+import com.theokanning.openai.completion.chat.ChatMessage;
+import com.theokanning.openai.service.OpenAiService;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.Headers;
+import okhttp3.OkHttpClient;
+import retrofit2.HttpException;
+import retrofit2.Retrofit;
+
+/**
+ * Shared gateway to the chat completions API.
+ * <p>
+ * The underlying {@link OpenAiService} is created once, when the bean is constructed, against
+ * {@code base-url} when one is set (e.g. a proxy or a local mock server). Every call
+ * first takes one of {@code max-concurrent} in-flight slots, then a request permit and an estimated
+ * number of tokens from the per-minute buckets. Both limits are scaled by {@code quota-utilization}
+ * so that steady-state throughput stays just below the provider quota. Callers that cannot get
+ * through within {@code queue-timeout}, or that find {@code max-queued} callers already waiting,
+ * fail fast. A 429 or 503 response pauses both buckets for the provider's {@code Retry-After} and
+ * the call is retried.
+ */
+@Slf4j
+@Component
+class OpenAiClient {
+
+    private static final long DEFAULT_BACKOFF_MILLIS = 1_000;
+    private static final long MAX_BACKOFF_MILLIS = 60_000;
+
+    private final OpenAiService service;
+    private final Semaphore inFlight;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final int maxQueued;
+    private final Duration queueTimeout;
+    private final int maxRetries;
+    private final TokenBucket requestBucket;
+    private final TokenBucket tokenBucket;
+    private final ExecutorService executor;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary promptTokensPerCall;
+    private final DistributionSummary completionTokensPerCall;
+
+    @Autowired
+    OpenAiClient(
+            @Value("${openai.api.key:}") String apiKey,
+            @Value("${ai.client.base-url:}") String baseUrl,
+            @Value("${ai.client.timeout:60s}") Duration timeout,
+            @Value("${ai.client.max-concurrent:8}") int maxConcurrent,
+            @Value("${ai.client.max-queued:100}") int maxQueued,
+            @Value("${ai.client.queue-timeout:30s}") Duration queueTimeout,
+            @Value("${ai.client.requests-per-minute:500}") double requestsPerMinute,
+            @Value("${ai.client.tokens-per-minute:60000}") double tokensPerMinute,
+            @Value("${ai.client.quota-utilization:0.9}") double quotaUtilization,
+            @Value("${ai.client.max-retries:2}") int maxRetries,
+            MeterRegistry meterRegistry) {
+        this(apiKey == null || apiKey.isBlank() ? null : createService(apiKey, baseUrl, timeout, maxConcurrent),
+            maxConcurrent, maxQueued, queueTimeout, requestsPerMinute * quotaUtilization,
+            tokensPerMinute * quotaUtilization, maxRetries, meterRegistry);
+    }
+
+    /** Client around an existing service, with limits already scaled to the target utilization. */
+    OpenAiClient(OpenAiService service, int maxConcurrent, int maxQueued, Duration queueTimeout,
+            double requestsPerMinute, double tokensPerMinute, int maxRetries, MeterRegistry meterRegistry) {
+        this.service = service;
+        this.inFlight = new Semaphore(maxConcurrent, true);
+        this.maxQueued = maxQueued;
+        this.queueTimeout = queueTimeout;
+        this.maxRetries = maxRetries;
+        this.requestBucket = new TokenBucket(requestsPerMinute);
+        this.tokenBucket = new TokenBucket(tokensPerMinute);
+        this.meterRegistry = meterRegistry;
+        this.promptTokensPerCall = DistributionSummary.builder("ai.call.tokens")
+            .description("Tokens per chat completion call")
+            .tag("type", "prompt")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+        this.completionTokensPerCall = DistributionSummary.builder("ai.call.tokens")
+            .description("Tokens per chat completion call")
+            .tag("type", "completion")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(maxConcurrent, runnable -> {
+            Thread thread = new Thread(runnable, "openai-client-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (service != null) {
+            log.info("Initialized OpenAI client: {} concurrent calls, {} requests/min, {} tokens/min",
+                maxConcurrent, requestsPerMinute, tokensPerMinute);
+        }
+    }
+
+    /**
+     * Service for {@code baseUrl}, or the public API when it is blank. OkHttp allows only five
+     * asynchronous calls per host by default, which would cap streamed calls below
+     * {@code maxConcurrent}, so the dispatcher and connection pool are sized to match.
+     */
+    static OpenAiService createService(String apiKey, String baseUrl, Duration timeout, int maxConcurrent) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequestsPerHost(Math.max(1, maxConcurrent));
+        dispatcher.setMaxRequests(Math.max(dispatcher.getMaxRequests(), maxConcurrent));
+        OkHttpClient client = OpenAiService.defaultClient(apiKey, timeout).newBuilder()
+            .dispatcher(dispatcher)
+            .connectionPool(new ConnectionPool(Math.max(1, maxConcurrent), 5, TimeUnit.MINUTES))
+            .build();
+        Retrofit retrofit = OpenAiService.defaultRetrofit(client, OpenAiService.defaultObjectMapper());
+        if (baseUrl != null && !baseUrl.isBlank()) {
+            retrofit = retrofit.newBuilder()
+                .baseUrl(baseUrl.endsWith("/") ? baseUrl : baseUrl + "/")
+                .build();
+            log.info("OpenAI client targets {}", baseUrl);
+        }
+        return new OpenAiService(retrofit.create(OpenAiApi.class), client.dispatcher().executorService());
+    }
+
+    boolean isAvailable() {
+        return service != null;
+    }
+
+    /**
+     * Pool with one thread per in-flight slot, for callers that fan out several calls at once
+     * without parking threads of the common pool on the limiter.
+     */
+    Executor executor() {
+        return executor;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** First choice and its token usage, after waiting for capacity and retrying rate-limited calls. */
+    Completion complete(ChatCompletionRequest request) {
+        return execute(request, () -> {
+            ChatCompletionResult result = service.createChatCompletion(request);
+            ChatCompletionChoice choice = result.getChoices().get(0);
+            String content = choice.getMessage().getContent();
+            if (result.getUsage() == null) {
+                return new Completion(content, TokenEstimator.estimate(request.getMessages()),
+                    TokenEstimator.estimate(content), true, choice.getFinishReason());
+            }
+            return new Completion(content, (int) result.getUsage().getPromptTokens(),
+                (int) result.getUsage().getCompletionTokens(), false, choice.getFinishReason());
+        });
+    }
+
+    /**
+     * Streams the first choice, handing each content delta to {@code onDelta} on the calling thread
+     * as it arrives, and returns the full content. Admission, quotas and retries are the same as for
+     * {@link #complete}, except that a call is not retried once deltas have been delivered. Streams
+     * report no usage, so token counts are estimated locally.
+     */
+    Completion stream(ChatCompletionRequest request, Consumer<String> onDelta) {
+        return execute(request, () -> {
+            StringBuilder content = new StringBuilder();
+            int[] deltas = {0};
+            String[] finishReason = {null};
+            try {
+                service.streamChatCompletion(request).blockingForEach(chunk -> {
+                    if (chunk.getChoices() == null || chunk.getChoices().isEmpty()) {
+                        return;
+                    }
+                    ChatCompletionChoice choice = chunk.getChoices().get(0);
+                    if (choice.getFinishReason() != null) {
+                        finishReason[0] = choice.getFinishReason();
+                    }
+                    ChatMessage delta = choice.getMessage();
+                    if (delta != null && delta.getContent() != null && !delta.getContent().isEmpty()) {
+                        deltas[0]++;
+                        content.append(delta.getContent());
+                        onDelta.accept(delta.getContent());
+                    }
+                });
+            } catch (OpenAiHttpException e) {
+                if (deltas[0] > 0) {
+                    throw new IllegalStateException("AI response stream failed after " + deltas[0] + " deltas", e);
+                }
+                throw e;
+            }
+            return new Completion(content.toString(), TokenEstimator.estimate(request.getMessages()),
+                TokenEstimator.estimate(content), true, finishReason[0]);
+        });
+    }
+
+    private Completion execute(ChatCompletionRequest request, Supplier<Completion> call) {
+        if (service == null) {
+            throw new IllegalStateException("OpenAI API key is not configured");
+        }
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            throw new IllegalStateException("Too many AI requests waiting; queue limit is " + maxQueued);
+        }
+
+        long deadline = System.nanoTime() + queueTimeout.toNanos();
+        try {
+            if (!inFlight.tryAcquire(queueTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new IllegalStateException("Timed out waiting for an AI request slot");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an AI request slot", e);
+        } finally {
+            queued.decrementAndGet();
+        }
+
+        try {
+            int estimatedTokens = estimateTokens(request);
+            for (int attempt = 0; ; attempt++) {
+                acquireQuota(estimatedTokens, deadline);
+                try {
+                    Completion completion = call.get();
+                    long difference = (long) completion.totalTokens() - estimatedTokens;
+                    if (difference > 0) {
+                        tokenBucket.consume(difference);
+                    } else {
+                        tokenBucket.release(-difference);
+                    }
+                    recordUsage(completion);
+                    return completion;
+                } catch (OpenAiHttpException e) {
+                    if (!isRetryable(e.statusCode) || attempt >= maxRetries) {
+                        throw e;
+                    }
+                    long backoffMillis = retryAfterMillis(e).orElse(DEFAULT_BACKOFF_MILLIS << attempt);
+                    backoffMillis = Math.min(backoffMillis, MAX_BACKOFF_MILLIS);
+                    log.warn("OpenAI returned {}; retrying in {} ms (attempt {} of {})",
+                        e.statusCode, backoffMillis, attempt + 1, maxRetries);
+                    requestBucket.pause(TimeUnit.MILLISECONDS.toNanos(backoffMillis));
+                    tokenBucket.pause(TimeUnit.MILLISECONDS.toNanos(backoffMillis));
+                    deadline = Math.max(deadline, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMillis)
+                        + queueTimeout.toNanos());
+                }
+            }
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    private void acquireQuota(int estimatedTokens, long deadline) {
+        try {
+            if (!requestBucket.acquire(1, deadline)) {
+                throw new IllegalStateException("Timed out waiting for AI request quota");
+            }
+            if (!tokenBucket.acquire(estimatedTokens, deadline)) {
+                requestBucket.release(1);
+                throw new IllegalStateException("Timed out waiting for AI token quota");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for AI quota", e);
+        }
+    }
+
+    private void recordUsage(Completion completion) {
+        String source = completion.estimated() ? "estimated" : "reported";
+        meterRegistry.counter("ai.tokens", "type", "prompt", "source", source).increment(completion.promptTokens());
+        meterRegistry.counter("ai.tokens", "type", "completion", "source", source)
+            .increment(completion.completionTokens());
+        promptTokensPerCall.record(completion.promptTokens());
+        completionTokensPerCall.record(completion.completionTokens());
+    }
+
+    /** Estimated prompt tokens plus the completion budget, reserved from the token bucket up front. */
+    static int estimateTokens(ChatCompletionRequest request) {
+        int completion = request.getMaxTokens() != null ? request.getMaxTokens() : 0;
+        return (int) Math.min(Integer.MAX_VALUE, (long) TokenEstimator.estimate(request.getMessages()) + completion);
+    }
+
+    private static boolean isRetryable(int statusCode) {
+        return statusCode == 429 || statusCode == 503;
+    }
+
+    private static Optional<Long> retryAfterMillis(OpenAiHttpException e) {
+        if (!(e.getCause() instanceof HttpException http) || http.response() == null) {
+            return Optional.empty();
+        }
+        Headers headers = http.response().headers();
+        String millis = headers.get("retry-after-ms");
+        if (millis != null) {
+            try {
+                return Optional.of((long) Double.parseDouble(millis.trim()));
+            } catch (NumberFormatException ignored) {
+                // Fall through to Retry-After
+            }
+        }
+        String retryAfter = headers.get("Retry-After");
+        if (retryAfter == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of((long) (Double.parseDouble(retryAfter.trim()) * 1000));
+        } catch (NumberFormatException ignored) {
+            // HTTP-date form
+        }
+        try {
+            ZonedDateTime at = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Optional.of(Math.max(0, Duration.between(ZonedDateTime.now(), at).toMillis()));
+        } catch (DateTimeParseException ignored) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Content of a call and the tokens it used. {@code estimated} is set when the counts come from
+     * {@link TokenEstimator} because the provider did not report usage. {@code finishReason} is
+     * {@code null} when the provider did not report one.
+     */
+    record Completion(String content, int promptTokens, int completionTokens, boolean estimated,
+            String finishReason) {
+
+        int totalTokens() {
+            return promptTokens + completionTokens;
+        }
+
+        /** Whether the model ended the response itself, rather than hitting the token limit or a filter. */
+        boolean finished() {
+            return "stop".equals(finishReason);
+        }
+    }
+}
@@ -0,0 +1,901 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.GradientPaint;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.Paint;
+import java.awt.Polygon;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.Stroke;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Arc2D;
+import java.awt.geom.Area;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Point2D;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.BufferedImageOp;
+import java.awt.image.ImageObserver;
+import java.awt.image.RenderedImage;
+import java.awt.image.renderable.RenderableImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.text.AttributedCharacterIterator;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.io.image.ImageDataFactory;
+import com.itextpdf.kernel.colors.PatternColor;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvasConstants;
+import com.itextpdf.kernel.pdf.colorspace.PdfDeviceCs;
+import com.itextpdf.kernel.pdf.colorspace.PdfPattern;
+import com.itextpdf.kernel.pdf.colorspace.PdfShading;
+import com.itextpdf.kernel.pdf.extgstate.PdfExtGState;
+import com.itextpdf.kernel.pdf.xobject.PdfImageXObject;
+
+/**
+ * {@link Graphics2D} that writes vector operators to an iText {@link PdfCanvas}, so Java2D
+ * renderers such as JFreeChart draw straight into a PDF content stream or Form XObject.
+ * <p>
+ * The canvas is flipped once so Java2D's top-left, y-down coordinates apply unchanged. Shapes are
+ * emitted as paths in user space under the current transform; colors, strokes and opacity are only
+ * written when they change, and a clip stays in effect until it changes. Text is set in the
+ * matching standard PDF font, horizontally scaled to the width Java2D measured so that layouts
+ * computed from AWT metrics line up, and set under the font's own transform for rotated labels;
+ * text the standard fonts cannot encode is filled as glyph outlines. Solid colors, linear gradients and alpha compositing are supported; other paints are
+ * approximated by a solid color and XOR mode is ignored. Child graphics from {@link #create()}
+ * share the canvas, and only the root's {@link #dispose()} closes the open clip.
+ */
+final class PdfCanvasGraphics2D extends Graphics2D {
+
+    /**
+     * Measures text with fractional metrics, which the PDF text widths are scaled to. Graphics are
+     * not thread-safe and charts are drawn on several threads at once, so each thread has its own.
+     */
+    private static final ThreadLocal<Graphics2D> MEASURE =
+            ThreadLocal.withInitial(PdfCanvasGraphics2D::measuringGraphics);
+    private static final FontRenderContext FONT_RENDER_CONTEXT =
+            new FontRenderContext(new AffineTransform(), true, true);
+    private static final Color DEFAULT_COLOR = Color.BLACK;
+
+    private final CanvasState canvasState;
+    private final boolean root;
+
+    private AffineTransform transform = new AffineTransform();
+    private Paint paint = DEFAULT_COLOR;
+    private Color color = DEFAULT_COLOR;
+    private Color background = Color.WHITE;
+    private Stroke stroke = new BasicStroke(1);
+    private Font font = new Font(Font.SANS_SERIF, Font.PLAIN, 12);
+    private Composite composite = AlphaComposite.SrcOver;
+    /** Clip in device space, i.e. the Java2D coordinates of the flipped canvas. */
+    private Shape clip;
+    private final RenderingHints hints = new RenderingHints(null);
+
+    /**
+     * Graphics covering {@code height} units of {@code canvas} from its top. {@code fonts} caches
+     * standard fonts by name and should be shared by all graphics writing to one document.
+     */
+    PdfCanvasGraphics2D(PdfCanvas canvas, float height, Map<String, PdfFont> fonts) {
+        this.canvasState = new CanvasState(canvas, height, fonts);
+        this.root = true;
+        canvas.concatMatrix(1, 0, 0, -1, 0, height);
+    }
+
+    private PdfCanvasGraphics2D(PdfCanvasGraphics2D parent) {
+        this.canvasState = parent.canvasState;
+        this.root = false;
+        this.transform = new AffineTransform(parent.transform);
+        this.paint = parent.paint;
+        this.color = parent.color;
+        this.background = parent.background;
+        this.stroke = parent.stroke;
+        this.font = parent.font;
+        this.composite = parent.composite;
+        this.clip = parent.clip;
+        this.hints.putAll(parent.hints);
+    }
+
+    @Override
+    public Graphics create() {
+        return new PdfCanvasGraphics2D(this);
+    }
+
+    @Override
+    public void dispose() {
+        if (root) {
+            canvasState.closeClip();
+        }
+    }
+
+    // Drawing
+
+    @Override
+    public void draw(Shape shape) {
+        if (!(stroke instanceof BasicStroke basicStroke)) {
+            fill(stroke.createStrokedShape(shape));
+            return;
+        }
+        PdfCanvas canvas = prepare(false);
+        canvasState.applyStroke(basicStroke);
+        boolean transformed = beginTransform(canvas);
+        appendPath(canvas, shape);
+        canvas.stroke();
+        endTransform(canvas, transformed);
+    }
+
+    @Override
+    public void fill(Shape shape) {
+        PdfCanvas canvas = prepare(true);
+        boolean transformed = beginTransform(canvas);
+        boolean evenOdd = appendPath(canvas, shape);
+        if (evenOdd) {
+            canvas.eoFill();
+        } else {
+            canvas.fill();
+        }
+        endTransform(canvas, transformed);
+    }
+
+    @Override
+    public void drawString(String text, float x, float y) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        // Rotated axis labels arrive as a transformed font, whose transform applies at the text origin
+        Font upright = font.isTransformed() ? font.deriveFont(new AffineTransform()) : font;
+        PdfFont pdfFont = canvasState.standardFont(upright);
+        if (pdfFont == null || !canEncode(pdfFont, text)) {
+            fill(font.createGlyphVector(getFontRenderContext(), text).getOutline(x, y));
+            return;
+        }
+        AffineTransform textTransform = new AffineTransform(transform);
+        textTransform.translate(x, y);
+        if (font.isTransformed()) {
+            textTransform.concatenate(font.getTransform());
+        }
+        PdfCanvas canvas = prepare(true);
+        canvas.saveState();
+        concat(canvas, textTransform);
+        float size = upright.getSize2D();
+        canvas.beginText().setFontAndSize(pdfFont, size);
+        double measured = upright.getStringBounds(text, FONT_RENDER_CONTEXT).getWidth();
+        double natural = pdfFont.getWidth(text, size);
+        if (natural > 0 && Math.abs(measured - natural) > natural * 0.005) {
+            canvas.setHorizontalScaling((float) (measured / natural * 100));
+        }
+        // Text space is flipped back so glyphs stand upright on the y-down canvas
+        canvas.setTextMatrix(1, 0, 0, -1, 0, 0).showText(text).endText();
+        canvas.restoreState();
+    }
+
+    @Override
+    public void drawString(String text, int x, int y) {
+        drawString(text, (float) x, (float) y);
+    }
+
+    @Override
+    public void drawString(AttributedCharacterIterator iterator, float x, float y) {
+        StringBuilder text = new StringBuilder();
+        for (char c = iterator.first(); c != AttributedCharacterIterator.DONE; c = iterator.next()) {
+            text.append(c);
+        }
+        drawString(text.toString(), x, y);
+    }
+
+    @Override
+    public void drawString(AttributedCharacterIterator iterator, int x, int y) {
+        drawString(iterator, (float) x, (float) y);
+    }
+
+    @Override
+    public void drawGlyphVector(GlyphVector glyphs, float x, float y) {
+        fill(glyphs.getOutline(x, y));
+    }
+
+    @Override
+    public boolean drawImage(Image image, AffineTransform xform, ImageObserver observer) {
+        if (image == null || image.getWidth(observer) <= 0 || image.getHeight(observer) <= 0) {
+            return true;
+        }
+        PdfImageXObject xObject;
+        try {
+            xObject = new PdfImageXObject(ImageDataFactory.create(image, null));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        PdfCanvas canvas = prepare(true);
+        canvas.saveState();
+        concat(canvas, transform);
+        if (xform != null) {
+            concat(canvas, xform);
+        }
+        // Image space is the unit square with y up; map it onto the image's pixel box
+        int width = image.getWidth(observer);
+        int height = image.getHeight(observer);
+        canvas.addXObjectWithTransformationMatrix(xObject, width, 0, 0, -height, 0, height);
+        canvas.restoreState();
+        return true;
+    }
+
+    @Override
+    public boolean drawImage(Image image, int x, int y, ImageObserver observer) {
+        return drawImage(image, AffineTransform.getTranslateInstance(x, y), observer);
+    }
+
+    @Override
+    public boolean drawImage(Image image, int x, int y, int width, int height, ImageObserver observer) {
+        if (image == null || image.getWidth(observer) <= 0 || image.getHeight(observer) <= 0) {
+            return true;
+        }
+        AffineTransform xform = AffineTransform.getTranslateInstance(x, y);
+        xform.scale((double) width / image.getWidth(observer), (double) height / image.getHeight(observer));
+        return drawImage(image, xform, observer);
+    }
+
+    @Override
+    public boolean drawImage(Image image, int x, int y, Color bgcolor, ImageObserver observer) {
+        if (image != null) {
+            fillBackground(bgcolor, x, y, image.getWidth(observer), image.getHeight(observer));
+        }
+        return drawImage(image, x, y, observer);
+    }
+
+    @Override
+    public boolean drawImage(Image image, int x, int y, int width, int height, Color bgcolor,
+            ImageObserver observer) {
+        fillBackground(bgcolor, x, y, width, height);
+        return drawImage(image, x, y, width, height, observer);
+    }
+
+    @Override
+    public boolean drawImage(Image image, int dx1, int dy1, int dx2, int dy2, int sx1, int sy1, int sx2, int sy2,
+            ImageObserver observer) {
+        if (image == null || sx1 == sx2 || sy1 == sy2) {
+            return true;
+        }
+        BufferedImage region = new BufferedImage(Math.abs(sx2 - sx1), Math.abs(sy2 - sy1),
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D regionGraphics = region.createGraphics();
+        regionGraphics.drawImage(image, 0, 0, region.getWidth(), region.getHeight(), sx1, sy1, sx2, sy2, observer);
+        regionGraphics.dispose();
+        return drawImage(region, Math.min(dx1, dx2), Math.min(dy1, dy2), Math.abs(dx2 - dx1), Math.abs(dy2 - dy1),
+                observer);
+    }
+
+    @Override
+    public boolean drawImage(Image image, int dx1, int dy1, int dx2, int dy2, int sx1, int sy1, int sx2, int sy2,
+            Color bgcolor, ImageObserver observer) {
+        fillBackground(bgcolor, Math.min(dx1, dx2), Math.min(dy1, dy2), Math.abs(dx2 - dx1), Math.abs(dy2 - dy1));
+        return drawImage(image, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2, observer);
+    }
+
+    @Override
+    public void drawImage(BufferedImage image, BufferedImageOp op, int x, int y) {
+        drawImage(op != null ? op.filter(image, null) : image, x, y, null);
+    }
+
+    @Override
+    public void drawRenderedImage(RenderedImage image, AffineTransform xform) {
+        if (image instanceof BufferedImage bufferedImage) {
+            drawImage(bufferedImage, xform, null);
+        }
+    }
+
+    @Override
+    public void drawRenderableImage(RenderableImage image, AffineTransform xform) {
+        drawRenderedImage(image.createDefaultRendering(), xform);
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        draw(new Line2D.Float(x1, y1, x2, y2));
+    }
+
+    @Override
+    public void fillRect(int x, int y, int width, int height) {
+        fill(new Rectangle(x, y, width, height));
+    }
+
+    @Override
+    public void clearRect(int x, int y, int width, int height) {
+        fillBackground(background, x, y, width, height);
+    }
+
+    @Override
+    public void drawRoundRect(int x, int y, int width, int height, int arcWidth, int arcHeight) {
+        draw(new RoundRectangle2D.Float(x, y, width, height, arcWidth, arcHeight));
+    }
+
+    @Override
+    public void fillRoundRect(int x, int y, int width, int height, int arcWidth, int arcHeight) {
+        fill(new RoundRectangle2D.Float(x, y, width, height, arcWidth, arcHeight));
+    }
+
+    @Override
+    public void drawOval(int x, int y, int width, int height) {
+        draw(new Ellipse2D.Float(x, y, width, height));
+    }
+
+    @Override
+    public void fillOval(int x, int y, int width, int height) {
+        fill(new Ellipse2D.Float(x, y, width, height));
+    }
+
+    @Override
+    public void drawArc(int x, int y, int width, int height, int startAngle, int arcAngle) {
+        draw(new Arc2D.Float(x, y, width, height, startAngle, arcAngle, Arc2D.OPEN));
+    }
+
+    @Override
+    public void fillArc(int x, int y, int width, int height, int startAngle, int arcAngle) {
+        fill(new Arc2D.Float(x, y, width, height, startAngle, arcAngle, Arc2D.PIE));
+    }
+
+    @Override
+    public void drawPolyline(int[] xPoints, int[] yPoints, int points) {
+        if (points < 2) {
+            return;
+        }
+        Path2D.Float path = new Path2D.Float();
+        path.moveTo(xPoints[0], yPoints[0]);
+        for (int i = 1; i < points; i++) {
+            path.lineTo(xPoints[i], yPoints[i]);
+        }
+        draw(path);
+    }
+
+    @Override
+    public void drawPolygon(int[] xPoints, int[] yPoints, int points) {
+        draw(new Polygon(xPoints, yPoints, points));
+    }
+
+    @Override
+    public void fillPolygon(int[] xPoints, int[] yPoints, int points) {
+        fill(new Polygon(xPoints, yPoints, points));
+    }
+
+    @Override
+    public void copyArea(int x, int y, int width, int height, int dx, int dy) {
+        // Not meaningful for vector output
+    }
+
+    @Override
+    public boolean hit(Rectangle rect, Shape shape, boolean onStroke) {
+        Shape target = transform.createTransformedShape(onStroke ? stroke.createStrokedShape(shape) : shape);
+        return target.intersects(rect);
+    }
+
+    // State
+
+    @Override
+    public void setPaint(Paint paint) {
+        if (paint == null) {
+            return;
+        }
+        this.paint = paint;
+        if (paint instanceof Color c) {
+            this.color = c;
+        }
+    }
+
+    @Override
+    public Paint getPaint() {
+        return paint;
+    }
+
+    @Override
+    public void setColor(Color color) {
+        if (color != null) {
+            setPaint(color);
+        }
+    }
+
+    @Override
+    public Color getColor() {
+        return color;
+    }
+
+    @Override
+    public void setBackground(Color color) {
+        this.background = color;
+    }
+
+    @Override
+    public Color getBackground() {
+        return background;
+    }
+
+    @Override
+    public void setStroke(Stroke stroke) {
+        if (stroke != null) {
+            this.stroke = stroke;
+        }
+    }
+
+    @Override
+    public Stroke getStroke() {
+        return stroke;
+    }
+
+    @Override
+    public void setFont(Font font) {
+        if (font != null) {
+            this.font = font;
+        }
+    }
+
+    @Override
+    public Font getFont() {
+        return font;
+    }
+
+    @Override
+    public FontMetrics getFontMetrics(Font font) {
+        return MEASURE.get().getFontMetrics(font);
+    }
+
+    @Override
+    public FontRenderContext getFontRenderContext() {
+        return FONT_RENDER_CONTEXT;
+    }
+
+    @Override
+    public void setComposite(Composite composite) {
+        if (composite != null) {
+            this.composite = composite;
+        }
+    }
+
+    @Override
+    public Composite getComposite() {
+        return composite;
+    }
+
+    @Override
+    public void setPaintMode() {
+        this.composite = AlphaComposite.SrcOver;
+    }
+
+    @Override
+    public void setXORMode(Color color) {
+        // XOR has no PDF equivalent; painting continues normally
+    }
+
+    @Override
+    public void setRenderingHint(RenderingHints.Key key, Object value) {
+        hints.put(key, value);
+    }
+
+    @Override
+    public Object getRenderingHint(RenderingHints.Key key) {
+        return hints.get(key);
+    }
+
+    @Override
+    public void setRenderingHints(Map<?, ?> hints) {
+        this.hints.clear();
+        this.hints.putAll(hints);
+    }
+
+    @Override
+    public void addRenderingHints(Map<?, ?> hints) {
+        this.hints.putAll(hints);
+    }
+
+    @Override
+    public RenderingHints getRenderingHints() {
+        return (RenderingHints) hints.clone();
+    }
+
+    @Override
+    public GraphicsConfiguration getDeviceConfiguration() {
+        return MEASURE.get().getDeviceConfiguration();
+    }
+
+    // Transform
+
+    @Override
+    public void translate(int x, int y) {
+        transform.translate(x, y);
+    }
+
+    @Override
+    public void translate(double tx, double ty) {
+        transform.translate(tx, ty);
+    }
+
+    @Override
+    public void rotate(double theta) {
+        transform.rotate(theta);
+    }
+
+    @Override
+    public void rotate(double theta, double x, double y) {
+        transform.rotate(theta, x, y);
+    }
+
+    @Override
+    public void scale(double sx, double sy) {
+        transform.scale(sx, sy);
+    }
+
+    @Override
+    public void shear(double shx, double shy) {
+        transform.shear(shx, shy);
+    }
+
+    @Override
+    public void transform(AffineTransform tx) {
+        transform.concatenate(tx);
+    }
+
+    @Override
+    public void setTransform(AffineTransform tx) {
+        transform = new AffineTransform(tx);
+    }
+
+    @Override
+    public AffineTransform getTransform() {
+        return new AffineTransform(transform);
+    }
+
+    // Clip
+
+    @Override
+    public Shape getClip() {
+        if (clip == null) {
+            return null;
+        }
+        try {
+            return transform.createInverse().createTransformedShape(clip);
+        } catch (NoninvertibleTransformException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public Rectangle getClipBounds() {
+        Shape userClip = getClip();
+        return userClip != null ? userClip.getBounds() : null;
+    }
+
+    @Override
+    public void setClip(Shape shape) {
+        clip = shape != null ? transform.createTransformedShape(shape) : null;
+    }
+
+    @Override
+    public void setClip(int x, int y, int width, int height) {
+        setClip(new Rectangle(x, y, width, height));
+    }
+
+    @Override
+    public void clip(Shape shape) {
+        if (shape == null) {
+            clip = null;
+            return;
+        }
+        Shape deviceShape = transform.createTransformedShape(shape);
+        if (clip == null) {
+            clip = deviceShape;
+        } else {
+            Area area = new Area(clip);
+            area.intersect(new Area(deviceShape));
+            clip = area;
+        }
+    }
+
+    @Override
+    public void clipRect(int x, int y, int width, int height) {
+        clip(new Rectangle(x, y, width, height));
+    }
+
+    // Emission
+
+    /** Brings the canvas clip, paint and opacity in line with this graphics before painting. */
+    private PdfCanvas prepare(boolean forFill) {
+        canvasState.applyClip(clip);
+        float alpha = composite instanceof AlphaComposite alphaComposite ? alphaComposite.getAlpha() : 1f;
+        Color solid = paint instanceof Color c ? c
+                : paint instanceof GradientPaint gradient ? gradient.getColor1() : color;
+        canvasState.applyOpacity(alpha * solid.getAlpha() / 255f);
+        if (forFill && paint instanceof GradientPaint gradient) {
+            canvasState.applyGradient(gradient, transform);
+        } else {
+            canvasState.applyColor(solid, forFill);
+        }
+        return canvasState.canvas;
+    }
+
+    private boolean beginTransform(PdfCanvas canvas) {
+        if (transform.isIdentity()) {
+            return false;
+        }
+        canvas.saveState();
+        concat(canvas, transform);
+        return true;
+    }
+
+    private static void endTransform(PdfCanvas canvas, boolean transformed) {
+        if (transformed) {
+            canvas.restoreState();
+        }
+    }
+
+    private void fillBackground(Color fill, int x, int y, int width, int height) {
+        if (fill == null) {
+            return;
+        }
+        Paint previous = paint;
+        setPaint(fill);
+        fillRect(x, y, width, height);
+        setPaint(previous);
+    }
+
+    /** Appends {@code shape} as a path and returns whether it uses the even-odd winding rule. */
+    private static boolean appendPath(PdfCanvas canvas, Shape shape) {
+        PathIterator iterator = shape.getPathIterator(null);
+        double[] coords = new double[6];
+        double currentX = 0;
+        double currentY = 0;
+        while (!iterator.isDone()) {
+            switch (iterator.currentSegment(coords)) {
+                case PathIterator.SEG_MOVETO -> {
+                    canvas.moveTo(coords[0], coords[1]);
+                    currentX = coords[0];
+                    currentY = coords[1];
+                }
+                case PathIterator.SEG_LINETO -> {
+                    canvas.lineTo(coords[0], coords[1]);
+                    currentX = coords[0];
+                    currentY = coords[1];
+                }
+                case PathIterator.SEG_QUADTO -> {
+                    // Degree elevation of the quadratic to a cubic
+                    canvas.curveTo(currentX + 2.0 / 3 * (coords[0] - currentX),
+                            currentY + 2.0 / 3 * (coords[1] - currentY),
+                            coords[2] + 2.0 / 3 * (coords[0] - coords[2]),
+                            coords[3] + 2.0 / 3 * (coords[1] - coords[3]),
+                            coords[2], coords[3]);
+                    currentX = coords[2];
+                    currentY = coords[3];
+                }
+                case PathIterator.SEG_CUBICTO -> {
+                    canvas.curveTo(coords[0], coords[1], coords[2], coords[3], coords[4], coords[5]);
+                    currentX = coords[4];
+                    currentY = coords[5];
+                }
+                case PathIterator.SEG_CLOSE -> canvas.closePath();
+                default -> {
+                }
+            }
+            iterator.next();
+        }
+        return iterator.getWindingRule() == PathIterator.WIND_EVEN_ODD;
+    }
+
+    private static void concat(PdfCanvas canvas, AffineTransform tx) {
+        canvas.concatMatrix(tx.getScaleX(), tx.getShearY(), tx.getShearX(), tx.getScaleY(),
+                tx.getTranslateX(), tx.getTranslateY());
+    }
+
+    private static boolean canEncode(PdfFont pdfFont, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (!pdfFont.containsGlyph(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Graphics2D measuringGraphics() {
+        Graphics2D graphics = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+        graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        return graphics;
+    }
+
+    /**
+     * What has actually been written to the canvas, shared by a graphics and its children so state
+     * operators are only emitted on change. The clip is applied inside a saved graphics state, and
+     * restoring that state reverts the colors, stroke and opacity set since.
+     */
+    private static final class CanvasState {
+        private final PdfCanvas canvas;
+        private final float height;
+        private final Map<String, PdfFont> fonts;
+        private final Map<Integer, PdfExtGState> opacityStates = new HashMap<>();
+
+        private Shape clip;
+        private Written written = new Written();
+        private Written beforeClip;
+
+        private CanvasState(PdfCanvas canvas, float height, Map<String, PdfFont> fonts) {
+            this.canvas = canvas;
+            this.height = height;
+            this.fonts = fonts;
+        }
+
+        void applyClip(Shape target) {
+            if (target == clip) {
+                return;
+            }
+            closeClip();
+            if (target != null) {
+                beforeClip = written.copy();
+                canvas.saveState();
+                boolean evenOdd = appendPath(canvas, target);
+                if (evenOdd) {
+                    canvas.eoClip();
+                } else {
+                    canvas.clip();
+                }
+                canvas.endPath();
+                clip = target;
+            }
+        }
+
+        void closeClip() {
+            if (clip != null) {
+                canvas.restoreState();
+                written = beforeClip;
+                clip = null;
+            }
+        }
+
+        void applyColor(Color color, boolean fill) {
+            int rgb = color.getRGB() & 0xFFFFFF;
+            if (fill && written.fillRgb != rgb) {
+                canvas.setFillColorRgb(color.getRed() / 255f, color.getGreen() / 255f, color.getBlue() / 255f);
+                written.fillRgb = rgb;
+            } else if (!fill && written.strokeRgb != rgb) {
+                canvas.setStrokeColorRgb(color.getRed() / 255f, color.getGreen() / 255f, color.getBlue() / 255f);
+                written.strokeRgb = rgb;
+            }
+        }
+
+        /** Axial shading between the gradient's points, which live in the form's unflipped space. */
+        void applyGradient(GradientPaint gradient, AffineTransform transform) {
+            Point2D start = transform.transform(gradient.getPoint1(), null);
+            Point2D end = transform.transform(gradient.getPoint2(), null);
+            // Undo the canvas flip; pattern space is the form's own coordinate system
+            PdfShading.Axial shading = new PdfShading.Axial(new PdfDeviceCs.Rgb(),
+                    (float) start.getX(), (float) (height - start.getY()), rgb(gradient.getColor1()),
+                    (float) end.getX(), (float) (height - end.getY()), rgb(gradient.getColor2()),
+                    new boolean[] {true, true});
+            canvas.setFillColor(new PatternColor(new PdfPattern.Shading(shading)));
+            written.fillRgb = -1;
+        }
+
+        void applyOpacity(float opacity) {
+            int key = Math.round(Math.max(0, Math.min(1, opacity)) * 1000);
+            if (written.opacity == key) {
+                return;
+            }
+            PdfExtGState state = opacityStates.computeIfAbsent(key,
+                    k -> new PdfExtGState().setFillOpacity(k / 1000f).setStrokeOpacity(k / 1000f));
+            canvas.setExtGState(state);
+            written.opacity = key;
+        }
+
+        void applyStroke(BasicStroke stroke) {
+            if (written.lineWidth != stroke.getLineWidth()) {
+                canvas.setLineWidth(stroke.getLineWidth());
+                written.lineWidth = stroke.getLineWidth();
+            }
+            int cap = switch (stroke.getEndCap()) {
+                case BasicStroke.CAP_ROUND -> PdfCanvasConstants.LineCapStyle.ROUND;
+                case BasicStroke.CAP_SQUARE -> PdfCanvasConstants.LineCapStyle.PROJECTING_SQUARE;
+                default -> PdfCanvasConstants.LineCapStyle.BUTT;
+            };
+            if (written.cap != cap) {
+                canvas.setLineCapStyle(cap);
+                written.cap = cap;
+            }
+            int join = switch (stroke.getLineJoin()) {
+                case BasicStroke.JOIN_ROUND -> PdfCanvasConstants.LineJoinStyle.ROUND;
+                case BasicStroke.JOIN_BEVEL -> PdfCanvasConstants.LineJoinStyle.BEVEL;
+                default -> PdfCanvasConstants.LineJoinStyle.MITER;
+            };
+            if (written.join != join) {
+                canvas.setLineJoinStyle(join);
+                written.join = join;
+            }
+            if (written.miterLimit != stroke.getMiterLimit()) {
+                canvas.setMiterLimit(stroke.getMiterLimit());
+                written.miterLimit = stroke.getMiterLimit();
+            }
+            float[] dash = stroke.getDashArray();
+            if (!Arrays.equals(written.dash, dash) || written.dashPhase != stroke.getDashPhase()) {
+                if (dash == null) {
+                    canvas.setLineDash(new float[0], 0);
+                } else {
+                    canvas.setLineDash(dash, stroke.getDashPhase());
+                }
+                written.dash = dash;
+                written.dashPhase = stroke.getDashPhase();
+            }
+        }
+
+        PdfFont standardFont(Font font) {
+            String name = standardFontName(font);
+            return fonts.computeIfAbsent(name, key -> {
+                try {
+                    return PdfFontFactory.createFont(key);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+
+        private static float[] rgb(Color color) {
+            return new float[] {color.getRed() / 255f, color.getGreen() / 255f, color.getBlue() / 255f};
+        }
+
+        private static String standardFontName(Font font) {
+            String family = font.getFamily().toLowerCase(Locale.ROOT);
+            boolean bold = font.isBold();
+            boolean italic = font.isItalic();
+            if (family.contains("mono") || family.contains("courier")) {
+                return bold ? (italic ? StandardFonts.COURIER_BOLDOBLIQUE : StandardFonts.COURIER_BOLD)
+                        : (italic ? StandardFonts.COURIER_OBLIQUE : StandardFonts.COURIER);
+            }
+            if ((family.contains("serif") && !family.contains("sans")) || family.contains("times")) {
+                return bold ? (italic ? StandardFonts.TIMES_BOLDITALIC : StandardFonts.TIMES_BOLD)
+                        : (italic ? StandardFonts.TIMES_ITALIC : StandardFonts.TIMES_ROMAN);
+            }
+            return bold ? (italic ? StandardFonts.HELVETICA_BOLDOBLIQUE : StandardFonts.HELVETICA_BOLD)
+                    : (italic ? StandardFonts.HELVETICA_OBLIQUE : StandardFonts.HELVETICA);
+        }
+    }
+
+    /** Canvas state written so far; PDF defaults initially. */
+    private static final class Written {
+        private int fillRgb;
+        private int strokeRgb;
+        private int opacity = 1000;
+        private float lineWidth = 1;
+        private int cap = PdfCanvasConstants.LineCapStyle.BUTT;
+        private int join = PdfCanvasConstants.LineJoinStyle.MITER;
+        private float miterLimit = 10;
+        private float[] dash;
+        private float dashPhase;
+
+        Written copy() {
+            Written copy = new Written();
+            copy.fillRgb = fillRgb;
+            copy.strokeRgb = strokeRgb;
+            copy.opacity = opacity;
+            copy.lineWidth = lineWidth;
+            copy.cap = cap;
+            copy.join = join;
+            copy.miterLimit = miterLimit;
+            copy.dash = dash;
+            copy.dashPhase = dashPhase;
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Fits content into a token budget by priority instead of keeping a prefix. Content is split into
+ * lines, and each line gets a priority:
+ * <ul>
+ *   <li>essential: the opening lines, which usually carry the title and context;</li>
+ *   <li>high: lines with figures, and headings;</li>
+ *   <li>low: repeated lines and fragments of one or two words, such as navigation or boilerplate;</li>
+ *   <li>medium: everything else.</li>
+ * </ul>
+ * Tiers are admitted from essential to low. A tier that does not fit completely is sampled evenly
+ * across the document, so a long table keeps its overall shape rather than only its first rows.
+ * Kept lines stay in document order, and each gap is marked with {@value #OMISSION}.
+ */
+final class PromptBudget {
+
+    static final String OMISSION = "...";
+
+    private static final int ESSENTIAL = 3;
+    private static final int HIGH = 2;
+    private static final int MEDIUM = 1;
+    private static final int LOW = 0;
+    private static final int OMISSION_TOKENS = TokenEstimator.estimate(OMISSION + "\n");
+    private static final int OPENING_LINES = 3;
+    private static final int MAX_HEADING_LENGTH = 80;
+
+    private PromptBudget() {
+    }
+
+    static String fit(String content, int maxTokens) {
+        if (content == null || content.isBlank() || maxTokens <= 0) {
+            return "";
+        }
+        if (TokenEstimator.estimate(content) <= maxTokens) {
+            return content;
+        }
+
+        List<Line> lines = lines(content);
+        // The trailing omission marker is paid for up front
+        int budget = maxTokens - OMISSION_TOKENS;
+        boolean[] kept = new boolean[lines.size()];
+        for (int priority = ESSENTIAL; priority >= LOW && budget > 0; priority--) {
+            budget = admit(lines, kept, priority, budget);
+        }
+
+        StringBuilder fitted = new StringBuilder();
+        boolean gap = false;
+        for (int i = 0; i < lines.size(); i++) {
+            if (!kept[i]) {
+                gap = true;
+                continue;
+            }
+            if (gap) {
+                fitted.append(OMISSION).append('\n');
+                gap = false;
+            }
+            fitted.append(lines.get(i).text()).append('\n');
+        }
+        if (fitted.isEmpty()) {
+            // A single line larger than the whole budget, such as minified JSON
+            return cut(content, maxTokens) + OMISSION;
+        }
+        if (gap) {
+            fitted.append(OMISSION).append('\n');
+        }
+        return fitted.toString();
+    }
+
+    /**
+     * Admits lines of one priority, sampling evenly when they do not all fit, and returns the budget
+     * left. A line whose predecessor is not kept is charged for the omission marker before it, which
+     * bounds the markers actually emitted.
+     */
+    private static int admit(List<Line> lines, boolean[] kept, int priority, int budget) {
+        int tierTokens = 0;
+        int tierLines = 0;
+        for (int i = 0; i < lines.size(); i++) {
+            if (lines.get(i).priority() == priority) {
+                tierTokens += cost(lines, kept, i);
+                tierLines++;
+            }
+        }
+        if (tierLines == 0) {
+            return budget;
+        }
+        double share = Math.min(1.0, (double) budget / tierTokens);
+        // Starting with one average line of credit keeps the first line of the tier
+        double credit = (double) tierTokens / tierLines;
+        for (int i = 0; i < lines.size(); i++) {
+            if (lines.get(i).priority() != priority) {
+                continue;
+            }
+            int cost = cost(lines, kept, i);
+            credit += share * cost;
+            if (credit >= cost && cost <= budget) {
+                kept[i] = true;
+                budget -= cost;
+                credit -= cost;
+            }
+        }
+        return budget;
+    }
+
+    private static int cost(List<Line> lines, boolean[] kept, int index) {
+        boolean adjacent = index == 0 || kept[index - 1];
+        return lines.get(index).tokens() + (adjacent ? 0 : OMISSION_TOKENS);
+    }
+
+    private static List<Line> lines(String content) {
+        List<Line> lines = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (String raw : content.split("\n")) {
+            String text = raw.strip();
+            if (text.isEmpty()) {
+                continue;
+            }
+            int priority;
+            if (!seen.add(text)) {
+                priority = LOW;
+            } else if (lines.size() < OPENING_LINES) {
+                priority = ESSENTIAL;
+            } else if (hasDigit(text) || isHeading(text)) {
+                priority = HIGH;
+            } else if (text.split("\\s+").length <= 2) {
+                priority = LOW;
+            } else {
+                priority = MEDIUM;
+            }
+            lines.add(new Line(text, TokenEstimator.estimate(text) + 1, priority));
+        }
+        return lines;
+    }
+
+    /** Longest prefix whose estimate fits {@code maxTokens}. */
+    private static String cut(String content, int maxTokens) {
+        int low = 0;
+        int high = content.length();
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (TokenEstimator.estimate(content.subSequence(0, middle)) <= maxTokens - 1) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return content.substring(0, low);
+    }
+
+    private static boolean hasDigit(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isDigit(text.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isHeading(String text) {
+        if (text.startsWith("#")) {
+            return true;
+        }
+        char last = text.charAt(text.length() - 1);
+        return text.length() <= MAX_HEADING_LENGTH && Character.isUpperCase(text.charAt(0))
+                && last != '.' && last != ',' && last != ';' && text.split("\\s+").length >= 2;
+    }
+
+    private record Line(String text, int tokens, int priority) {
+    }
+}
@@ -1,22 +1,29 @@
 package com.reportservice.infrastructure.adapter.out;
 
 import com.itextpdf.io.image.ImageDataFactory;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.geom.Rectangle;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
 import com.itextpdf.layout.Document;
 import com.itextpdf.layout.element.*;
 import com.itextpdf.layout.element.Table;
 import com.itextpdf.layout.properties.TextAlignment;
 import com.itextpdf.layout.properties.UnitValue;
 import com.reportservice.domain.model.*;
+import com.reportservice.domain.port.out.ChartGenerationPort;
 import com.reportservice.domain.port.out.ReportRenderingPort;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.apache.poi.util.Units;
 import org.apache.poi.xwpf.usermodel.*;
 import org.springframework.stereotype.Component;
 
+import java.awt.geom.Rectangle2D;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -24,6 +31,8 @@ import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
@@ -31,10 +40,19 @@ import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class ReportRenderingAdapter implements ReportRenderingPort {
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    /** Layout box of vector charts in PDF points, scaled to the page width like an image. */
+    private static final float PDF_CHART_WIDTH = 600;
+    private static final float PDF_CHART_HEIGHT = 450;
+
+    private final ChartGenerationPort chartGenerationPort;
+    private final ChartDrawer chartDrawer;
+    private final DocxChartWriter docxChartWriter;
+
     @Override
     public CompletableFuture<GeneratedReport> renderToPdf(ReportContent content, ReportRequest request) {
         return CompletableFuture.supplyAsync(() -> {
@@ -285,6 +303,8 @@ public class ReportRenderingAdapter implements ReportRenderingPort {
             .setMarginBottom(10);
         document.add(chartsTitle);
 
+        // Standard fonts are shared by every chart in the document
+        Map<String, PdfFont> chartFonts = new HashMap<>();
         for (Chart chart : charts) {
             if (chart.getTitle() != null) {
                 Paragraph chartTitle = new Paragraph(chart.getTitle())
@@ -295,19 +315,24 @@ public class ReportRenderingAdapter implements ReportRenderingPort {
                 document.add(chartTitle);
             }
 
-            if (chart.getImageData() != null && chart.getImageData().length > 0) {
-                try {
-                    Image chartImage = new Image(ImageDataFactory.create(chart.getImageData()));
-                    chartImage.setWidth(UnitValue.createPercentValue(80));
-                    chartImage.setAutoScale(true);
-                    document.add(chartImage);
-                } catch (Exception e) {
-                    log.warn("Failed to add chart image to PDF", e);
-                    Paragraph errorMsg = new Paragraph("Chart image could not be displayed")
-                        .setFontSize(10)
-                        .setItalic();
-                    document.add(errorMsg);
+            Image chartImage = null;
+            try {
+                if (!chart.getDataSet().isEmpty() && chart.getType() != null) {
+                    chartImage = new Image(drawVectorChart(document.getPdfDocument(), chart, chartFonts));
+                } else if (chart.getImageData() != null && chart.getImageData().length > 0) {
+                    chartImage = new Image(ImageDataFactory.create(chart.getImageData()));
                 }
+            } catch (Exception e) {
+                log.warn("Failed to add chart to PDF", e);
+                Paragraph errorMsg = new Paragraph("Chart image could not be displayed")
+                    .setFontSize(10)
+                    .setItalic();
+                document.add(errorMsg);
+            }
+            if (chartImage != null) {
+                chartImage.setWidth(UnitValue.createPercentValue(80));
+                chartImage.setAutoScale(true);
+                document.add(chartImage);
             }
 
             if (chart.getDescription() != null) {
@@ -320,6 +345,23 @@ public class ReportRenderingAdapter implements ReportRenderingPort {
         }
     }
 
+    /**
+     * Draws the chart once into a Form XObject as vector paths and text, which prints sharply and
+     * avoids encoding a PNG only for iText to decode it again.
+     */
+    PdfFormXObject drawVectorChart(PdfDocument pdfDocument, Chart chart, Map<String, PdfFont> fonts) {
+        PdfFormXObject form = new PdfFormXObject(new Rectangle(PDF_CHART_WIDTH, PDF_CHART_HEIGHT));
+        PdfCanvasGraphics2D graphics = new PdfCanvasGraphics2D(new PdfCanvas(form, pdfDocument), PDF_CHART_HEIGHT,
+            fonts);
+        try {
+            chartDrawer.drawChart(chart, graphics,
+                new Rectangle2D.Float(0, 0, PDF_CHART_WIDTH, PDF_CHART_HEIGHT));
+        } finally {
+            graphics.dispose();
+        }
+        return form;
+    }
+
     private void addChartsToDocx(XWPFDocument document, java.util.List<Chart> charts) {
         if (charts == null || charts.isEmpty()) return;
 
@@ -340,14 +382,22 @@ public class ReportRenderingAdapter implements ReportRenderingPort {
                 chartTitleRun.addBreak();
             }
 
-            if (chart.getImageData() != null && chart.getImageData().length > 0) {
+            if (writeNativeChart(document, chart)) {
+                addChartDescription(document, chart);
+                continue;
+            }
+
+            // Otherwise Word gets a PNG rendered for its layout size, not the preview the chart carries
+            byte[] imageData = chartGenerationPort.chartToImage(chart, Chart.ImageTarget.DOCX);
+            if (imageData != null && imageData.length > 0) {
                 try {
                     XWPFParagraph imagePara = document.createParagraph();
                     XWPFRun imageRun = imagePara.createRun();
                     
-                    try (ByteArrayInputStream bis = new ByteArrayInputStream(chart.getImageData())) {
+                    try (ByteArrayInputStream bis = new ByteArrayInputStream(imageData)) {
                         imageRun.addPicture(bis, XWPFDocument.PICTURE_TYPE_PNG, "chart.png",
-                                Units.toEMU(400), Units.toEMU(300));
+                                Units.toEMU(Chart.ImageTarget.DOCX.widthPoints()),
+                                Units.toEMU(Chart.ImageTarget.DOCX.heightPoints()));
                     }
                 } catch (IOException | InvalidFormatException e) {
                     log.warn("Failed to add chart image to DOCX", e);
@@ -359,14 +409,28 @@ public class ReportRenderingAdapter implements ReportRenderingPort {
                 }
             }
 
-            if (chart.getDescription() != null) {
-                XWPFParagraph descPara = document.createParagraph();
-                XWPFRun descRun = descPara.createRun();
-                descRun.setText(chart.getDescription());
-                descRun.setItalic(true);
-                descRun.setFontSize(10);
-                descRun.addBreak();
-            }
+            addChartDescription(document, chart);
+        }
+    }
+
+    /** Editable Word chart from the data points; {@code false} if the chart is embedded as an image instead. */
+    private boolean writeNativeChart(XWPFDocument document, Chart chart) {
+        try {
+            return docxChartWriter.write(document, chart);
+        } catch (Exception e) {
+            log.warn("Failed to write native chart to DOCX, embedding an image instead", e);
+            return false;
+        }
+    }
+
+    private void addChartDescription(XWPFDocument document, Chart chart) {
+        if (chart.getDescription() != null) {
+            XWPFParagraph descPara = document.createParagraph();
+            XWPFRun descRun = descPara.createRun();
+            descRun.setText(chart.getDescription());
+            descRun.setItalic(true);
+            descRun.setFontSize(10);
+            descRun.addBreak();
         }
     }
 
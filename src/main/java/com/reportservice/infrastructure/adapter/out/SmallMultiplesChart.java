@@ -0,0 +1,202 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.util.List;
+
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.AxisSpace;
+import org.jfree.chart.axis.NumberAxis;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
+import org.jfree.chart.ui.Drawable;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+
+/**
+ * Grid of small line charts, one per series, drawn in a single pass onto one canvas. All panels
+ * share the same x and y ranges and the same axis space, so they line up and compare directly;
+ * tick labels are drawn only along the left column and bottom row, and the axis labels once for
+ * the whole grid. Because it renders as one image or one vector drawing, dozens of series cost a
+ * single embed instead of a chart each.
+ */
+final class SmallMultiplesChart implements Drawable {
+
+    private static final Font TITLE_FONT = new Font("Arial", Font.BOLD, 16);
+    private static final Font PANEL_TITLE_FONT = new Font("Arial", Font.BOLD, 10);
+    private static final Font AXIS_LABEL_FONT = new Font("Arial", Font.PLAIN, 12);
+    private static final Font TICK_FONT = new Font("Arial", Font.PLAIN, 8);
+    private static final double GAP = 6;
+    private static final double RANGE_AXIS_SPACE = 34;
+    private static final double DOMAIN_AXIS_SPACE = 14;
+
+    private final String title;
+    private final String xAxisLabel;
+    private final String yAxisLabel;
+    private final List<Panel> panels;
+    private final boolean epochDays;
+    private final Color lineColor;
+    private boolean antiAlias = true;
+
+    /** {@code epochDays} labels the x ticks as dates, for panels whose x values are epoch days. */
+    SmallMultiplesChart(String title, String xAxisLabel, String yAxisLabel, List<Panel> panels, boolean epochDays,
+            Color lineColor) {
+        this.title = title;
+        this.xAxisLabel = xAxisLabel;
+        this.yAxisLabel = yAxisLabel;
+        this.panels = panels;
+        this.epochDays = epochDays;
+        this.lineColor = lineColor;
+    }
+
+    /** Smooths lines and text, on by default like {@link JFreeChart#setAntiAlias}. */
+    void setAntiAlias(boolean antiAlias) {
+        this.antiAlias = antiAlias;
+    }
+
+    /** Columns of the grid for {@code count} panels, chosen so cells follow the area's aspect ratio. */
+    static int columns(int count, double width, double height) {
+        if (count <= 1) {
+            return 1;
+        }
+        int columns = (int) Math.round(Math.sqrt(count * width / Math.max(1.0, height)));
+        return Math.max(1, Math.min(count, columns));
+    }
+
+    @Override
+    public void draw(Graphics2D graphics, Rectangle2D area) {
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                antiAlias ? RenderingHints.VALUE_ANTIALIAS_ON : RenderingHints.VALUE_ANTIALIAS_OFF);
+        graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+                antiAlias ? RenderingHints.VALUE_TEXT_ANTIALIAS_ON : RenderingHints.VALUE_TEXT_ANTIALIAS_OFF);
+        graphics.setPaint(Color.WHITE);
+        graphics.fill(area);
+
+        double top = area.getY() + GAP;
+        if (title != null) {
+            graphics.setFont(TITLE_FONT);
+            graphics.setPaint(Color.BLACK);
+            FontMetrics metrics = graphics.getFontMetrics();
+            float x = (float) (area.getCenterX() - metrics.stringWidth(title) / 2.0);
+            graphics.drawString(title, x, (float) (top + metrics.getAscent()));
+            top += metrics.getHeight() + GAP;
+        }
+
+        graphics.setFont(AXIS_LABEL_FONT);
+        FontMetrics labelMetrics = graphics.getFontMetrics();
+        double labelSpace = labelMetrics.getHeight() + GAP;
+        Rectangle2D grid = new Rectangle2D.Double(area.getX() + labelSpace, top,
+                area.getWidth() - labelSpace - GAP, area.getMaxY() - top - labelSpace);
+        drawAxisLabels(graphics, grid, labelMetrics);
+        if (panels.isEmpty() || grid.getWidth() <= 0 || grid.getHeight() <= 0) {
+            return;
+        }
+
+        double[] xRange = range(true);
+        double[] yRange = range(false);
+        int columns = columns(panels.size(), grid.getWidth(), grid.getHeight());
+        int rows = (panels.size() + columns - 1) / columns;
+        double cellWidth = grid.getWidth() / columns;
+        double cellHeight = grid.getHeight() / rows;
+
+        for (int i = 0; i < panels.size(); i++) {
+            int column = i % columns;
+            int row = i / columns;
+            // A panel shows x tick labels when no panel sits below it
+            boolean bottom = i + columns >= panels.size();
+            Rectangle2D cell = new Rectangle2D.Double(grid.getX() + column * cellWidth,
+                    grid.getY() + row * cellHeight, cellWidth, cellHeight);
+            panelChart(panels.get(i), xRange, yRange, column == 0, bottom).draw(graphics, cell);
+        }
+    }
+
+    private JFreeChart panelChart(Panel panel, double[] xRange, double[] yRange, boolean left, boolean bottom) {
+        XYSeries series = new XYSeries(panel.name(), false, true);
+        for (int i = 0; i < panel.x().length; i++) {
+            series.add(panel.x()[i], panel.y()[i], false);
+        }
+
+        NumberAxis domainAxis = axis(xRange, bottom);
+        if (epochDays) {
+            ChartGenerationAdapter.labelEpochDays(domainAxis);
+        }
+        NumberAxis rangeAxis = axis(yRange, left);
+        XYLineAndShapeRenderer renderer = new XYLineAndShapeRenderer(true, false);
+        renderer.setSeriesPaint(0, lineColor);
+        renderer.setSeriesStroke(0, new BasicStroke(1.2f));
+        XYPlot plot = new XYPlot(new XYSeriesCollection(series), domainAxis, rangeAxis, renderer);
+        plot.setBackgroundPaint(Color.WHITE);
+        plot.setOutlinePaint(Color.GRAY);
+        plot.setDomainGridlinePaint(Color.LIGHT_GRAY);
+        plot.setRangeGridlinePaint(Color.LIGHT_GRAY);
+
+        // Identical axis space in every panel keeps the plot areas aligned across the grid
+        AxisSpace rangeSpace = new AxisSpace();
+        rangeSpace.setLeft(RANGE_AXIS_SPACE);
+        plot.setFixedRangeAxisSpace(rangeSpace);
+        AxisSpace domainSpace = new AxisSpace();
+        domainSpace.setBottom(DOMAIN_AXIS_SPACE);
+        plot.setFixedDomainAxisSpace(domainSpace);
+
+        JFreeChart chart = new JFreeChart(panel.name(), PANEL_TITLE_FONT, plot, false);
+        chart.setAntiAlias(antiAlias);
+        chart.setTextAntiAlias(antiAlias);
+        chart.setBackgroundPaint(Color.WHITE);
+        chart.setBorderVisible(false);
+        return chart;
+    }
+
+    private static NumberAxis axis(double[] range, boolean tickLabels) {
+        NumberAxis axis = new NumberAxis();
+        axis.setRange(range[0], range[1]);
+        axis.setTickLabelsVisible(tickLabels);
+        axis.setTickLabelFont(TICK_FONT);
+        axis.setTickMarksVisible(tickLabels);
+        return axis;
+    }
+
+    private void drawAxisLabels(Graphics2D graphics, Rectangle2D grid, FontMetrics metrics) {
+        graphics.setPaint(Color.DARK_GRAY);
+        if (xAxisLabel != null) {
+            float x = (float) (grid.getCenterX() - metrics.stringWidth(xAxisLabel) / 2.0);
+            graphics.drawString(xAxisLabel, x, (float) (grid.getMaxY() + GAP + metrics.getAscent()));
+        }
+        if (yAxisLabel != null) {
+            AffineTransform saved = graphics.getTransform();
+            graphics.translate(grid.getX() - GAP - metrics.getDescent(), grid.getCenterY());
+            graphics.rotate(-Math.PI / 2);
+            graphics.drawString(yAxisLabel, (float) (-metrics.stringWidth(yAxisLabel) / 2.0), 0f);
+            graphics.setTransform(saved);
+        }
+    }
+
+    /** Shared range over all panels, padded by 5% so lines do not touch the plot outline. */
+    private double[] range(boolean x) {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (Panel panel : panels) {
+            for (double value : x ? panel.x() : panel.y()) {
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+        }
+        if (min > max) {
+            return new double[] {0, 1};
+        }
+        if (x) {
+            return min == max ? new double[] {min - 1, max + 1} : new double[] {min, max};
+        }
+        double margin = min == max ? Math.max(1.0, Math.abs(min) * 0.1) : (max - min) * 0.05;
+        return new double[] {min - margin, max + margin};
+    }
+
+    /** One panel's points, already reduced to the panel's pixel budget. */
+    record Panel(String name, double[] x, double[] y) {
+    }
+}
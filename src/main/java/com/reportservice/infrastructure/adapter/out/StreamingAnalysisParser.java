@@ -0,0 +1,202 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.reportservice.domain.model.Chart;
+import com.reportservice.domain.model.ColumnarDataSet;
+import com.reportservice.domain.model.DataPoint;
+import com.reportservice.domain.model.ExtractedData;
+import com.reportservice.domain.model.TextSection;
+import com.reportservice.domain.port.out.AnalysisProgressListener;
+
+/**
+ * Incremental counterpart of {@link StructuredAnalysisParser} for streamed completions.
+ * <p>
+ * Content deltas are fed to Jackson's non-blocking parser as they arrive. The listener is told
+ * about the chart types as soon as that array closes, and about each data point and section as
+ * soon as its object closes. Text before the first {@code '{'} (such as a Markdown fence) and
+ * after the root object is ignored. Not thread-safe; feed from one thread.
+ */
+class StreamingAnalysisParser {
+
+    private static final int TOKEN_REPORT_INTERVAL = 16;
+
+    private final ObjectMapper objectMapper;
+    private final AnalysisProgressListener listener;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final StringBuilder text = new StringBuilder();
+
+    private final ColumnarDataSet.Builder dataSet = ColumnarDataSet.builder();
+    private final List<TextSection> sections = new ArrayList<>();
+    private final List<Chart.ChartType> chartTypes = new ArrayList<>();
+    private String title;
+    private String summary;
+    private String dataType;
+
+    private boolean started;
+    private boolean finished;
+    private int depth;
+    private String rootField;
+    private String elementField;
+    private ObjectNode element;
+    private int deltas;
+    private IOException failure;
+
+    StreamingAnalysisParser(ObjectMapper objectMapper, AnalysisProgressListener listener) throws IOException {
+        this.objectMapper = objectMapper;
+        this.listener = listener;
+        this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /**
+     * Parses one content delta. Malformed JSON stops incremental parsing, but the text is still
+     * collected so that the caller can fall back to parsing it as a whole.
+     */
+    void feed(String delta) {
+        if (delta == null || delta.isEmpty()) {
+            return;
+        }
+        text.append(delta);
+        if (++deltas % TOKEN_REPORT_INTERVAL == 0) {
+            listener.onTokens(deltas);
+        }
+        if (finished || failure != null) {
+            return;
+        }
+        String input = delta;
+        if (!started) {
+            int brace = delta.indexOf('{');
+            if (brace < 0) {
+                return;
+            }
+            started = true;
+            input = delta.substring(brace);
+        }
+        byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+        try {
+            feeder.feedInput(bytes, 0, bytes.length);
+            drain();
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    /** Full response text received so far, for caching and for the non-streaming fallback parser. */
+    String text() {
+        return text.toString();
+    }
+
+    ExtractedData result(String sourceUrl) throws IOException {
+        listener.onTokens(deltas);
+        if (failure != null) {
+            throw new IOException("Streamed analysis is not valid JSON", failure);
+        }
+        if (!finished) {
+            throw new IOException("Streamed analysis ended before its JSON object was complete");
+        }
+        return ExtractedData.builder()
+            .sourceUrl(sourceUrl)
+            .title(title)
+            .summary(summary)
+            .dataType(StructuredAnalysisParser.toDataType(dataType))
+            .dataSet(dataSet.build())
+            .textSections(sections)
+            .recommendedChartTypes(chartTypes)
+            .build();
+    }
+
+    private void drain() throws IOException {
+        JsonToken token;
+        while (!finished && (token = parser.nextToken()) != JsonToken.NOT_AVAILABLE && token != null) {
+            switch (token) {
+                case START_OBJECT -> {
+                    depth++;
+                    if (depth == 3 && isArrayOfObjects(rootField)) {
+                        element = objectMapper.createObjectNode();
+                    }
+                }
+                case END_OBJECT -> {
+                    depth--;
+                    if (depth == 0) {
+                        finished = true;
+                        feeder.endOfInput();
+                    } else if (depth == 2 && element != null) {
+                        emitElement();
+                    }
+                }
+                case START_ARRAY -> depth++;
+                case END_ARRAY -> {
+                    depth--;
+                    if (depth == 1 && "chartTypes".equals(rootField)) {
+                        listener.onChartTypes(List.copyOf(chartTypes));
+                    }
+                }
+                case FIELD_NAME -> {
+                    if (depth == 1) {
+                        rootField = parser.currentName();
+                    } else if (depth == 3) {
+                        elementField = parser.currentName();
+                    }
+                }
+                default -> acceptScalar(token);
+            }
+        }
+    }
+
+    private void acceptScalar(JsonToken token) throws IOException {
+        if (depth == 1 && rootField != null) {
+            String value = token == JsonToken.VALUE_NULL ? null : parser.getText();
+            switch (rootField) {
+                case "title" -> title = value;
+                case "summary" -> summary = value;
+                case "dataType" -> dataType = value;
+                default -> {
+                    // Fields outside the contract are ignored
+                }
+            }
+        } else if (depth == 2 && "chartTypes".equals(rootField)) {
+            Chart.ChartType type = StructuredAnalysisParser.toChartType(parser.getText());
+            if (type != null && !chartTypes.contains(type)) {
+                chartTypes.add(type);
+            }
+        } else if (depth == 3 && element != null && elementField != null) {
+            if (token.isNumeric()) {
+                element.put(elementField, parser.getDoubleValue());
+            } else if (token == JsonToken.VALUE_STRING) {
+                element.put(elementField, parser.getText());
+            }
+        }
+    }
+
+    private void emitElement() {
+        if ("dataPoints".equals(rootField)) {
+            DataPoint dataPoint = StructuredAnalysisParser.toDataPoint(element);
+            if (dataPoint != null) {
+                dataSet.add(dataPoint);
+                listener.onDataPoint(dataPoint);
+            }
+        } else {
+            TextSection section = StructuredAnalysisParser.toSection(element, sections.size());
+            if (section != null) {
+                sections.add(section);
+                listener.onSection(section);
+            }
+        }
+        element = null;
+        elementField = null;
+    }
+
+    private static boolean isArrayOfObjects(String field) {
+        return "dataPoints".equals(field) || "sections".equals(field);
+    }
+}
@@ -0,0 +1,181 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reportservice.domain.model.Chart;
+import com.reportservice.domain.model.ColumnarDataSet;
+import com.reportservice.domain.model.DataPoint;
+import com.reportservice.domain.model.ExtractedData;
+import com.reportservice.domain.model.TextSection;
+
+/**
+ * Parses the single JSON object returned by the structured analysis prompt into
+ * {@link ExtractedData}. Unknown enum values and malformed entries are skipped rather than
+ * failing the whole response; only a response that is not a JSON object is rejected.
+ */
+class StructuredAnalysisParser {
+
+    /**
+     * Response contract given to the model; field names match what {@link #parse} reads. Chart types
+     * come before the bulky arrays so that a streamed response yields them early.
+     */
+    static final String RESPONSE_SCHEMA = """
+            {
+              "title": "short report title",
+              "summary": "2-3 sentence professional summary",
+              "dataType": "NUMERICAL | CATEGORICAL | MIXED | TEXT_ONLY | TABLE_DATA",
+              "chartTypes": ["BAR | PIE | LINE | SCATTER | HISTOGRAM | SMALL_MULTIPLES, best first"],
+              "dataPoints": [
+                {"label": "string", "value": 0.0, "category": "string or null", "date": "YYYY-MM-DD or null", "unit": "string or null"}
+              ],
+              "sections": [
+                {"title": "string or null", "content": "string", "type": "HEADER | PARAGRAPH | BULLET_POINT | QUOTE | CONCLUSION"}
+              ]
+            }""";
+
+    private final ObjectMapper objectMapper;
+
+    StructuredAnalysisParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    ExtractedData parse(String response, String sourceUrl) throws IOException {
+        JsonNode root = readObject(response);
+
+        ColumnarDataSet.Builder dataSet = ColumnarDataSet.builder(Math.max(1, root.path("dataPoints").size()));
+        for (JsonNode point : root.path("dataPoints")) {
+            DataPoint dataPoint = toDataPoint(point);
+            if (dataPoint != null) {
+                dataSet.add(dataPoint);
+            }
+        }
+
+        List<TextSection> sections = new ArrayList<>();
+        for (JsonNode section : root.path("sections")) {
+            TextSection textSection = toSection(section, sections.size());
+            if (textSection != null) {
+                sections.add(textSection);
+            }
+        }
+
+        List<Chart.ChartType> chartTypes = new ArrayList<>();
+        for (JsonNode chartType : root.path("chartTypes")) {
+            Chart.ChartType type = toChartType(chartType.asText());
+            if (type != null && !chartTypes.contains(type)) {
+                chartTypes.add(type);
+            }
+        }
+
+        return ExtractedData.builder()
+            .sourceUrl(sourceUrl)
+            .title(text(root, "title"))
+            .summary(text(root, "summary"))
+            .dataType(toDataType(text(root, "dataType")))
+            .dataSet(dataSet.build())
+            .textSections(sections)
+            .recommendedChartTypes(chartTypes)
+            .build();
+    }
+
+    /** Data point from one {@code dataPoints} entry, or {@code null} when it has no numeric value. */
+    static DataPoint toDataPoint(JsonNode point) {
+        JsonNode value = point.path("value");
+        if (!value.isNumber() && !(value.isTextual() && isNumeric(value.asText()))) {
+            return null;
+        }
+        return DataPoint.builder()
+            .label(text(point, "label"))
+            .value(value.asDouble())
+            .category(text(point, "category"))
+            .date(parseDate(text(point, "date")))
+            .unit(text(point, "unit"))
+            .build();
+    }
+
+    /** Text section from one {@code sections} entry, or {@code null} when it has no content. */
+    static TextSection toSection(JsonNode section, int order) {
+        String content = text(section, "content");
+        if (content == null || content.isBlank()) {
+            return null;
+        }
+        return TextSection.builder()
+            .title(text(section, "title"))
+            .content(content.trim())
+            .order(order)
+            .type(parseEnum(TextSection.SectionType.class, text(section, "type"), TextSection.SectionType.PARAGRAPH))
+            .build();
+    }
+
+    static Chart.ChartType toChartType(String text) {
+        return parseEnum(Chart.ChartType.class, text, null);
+    }
+
+    static ExtractedData.DataType toDataType(String text) {
+        return parseEnum(ExtractedData.DataType.class, text, null);
+    }
+
+    /** Reads the outermost JSON object, tolerating Markdown code fences or prose around it. */
+    private JsonNode readObject(String response) throws IOException {
+        if (response == null) {
+            throw new IOException("Empty structured analysis response");
+        }
+        int start = response.indexOf('{');
+        int end = response.lastIndexOf('}');
+        if (start < 0 || end <= start) {
+            throw new IOException("Structured analysis response contains no JSON object");
+        }
+        try {
+            JsonNode root = objectMapper.readTree(response.substring(start, end + 1));
+            if (!root.isObject()) {
+                throw new IOException("Structured analysis response is not a JSON object");
+            }
+            return root;
+        } catch (JsonProcessingException e) {
+            throw new IOException("Structured analysis response is not valid JSON", e);
+        }
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.path(field);
+        return value.isValueNode() && !value.isNull() ? value.asText() : null;
+    }
+
+    private static boolean isNumeric(String text) {
+        try {
+            Double.parseDouble(text.trim());
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static LocalDate parseDate(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(text.trim());
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String text, E defaultValue) {
+        if (text == null || text.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Enum.valueOf(type, text.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket refilled continuously at {@code permitsPerMinute}, holding at most one minute of
+ * permits. A request larger than the whole bucket is admitted once the bucket is full and leaves
+ * it in debt, so oversized calls are slowed down rather than rejected forever. A non-positive rate
+ * disables limiting, but {@link #pause(long)} is still honored.
+ */
+final class TokenBucket {
+
+    private final double capacity;
+    private final double permitsPerNano;
+    private double available;
+    private long lastRefill;
+    private long pausedUntil;
+
+    TokenBucket(double permitsPerMinute) {
+        this.capacity = Math.max(0, permitsPerMinute);
+        this.permitsPerNano = capacity / TimeUnit.MINUTES.toNanos(1);
+        this.available = capacity;
+        this.lastRefill = System.nanoTime();
+        this.pausedUntil = lastRefill;
+    }
+
+    /**
+     * Takes {@code permits}, waiting until they are available.
+     *
+     * @return {@code false} if they would not be available before {@code deadlineNanos}
+     */
+    boolean acquire(double permits, long deadlineNanos) throws InterruptedException {
+        while (true) {
+            long now = System.nanoTime();
+            long waitNanos;
+            synchronized (this) {
+                refill(now);
+                if (now - pausedUntil < 0) {
+                    waitNanos = pausedUntil - now;
+                } else if (capacity == 0) {
+                    return true;
+                } else if (available >= permits || available >= capacity) {
+                    available -= permits;
+                    return true;
+                } else {
+                    double needed = Math.min(permits, capacity) - available;
+                    // Clamped so a deep debt cannot overflow into a negative wait
+                    waitNanos = (long) Math.max(1, Math.min(Long.MAX_VALUE, Math.ceil(needed / permitsPerNano)));
+                }
+            }
+            if (waitNanos > deadlineNanos - now) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /** Returns permits taken for a call that never went out. */
+    synchronized void release(double permits) {
+        if (capacity > 0) {
+            available = Math.min(capacity, available + permits);
+        }
+    }
+
+    /** Charges permits after the fact, e.g. when actual token usage exceeded the estimate. */
+    synchronized void consume(double permits) {
+        if (capacity > 0) {
+            refill(System.nanoTime());
+            available -= permits;
+        }
+    }
+
+    /** Holds back every acquirer until {@code delayNanos} from now, as requested by the provider. */
+    synchronized void pause(long delayNanos) {
+        long until = System.nanoTime() + delayNanos;
+        if (until - pausedUntil > 0) {
+            pausedUntil = until;
+        }
+    }
+
+    private void refill(long now) {
+        long elapsed = now - lastRefill;
+        if (elapsed > 0) {
+            available = Math.min(capacity, available + elapsed * permitsPerNano);
+            lastRefill = now;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import java.util.List;
+
+import com.theokanning.openai.completion.chat.ChatMessage;
+
+/**
+ * Local approximation of the model's BPE token count, close enough to size prompts and quota
+ * reservations without shipping a tokenizer. It follows how cl100k-style vocabularies split text:
+ * a word with its leading space is usually one token and long words split into pieces of about
+ * six letters, digits are grouped in threes, each punctuation mark or other symbol is a token but
+ * runs of one repeated mark such as {@code "..."} or {@code "----"} merge, and runs of line breaks
+ * or indentation cost one token. Characters outside ASCII cost one token each, which is about
+ * right for CJK text and pessimistic for accented Latin text.
+ */
+final class TokenEstimator {
+
+    /** Framing tokens the chat format adds around every message. */
+    private static final int TOKENS_PER_MESSAGE = 4;
+    /** Tokens that prime the assistant reply. */
+    private static final int REPLY_PRIMING_TOKENS = 3;
+    private static final int LETTERS_PER_TOKEN = 6;
+    private static final int DIGITS_PER_TOKEN = 3;
+    private static final int SYMBOLS_PER_TOKEN = 4;
+
+    private TokenEstimator() {
+    }
+
+    static int estimate(CharSequence text) {
+        if (text == null) {
+            return 0;
+        }
+        int tokens = 0;
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            int start = i;
+            if (isAsciiLetter(c)) {
+                while (i < length && isAsciiLetter(text.charAt(i))) {
+                    i++;
+                }
+                tokens += (i - start + LETTERS_PER_TOKEN - 1) / LETTERS_PER_TOKEN;
+            } else if (c >= '0' && c <= '9') {
+                while (i < length && text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+                    i++;
+                }
+                tokens += (i - start + DIGITS_PER_TOKEN - 1) / DIGITS_PER_TOKEN;
+            } else if (Character.isWhitespace(c)) {
+                while (i < length && Character.isWhitespace(text.charAt(i))) {
+                    i++;
+                }
+                // A single space merges into the following word
+                if (i - start > 1 || c != ' ') {
+                    tokens++;
+                }
+            } else if (c < 128) {
+                while (i < length && text.charAt(i) == c) {
+                    i++;
+                }
+                tokens += (i - start + SYMBOLS_PER_TOKEN - 1) / SYMBOLS_PER_TOKEN;
+            } else {
+                i += Character.isHighSurrogate(c) && i + 1 < length ? 2 : 1;
+                tokens++;
+            }
+        }
+        return tokens;
+    }
+
+    static int estimate(List<ChatMessage> messages) {
+        int tokens = REPLY_PRIMING_TOKENS;
+        for (ChatMessage message : messages) {
+            tokens += TOKENS_PER_MESSAGE + estimate(message.getContent());
+        }
+        return tokens;
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+}
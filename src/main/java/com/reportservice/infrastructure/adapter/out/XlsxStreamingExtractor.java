@@ -0,0 +1,285 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.poi.UnsupportedFileFormatException;
+import org.apache.poi.openxml4j.exceptions.InvalidOperationException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import com.reportservice.domain.model.ColumnarDataSet;
+import com.reportservice.domain.model.Table;
+
+/**
+ * Reads {@code .xlsx} workbooks with POI's SAX event model and a read-only shared strings table,
+ * so memory stays proportional to the extracted values rather than the workbook DOM.
+ * <p>
+ * The first row of each sheet is treated as a header when it has no numeric cells. Every numeric
+ * cell becomes a data point in the series named by its column header, labelled by the first text
+ * cell of its row and dated by the first date cell. Each sheet is also returned as a {@link Table}
+ * preview.
+ */
+class XlsxStreamingExtractor {
+
+    private static final int MAX_REPORT_ROWS = 100;
+
+    Result extract(Path workbook) throws IOException {
+        OPCPackage pkg = null;
+        try {
+            pkg = OPCPackage.open(workbook.toFile(), PackageAccess.READ);
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+            DataFormatter formatter = new RawNumberFormatter();
+
+            ColumnarDataSet.Builder dataSet = ColumnarDataSet.builder(1024);
+            List<Table> tables = new ArrayList<>();
+            long rowCount = 0;
+            int sheetCount = 0;
+
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (sheets.hasNext()) {
+                try (InputStream sheet = sheets.next()) {
+                    sheetCount++;
+                    SheetHandler handler = new SheetHandler(sheets.getSheetName(), dataSet);
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(new XSSFSheetXMLHandler(styles, strings, handler, formatter, false));
+                    parser.parse(new InputSource(sheet));
+                    rowCount += handler.rowCount;
+                    if (handler.preview.size() > 0) {
+                        tables.add(handler.toTable());
+                    }
+                }
+            }
+            return new Result(dataSet.build(), tables, sheetCount, rowCount);
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Failed to read workbook " + workbook.getFileName(), e);
+        } catch (UnsupportedFileFormatException | InvalidOperationException e) {
+            // POI reports files that are not OOXML packages with unchecked exceptions
+            throw new IOException("Not an .xlsx workbook: " + workbook.getFileName(), e);
+        } finally {
+            if (pkg != null) {
+                // Read-only packages are released with revert(); close() would try to save
+                pkg.revert();
+            }
+        }
+    }
+
+    record Result(ColumnarDataSet dataSet, List<Table> tables, int sheetCount, long rowCount) {
+    }
+
+    /**
+     * Keeps numeric cells at full precision and renders date-formatted cells as ISO dates,
+     * instead of applying the workbook's display format.
+     */
+    private static final class RawNumberFormatter extends DataFormatter {
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString) {
+            return formatRawCellContents(value, formatIndex, formatString, false);
+        }
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString,
+                boolean use1904Windowing) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                return DateUtil.getLocalDateTime(value, use1904Windowing).toLocalDate().toString();
+            }
+            return Double.toString(value);
+        }
+    }
+
+    private static final class SheetHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final String sheetName;
+        private final ColumnarDataSet.Builder dataSet;
+        private final List<List<String>> preview = new ArrayList<>();
+        private String[] headers;
+        private String[] row = new String[16];
+        private int rowWidth;
+        private int nextColumn;
+        private long rowCount;
+
+        SheetHandler(String sheetName, ColumnarDataSet.Builder dataSet) {
+            this.sheetName = sheetName;
+            this.dataSet = dataSet;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            Arrays.fill(row, 0, rowWidth, null);
+            rowWidth = 0;
+            nextColumn = 0;
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference != null ? columnIndex(cellReference) : nextColumn;
+            nextColumn = column + 1;
+            if (column >= row.length) {
+                row = Arrays.copyOf(row, Math.max(column + 1, row.length * 2));
+            }
+            row[column] = formattedValue != null ? formattedValue.trim() : null;
+            rowWidth = Math.max(rowWidth, column + 1);
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (rowWidth == 0) {
+                return;
+            }
+            if (headers == null && isHeader()) {
+                headers = new String[rowWidth];
+                for (int col = 0; col < rowWidth; col++) {
+                    headers[col] = row[col] == null || row[col].isEmpty() ? "Column " + (col + 1) : row[col];
+                }
+                return;
+            }
+            rowCount++;
+            emitRow();
+        }
+
+        @Override
+        public void headerFooter(String text, boolean isHeader, String tagName) {
+            // Page headers and footers carry no data
+        }
+
+        private boolean isHeader() {
+            if (rowCount > 0) {
+                return false;
+            }
+            for (int col = 0; col < rowWidth; col++) {
+                if (row[col] != null && !Double.isNaN(HtmlTableExtractor.parseNumber(row[col]))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void emitRow() {
+            String label = null;
+            LocalDate date = null;
+            for (int col = 0; col < rowWidth; col++) {
+                String text = row[col];
+                if (text == null || text.isEmpty()) {
+                    continue;
+                }
+                if (date == null && (date = parseIsoDate(text)) != null) {
+                    continue;
+                }
+                if (label == null && Double.isNaN(HtmlTableExtractor.parseNumber(text))) {
+                    label = text;
+                }
+            }
+            if (label == null) {
+                label = date != null ? date.toString() : "Row " + rowCount;
+            }
+
+            for (int col = 0; col < rowWidth; col++) {
+                String text = row[col];
+                if (text == null || text.isEmpty() || parseIsoDate(text) != null) {
+                    continue;
+                }
+                double value = HtmlTableExtractor.parseNumber(text);
+                if (!Double.isNaN(value)) {
+                    dataSet.add(label, value, seriesName(col), date, null, null);
+                }
+            }
+
+            if (preview.size() < MAX_REPORT_ROWS) {
+                List<String> cells = new ArrayList<>(rowWidth);
+                for (int col = 0; col < rowWidth; col++) {
+                    cells.add(row[col] != null ? row[col] : "");
+                }
+                preview.add(cells);
+            }
+        }
+
+        private String seriesName(int column) {
+            if (headers != null && column < headers.length) {
+                return headers[column];
+            }
+            return sheetName + " " + columnName(column);
+        }
+
+        private Table toTable() {
+            int width = headers != null ? headers.length : 0;
+            for (List<String> cells : preview) {
+                width = Math.max(width, cells.size());
+            }
+            List<String> tableHeaders = new ArrayList<>(width);
+            for (int col = 0; col < width; col++) {
+                tableHeaders.add(headers != null && col < headers.length ? headers[col] : columnName(col));
+            }
+            List<List<String>> rows = new ArrayList<>(preview.size());
+            for (List<String> cells : preview) {
+                List<String> padded = new ArrayList<>(cells);
+                while (padded.size() < width) {
+                    padded.add("");
+                }
+                rows.add(padded);
+            }
+
+            String description = String.format("Sheet \"%s\" (%d data rows)", sheetName, rowCount);
+            if (preview.size() < rowCount) {
+                description += String.format("; showing first %d rows", preview.size());
+            }
+            return Table.builder()
+                .title(sheetName)
+                .description(description)
+                .headers(tableHeaders)
+                .rows(rows)
+                .build();
+        }
+    }
+
+    private static int columnIndex(String cellReference) {
+        int column = 0;
+        for (int i = 0; i < cellReference.length(); i++) {
+            char c = cellReference.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            column = column * 26 + (c - 'A' + 1);
+        }
+        return column - 1;
+    }
+
+    private static String columnName(int column) {
+        StringBuilder name = new StringBuilder();
+        for (int index = column + 1; index > 0; index = (index - 1) / 26) {
+            name.insert(0, (char) ('A' + (index - 1) % 26));
+        }
+        return name.toString();
+    }
+
+    private static LocalDate parseIsoDate(String text) {
+        if (text.length() != 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return null;
+        }
+        try {
+            return LocalDate.parse(text);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
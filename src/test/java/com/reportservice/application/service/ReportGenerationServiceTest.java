@@ -5,6 +5,7 @@ import com.reportservice.domain.port.out.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -13,6 +14,7 @@ import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -42,6 +44,9 @@ class ReportGenerationServiceTest {
     @Mock
     private NotificationPort notificationPort;
 
+    @Mock
+    private JobStatusPort jobStatusPort;
+
     @InjectMocks
     private ReportGenerationService reportGenerationService;
 
@@ -88,7 +93,10 @@ class ReportGenerationServiceTest {
         when(dataExtractionPort.fetchRawData(anyString()))
             .thenReturn(CompletableFuture.completedFuture("raw data"));
         
-        when(aiAnalysisPort.analyzeAndStructureData(anyString(), anyString()))
+        when(dataExtractionPort.extractAndAnalyzeData(anyString(), anyString()))
+            .thenReturn(CompletableFuture.completedFuture(testExtractedData));
+        
+        when(aiAnalysisPort.analyzeAndStructureData(anyString(), anyString(), any()))
             .thenReturn(CompletableFuture.completedFuture(testExtractedData));
         
         when(chartGenerationPort.generateCharts(any(ExtractedData.class)))
@@ -109,6 +117,127 @@ class ReportGenerationServiceTest {
         
         verify(reportStoragePort).saveReport(any(GeneratedReport.class));
         verify(notificationPort).notifyReportGenerated(any(GeneratedReport.class));
+        verify(jobStatusPort).save(argThat(status -> status.getStage() == JobStatus.Stage.FETCHING));
+    }
+
+    @Test
+    void generateReport_ChartsAndStatisticsDescribeStructuredDataSet() {
+        ColumnarDataSet structuredDataSet = ColumnarDataSet.builder()
+            .add("Q1", 10.0, "Revenue")
+            .add("Q2", 20.0, "Revenue")
+            .add("Q3", 30.0, "Revenue")
+            .build();
+        ExtractedData structured = ExtractedData.builder()
+            .sourceUrl("https://example.com/data")
+            .dataSet(structuredDataSet)
+            .dataOrigin(ExtractedData.DataOrigin.TABLES)
+            .metadata(Map.of("statistics", structuredDataSet.statistics().toMap()))
+            .build();
+        when(dataExtractionPort.fetchRawData(anyString()))
+            .thenReturn(CompletableFuture.completedFuture("raw data"));
+        when(dataExtractionPort.extractAndAnalyzeData(anyString(), anyString()))
+            .thenReturn(CompletableFuture.completedFuture(structured));
+        when(aiAnalysisPort.analyzeAndStructureData(anyString(), anyString(), any()))
+            .thenReturn(CompletableFuture.completedFuture(testExtractedData));
+        when(chartGenerationPort.generateCharts(any(ExtractedData.class)))
+            .thenReturn(CompletableFuture.completedFuture(List.of()));
+        when(reportRenderingPort.renderToPdf(any(), any()))
+            .thenReturn(CompletableFuture.completedFuture(testReport));
+
+        reportGenerationService.generateReport(testRequest).join();
+
+        ArgumentCaptor<ExtractedData> charted = ArgumentCaptor.forClass(ExtractedData.class);
+        verify(chartGenerationPort).generateCharts(charted.capture());
+        assertSame(structuredDataSet, charted.getValue().getDataSet());
+        ArgumentCaptor<ReportContent> content = ArgumentCaptor.forClass(ReportContent.class);
+        verify(reportRenderingPort).renderToPdf(content.capture(), any());
+        Table statistics = content.getValue().getTables().get(0);
+        assertEquals("Key statistics", statistics.getTitle());
+        assertEquals(List.of("Count", "3"), statistics.getRows().get(0));
+        assertEquals(List.of("Standard deviation", "10.00"), statistics.getRows().get(5));
+    }
+
+    @Test
+    void generateReport_ChartsTheAnalyzedDataSetOfTextSources() {
+        ColumnarDataSet textNumbers = ColumnarDataSet.builder()
+            .add("Number 1", 2024.0, "Text")
+            .add("Number 2", 3.0, "Text")
+            .build();
+        ExtractedData structured = ExtractedData.builder()
+            .sourceUrl("https://example.com/data")
+            .dataSet(textNumbers)
+            .dataOrigin(ExtractedData.DataOrigin.TEXT)
+            .metadata(Map.of("statistics", textNumbers.statistics().toMap()))
+            .build();
+        when(dataExtractionPort.fetchRawData(anyString()))
+            .thenReturn(CompletableFuture.completedFuture("raw data"));
+        when(dataExtractionPort.extractAndAnalyzeData(anyString(), anyString()))
+            .thenReturn(CompletableFuture.completedFuture(structured));
+        when(aiAnalysisPort.analyzeAndStructureData(anyString(), anyString(), any()))
+            .thenReturn(CompletableFuture.completedFuture(testExtractedData));
+        when(chartGenerationPort.generateCharts(any(ExtractedData.class)))
+            .thenReturn(CompletableFuture.completedFuture(List.of()));
+        when(reportRenderingPort.renderToPdf(any(), any()))
+            .thenReturn(CompletableFuture.completedFuture(testReport));
+
+        reportGenerationService.generateReport(testRequest).join();
+
+        ArgumentCaptor<ExtractedData> charted = ArgumentCaptor.forClass(ExtractedData.class);
+        verify(chartGenerationPort).generateCharts(charted.capture());
+        assertSame(testExtractedData.getDataSet(), charted.getValue().getDataSet());
+        ArgumentCaptor<ReportContent> content = ArgumentCaptor.forClass(ReportContent.class);
+        verify(reportRenderingPort).renderToPdf(content.capture(), any());
+        Table statistics = content.getValue().getTables().get(0);
+        assertEquals(List.of("Count", "1"), statistics.getRows().get(0));
+        assertTrue(statistics.getDescription().startsWith("Computed over the charted data points"));
+    }
+
+    @Test
+    void generateReport_AddsDataSummaryTableNextToStatisticsForTableData() {
+        ExtractedData tableData = testExtractedData.toBuilder()
+            .dataType(ExtractedData.DataType.TABLE_DATA)
+            .build();
+        when(dataExtractionPort.fetchRawData(anyString()))
+            .thenReturn(CompletableFuture.completedFuture("raw data"));
+        when(dataExtractionPort.extractAndAnalyzeData(anyString(), anyString()))
+            .thenReturn(CompletableFuture.completedFuture(tableData));
+        when(aiAnalysisPort.analyzeAndStructureData(anyString(), anyString(), any()))
+            .thenReturn(CompletableFuture.completedFuture(tableData));
+        when(chartGenerationPort.generateCharts(any(ExtractedData.class)))
+            .thenReturn(CompletableFuture.completedFuture(List.of()));
+        when(reportRenderingPort.renderToPdf(any(), any()))
+            .thenReturn(CompletableFuture.completedFuture(testReport));
+
+        reportGenerationService.generateReport(testRequest).join();
+
+        ArgumentCaptor<ReportContent> content = ArgumentCaptor.forClass(ReportContent.class);
+        verify(reportRenderingPort).renderToPdf(content.capture(), any());
+        List<Table> tables = content.getValue().getTables();
+        assertEquals(List.of("Key statistics", "Data Summary"), tables.stream().map(Table::getTitle).toList());
+        assertEquals(List.of("Test Point", "100.0", "Test"), tables.get(1).getRows().get(0));
+    }
+
+    @Test
+    void generateReport_RendersTheGeneratedCharts() {
+        List<Chart> charts = List.of(
+            Chart.builder().title("Test Data").type(Chart.ChartType.LINE).dataSet(testExtractedData.getDataSet()).build(),
+            Chart.builder().title("Category Summary").type(Chart.ChartType.PIE).build());
+        when(dataExtractionPort.fetchRawData(anyString()))
+            .thenReturn(CompletableFuture.completedFuture("raw data"));
+        when(dataExtractionPort.extractAndAnalyzeData(anyString(), anyString()))
+            .thenReturn(CompletableFuture.completedFuture(testExtractedData));
+        when(aiAnalysisPort.analyzeAndStructureData(anyString(), anyString(), any()))
+            .thenReturn(CompletableFuture.completedFuture(testExtractedData));
+        when(chartGenerationPort.generateCharts(any(ExtractedData.class)))
+            .thenReturn(CompletableFuture.completedFuture(charts));
+        when(reportRenderingPort.renderToPdf(any(), any()))
+            .thenReturn(CompletableFuture.completedFuture(testReport));
+
+        reportGenerationService.generateReport(testRequest).join();
+
+        ArgumentCaptor<ReportContent> content = ArgumentCaptor.forClass(ReportContent.class);
+        verify(reportRenderingPort).renderToPdf(content.capture(), any());
+        assertEquals(charts, content.getValue().getCharts());
     }
 
     @Test
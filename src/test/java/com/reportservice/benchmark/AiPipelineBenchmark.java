@@ -0,0 +1,142 @@
+package com.reportservice.benchmark;
+
+import com.reportservice.domain.model.ReportRequest;
+import com.reportservice.domain.port.in.ReportGenerationUseCase;
+import com.reportservice.support.MockChatCompletionServer;
+import com.reportservice.support.MockChatCompletionServer.LatencyModel;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives the full report pipeline against {@link MockChatCompletionServer} and prints throughput
+ * and latency percentiles. Excluded from the default build; run it with
+ * {@code mvn test -Pbenchmark}, tuning the mock and the load through system properties, e.g.
+ * {@code -Dbenchmark.concurrency=32 -Dbenchmark.latency-ms=1500 -Dbenchmark.mock-rps=20
+ * -Dai.client.max-concurrent=16}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class AiPipelineBenchmark {
+
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 200);
+    private static final int WARM_UP = Integer.getInteger("benchmark.warm-up", 20);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 16);
+    private static final long LATENCY_MS = Long.getLong("benchmark.latency-ms", 800);
+    private static final double LATENCY_SIGMA = Double.parseDouble(System.getProperty("benchmark.latency-sigma", "0.5"));
+    private static final double ERROR_RATE = Double.parseDouble(System.getProperty("benchmark.error-rate", "0.01"));
+    private static final double RATE_LIMIT_RATE = Double.parseDouble(System.getProperty("benchmark.rate-limit-rate", "0"));
+    private static final int MOCK_RPS = Integer.getInteger("benchmark.mock-rps", 0);
+
+    private static MockChatCompletionServer server;
+
+    @Autowired
+    private ReportGenerationUseCase reportGenerationUseCase;
+
+    @DynamicPropertySource
+    static void mockAi(DynamicPropertyRegistry registry) throws IOException {
+        server = MockChatCompletionServer.builder()
+            .latency(LatencyModel.logNormal(Duration.ofMillis(LATENCY_MS), LATENCY_SIGMA))
+            .errorRate(ERROR_RATE)
+            .rateLimitRate(RATE_LIMIT_RATE)
+            .requestsPerSecond(MOCK_RPS)
+            .streaming(16, Duration.ofMillis(2))
+            .start();
+        registry.add("ai.client.base-url", server::baseUrl);
+        registry.add("openai.api.key", () -> "mock-key");
+        // Every request would otherwise be served from the cache after the first
+        registry.add("ai.cache.enabled", () -> "false");
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void generateReport_AgainstMockAi() throws InterruptedException {
+        run(WARM_UP);
+        long requestsBefore = server.requests();
+        long rateLimitedBefore = server.rateLimited();
+
+        Run run = run(REQUESTS);
+
+        System.out.printf("%nAI pipeline benchmark: %d requests, concurrency %d, mock latency %d ms (sigma %.2f)%n",
+            REQUESTS, CONCURRENCY, LATENCY_MS, LATENCY_SIGMA);
+        System.out.printf("  succeeded %d, failed %d, AI calls %d, 429s %d%n", run.succeeded(), run.failed(),
+            server.requests() - requestsBefore, server.rateLimited() - rateLimitedBefore);
+        System.out.printf("  throughput %.2f reports/s%n", run.succeeded() / (run.elapsedNanos() / 1e9));
+        System.out.printf("  latency p50 %d ms, p95 %d ms, p99 %d ms, max %d ms%n%n",
+            run.percentileMillis(50), run.percentileMillis(95), run.percentileMillis(99), run.percentileMillis(100));
+
+        assertTrue(run.succeeded() > 0, "No report was generated");
+    }
+
+    private Run run(int requests) throws InterruptedException {
+        long[] latencies = new long[requests];
+        AtomicInteger succeeded = new AtomicInteger();
+        Semaphore slots = new Semaphore(CONCURRENCY);
+        CountDownLatch done = new CountDownLatch(requests);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            slots.acquire();
+            int index = i;
+            long issued = System.nanoTime();
+            reportGenerationUseCase.generateReport(request(i)).whenComplete((reports, throwable) -> {
+                if (throwable == null) {
+                    latencies[index] = System.nanoTime() - issued;
+                    succeeded.incrementAndGet();
+                } else {
+                    latencies[index] = -1;
+                }
+                slots.release();
+                done.countDown();
+            });
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+
+        long[] successful = Arrays.stream(latencies).filter(latency -> latency >= 0).sorted().toArray();
+        return new Run(successful, succeeded.get(), requests - succeeded.get(), elapsed);
+    }
+
+    private ReportRequest request(int index) {
+        return ReportRequest.builder()
+            .id(UUID.randomUUID().toString())
+            .sourceUrl(server.sourceUrl(index))
+            .title("Benchmark report " + index)
+            .format(ReportRequest.ReportFormat.PDF)
+            .createdAt(LocalDateTime.now())
+            .build();
+    }
+
+    private record Run(long[] sortedLatencies, int succeeded, int failed, long elapsedNanos) {
+
+        /** Nearest-rank percentile of successful requests. */
+        long percentileMillis(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile / 100 * sortedLatencies.length);
+            return Duration.ofNanos(sortedLatencies[Math.max(0, rank - 1)]).toMillis();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.reportservice.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarDataSetTest {
+
+    @Test
+    void builder_EncodesLabelsAndCategoriesAsDictionaries() {
+        ColumnarDataSet dataSet = ColumnarDataSet.builder(2)
+            .add("A", 1.0, "X")
+            .add("B", 2.0, "X")
+            .add("A", 3.0, "Y")
+            .build();
+
+        assertEquals(3, dataSet.size());
+        assertEquals(List.of("A", "B"), dataSet.labelDictionary());
+        assertEquals(List.of("X", "Y"), dataSet.categoryDictionary());
+        assertEquals(dataSet.labelId(0), dataSet.labelId(2));
+        assertEquals(3.0, dataSet.value(2));
+        assertFalse(dataSet.hasDates());
+        assertNull(dataSet.unit(1));
+    }
+
+    @Test
+    void cursor_IteratesRowsWithOptionalColumns() {
+        LocalDate date = LocalDate.of(2024, 3, 1);
+        ColumnarDataSet dataSet = ColumnarDataSet.builder()
+            .add("first", 1.5, "C")
+            .add("second", null, null, date, "kg", null)
+            .build();
+
+        ColumnarDataSet.Cursor cursor = dataSet.cursor();
+        assertTrue(cursor.next());
+        assertEquals("first", cursor.label());
+        assertFalse(cursor.hasDate());
+        assertTrue(cursor.next());
+        assertFalse(cursor.hasValue());
+        assertEquals(0.0, cursor.valueOr(0.0));
+        assertEquals(date, cursor.date());
+        assertEquals("kg", cursor.unit());
+        assertNull(cursor.category());
+        assertFalse(cursor.next());
+        assertTrue(dataSet.hasDates());
+        assertEquals("kg", dataSet.firstUnit());
+    }
+
+    @Test
+    void asDataPoints_RoundTripsThroughDataPointView() {
+        DataPoint point = DataPoint.builder()
+            .label("Revenue")
+            .value(42.0)
+            .category("Finance")
+            .date(LocalDate.of(2023, 12, 31))
+            .unit("USD")
+            .description("Q4")
+            .build();
+
+        List<DataPoint> view = ColumnarDataSet.of(List.of(point)).asDataPoints();
+
+        assertEquals(1, view.size());
+        assertEquals(point, view.get(0));
+    }
+
+    @Test
+    void select_ReturnsRowsInRequestedOrder() {
+        ColumnarDataSet dataSet = ColumnarDataSet.builder()
+            .add("a", 1.0, "c")
+            .add("b", 2.0, "c")
+            .add("c", 3.0, "c")
+            .build();
+
+        ColumnarDataSet selected = dataSet.select(new int[]{2, 0});
+
+        assertEquals(2, selected.size());
+        assertEquals("c", selected.label(0));
+        assertEquals(1.0, selected.value(1));
+    }
+}
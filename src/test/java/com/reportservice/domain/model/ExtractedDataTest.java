@@ -0,0 +1,38 @@
+package com.reportservice.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExtractedDataTest {
+
+    @Test
+    void builder_AppendsDataPointsAfterThoseAlreadySet() {
+        ExtractedData data = ExtractedData.builder()
+            .dataPoints(List.of(point("A", 1.0)))
+            .dataPoint(point("B", 2.0))
+            .dataPoint(point("C", 3.0))
+            .build();
+
+        assertEquals(List.of(point("A", 1.0), point("B", 2.0), point("C", 3.0)), data.getDataPoints());
+        assertEquals(3, data.getDataSet().statistics().getCount());
+    }
+
+    @Test
+    void builder_ReplacesAppendedPointsWhenTheDataSetIsSet() {
+        ColumnarDataSet dataSet = ColumnarDataSet.builder().add("Z", 9.0, null).build();
+
+        ExtractedData data = ExtractedData.builder()
+            .dataPoint(point("A", 1.0))
+            .dataSet(dataSet)
+            .build();
+
+        assertSame(dataSet, data.getDataSet());
+    }
+
+    private static DataPoint point(String label, double value) {
+        return DataPoint.builder().label(label).value(value).build();
+    }
+}
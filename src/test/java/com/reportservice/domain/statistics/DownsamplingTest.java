@@ -0,0 +1,51 @@
+package com.reportservice.domain.statistics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DownsamplingTest {
+
+    @Test
+    void largestTriangleThreeBuckets_KeepsEndpointsAndSpikes() {
+        int n = 100_000;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = i;
+            y[i] = Math.sin(i / 5_000.0) + (i == 54_321 ? 50 : 0);
+        }
+
+        int[] kept = Downsampling.largestTriangleThreeBuckets(x, y, 800);
+
+        assertEquals(800, kept.length);
+        assertEquals(0, kept[0]);
+        assertEquals(n - 1, kept[kept.length - 1]);
+        assertTrue(Arrays.stream(kept).anyMatch(index -> index == 54_321));
+        for (int i = 1; i < kept.length; i++) {
+            assertTrue(kept[i] > kept[i - 1]);
+        }
+    }
+
+    @Test
+    void largestTriangleThreeBuckets_ReturnsAllPointsWithinThreshold() {
+        int[] kept = Downsampling.largestTriangleThreeBuckets(new double[] {0, 1, 2}, new double[] {3, 1, 2}, 10);
+
+        assertArrayEquals(new int[] {0, 1, 2}, kept);
+    }
+
+    @Test
+    void binnedMeans_AveragesPointsPerCellAndKeepsCounts() {
+        double[] x = {0, 1, 9, 10, Double.NaN};
+        double[] y = {0, 2, 10, 10, 5};
+
+        Downsampling.BinnedPoints binned = Downsampling.binnedMeans(x, y, 2, 2);
+
+        assertEquals(2, binned.size());
+        assertArrayEquals(new double[] {0.5, 9.5}, binned.x());
+        assertArrayEquals(new double[] {1.0, 10.0}, binned.y());
+        assertArrayEquals(new int[] {2, 2}, binned.counts());
+    }
+}
@@ -0,0 +1,61 @@
+package com.reportservice.domain.statistics;
+
+import com.reportservice.domain.model.StatisticsSummary;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingStatisticsTest {
+
+    @Test
+    void snapshot_ComputesMomentsAndQuantilesInOnePass() {
+        StreamingStatistics statistics = new StreamingStatistics();
+        for (int i = 1; i <= 100_000; i++) {
+            statistics.accept(i);
+            statistics.acceptLabel("label-" + (i % 5_000));
+        }
+
+        StatisticsSummary summary = statistics.snapshot();
+
+        assertEquals(100_000, summary.getCount());
+        assertEquals(1.0, summary.getMin());
+        assertEquals(100_000.0, summary.getMax());
+        assertEquals(50_000.5, summary.getMean(), 1e-6);
+        assertEquals(50_000, summary.getP50(), 500);
+        assertEquals(95_000, summary.getP95(), 300);
+        assertEquals(99_000, summary.getP99(), 100);
+        assertEquals(5_000, summary.getDistinctLabels(), 250);
+    }
+
+    @Test
+    void merge_MatchesSingleAccumulator() {
+        Random random = new Random(42);
+        StreamingStatistics whole = new StreamingStatistics();
+        StreamingStatistics left = new StreamingStatistics();
+        StreamingStatistics right = new StreamingStatistics();
+        for (int i = 0; i < 20_000; i++) {
+            double value = random.nextGaussian() * 10 + 100;
+            whole.accept(value);
+            (i % 2 == 0 ? left : right).accept(value);
+        }
+
+        left.merge(right);
+
+        assertEquals(whole.count(), left.count());
+        assertEquals(whole.mean(), left.mean(), 1e-9);
+        assertEquals(whole.variance(), left.variance(), 1e-6);
+        assertEquals(whole.quantile(0.95), left.quantile(0.95), 0.5);
+    }
+
+    @Test
+    void emptyStatistics_ReportNaN() {
+        StatisticsSummary summary = new StreamingStatistics().snapshot();
+
+        assertEquals(0, summary.getCount());
+        assertTrue(Double.isNaN(summary.getMean()));
+        assertTrue(Double.isNaN(summary.getP99()));
+        assertEquals(0, summary.getDistinctLabels());
+    }
+}
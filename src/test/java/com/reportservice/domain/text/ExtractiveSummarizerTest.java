@@ -0,0 +1,56 @@
+package com.reportservice.domain.text;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExtractiveSummarizerTest {
+
+    private final ExtractiveSummarizer summarizer = new ExtractiveSummarizer();
+
+    @Test
+    void summarize_PicksCentralSentencesInDocumentOrder() {
+        String text = """
+                Quarterly Sales Report
+
+                Sales revenue grew strongly in the third quarter across all regions.
+                The weather was pleasant for most of the quarter in the capital.
+                Revenue growth in Europe was driven by higher sales of outdoor equipment.
+
+                Region | Revenue
+                Europe | 120
+                Asia | 95
+
+                Sales in Asia also grew, adding revenue from new retail partners.
+                The office cafeteria introduced a new menu in August.
+                """;
+
+        String summary = summarizer.summarize(text, 2);
+
+        assertTrue(summary.startsWith("Sales revenue grew strongly"), summary);
+        assertTrue(summary.contains("revenue"));
+        assertFalse(summary.contains("weather"));
+        assertFalse(summary.contains("cafeteria"));
+        assertFalse(summary.contains("Quarterly Sales Report"));
+        assertFalse(summary.contains("|"));
+    }
+
+    @Test
+    void summarize_SkipsRepeatedSentences() {
+        String sentence = "Operating costs fell as the company consolidated two warehouses into one hub.";
+        String text = sentence + " " + sentence + " " + sentence
+                + " Margins improved because the consolidated hub lowered operating costs per order.";
+
+        String summary = summarizer.summarize(text, 3);
+
+        assertTrue(summary.contains(sentence));
+        assertEquals(summary.indexOf(sentence), summary.lastIndexOf(sentence));
+        assertTrue(summary.contains("Margins improved"));
+    }
+
+    @Test
+    void summarize_ReturnsEmptyWithoutProse() {
+        assertEquals("", summarizer.summarize("Region | Revenue\nEurope | 120\nAsia | 95"));
+        assertEquals("", summarizer.summarize(null));
+    }
+}
@@ -0,0 +1,68 @@
+package com.reportservice.domain.text;
+
+import com.reportservice.domain.model.TextSection;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SectionDeduplicatorTest {
+
+    private final SectionDeduplicator deduplicator = new SectionDeduplicator();
+
+    @Test
+    void deduplicate_DropsNearDuplicatesAndBoilerplate() {
+        List<TextSection> sections = List.of(
+            header("Quarterly Results"),
+            paragraph("Home"),
+            paragraph("Quarterly revenue grew by twelve percent compared to the same quarter last year, "
+                + "driven by strong demand in Europe and Asia."),
+            paragraph("Quarterly revenue grew by twelve percent compared to the same quarter last year, "
+                + "driven by strong demand in Europe and Asia!"),
+            paragraph("Operating costs fell as the company consolidated two of its warehouses into one hub."),
+            paragraph("\u00a9 2024 Example Corp. All rights reserved."),
+            paragraph("Row 1: 7"),
+            paragraph("Row 2: 14"));
+
+        List<TextSection> kept = deduplicator.deduplicate(sections);
+
+        assertEquals(List.of("Quarterly Results", sections.get(2).getContent(), sections.get(4).getContent(),
+            "Row 1: 7", "Row 2: 14"), kept.stream().map(TextSection::getContent).toList());
+        assertEquals(List.of(0, 1, 2, 3, 4), kept.stream().map(TextSection::getOrder).toList());
+    }
+
+    @Test
+    void deduplicate_DropsBannerPhrasesButKeepsProseMentioningTheirWords() {
+        List<TextSection> sections = List.of(
+            paragraph("We use cookies to improve your experience. Accept all cookies?"),
+            paragraph("Subscribe to our newsletter for weekly market updates."),
+            paragraph("Follow us on LinkedIn and X for the latest news."),
+            paragraph("Cookie sales rose by four percent as the bakery chain opened new stores."),
+            paragraph("Analysts who follow us closely expected the margin to recover by spring."),
+            paragraph("Customers can subscribe to quarterly delivery plans at a lower price."),
+            paragraph("Browsers that reject third-party cookies cut the reach of display advertising."));
+
+        List<TextSection> kept = deduplicator.deduplicate(sections);
+
+        assertEquals(sections.subList(3, 7).stream().map(TextSection::getContent).toList(),
+            kept.stream().map(TextSection::getContent).toList());
+    }
+
+    @Test
+    void deduplicate_KeepsSectionsBelowTheSimilarityThreshold() {
+        List<TextSection> sections = List.of(
+            paragraph("The northern region reported higher sales of outdoor equipment during the summer months."),
+            paragraph("The southern region reported lower sales of winter clothing during the autumn months."));
+
+        assertEquals(2, deduplicator.deduplicate(sections).size());
+    }
+
+    private static TextSection header(String content) {
+        return TextSection.builder().content(content).type(TextSection.SectionType.HEADER).build();
+    }
+
+    private static TextSection paragraph(String content) {
+        return TextSection.builder().content(content).type(TextSection.SectionType.PARAGRAPH).build();
+    }
+}
@@ -0,0 +1,172 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reportservice.domain.model.Chart;
+import com.reportservice.domain.model.ExtractedData;
+import com.reportservice.domain.model.TextSection;
+import com.theokanning.openai.completion.chat.ChatCompletionRequest;
+import com.theokanning.openai.completion.chat.ChatMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AiAnalysisAdapterTest {
+
+    private static final String NORTH =
+        "North region sold 120 units in the first quarter, well ahead of plan thanks to two new retail partners.";
+    private static final String SOUTH =
+        "South region sold 95 units in the first quarter, slightly below plan after a delayed product launch.";
+    private static final String WEST =
+        "West region sold 143 units in the first quarter, the strongest result since the region opened.";
+    private static final int CONTENT_BUDGET = 40;
+
+    @Mock
+    private OpenAiClient openAiClient;
+
+    @Mock
+    private AiResponseCache responseCache;
+
+    private final List<String> prompts = new CopyOnWriteArrayList<>();
+    private DeadlineHedge deadlineHedge;
+    private AiAnalysisAdapter adapter;
+    private String analysisOverride;
+    private String finishReason = "stop";
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        deadlineHedge = new DeadlineHedge(Duration.ZERO, Duration.ZERO, 2, 1, meterRegistry);
+        adapter = new AiAnalysisAdapter(new ObjectMapper(), responseCache, openAiClient, meterRegistry, deadlineHedge);
+        ReflectionTestUtils.setField(adapter, "model", "test-model");
+        ReflectionTestUtils.setField(adapter, "structuredAnalysis", true);
+        ReflectionTestUtils.setField(adapter, "streamingAnalysis", false);
+        ReflectionTestUtils.setField(adapter, "chunkedAnalysis", true);
+        ReflectionTestUtils.setField(adapter, "contentTokenBudget", CONTENT_BUDGET);
+
+        when(openAiClient.isAvailable()).thenReturn(true);
+        when(openAiClient.complete(any())).thenAnswer(invocation -> {
+            ChatCompletionRequest request = invocation.getArgument(0);
+            String system = request.getMessages().get(0).getContent();
+            String user = request.getMessages().get(1).getContent();
+            prompts.add(user);
+            String content = system.contains("summaries of consecutive parts") ? "Combined summary."
+                : analysisOverride != null ? analysisOverride : answer(user);
+            return new OpenAiClient.Completion(content, 10, 10, false, finishReason);
+        });
+    }
+
+    @AfterEach
+    void shutDown() {
+        deadlineHedge.shutdown();
+    }
+
+    @Test
+    void analyzeAndStructureData_AnalyzesContentWithinBudgetInOneCall() {
+        ExtractedData data = adapter.analyzeAndStructureData(NORTH, "https://example.com/north").join();
+
+        assertEquals(List.of("Data: " + NORTH), prompts);
+        assertEquals("North summary.", data.getSummary());
+        assertEquals(1, data.getDataSet().size());
+        assertNull(data.getMetadata());
+    }
+
+    @Test
+    void analyzeAndStructureData_SplitsContentOverBudgetAndMergesChunksInOrder() {
+        Executor direct = Runnable::run;
+        when(openAiClient.executor()).thenReturn(direct);
+
+        ExtractedData data = adapter.analyzeAndStructureData(NORTH + "\n\n" + SOUTH + "\n\n" + WEST,
+            "https://example.com/regions").join();
+
+        // Three chunk calls, each within the content budget, then one call condensing their summaries
+        assertEquals(4, prompts.size());
+        for (String prompt : prompts.subList(0, 3)) {
+            assertTrue(TokenEstimator.estimate(prompt.substring("Data: ".length())) <= CONTENT_BUDGET, prompt);
+        }
+        assertEquals("North summary.\n\nSouth summary.\n\nWest summary.", prompts.get(3));
+
+        assertEquals("Regional sales", data.getTitle());
+        assertEquals("Combined summary.", data.getSummary());
+        assertEquals(ExtractedData.DataType.NUMERICAL, data.getDataType());
+        assertEquals(3, data.getDataSet().size());
+        assertEquals("North", data.getDataSet().label(0));
+        assertEquals("South", data.getDataSet().label(1));
+        assertEquals("West", data.getDataSet().label(2));
+        assertEquals(143.0, data.getDataSet().value(2));
+        // Borda count: BAR 1 + 2 + 1, PIE 2, LINE 1
+        assertEquals(List.of(Chart.ChartType.BAR, Chart.ChartType.PIE, Chart.ChartType.LINE),
+            data.getRecommendedChartTypes());
+        // The outlook every chunk repeated is kept once
+        assertEquals(List.of("Demand stayed strong across every region this quarter.",
+                "North region kept its own pricing.", "South region kept its own pricing.",
+                "West region kept its own pricing."),
+            data.getTextSections().stream().map(TextSection::getContent).toList());
+        assertEquals(Map.of("analyzedChunks", 3), data.getMetadata());
+    }
+
+    @Test
+    void analyzeAndStructureData_CachesResponseOnceItParses() {
+        adapter.analyzeAndStructureData(NORTH, "https://example.com/north").join();
+
+        verify(responseCache).put(anyString(), contains("\"summary\": \"North summary.\""));
+    }
+
+    @Test
+    void analyzeAndStructureData_DoesNotCacheTruncatedResponses() {
+        finishReason = "length";
+
+        ExtractedData data = adapter.analyzeAndStructureData(NORTH, "https://example.com/north").join();
+
+        assertEquals("North summary.", data.getSummary());
+        verify(responseCache, never()).put(anyString(), anyString());
+    }
+
+    @Test
+    void analyzeAndStructureData_DoesNotCacheResponsesThatFailToParse() {
+        analysisOverride = "Title: Regional sales\nThe data could not be structured.";
+
+        ExtractedData data = adapter.analyzeAndStructureData(NORTH, "https://example.com/north").join();
+
+        assertNotNull(data.getSummary());
+        verify(responseCache, never()).put(anyString(), anyString());
+    }
+
+    /** Structured analysis of one region's paragraph, recognized by its first word. */
+    private static String answer(String prompt) {
+        String region = prompt.substring("Data: ".length()).split(" ", 2)[0];
+        String chartTypes = switch (region) {
+            case "North" -> "\"PIE\", \"BAR\"";
+            case "South" -> "\"BAR\", \"LINE\"";
+            default -> "\"BAR\"";
+        };
+        double value = switch (region) {
+            case "North" -> 120;
+            case "South" -> 95;
+            default -> 143;
+        };
+        return """
+            {"title": "Regional sales", "summary": "%1$s summary.", "dataType": "NUMERICAL",
+             "chartTypes": [%2$s],
+             "dataPoints": [{"label": "%1$s", "value": %3$s}],
+             "sections": [{"content": "Demand stayed strong across every region this quarter."},
+                          {"content": "%1$s region kept its own pricing."}]}""".formatted(region, chartTypes, value);
+    }
+}
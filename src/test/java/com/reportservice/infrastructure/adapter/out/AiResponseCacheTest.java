@@ -0,0 +1,87 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AiResponseCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void key_ChangesWithModelParametersAndPrompt() {
+        String key = AiResponseCache.key("gpt-3.5-turbo", 0.3, 200, List.of("system:a", "user:b"));
+
+        assertEquals(key, AiResponseCache.key("gpt-3.5-turbo", 0.3, 200, List.of("system:a", "user:b")));
+        assertNotEquals(key, AiResponseCache.key("gpt-4", 0.3, 200, List.of("system:a", "user:b")));
+        assertNotEquals(key, AiResponseCache.key("gpt-3.5-turbo", 0.3, 50, List.of("system:a", "user:b")));
+        assertNotEquals(key, AiResponseCache.key("gpt-3.5-turbo", 0.3, 200, List.of("system:ab", "user:")));
+    }
+
+    @Test
+    void get_ServesFromDiskAfterRestartAndTracksHitRatio() {
+        AiResponseCache first = newCache(Duration.ofHours(1));
+        first.put("k1", "cached response");
+
+        AiResponseCache restarted = newCache(Duration.ofHours(1));
+
+        assertEquals(Optional.of("cached response"), restarted.get("k1"));
+        assertEquals(Optional.of("cached response"), restarted.get("k1"));
+        assertEquals(Optional.empty(), restarted.get("k2"));
+        assertEquals(2.0 / 3.0, restarted.hitRatio(), 1e-9);
+    }
+
+    @Test
+    void get_IgnoresExpiredEntries() {
+        AiResponseCache cache = newCache(Duration.ZERO.minusMillis(1));
+        cache.put("k1", "stale");
+
+        assertTrue(cache.get("k1").isEmpty());
+    }
+
+    @Test
+    void get_ReleasesDiskBytesOfExpiredFiles() throws Exception {
+        newCache(Duration.ofHours(1)).put("k1", "stale response");
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AiResponseCache restarted = newCache(Duration.ofHours(1), registry);
+        assertEquals(14.0, registry.get("ai.cache.disk.bytes").gauge().value());
+
+        Files.setLastModifiedTime(directory.resolve("k1"), FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+
+        assertTrue(restarted.get("k1").isEmpty());
+        assertFalse(Files.exists(directory.resolve("k1")));
+        assertEquals(0.0, registry.get("ai.cache.disk.bytes").gauge().value());
+    }
+
+    @Test
+    void get_KeepsTheFileExpiryWhenPromotingADiskHit() throws Exception {
+        newCache(Duration.ofSeconds(2)).put("k1", "cached response");
+        AiResponseCache restarted = newCache(Duration.ofSeconds(2));
+        Files.setLastModifiedTime(directory.resolve("k1"), FileTime.from(Instant.now().minusMillis(1500)));
+
+        assertEquals(Optional.of("cached response"), restarted.get("k1"));
+        Thread.sleep(600);
+
+        assertTrue(restarted.get("k1").isEmpty());
+    }
+
+    private AiResponseCache newCache(Duration ttl) {
+        return newCache(ttl, new SimpleMeterRegistry());
+    }
+
+    private AiResponseCache newCache(Duration ttl, SimpleMeterRegistry registry) {
+        return new AiResponseCache(true, 10, ttl, directory.toString(), DataSize.ofMegabytes(1), registry);
+    }
+}
@@ -0,0 +1,233 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import com.reportservice.domain.model.Chart;
+import com.reportservice.domain.model.ColumnarDataSet;
+import com.reportservice.domain.model.ExtractedData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+
+class ChartGenerationAdapterTest {
+
+    private final ChartGenerationAdapter adapter = new ChartGenerationAdapter(
+        new ChartImageCache(false, DataSize.ofMegabytes(1), "", DataSize.ofMegabytes(1), new SimpleMeterRegistry()),
+        new ChartPngEncoder(ChartPngEncoder.Compression.FAST, true), 2, false);
+
+    @AfterEach
+    void tearDown() {
+        adapter.shutdown();
+    }
+
+    @Test
+    void generateCharts_DrawsManyCategoriesAsSmallMultiplesEvenWhenALineIsRecommended() {
+        ExtractedData data = ExtractedData.builder()
+            .title("Regional sales")
+            .dataSet(regions(6, 3))
+            .recommendedChartType(Chart.ChartType.LINE)
+            .build();
+
+        List<Chart> charts = adapter.generateCharts(data).join();
+
+        assertEquals(Chart.ChartType.SMALL_MULTIPLES, charts.get(0).getType());
+        assertEquals("Regional sales", charts.get(0).getTitle());
+        assertTrue(charts.get(0).getImageData().length > 0);
+    }
+
+    @Test
+    void generateCharts_LeavesOutOnlyTheChartThatFailsToRender() {
+        ChartGenerationAdapter failingScatter = spy(adapter);
+        doThrow(new IllegalStateException("broken renderer"))
+            .when(failingScatter).createDrawing(eq(Chart.ChartType.SCATTER), any(), any(), anyInt(), anyInt());
+        ExtractedData data = ExtractedData.builder()
+            .dataSet(regions(2, 6))
+            .recommendedChartType(Chart.ChartType.LINE)
+            .build();
+
+        List<Chart> charts = failingScatter.generateCharts(data).join();
+
+        assertEquals(List.of(Chart.ChartType.LINE, Chart.ChartType.PIE), charts.stream().map(Chart::getType).toList());
+    }
+
+    @Test
+    void generateCharts_RendersOnTheRenderPoolWithoutBlockingTheCaller() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Set<String> renderThreads = ConcurrentHashMap.newKeySet();
+        ChartGenerationAdapter blocking = spy(adapter);
+        doAnswer(invocation -> {
+            renderThreads.add(Thread.currentThread().getName());
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return invocation.callRealMethod();
+        }).when(blocking).createDrawing(any(), any(), any(), anyInt(), anyInt());
+        ExtractedData data = ExtractedData.builder().dataSet(regions(2, 6)).build();
+
+        CompletableFuture<List<Chart>> charts = blocking.generateCharts(data);
+
+        assertFalse(charts.isDone());
+        release.countDown();
+        assertEquals(3, charts.get(5, TimeUnit.SECONDS).size());
+        assertFalse(renderThreads.isEmpty());
+        assertTrue(renderThreads.stream().allMatch(name -> name.startsWith("chart-render-")), renderThreads.toString());
+    }
+
+    @Test
+    void primaryChartType_KeepsTheRecommendationWhenOneLegendFits() {
+        ColumnarDataSet fewCategories = regions(5, 3);
+        ColumnarDataSet manyCategories = regions(6, 3);
+
+        assertEquals(Chart.ChartType.LINE,
+            ChartGenerationAdapter.primaryChartType(List.of(Chart.ChartType.LINE), fewCategories));
+        assertEquals(Chart.ChartType.SMALL_MULTIPLES,
+            ChartGenerationAdapter.primaryChartType(List.of(Chart.ChartType.BAR), manyCategories));
+        assertEquals(Chart.ChartType.PIE,
+            ChartGenerationAdapter.primaryChartType(List.of(Chart.ChartType.PIE), manyCategories));
+        assertEquals(Chart.ChartType.SMALL_MULTIPLES,
+            ChartGenerationAdapter.primaryChartType(List.of(), manyCategories));
+        assertEquals(Chart.ChartType.LINE,
+            ChartGenerationAdapter.primaryChartType(List.of(), regions(6, 2)));
+    }
+
+    @Test
+    void smallMultiplesPanels_KeepsTheLargestCategoriesInFirstSeenOrder() {
+        ColumnarDataSet dataSet = ColumnarDataSet.builder()
+            .add("a", 1.0, "Small")
+            .add("b", 100.0, "Large")
+            .add("c", 10.0, "Medium")
+            .add("d", 1.0, "Small")
+            .add("e", 100.0, "Large")
+            .add("f", 10.0, "Medium")
+            .build();
+
+        List<SmallMultiplesChart.Panel> panels = ChartGenerationAdapter.smallMultiplesPanels(dataSet, 2, 10);
+
+        assertEquals(List.of("Large", "Medium"), panels.stream().map(SmallMultiplesChart.Panel::name).toList());
+        assertArrayEquals(new double[] {0, 1}, panels.get(0).x());
+        assertArrayEquals(new double[] {100.0, 100.0}, panels.get(0).y());
+    }
+
+    @Test
+    void smallMultiplesPanels_ReducesEachPanelToThePointBudgetOnEpochDays() {
+        List<SmallMultiplesChart.Panel> panels =
+            ChartGenerationAdapter.smallMultiplesPanels(regions(2, 20), 24, 5);
+
+        long firstDay = LocalDate.of(2024, 1, 1).toEpochDay();
+        assertEquals(2, panels.size());
+        for (SmallMultiplesChart.Panel panel : panels) {
+            assertEquals(5, panel.x().length);
+            assertEquals(firstDay, panel.x()[0]);
+            assertEquals(firstDay + 19, panel.x()[4]);
+        }
+    }
+
+    @Test
+    void onEpochDays_OnlyWhenEveryRowHasADate() {
+        LocalDate day = LocalDate.of(2024, 1, 1);
+        ColumnarDataSet partlyDated = ColumnarDataSet.builder()
+            .add("a", 1.0, "North", day, null, null)
+            .add("b", 2.0, "North", null, null, null)
+            .build();
+
+        assertTrue(ChartGenerationAdapter.onEpochDays(regions(2, 3)));
+        assertFalse(ChartGenerationAdapter.onEpochDays(partlyDated));
+        assertFalse(ChartGenerationAdapter.onEpochDays(ColumnarDataSet.builder().add("a", 1.0, "North").build()));
+    }
+
+    @Test
+    void chartToImage_EncodesEveryChartTypeWithAPalette() {
+        for (Chart.ChartType type : Chart.ChartType.values()) {
+            Chart chart = Chart.builder().type(type).title("Sales").dataSet(regions(6, 30)).build();
+
+            byte[] png = adapter.chartToImage(chart, Chart.ImageTarget.DOCX);
+
+            assertEquals(3, png[25], type + " color type in IHDR");
+        }
+    }
+
+    @Test
+    void imageTarget_ScalesThePointSizeToItsResolution() {
+        assertEquals(320, Chart.ImageTarget.PREVIEW.pixelWidth());
+        assertEquals(240, Chart.ImageTarget.PREVIEW.pixelHeight());
+        assertEquals(800, Chart.ImageTarget.DOCX.pixelWidth());
+        assertEquals(600, Chart.ImageTarget.DOCX.pixelHeight());
+    }
+
+    @Test
+    void chartToImage_RendersEachTargetAtItsPixelSize() throws Exception {
+        Chart chart = adapter.generateChart(Chart.ChartType.LINE, regions(2, 6), "Sales").get(5, TimeUnit.SECONDS);
+
+        for (Chart.ImageTarget target : Chart.ImageTarget.values()) {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(adapter.chartToImage(chart, target)));
+            assertEquals(target.pixelWidth(), image.getWidth(), target + " width");
+            assertEquals(target.pixelHeight(), image.getHeight(), target + " height");
+        }
+        BufferedImage preview = ImageIO.read(new ByteArrayInputStream(chart.getImageData()));
+        assertEquals(Chart.ImageTarget.PREVIEW.pixelWidth(), preview.getWidth());
+        assertEquals(Chart.ImageTarget.PREVIEW.pixelHeight(), preview.getHeight());
+    }
+
+    @Test
+    void chartToImage_SharesOneRenderBetweenConcurrentRequestsWithoutACache() throws Exception {
+        CountDownLatch rendering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger renders = new AtomicInteger();
+        ChartGenerationAdapter counting = spy(adapter);
+        doAnswer(invocation -> {
+            renders.incrementAndGet();
+            rendering.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return invocation.callRealMethod();
+        }).when(counting).createDrawing(any(), any(), any(), anyInt(), anyInt());
+        Chart chart = Chart.builder().type(Chart.ChartType.BAR).title("Sales").dataSet(regions(2, 6)).build();
+
+        CompletableFuture<byte[]> first = CompletableFuture.supplyAsync(
+            () -> counting.chartToImage(chart, Chart.ImageTarget.DOCX));
+        assertTrue(rendering.await(5, TimeUnit.SECONDS));
+        AtomicReference<byte[]> second = new AtomicReference<>();
+        Thread waiting = new Thread(() -> second.set(counting.chartToImage(chart, Chart.ImageTarget.DOCX)));
+        waiting.start();
+        // The second request parks on the first one's render instead of starting its own
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (waiting.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        waiting.join(5_000);
+
+        assertEquals(1, renders.get());
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get());
+    }
+
+    /** {@code days} dated values for each of {@code regions} categories. */
+    private static ColumnarDataSet regions(int regions, int days) {
+        ColumnarDataSet.Builder dataSet = ColumnarDataSet.builder();
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        for (int day = 0; day < days; day++) {
+            for (int region = 0; region < regions; region++) {
+                dataSet.add("Day " + day, (double) (region * 10 + day % 4), "Region " + region,
+                    start.plusDays(day), null, null);
+            }
+        }
+        return dataSet.build();
+    }
+}
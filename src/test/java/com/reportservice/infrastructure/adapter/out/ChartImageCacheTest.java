@@ -0,0 +1,81 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import com.reportservice.domain.model.Chart;
+import com.reportservice.domain.model.ColumnarDataSet;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChartImageCacheTest {
+
+    private static final String ENCODING = new ChartPngEncoder(ChartPngEncoder.Compression.BALANCED, true).settings();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void key_ChangesWithTypeTitleSizeResolutionEncodingAndData() {
+        ColumnarDataSet data = ColumnarDataSet.builder().add("A", 1.0, "X").add("B", 2.0, "X").build();
+        String key = ChartImageCache.key(Chart.ChartType.BAR, "Sales", 800, 600, 72, ENCODING, data);
+
+        assertEquals(key, ChartImageCache.key(Chart.ChartType.BAR, "Sales", 800, 600, 72, ENCODING,
+            ColumnarDataSet.builder().add("A", 1.0, "X").add("B", 2.0, "X").build()));
+        assertNotEquals(key, ChartImageCache.key(Chart.ChartType.PIE, "Sales", 800, 600, 72, ENCODING, data));
+        assertNotEquals(key, ChartImageCache.key(Chart.ChartType.BAR, "Revenue", 800, 600, 72, ENCODING, data));
+        assertNotEquals(key, ChartImageCache.key(Chart.ChartType.BAR, "Sales", 400, 300, 72, ENCODING, data));
+        assertNotEquals(key, ChartImageCache.key(Chart.ChartType.BAR, "Sales", 800, 600, 144, ENCODING, data));
+        assertNotEquals(key, ChartImageCache.key(Chart.ChartType.BAR, "Sales", 800, 600, 72,
+            new ChartPngEncoder(ChartPngEncoder.Compression.BALANCED, false).settings(), data));
+        assertNotEquals(key, ChartImageCache.key(Chart.ChartType.BAR, "Sales", 800, 600, 72,
+            new ChartPngEncoder(ChartPngEncoder.Compression.MAX, true).settings(), data));
+        assertNotEquals(key, ChartImageCache.key(Chart.ChartType.BAR, "Sales", 800, 600, 72, ENCODING,
+            ColumnarDataSet.builder().add("A", 1.0, "X").add("B", 2.5, "X").build()));
+    }
+
+    @Test
+    void get_RendersOnceAndServesFromDiskAfterRestart() {
+        AtomicInteger renders = new AtomicInteger();
+        ChartImageCache first = newCache(DataSize.ofMegabytes(1));
+
+        first.get("k1", () -> image(100, renders));
+        first.get("k1", () -> image(100, renders));
+        ChartImageCache restarted = newCache(DataSize.ofMegabytes(1));
+
+        assertEquals(1, renders.get());
+        assertEquals(100, restarted.get("k1").map(bytes -> bytes.length).orElse(0));
+        assertEquals(1.0, restarted.hitRatio());
+    }
+
+    @Test
+    void put_EvictsLeastRecentlyUsedImagesBeyondMemoryBudget() {
+        ChartImageCache cache = new ChartImageCache(true, DataSize.ofBytes(250), "", DataSize.ofMegabytes(1),
+            new SimpleMeterRegistry());
+        cache.put("k1", new byte[100]);
+        cache.put("k2", new byte[100]);
+        cache.get("k1");
+
+        cache.put("k3", new byte[100]);
+
+        assertTrue(cache.get("k1").isPresent());
+        assertEquals(Optional.empty(), cache.get("k2"));
+        assertTrue(cache.get("k3").isPresent());
+        assertEquals(200, cache.memoryBytes());
+    }
+
+    private ChartImageCache newCache(DataSize maxMemorySize) {
+        return new ChartImageCache(true, maxMemorySize, directory.toString(), DataSize.ofMegabytes(1),
+            new SimpleMeterRegistry());
+    }
+
+    private static byte[] image(int size, AtomicInteger renders) {
+        renders.incrementAndGet();
+        return new byte[size];
+    }
+}
@@ -0,0 +1,82 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChartPngEncoderTest {
+
+    @Test
+    void encode_IsLosslessInEveryMode() throws IOException {
+        for (boolean antialiased : new boolean[] {false, true}) {
+            BufferedImage chart = chart(antialiased);
+            for (ChartPngEncoder.Compression compression : ChartPngEncoder.Compression.values()) {
+                for (boolean palette : new boolean[] {false, true}) {
+                    assertSamePixels(chart, new ChartPngEncoder(compression, palette).encode(chart));
+                }
+            }
+        }
+    }
+
+    @Test
+    void encode_UsesPaletteForFlatChartsAndKeepsTranslucency() throws IOException {
+        BufferedImage chart = chart(false);
+        byte[] indexed = new ChartPngEncoder(ChartPngEncoder.Compression.BALANCED, true).encode(chart);
+        byte[] truecolor = new ChartPngEncoder(ChartPngEncoder.Compression.BALANCED, false).encode(chart);
+        assertEquals(3, indexed[25], "color type in IHDR");
+        assertTrue(indexed.length < truecolor.length);
+
+        BufferedImage translucent = new BufferedImage(40, 30, BufferedImage.TYPE_INT_ARGB);
+        translucent.setRGB(5, 5, 0x80FF0000);
+        assertSamePixels(translucent, new ChartPngEncoder(ChartPngEncoder.Compression.FAST, true).encode(translucent));
+    }
+
+    private static void assertSamePixels(BufferedImage expected, byte[] png) throws IOException {
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(png));
+        assertEquals(expected.getWidth(), decoded.getWidth());
+        assertEquals(expected.getHeight(), decoded.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getRGB(x, y), decoded.getRGB(x, y), "pixel " + x + "," + y);
+            }
+        }
+    }
+
+    private static BufferedImage chart(boolean antialiased) {
+        BufferedImage image = new BufferedImage(320, 240, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        if (antialiased) {
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        }
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, 320, 240);
+        graphics.setColor(Color.LIGHT_GRAY);
+        for (int i = 0; i < 5; i++) {
+            graphics.drawLine(30, 40 + i * 40, 310, 40 + i * 40);
+        }
+        Color[] colors = {new Color(31, 119, 180), new Color(255, 127, 14), new Color(44, 160, 44)};
+        for (int i = 0; i < 8; i++) {
+            graphics.setColor(colors[i % 3]);
+            graphics.fillRect(40 + i * 33, 220 - i * 20, 22, i * 20);
+        }
+        graphics.setColor(Color.BLACK);
+        graphics.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 14));
+        graphics.drawString("Revenue", 120, 24);
+        graphics.setStroke(new BasicStroke(2f));
+        graphics.setColor(Color.RED);
+        graphics.drawPolyline(new int[] {30, 120, 200, 310}, new int[] {150, 90, 170, 60}, 4);
+        graphics.dispose();
+        return image;
+    }
+}
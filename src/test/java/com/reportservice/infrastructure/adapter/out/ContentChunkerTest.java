@@ -0,0 +1,61 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentChunkerTest {
+
+    @Test
+    void split_KeepsContentWithinBudgetAsOneChunk() {
+        assertEquals(List.of("Short text."), ContentChunker.split("  Short text.\n", 100));
+        assertTrue(ContentChunker.split("  \n ", 100).isEmpty());
+        assertTrue(ContentChunker.split(null, 100).isEmpty());
+    }
+
+    @Test
+    void split_CutsAtParagraphsBeforeLinesAndSentences() {
+        String first = "First paragraph has several plain words in it.";
+        String second = "Second paragraph also has several plain words.";
+        String third = "Third paragraph closes the document with words.";
+
+        List<String> chunks = ContentChunker.split(first + "\n\n" + second + "\n" + third, 20);
+
+        assertEquals(List.of(first, second, third), chunks);
+    }
+
+    @Test
+    void split_BoundsEveryChunkByEstimatedTokens() {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            content.append("Sentence ").append(i).append(" describes the quarter in plain words. ");
+        }
+        // A table of figures is far denser in tokens than the surrounding prose
+        for (int i = 0; i < 200; i++) {
+            content.append("\n").append(i).append(",").append(i * 7).append(",").append(i * 13).append(";");
+        }
+        String text = content.toString();
+
+        List<String> chunks = ContentChunker.split(text, 150);
+
+        assertTrue(chunks.size() > 1);
+        for (String chunk : chunks) {
+            assertTrue(TokenEstimator.estimate(chunk) <= 150, "tokens: " + TokenEstimator.estimate(chunk));
+        }
+        assertEquals(text.replaceAll("\\s+", ""), String.join("", chunks).replaceAll("\\s+", ""));
+    }
+
+    @Test
+    void split_CutsMidWordOnlyWithoutAnyBoundary() {
+        String word = "x".repeat(100);
+
+        List<String> chunks = ContentChunker.split(word, 5);
+
+        assertEquals(word, String.join("", chunks));
+        for (String chunk : chunks) {
+            assertTrue(TokenEstimator.estimate(chunk) <= 5);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadlineHedgeTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final DeadlineHedge hedge = new DeadlineHedge(Duration.ofMillis(50), Duration.ofMillis(200), 1, 1, registry);
+
+    @AfterEach
+    void shutDown() {
+        hedge.shutdown();
+    }
+
+    @Test
+    void call_ReturnsFastModelResultWithoutRunningFallback() throws Exception {
+        String result = hedge.call("summary", () -> "model", () -> fail("fallback should not run"))
+            .get(1, TimeUnit.SECONDS);
+
+        assertEquals("model", result);
+        assertEquals(1.0, count("ai"));
+    }
+
+    @Test
+    void call_PrefersModelResultBetweenSoftAndHardDeadline() throws Exception {
+        String result = hedge.call("summary", () -> sleepThen(120, "model"), () -> "fallback")
+            .get(1, TimeUnit.SECONDS);
+
+        assertEquals("model", result);
+        assertEquals(1.0, count("ai_after_soft_deadline"));
+    }
+
+    @Test
+    void call_ReturnsFallbackAtHardDeadlineAndCountsLateResult() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        String result = hedge.call("summary", () -> {
+            await(release);
+            return "model";
+        }, () -> "fallback").get(1, TimeUnit.SECONDS);
+
+        assertEquals("fallback", result);
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200));
+        assertEquals(1.0, count("fallback_after_hard_deadline"));
+
+        release.countDown();
+        long deadline = System.currentTimeMillis() + 1_000;
+        while (registry.counter("ai.hedge.late", "operation", "summary").count() == 0
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1.0, registry.counter("ai.hedge.late", "operation", "summary").count());
+    }
+
+    @Test
+    void call_FallsBackImmediatelyOnError() throws Exception {
+        String result = hedge.call("summary", () -> {
+            throw new IllegalStateException("rate limited");
+        }, () -> "fallback").get(1, TimeUnit.SECONDS);
+
+        assertEquals("fallback", result);
+        assertEquals(1.0, count("fallback_after_error"));
+    }
+
+    @Test
+    void call_RunsFallbackWhileEveryCallThreadIsBlocked() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<String> callThread = new AtomicReference<>();
+        AtomicReference<String> fallbackThread = new AtomicReference<>();
+        try {
+            // The only call thread is held by the first call, so the second call cannot start
+            CompletableFuture<String> first = hedge.call("summary", () -> {
+                callThread.set(Thread.currentThread().getName());
+                await(release);
+                return "model";
+            }, () -> "first fallback");
+            CompletableFuture<String> second = hedge.call("summary", () -> "model", () -> {
+                fallbackThread.set(Thread.currentThread().getName());
+                return "second fallback";
+            });
+
+            assertEquals("first fallback", first.get(1, TimeUnit.SECONDS));
+            assertEquals("second fallback", second.get(1, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+        assertTrue(callThread.get().startsWith("ai-hedge-call-"), callThread.get());
+        assertTrue(fallbackThread.get().startsWith("ai-hedge-fallback-"), fallbackThread.get());
+    }
+
+    private double count(String outcome) {
+        return registry.counter("ai.hedge.results", "operation", "summary", "outcome", outcome).count();
+    }
+
+    private static String sleepThen(long millis, String value) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import com.reportservice.domain.model.Chart;
+import com.reportservice.domain.model.ColumnarDataSet;
+import org.apache.poi.xwpf.usermodel.XWPFChart;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.openxmlformats.schemas.drawingml.x2006.chart.STDispBlanksAs;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DocxChartWriterTest {
+
+    private final ColumnarDataSet data = ColumnarDataSet.builder()
+        .add("Q1", 10.0, "North")
+        .add("Q2", 12.0, "North")
+        .add("Q1", 7.0, "South")
+        .build();
+
+    @Test
+    void barTable_PlotsLabelsAgainstOneSeriesPerCategory() {
+        DocxChartWriter.SeriesTable table = DocxChartWriter.barTable(data);
+
+        assertArrayEquals(new String[] {"Q1", "Q2"}, table.categories());
+        assertEquals(List.of("North", "South"), List.copyOf(table.series().keySet()));
+        assertArrayEquals(new Double[] {10.0, 12.0}, table.series().get("North"));
+        assertArrayEquals(new Double[] {7.0, 0.0}, table.series().get("South"));
+    }
+
+    @Test
+    void lineTable_AlignsSeriesByDate() {
+        LocalDate day = LocalDate.of(2024, 1, 1);
+        ColumnarDataSet dated = ColumnarDataSet.builder()
+            .add("a", 10.0, "North", day, null, null)
+            .add("b", 11.0, "North", day.plusDays(1), null, null)
+            .add("c", 12.0, "North", day.plusDays(2), null, null)
+            .add("d", 6.0, "South", day.plusDays(2), null, null)
+            .add("e", 5.0, "South", day.plusDays(1), null, null)
+            .build();
+
+        DocxChartWriter.SeriesTable table = DocxChartWriter.lineTable(dated);
+
+        assertArrayEquals(new String[] {"2024-01-01", "2024-01-02", "2024-01-03"}, table.categories());
+        assertArrayEquals(new Double[] {10.0, 11.0, 12.0}, table.series().get("North"));
+        assertArrayEquals(new Double[] {null, 5.0, 6.0}, table.series().get("South"));
+        assertTrue(table.isComplete());
+    }
+
+    @Test
+    void write_SpansTheGapsOfDownsampledSeriesOnDifferentDates() throws Exception {
+        int points = ChartGenerationAdapter.LINE_POINTS_PER_SERIES * 2;
+        LocalDate day = LocalDate.of(2024, 1, 1);
+        ColumnarDataSet.Builder interleaved = ColumnarDataSet.builder(points * 2);
+        for (int i = 0; i < points; i++) {
+            interleaved.add("n" + i, Math.sin(i / 10.0), "North", day.plusDays(2L * i), null, null);
+            interleaved.add("s" + i, Math.cos(i / 10.0), "South", day.plusDays(2L * i + 1), null, null);
+        }
+        ColumnarDataSet dataSet = interleaved.build();
+
+        // Each series keeps its own dates, so each leaves every date the other kept empty
+        DocxChartWriter.SeriesTable table = DocxChartWriter.lineTable(dataSet);
+        assertEquals(2 * ChartGenerationAdapter.LINE_POINTS_PER_SERIES, table.categories().length);
+        for (Double[] values : table.series().values()) {
+            assertEquals(ChartGenerationAdapter.LINE_POINTS_PER_SERIES,
+                Arrays.stream(values).filter(Objects::nonNull).count());
+        }
+
+        Chart chart = Chart.builder().type(Chart.ChartType.LINE).title("Daily").dataSet(dataSet).build();
+        try (XWPFDocument document = new XWPFDocument()) {
+            assertTrue(new DocxChartWriter(true).write(document, chart));
+            assertEquals(STDispBlanksAs.SPAN, document.getCharts().get(0).getCTChart().getDispBlanksAs().getVal());
+        }
+    }
+
+    @Test
+    void write_AddsEditableChartWithEmbeddedData() throws Exception {
+        Chart chart = Chart.builder().type(Chart.ChartType.BAR).title("Sales").dataSet(data).build();
+
+        try (XWPFDocument document = new XWPFDocument()) {
+            assertTrue(new DocxChartWriter(true).write(document, chart));
+
+            List<XWPFChart> charts = document.getCharts();
+            assertEquals(1, charts.size());
+            assertEquals(2, charts.get(0).getCTChart().getPlotArea().getBarChartArray(0).sizeOfSerArray());
+            assertNotNull(charts.get(0).getWorkbook());
+        }
+    }
+
+    @Test
+    void write_LeavesDocumentUntouchedWhenDisabled() throws Exception {
+        Chart chart = Chart.builder().type(Chart.ChartType.PIE).title("Sales").dataSet(data).build();
+
+        try (XWPFDocument document = new XWPFDocument()) {
+            assertFalse(new DocxChartWriter(false).write(document, chart));
+            assertTrue(document.getCharts().isEmpty());
+            assertTrue(document.getParagraphs().isEmpty());
+        }
+    }
+
+    @Test
+    void write_LeavesDocumentUntouchedWhenValuesCannotBeCharted() throws Exception {
+        ColumnarDataSet overflowing = ColumnarDataSet.builder()
+            .add("Q1", 10.0, "North")
+            .add("Q2", Double.POSITIVE_INFINITY, "North")
+            .build();
+        Chart chart = Chart.builder().type(Chart.ChartType.BAR).title("Sales").dataSet(overflowing).build();
+
+        try (XWPFDocument document = new XWPFDocument()) {
+            assertFalse(new DocxChartWriter(true).write(document, chart));
+            assertTrue(document.getCharts().isEmpty());
+            assertTrue(document.getParagraphs().isEmpty());
+        }
+    }
+
+    @Test
+    void seriesTable_IsCompleteOnlyWhenEverySeriesSpansTheAxis() {
+        String[] axis = {"Q1", "Q2"};
+
+        assertTrue(new DocxChartWriter.SeriesTable(axis, Map.of("North", new Double[] {1.0, null})).isComplete());
+        assertFalse(new DocxChartWriter.SeriesTable(axis, Map.of("North", new Double[] {1.0})).isComplete());
+        assertFalse(new DocxChartWriter.SeriesTable(axis, Map.of("North", new Double[] {1.0, Double.NaN})).isComplete());
+        assertFalse(new DocxChartWriter.SeriesTable(new String[0], Map.of("North", new Double[0])).isComplete());
+        assertFalse(new DocxChartWriter.SeriesTable(axis, Map.of()).isComplete());
+    }
+}
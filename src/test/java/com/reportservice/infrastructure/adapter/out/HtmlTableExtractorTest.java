@@ -0,0 +1,110 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import com.reportservice.domain.model.ColumnarDataSet;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HtmlTableExtractorTest {
+
+    private final HtmlTableExtractor extractor = new HtmlTableExtractor(ForkJoinPool.commonPool());
+
+    @Test
+    void parseNumber_StripsCommonDecorations() {
+        assertEquals(1234.5, HtmlTableExtractor.parseNumber("$1,234.50"));
+        assertEquals(-12.0, HtmlTableExtractor.parseNumber("-12 %"));
+        assertEquals(-3.5, HtmlTableExtractor.parseNumber("(3.5)"));
+        assertEquals(1.5e7, HtmlTableExtractor.parseNumber("1.5E7"));
+        assertEquals(2.5e-3, HtmlTableExtractor.parseNumber("2.5e-3"));
+        assertEquals(1_000_000.0, HtmlTableExtractor.parseNumber("€ 1 000 000"));
+    }
+
+    @Test
+    void parseNumber_RejectsText() {
+        assertTrue(Double.isNaN(HtmlTableExtractor.parseNumber("")));
+        assertTrue(Double.isNaN(HtmlTableExtractor.parseNumber("n/a")));
+        assertTrue(Double.isNaN(HtmlTableExtractor.parseNumber("Q1 2024")));
+        assertTrue(Double.isNaN(HtmlTableExtractor.parseNumber("$")));
+        assertTrue(Double.isNaN(HtmlTableExtractor.parseNumber("1.2.3")));
+    }
+
+    @Test
+    void parseNumber_RejectsSpacesThatDoNotSeparateThousands() {
+        assertTrue(Double.isNaN(HtmlTableExtractor.parseNumber("10 20")));
+        assertTrue(Double.isNaN(HtmlTableExtractor.parseNumber("2024 12 31")));
+        assertTrue(Double.isNaN(HtmlTableExtractor.parseNumber("1 0000")));
+        assertTrue(Double.isNaN(HtmlTableExtractor.parseNumber("1.5 000")));
+    }
+
+    @Test
+    void extract_ReadsEveryNumericColumnLabelledByFirstTextColumn() {
+        List<HtmlTableExtractor.ExtractedTable> tables = extractor.extract(tables("""
+            <table>
+              <caption>Sales by region</caption>
+              <thead><tr><th>Region</th><th>Revenue</th><th>Units</th><th>Note</th></tr></thead>
+              <tbody>
+                <tr><td>North</td><td>$1,200</td><td>10</td><td>steady</td></tr>
+                <tr><td>South</td><td>950</td><td></td><td>new</td></tr>
+              </tbody>
+            </table>
+            <table><tr><td>only one row</td></tr></table>
+            """));
+
+        assertEquals(1, tables.size());
+        HtmlTableExtractor.ExtractedTable table = tables.get(0);
+        assertEquals("Sales by region", table.table().getTitle());
+        assertEquals(List.of("Region", "Revenue", "Units", "Note"), table.table().getHeaders());
+        assertEquals(List.of("South", "950", "", "new"), table.table().getRows().get(1));
+
+        ColumnarDataSet dataSet = table.dataSet();
+        assertEquals(3, dataSet.size());
+        assertEquals("North", dataSet.label(0));
+        assertEquals("Revenue", dataSet.category(0));
+        assertEquals(1200.0, dataSet.value(0));
+        assertEquals("South", dataSet.label(1));
+        assertEquals("Units", dataSet.category(2));
+        assertEquals(10.0, dataSet.value(2));
+    }
+
+    @Test
+    void extract_NamesColumnsWhenTableHasNoHeaderRow() {
+        HtmlTableExtractor.ExtractedTable table = extractor.extract(tables("""
+            <table><tr><td>1</td><td>2</td></tr><tr><td>3</td><td>4</td></tr></table>
+            """)).get(0);
+
+        assertEquals("Table 1", table.table().getTitle());
+        assertEquals(List.of("Column 1", "Column 2"), table.table().getHeaders());
+        assertEquals(4, table.dataSet().size());
+        assertEquals("Row 1", table.dataSet().label(0));
+    }
+
+    @Test
+    void extract_KeepsRowOrderAcrossParallelChunks() {
+        int rowCount = 5_001;
+        StringBuilder html = new StringBuilder("<table><tr><th>Item</th><th>Value</th></tr>");
+        for (int i = 0; i < rowCount; i++) {
+            html.append("<tr><td>Item ").append(i).append("</td><td>").append(i).append("</td></tr>");
+        }
+        html.append("</table>");
+
+        HtmlTableExtractor.ExtractedTable table = extractor.extract(tables(html.toString())).get(0);
+
+        ColumnarDataSet dataSet = table.dataSet();
+        assertEquals(rowCount, dataSet.size());
+        for (int i = 0; i < rowCount; i++) {
+            assertEquals("Item " + i, dataSet.label(i));
+            assertEquals(i, dataSet.value(i));
+        }
+        assertEquals(100, table.table().getRows().size());
+        assertTrue(table.table().getDescription().contains("showing first 100 rows"));
+    }
+
+    private static List<Element> tables(String html) {
+        return Jsoup.parse(html).select("table");
+    }
+}
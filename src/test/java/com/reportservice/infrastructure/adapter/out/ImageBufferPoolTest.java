@@ -0,0 +1,40 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageBufferPoolTest {
+
+    private final ImageBufferPool pool = new ImageBufferPool(2);
+
+    @Test
+    void acquire_ReusesReleasedImageClearedToTransparent() {
+        BufferedImage first = pool.acquire(80, 60);
+        Graphics2D graphics = first.createGraphics();
+        graphics.setColor(Color.RED);
+        graphics.fillRect(0, 0, 80, 60);
+        graphics.dispose();
+        pool.release(first);
+
+        BufferedImage second = pool.acquire(80, 60);
+
+        assertSame(first, second);
+        assertEquals(0, second.getRGB(10, 10));
+        assertNotSame(second, pool.acquire(40, 30));
+    }
+
+    @Test
+    void release_KeepsAtMostMaxIdleImagesPerSize() {
+        pool.release(new BufferedImage(80, 60, BufferedImage.TYPE_INT_ARGB));
+        pool.release(new BufferedImage(80, 60, BufferedImage.TYPE_INT_ARGB));
+        pool.release(new BufferedImage(80, 60, BufferedImage.TYPE_INT_ARGB));
+
+        assertEquals(2, pool.idleCount(80, 60));
+        assertEquals(0, pool.idleCount(40, 30));
+    }
+}
@@ -0,0 +1,107 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reportservice.domain.model.ColumnarDataSet;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NdjsonStreamingExtractorTest {
+
+    @Test
+    void extract_InfersFieldsAndTimestampAndSkipsUnusableRecords() throws IOException {
+        String lines = """
+            {"timestamp": "2024-03-01T00:00:00Z", "cpu": 10, "mem": 512, "host": "a"}
+            {not json
+            {"timestamp": "2024-03-01T00:00:01Z", "cpu": 30, "mem": "256", "host": "b"}
+
+            {"cpu": 99, "host": "no timestamp"}
+            {"timestamp": "2024-03-01T00:00:02Z", "cpu": 20, "host": "c"}
+            """;
+
+        NdjsonStreamingExtractor.Result result = extractor(List.of(), null, 2).extract(reader(lines));
+
+        assertEquals(List.of("cpu", "mem"), result.fields());
+        assertEquals("timestamp", result.timestampField());
+        assertEquals(3, result.records());
+        assertEquals(2, result.skipped());
+
+        ColumnarDataSet dataSet = result.dataSet();
+        assertEquals(5, dataSet.size());
+        assertEquals("2024-03-01T00:00", dataSet.label(0));
+        assertEquals("cpu", dataSet.category(0));
+        assertEquals(10.0, dataSet.value(0));
+        assertEquals(LocalDate.of(2024, 3, 1), dataSet.date(0));
+        // Numeric text is accepted for projected fields
+        assertEquals("mem", dataSet.category(3));
+        assertEquals(256.0, dataSet.value(3));
+        assertEquals("2024-03-01T00:00:02", dataSet.label(4));
+        assertEquals(5, result.statistics().count());
+    }
+
+    @Test
+    void extract_DoublesBucketWidthToStayWithinBucketLimit() throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < 1_200; i++) {
+            lines.append("{\"v\": ").append(i).append("}\n");
+        }
+
+        NdjsonStreamingExtractor.Result result = extractor(List.of("v"), null, 100).extract(reader(lines.toString()));
+
+        assertNull(result.timestampField());
+        assertEquals(1_200, result.records());
+        // Widths 1 and 2 overflow 500 buckets, so records end up in buckets of four
+        ColumnarDataSet dataSet = result.dataSet();
+        assertEquals(300, dataSet.size());
+        assertEquals("Records 1-4", dataSet.label(0));
+        assertEquals(1.5, dataSet.value(0));
+        assertEquals("Records 1197-1200", dataSet.label(299));
+        assertEquals(1_197.5, dataSet.value(299));
+        // Statistics cover the raw values, not the bucket means
+        assertEquals(1_200, result.statistics().count());
+        assertEquals(1_199.0, result.statistics().max());
+    }
+
+    @Test
+    void extract_WidensTimeBucketsForLongSpans() throws IOException {
+        StringBuilder lines = new StringBuilder();
+        long start = LocalDate.of(2024, 1, 1).toEpochDay() * 86_400L;
+        for (int minute = 0; minute < 3 * 1_440; minute++) {
+            // Millisecond timestamps are recognized and converted to seconds
+            long millis = (start + minute * 60L) * 1_000L;
+            lines.append("{\"ts\": ").append(millis).append(", \"load\": ").append(minute % 7).append("}\n");
+        }
+
+        NdjsonStreamingExtractor.Result result = extractor(List.of("load"), "ts", 500).extract(reader(lines.toString()));
+
+        ColumnarDataSet dataSet = result.dataSet();
+        assertEquals(4_320, result.records());
+        assertTrue(dataSet.size() <= 500, "buckets: " + dataSet.size());
+        assertEquals(LocalDate.of(2024, 1, 1), dataSet.date(0));
+        assertEquals(LocalDate.of(2024, 1, 3), dataSet.date(dataSet.size() - 1));
+    }
+
+    @Test
+    void extract_ReturnsEmptyResultForEmptyInput() throws IOException {
+        NdjsonStreamingExtractor.Result result = extractor(List.of(), null, 10).extract(reader("\n\n"));
+
+        assertTrue(result.dataSet().isEmpty());
+        assertEquals(0, result.records());
+    }
+
+    private static NdjsonStreamingExtractor extractor(List<String> fields, String timestampField, int batchSize) {
+        return new NdjsonStreamingExtractor(new ObjectMapper(), ForkJoinPool.commonPool(), fields, timestampField,
+            batchSize);
+    }
+
+    private static BufferedReader reader(String lines) {
+        return new BufferedReader(new StringReader(lines));
+    }
+}
@@ -0,0 +1,178 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.reportservice.domain.model.Chart;
+import com.reportservice.domain.model.DataPoint;
+import com.reportservice.domain.model.ExtractedData;
+import com.reportservice.domain.model.TextSection;
+import com.reportservice.domain.port.out.AnalysisProgressListener;
+import com.sun.net.httpserver.HttpServer;
+import com.theokanning.openai.completion.chat.ChatCompletionRequest;
+import com.theokanning.openai.completion.chat.ChatMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Streams a structured analysis from a local server speaking the chat completions event-stream
+ * format. The server holds back the second half of the response until the parser has reported the
+ * first data point, so the test fails if parsing waits for the end of the stream.
+ */
+class OpenAiClientStreamingTest {
+
+    private static final List<String> DELTAS = List.of(
+        "```json\n{\"title\": \"Sales\", \"summary\": \"Q1 sales grew.\", ",
+        "\"dataType\": \"NUMERICAL\", \"chartTypes\": [\"LINE\", \"BAR\"], ",
+        "\"dataPoints\": [{\"label\": \"Jan\", \"value\": 10.5, \"date\": \"2024-01-31\"}, ",
+        "{\"label\": \"Feb\", \"val", "ue\": 12}], ",
+        "\"sections\": [{\"title\": \"Overview\", \"content\": \"Sales rose.\", \"type\": \"PARAGRAPH\"}]}\n```");
+    private static final int RELEASE_AFTER = 3;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CountDownLatch firstDataPoint = new CountDownLatch(1);
+    private final AtomicBoolean parsedBeforeStreamEnded = new AtomicBoolean();
+    private HttpServer server;
+    private OpenAiClient client;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/chat/completions", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream body = exchange.getResponseBody()) {
+                for (int i = 0; i < DELTAS.size(); i++) {
+                    if (i == RELEASE_AFTER) {
+                        parsedBeforeStreamEnded.set(await(firstDataPoint));
+                    }
+                    writeEvent(body, chunk(DELTAS.get(i), null));
+                }
+                writeEvent(body, chunk("", "stop"));
+                writeEvent(body, "[DONE]");
+            }
+        });
+        server.start();
+
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        client = new OpenAiClient(OpenAiClient.createService("test-key", baseUrl, Duration.ofSeconds(10), 2),
+            2, 10, Duration.ofSeconds(5), 0, 0, 0, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void stopServer() {
+        client.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void stream_ParsesDataPointsBeforeTheResponseEnds() throws IOException {
+        RecordingListener listener = new RecordingListener();
+        StreamingAnalysisParser parser = new StreamingAnalysisParser(objectMapper, listener);
+
+        OpenAiClient.Completion completion = client.stream(request(), parser::feed);
+        ExtractedData data = parser.result("https://example.com/sales");
+
+        assertTrue(parsedBeforeStreamEnded.get());
+        assertEquals(String.join("", DELTAS), completion.content());
+        assertTrue(completion.estimated());
+        assertTrue(completion.finished());
+        assertEquals(TokenEstimator.estimate(completion.content()), completion.completionTokens());
+        assertEquals(List.of(Chart.ChartType.LINE, Chart.ChartType.BAR), listener.chartTypes);
+        assertEquals(List.of("Jan", "Feb"), listener.dataPoints.stream().map(DataPoint::getLabel).toList());
+        assertEquals(1, listener.sections.size());
+
+        assertEquals("Sales", data.getTitle());
+        assertEquals(ExtractedData.DataType.NUMERICAL, data.getDataType());
+        assertEquals(List.of(Chart.ChartType.LINE, Chart.ChartType.BAR), data.getRecommendedChartTypes());
+        assertEquals(2, data.getDataPoints().size());
+        assertEquals(12.0, data.getDataPoints().get(1).getValue());
+        assertEquals("Sales rose.", data.getTextSections().get(0).getContent());
+    }
+
+    @Test
+    void result_RejectsTruncatedStream() throws IOException {
+        StreamingAnalysisParser parser = new StreamingAnalysisParser(objectMapper, new RecordingListener());
+        DELTAS.subList(0, RELEASE_AFTER).forEach(parser::feed);
+
+        assertThrows(IOException.class, () -> parser.result("https://example.com/sales"));
+        assertEquals(String.join("", DELTAS.subList(0, RELEASE_AFTER)), parser.text());
+    }
+
+    private ChatCompletionRequest request() {
+        return ChatCompletionRequest.builder()
+            .model("gpt-3.5-turbo")
+            .messages(List.of(new ChatMessage("user", "Analyze the sales data")))
+            .build();
+    }
+
+    private String chunk(String content, String finishReason) {
+        ObjectNode chunk = objectMapper.createObjectNode()
+            .put("id", "chatcmpl-test")
+            .put("object", "chat.completion.chunk")
+            .put("created", 0)
+            .put("model", "gpt-3.5-turbo");
+        ObjectNode choice = chunk.putArray("choices").addObject().put("index", 0);
+        choice.putObject("delta").put("content", content);
+        choice.put("finish_reason", finishReason);
+        return chunk.toString();
+    }
+
+    private static void writeEvent(OutputStream body, String data) throws IOException {
+        body.write(("data: " + data + "\n\n").getBytes(StandardCharsets.UTF_8));
+        body.flush();
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private class RecordingListener implements AnalysisProgressListener {
+        final List<Chart.ChartType> chartTypes = new CopyOnWriteArrayList<>();
+        final List<DataPoint> dataPoints = new CopyOnWriteArrayList<>();
+        final List<TextSection> sections = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onTokens(int streamedTokens) {
+        }
+
+        @Override
+        public void onChartTypes(List<Chart.ChartType> types) {
+            chartTypes.addAll(types);
+        }
+
+        @Override
+        public void onDataPoint(DataPoint dataPoint) {
+            dataPoints.add(dataPoint);
+            firstDataPoint.countDown();
+        }
+
+        @Override
+        public void onSection(TextSection section) {
+            sections.add(section);
+        }
+
+        @Override
+        public void onTokenUsage(int promptTokens, int completionTokens) {
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import com.itextpdf.io.source.PdfTokenizer;
+import com.itextpdf.io.source.RandomAccessFileOrArray;
+import com.itextpdf.io.source.RandomAccessSourceFactory;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
+import com.reportservice.domain.model.Chart;
+import com.reportservice.domain.model.ColumnarDataSet;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PdfCanvasGraphics2DTest {
+
+    private final ChartGenerationAdapter chartGenerationAdapter = new ChartGenerationAdapter(
+        new ChartImageCache(false, DataSize.ofMegabytes(1), "", DataSize.ofMegabytes(1), new SimpleMeterRegistry()),
+        new ChartPngEncoder(ChartPngEncoder.Compression.FAST, true), 1, false);
+    private final ReportRenderingAdapter renderingAdapter =
+        new ReportRenderingAdapter(chartGenerationAdapter, chartGenerationAdapter, new DocxChartWriter(true));
+
+    @AfterEach
+    void tearDown() {
+        chartGenerationAdapter.shutdown();
+    }
+
+    @Test
+    void drawVectorChart_DrawsEveryChartTypeAsBalancedTextAndPaths() throws IOException {
+        for (Chart.ChartType type : Chart.ChartType.values()) {
+            Chart chart = Chart.builder().type(type).title("Monthly " + type.name().toLowerCase()).dataSet(sample())
+                .build();
+
+            ByteArrayOutputStream pdf = new ByteArrayOutputStream();
+            try (PdfDocument document = new PdfDocument(new PdfWriter(pdf))) {
+                PdfFormXObject form = renderingAdapter.drawVectorChart(document, chart, new HashMap<>());
+                assertBalancedGraphicsState(type, form.getPdfObject().getBytes());
+                new PdfCanvas(document.addNewPage()).addXObjectAt(form, 0, 0);
+            }
+
+            try (PdfDocument document = new PdfDocument(new PdfReader(new ByteArrayInputStream(pdf.toByteArray())))) {
+                String text = PdfTextExtractor.getTextFromPage(document.getPage(1));
+                assertTrue(text.contains(chart.getTitle()), type + " title in: " + text);
+                if (type != Chart.ChartType.PIE) {
+                    assertTrue(text.contains("Time"), type + " x axis label in: " + text);
+                    String yAxisLabel = type == Chart.ChartType.HISTOGRAM ? "Frequency" : "Value (units)";
+                    assertTrue(text.contains(yAxisLabel), type + " y axis label in: " + text);
+                }
+            }
+        }
+    }
+
+    /** Dated rows in six unit-bearing categories, enough for every chart type to draw all its parts. */
+    private static ColumnarDataSet sample() {
+        ColumnarDataSet.Builder sample = ColumnarDataSet.builder(36);
+        LocalDate day = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < 36; i++) {
+            sample.add("Item " + i, (double) (i * 7 % 11), "Group " + i % 6, day.plusDays(i / 6), "units", null);
+        }
+        return sample.build();
+    }
+
+    /** Every {@code q} is matched by a later {@code Q}, and no {@code Q} restores a state never saved. */
+    private static void assertBalancedGraphicsState(Chart.ChartType type, byte[] content) throws IOException {
+        PdfTokenizer tokenizer = new PdfTokenizer(
+            new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(content)));
+        int depth = 0;
+        try (tokenizer) {
+            while (tokenizer.nextToken()) {
+                if (tokenizer.getTokenType() != PdfTokenizer.TokenType.Other) {
+                    continue;
+                }
+                String operator = tokenizer.getStringValue();
+                if (operator.equals("q")) {
+                    depth++;
+                } else if (operator.equals("Q")) {
+                    assertTrue(--depth >= 0, type + " restores a graphics state it never saved");
+                }
+            }
+        }
+        assertEquals(0, depth, type + " leaves graphics states unrestored");
+    }
+}
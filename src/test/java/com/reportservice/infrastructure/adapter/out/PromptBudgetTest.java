@@ -0,0 +1,53 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PromptBudgetTest {
+
+    @Test
+    void fit_ReturnsContentThatAlreadyFits() {
+        String content = "Quarterly Sales\nRevenue grew 12% to 4.2 million.";
+
+        assertSame(content, PromptBudget.fit(content, 100));
+    }
+
+    @Test
+    void fit_KeepsTitleAndSamplesFiguresAcrossTheDocument() {
+        StringBuilder content = new StringBuilder("Annual Sales Report\n");
+        for (int i = 1; i <= 300; i++) {
+            content.append(i % 3 == 0 ? "Some descriptive prose about the market conditions this month.\n"
+                    : "Row " + i + ": value " + i * 7 + "\n");
+        }
+
+        String fitted = PromptBudget.fit(content.toString(), 300);
+
+        assertTrue(TokenEstimator.estimate(fitted) <= 300);
+        assertTrue(fitted.startsWith("Annual Sales Report\n"));
+        assertTrue(fitted.contains(PromptBudget.OMISSION));
+        // Figures from the end of the document survive, unlike with a prefix cut
+        int lastRow = fitted.lines()
+                .filter(line -> line.startsWith("Row "))
+                .mapToInt(line -> Integer.parseInt(line.substring(4, line.indexOf(':'))))
+                .max()
+                .orElse(0);
+        assertTrue(lastRow > 250);
+        assertFalse(fitted.contains("descriptive prose"));
+    }
+
+    @Test
+    void fit_CutsSingleOversizedLine() {
+        String fitted = PromptBudget.fit("{\"values\":[" + "1,".repeat(5_000) + "1]}", 50);
+
+        assertTrue(TokenEstimator.estimate(fitted) <= 50);
+        assertTrue(fitted.endsWith(PromptBudget.OMISSION));
+    }
+
+    @Test
+    void estimate_CountsWordsDigitGroupsAndMessageFraming() {
+        assertEquals(10, TokenEstimator.estimate("The quick brown fox jumps over the lazy dog."));
+        assertEquals(3, TokenEstimator.estimate("1234567"));
+        assertEquals(0, TokenEstimator.estimate((CharSequence) null));
+    }
+}
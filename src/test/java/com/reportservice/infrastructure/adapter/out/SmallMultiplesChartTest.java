@@ -0,0 +1,70 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SmallMultiplesChartTest {
+
+    @Test
+    void columns_FollowTheAreaAspectRatio() {
+        assertEquals(1, SmallMultiplesChart.columns(0, 600, 400));
+        assertEquals(1, SmallMultiplesChart.columns(1, 600, 400));
+        assertEquals(3, SmallMultiplesChart.columns(6, 600, 400));
+        assertEquals(1, SmallMultiplesChart.columns(4, 100, 1000));
+        assertEquals(24, SmallMultiplesChart.columns(24, 10000, 1));
+    }
+
+    @Test
+    void draw_PlotsEveryPanelInTheLineColor() {
+        List<SmallMultiplesChart.Panel> panels = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            panels.add(new SmallMultiplesChart.Panel("Region " + i, new double[] {0, 1, 2},
+                new double[] {i, i + 2, i + 1}));
+        }
+        BufferedImage image = draw(new SmallMultiplesChart("Sales", "Time", "Value", panels, false, Color.RED));
+
+        // Seven panels make a 3-column grid, so the right third of the area holds two panels
+        assertTrue(countRed(image, 0, 0, 200, 400) > 0, "first column");
+        assertTrue(countRed(image, 420, 0, 600, 400) > 0, "last column");
+    }
+
+    @Test
+    void draw_HandlesNoPanels() {
+        BufferedImage image = draw(new SmallMultiplesChart("Sales", "Time", "Value", List.of(), false, Color.RED));
+
+        assertEquals(0, countRed(image, 0, 0, 600, 400));
+    }
+
+    private static BufferedImage draw(SmallMultiplesChart chart) {
+        BufferedImage image = new BufferedImage(600, 400, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            chart.draw(graphics, new Rectangle2D.Double(0, 0, 600, 400));
+        } finally {
+            graphics.dispose();
+        }
+        return image;
+    }
+
+    private static int countRed(BufferedImage image, int fromX, int fromY, int toX, int toY) {
+        int count = 0;
+        for (int y = fromY; y < toY; y++) {
+            for (int x = fromX; x < toX; x++) {
+                Color color = new Color(image.getRGB(x, y));
+                // Antialiased red blends toward white, so anything clearly redder than it is green counts
+                if (color.getRed() - color.getGreen() > 80 && color.getRed() - color.getBlue() > 80) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,117 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reportservice.domain.model.Chart;
+import com.reportservice.domain.model.ColumnarDataSet;
+import com.reportservice.domain.model.ExtractedData;
+import com.reportservice.domain.model.TextSection;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StructuredAnalysisParserTest {
+
+    private final StructuredAnalysisParser parser = new StructuredAnalysisParser(new ObjectMapper());
+
+    @Test
+    void parse_ReadsEveryFieldOfTheContract() throws IOException {
+        ExtractedData data = parser.parse("""
+            {
+              "title": "Quarterly sales",
+              "summary": "Sales grew.",
+              "dataType": "numerical",
+              "chartTypes": ["LINE", "bar"],
+              "dataPoints": [
+                {"label": "Q1", "value": 10.5, "category": "EU", "date": "2024-03-31", "unit": "USD"},
+                {"label": "Q2", "value": "12", "category": null, "date": null, "unit": null}
+              ],
+              "sections": [
+                {"title": "Overview", "content": "  Revenue rose.  ", "type": "PARAGRAPH"},
+                {"title": null, "content": "Keep going.", "type": "conclusion"}
+              ]
+            }""", "https://example.com");
+
+        assertEquals("https://example.com", data.getSourceUrl());
+        assertEquals("Quarterly sales", data.getTitle());
+        assertEquals("Sales grew.", data.getSummary());
+        assertEquals(ExtractedData.DataType.NUMERICAL, data.getDataType());
+        assertEquals(List.of(Chart.ChartType.LINE, Chart.ChartType.BAR), data.getRecommendedChartTypes());
+
+        ColumnarDataSet dataSet = data.getDataSet();
+        assertEquals(2, dataSet.size());
+        assertEquals("Q1", dataSet.label(0));
+        assertEquals(10.5, dataSet.value(0));
+        assertEquals("EU", dataSet.category(0));
+        assertEquals(LocalDate.of(2024, 3, 31), dataSet.date(0));
+        // Numeric text is accepted and JSON nulls stay null
+        assertEquals(12.0, dataSet.value(1));
+        assertNull(dataSet.category(1));
+        assertNull(dataSet.date(1));
+
+        List<TextSection> sections = data.getTextSections();
+        assertEquals(2, sections.size());
+        assertEquals("Revenue rose.", sections.get(0).getContent());
+        assertEquals(TextSection.SectionType.CONCLUSION, sections.get(1).getType());
+        assertEquals(1, sections.get(1).getOrder());
+    }
+
+    @Test
+    void parse_SkipsUnknownChartTypesAndMalformedEntries() throws IOException {
+        ExtractedData data = parser.parse("""
+            {
+              "dataType": "SPREADSHEET",
+              "chartTypes": ["RADAR", "pie", "PIE", 3, "BAR"],
+              "dataPoints": [
+                {"label": "no value"},
+                {"label": "text value", "value": "lots"},
+                {"label": "kept", "value": 1, "date": "31/03/2024"}
+              ],
+              "sections": [
+                {"title": "empty", "content": "   "},
+                {"content": "Untyped", "type": "SIDEBAR"}
+              ]
+            }""", null);
+
+        assertNull(data.getDataType());
+        assertEquals(List.of(Chart.ChartType.PIE, Chart.ChartType.BAR), data.getRecommendedChartTypes());
+        assertEquals(1, data.getDataSet().size());
+        assertEquals("kept", data.getDataSet().label(0));
+        assertNull(data.getDataSet().date(0));
+        assertEquals(1, data.getTextSections().size());
+        assertEquals(TextSection.SectionType.PARAGRAPH, data.getTextSections().get(0).getType());
+        assertEquals(0, data.getTextSections().get(0).getOrder());
+    }
+
+    @Test
+    void parse_ToleratesCodeFencesAroundTheObject() throws IOException {
+        ExtractedData data = parser.parse("""
+            Here is the analysis:
+            ```json
+            {"title": "Fenced"}
+            ```""", null);
+
+        assertEquals("Fenced", data.getTitle());
+        assertTrue(data.getDataSet().isEmpty());
+        assertTrue(data.getRecommendedChartTypes().isEmpty());
+    }
+
+    @Test
+    void parse_RejectsResponsesWithoutValidJsonObject() {
+        assertThrows(IOException.class, () -> parser.parse(null, null));
+        assertThrows(IOException.class, () -> parser.parse("I could not analyze this content.", null));
+        assertThrows(IOException.class, () -> parser.parse("{\"title\": \"cut off\", \"summary\": }", null));
+        assertThrows(IOException.class, () -> parser.parse("} backwards {", null));
+    }
+
+    @Test
+    void responseSchema_OffersEveryChartType() {
+        for (Chart.ChartType type : Chart.ChartType.values()) {
+            assertTrue(StructuredAnalysisParser.RESPONSE_SCHEMA.contains(type.name()), type.name());
+            assertEquals(type, StructuredAnalysisParser.toChartType(type.name().toLowerCase()));
+        }
+    }
+}
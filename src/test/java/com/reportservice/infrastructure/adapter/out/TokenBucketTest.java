@@ -0,0 +1,71 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    @Test
+    void acquire_ZeroRateAdmitsEveryRequestImmediately() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(0);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(bucket.acquire(1_000, deadlineIn(10)));
+        }
+        bucket.consume(1_000_000);
+        assertTrue(bucket.acquire(1, deadlineIn(10)));
+    }
+
+    @Test
+    void acquire_WaitsForRefillOnceBucketIsDrained() throws InterruptedException {
+        // One permit per millisecond
+        TokenBucket bucket = new TokenBucket(60_000);
+        assertTrue(bucket.acquire(60_000, deadlineIn(10)));
+
+        long start = System.nanoTime();
+        assertTrue(bucket.acquire(20, deadlineIn(1_000)));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(15));
+    }
+
+    @Test
+    void acquire_GivesUpAtDeadlineWhileBucketIsInDebt() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(60);
+        // Larger than the whole bucket: admitted while full, leaving a debt of one minute
+        assertTrue(bucket.acquire(120, deadlineIn(10)));
+
+        long start = System.nanoTime();
+        assertFalse(bucket.acquire(1, deadlineIn(50)));
+        // The wait is known to overshoot the deadline, so the bucket does not sleep first
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(50));
+
+        bucket.release(1_000);
+        assertTrue(bucket.acquire(1, deadlineIn(10)));
+    }
+
+    @Test
+    void acquire_DoesNotOverflowForNegligibleRates() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1e-12);
+        bucket.consume(1);
+
+        assertFalse(bucket.acquire(1, Long.MAX_VALUE / 2 + System.nanoTime()));
+    }
+
+    @Test
+    void acquire_HonorsPauseUntilItEnds() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(0);
+        bucket.pause(TimeUnit.MILLISECONDS.toNanos(50));
+
+        assertFalse(bucket.acquire(1, deadlineIn(10)));
+
+        long start = System.nanoTime();
+        assertTrue(bucket.acquire(1, deadlineIn(1_000)));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(30));
+    }
+
+    private static long deadlineIn(long millis) {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -0,0 +1,98 @@
+package com.reportservice.infrastructure.adapter.out;
+
+import com.reportservice.domain.model.ColumnarDataSet;
+import com.reportservice.domain.model.Table;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class XlsxStreamingExtractorTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void extract_ReadsSharedStringsNumbersAndDatesOfEverySheet() throws IOException {
+        Path file = directory.resolve("sales.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+
+            Sheet sales = workbook.createSheet("Sales");
+            Row header = sales.createRow(0);
+            header.createCell(0).setCellValue("Date");
+            header.createCell(1).setCellValue("Region");
+            header.createCell(2).setCellValue("Revenue");
+            header.createCell(3).setCellValue("Units");
+            Row first = sales.createRow(1);
+            Cell date = first.createCell(0);
+            date.setCellValue(LocalDate.of(2024, 1, 31));
+            date.setCellStyle(dateStyle);
+            first.createCell(1).setCellValue("North");
+            first.createCell(2).setCellValue(1234.5);
+            first.createCell(3).setCellValue(12);
+            // Sparse row: SAX only reports the cells present, so columns come from the cell references
+            Row second = sales.createRow(2);
+            second.createCell(1).setCellValue("South");
+            second.createCell(3).setCellValue(7);
+
+            Sheet raw = workbook.createSheet("Raw");
+            raw.createRow(0).createCell(1).setCellValue(5);
+
+            try (OutputStream out = Files.newOutputStream(file)) {
+                workbook.write(out);
+            }
+        }
+
+        XlsxStreamingExtractor.Result result = new XlsxStreamingExtractor().extract(file);
+
+        assertEquals(2, result.sheetCount());
+        assertEquals(3, result.rowCount());
+
+        ColumnarDataSet dataSet = result.dataSet();
+        assertEquals(4, dataSet.size());
+        assertEquals("North", dataSet.label(0));
+        assertEquals("Revenue", dataSet.category(0));
+        assertEquals(1234.5, dataSet.value(0));
+        assertEquals(LocalDate.of(2024, 1, 31), dataSet.date(0));
+        assertEquals("Units", dataSet.category(1));
+        assertEquals(12.0, dataSet.value(1));
+        assertEquals("South", dataSet.label(2));
+        assertEquals("Units", dataSet.category(2));
+        assertEquals(7.0, dataSet.value(2));
+        assertNull(dataSet.date(2));
+        // A sheet without a header row names its series after the sheet and column
+        assertEquals("Row 1", dataSet.label(3));
+        assertEquals("Raw B", dataSet.category(3));
+        assertEquals(5.0, dataSet.value(3));
+
+        List<Table> tables = result.tables();
+        assertEquals(2, tables.size());
+        assertEquals("Sales", tables.get(0).getTitle());
+        assertEquals(List.of("Date", "Region", "Revenue", "Units"), tables.get(0).getHeaders());
+        assertEquals("2024-01-31", tables.get(0).getRows().get(0).get(0));
+        assertEquals("", tables.get(0).getRows().get(1).get(0));
+        assertEquals("South", tables.get(0).getRows().get(1).get(1));
+        assertEquals(List.of("A", "B"), tables.get(1).getHeaders());
+    }
+
+    @Test
+    void extract_RejectsFilesThatAreNotWorkbooks() throws IOException {
+        Path file = Files.writeString(directory.resolve("broken.xlsx"), "not a zip");
+
+        assertThrows(IOException.class, () -> new XlsxStreamingExtractor().extract(file));
+    }
+}
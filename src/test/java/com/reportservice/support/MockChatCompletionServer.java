@@ -0,0 +1,301 @@
+package com.reportservice.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the chat completions API, for load tests that must not spend real quota.
+ * <p>
+ * Every call to {@code /v1/chat/completions} first waits for a delay drawn from the
+ * {@link LatencyModel}. It then fails with a 500 at {@code errorRate}, or with a 429 at
+ * {@code rateLimitRate} or when more than {@code requestsPerSecond} calls arrived in the current
+ * second. Otherwise it answers with {@code content}, either as one JSON body or as an event
+ * stream of deltas when the request asks for {@code stream}. {@code /sources/{id}} serves a
+ * small numeric document per id, so a report pipeline can fetch from the same server.
+ */
+public final class MockChatCompletionServer implements AutoCloseable {
+
+    /** Response content matching the structured analysis contract. */
+    public static final String STRUCTURED_ANALYSIS = """
+            {"title": "Quarterly Sales", "summary": "Sales grew steadily through the quarter.",
+             "dataType": "NUMERICAL", "chartTypes": ["LINE", "BAR"],
+             "dataPoints": [{"label": "January", "value": 120.5, "date": "2024-01-31"},
+                            {"label": "February", "value": 134.0, "date": "2024-02-29"},
+                            {"label": "March", "value": 151.25, "date": "2024-03-31"}],
+             "sections": [{"title": "Overview", "content": "Revenue rose in every month.", "type": "PARAGRAPH"},
+                          {"title": "Outlook", "content": "Growth is expected to continue.", "type": "CONCLUSION"}]}""";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Builder config;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong windowSecond = new AtomicLong();
+    private final AtomicLong windowCount = new AtomicLong();
+
+    private MockChatCompletionServer(Builder config) throws IOException {
+        this.config = config;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "mock-openai");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/v1/chat/completions", this::handleCompletion);
+        server.createContext("/sources/", this::handleSource);
+        server.start();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** Base URL to configure as {@code ai.client.base-url}. */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /** URL of a generated source document; different ids yield different content. */
+    public String sourceUrl(int id) {
+        return baseUrl() + "/sources/" + id;
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+
+    public long rateLimited() {
+        return rateLimited.get();
+    }
+
+    public long failed() {
+        return failed.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handleCompletion(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            JsonNode request = readBody(exchange.getRequestBody());
+            sleep(config.latency.sample());
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (random.nextDouble() < config.errorRate) {
+                failed.incrementAndGet();
+                sendError(exchange, 500, "server_error", "Injected failure");
+            } else if (random.nextDouble() < config.rateLimitRate || overQuota()) {
+                rateLimited.incrementAndGet();
+                exchange.getResponseHeaders().set("Retry-After-Ms", String.valueOf(config.retryAfter.toMillis()));
+                sendError(exchange, 429, "rate_limit_exceeded", "Rate limit reached");
+            } else if (request.path("stream").asBoolean(false)) {
+                sendStream(exchange, request);
+            } else {
+                sendCompletion(exchange, request);
+            }
+        }
+    }
+
+    private void handleSource(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String id = exchange.getRequestURI().getPath().substring("/sources/".length());
+            StringBuilder text = new StringBuilder("Sales report ").append(id).append("\n\n");
+            int seed = id.hashCode();
+            for (int month = 1; month <= 12; month++) {
+                text.append("Month ").append(month).append(": ").append(100 + Math.floorMod(seed * month, 97))
+                    .append(" units sold.\n");
+            }
+            send(exchange, 200, "text/plain", text.toString());
+        }
+    }
+
+    private boolean overQuota() {
+        if (config.requestsPerSecond <= 0) {
+            return false;
+        }
+        long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        long current = windowSecond.get();
+        if (current != second && windowSecond.compareAndSet(current, second)) {
+            windowCount.set(0);
+        }
+        return windowCount.incrementAndGet() > config.requestsPerSecond;
+    }
+
+    private void sendCompletion(HttpExchange exchange, JsonNode request) throws IOException {
+        ObjectNode body = envelope(request, "chat.completion");
+        ObjectNode choice = body.putArray("choices").addObject().put("index", 0).put("finish_reason", "stop");
+        choice.putObject("message").put("role", "assistant").put("content", config.content);
+        int promptTokens = request.path("messages").toString().length() / 4;
+        int completionTokens = config.content.length() / 4;
+        body.putObject("usage")
+            .put("prompt_tokens", promptTokens)
+            .put("completion_tokens", completionTokens)
+            .put("total_tokens", promptTokens + completionTokens);
+        send(exchange, 200, "application/json", body.toString());
+    }
+
+    private void sendStream(HttpExchange exchange, JsonNode request) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        String content = config.content;
+        for (int start = 0; start < content.length(); start += config.deltaChars) {
+            ObjectNode chunk = envelope(request, "chat.completion.chunk");
+            ObjectNode choice = chunk.putArray("choices").addObject().put("index", 0);
+            choice.putObject("delta").put("content",
+                content.substring(start, Math.min(content.length(), start + config.deltaChars)));
+            choice.putNull("finish_reason");
+            out.write(("data: " + chunk + "\n\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            sleep(config.interDeltaDelay);
+        }
+        ObjectNode last = envelope(request, "chat.completion.chunk");
+        last.putArray("choices").addObject().put("index", 0).put("finish_reason", "stop").putObject("delta");
+        out.write(("data: " + last + "\n\n").getBytes(StandardCharsets.UTF_8));
+        out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private ObjectNode envelope(JsonNode request, String object) {
+        return objectMapper.createObjectNode()
+            .put("id", "chatcmpl-mock-" + requests.get())
+            .put("object", object)
+            .put("created", System.currentTimeMillis() / 1000)
+            .put("model", request.path("model").asText("mock"));
+    }
+
+    private void sendError(HttpExchange exchange, int status, String code, String message) throws IOException {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.putObject("error").put("message", message).put("type", code).put("code", code);
+        send(exchange, status, "application/json", body.toString());
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private JsonNode readBody(InputStream body) throws IOException {
+        byte[] bytes = body.readAllBytes();
+        return bytes.length == 0 ? objectMapper.createObjectNode() : objectMapper.readTree(bytes);
+    }
+
+    private static void sleep(Duration duration) {
+        if (duration.isZero() || duration.isNegative()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration.toMillis(), duration.toNanosPart() % 1_000_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Time to first byte of a response. */
+    @FunctionalInterface
+    public interface LatencyModel {
+
+        Duration sample();
+
+        static LatencyModel fixed(Duration latency) {
+            return () -> latency;
+        }
+
+        static LatencyModel uniform(Duration min, Duration max) {
+            return () -> Duration.ofNanos(ThreadLocalRandom.current().nextLong(min.toNanos(), max.toNanos() + 1));
+        }
+
+        /**
+         * Log-normal latency around {@code median}; a {@code sigma} of 0.5 puts p99 at roughly
+         * three times the median, close to what hosted completion APIs show.
+         */
+        static LatencyModel logNormal(Duration median, double sigma) {
+            return () -> Duration.ofNanos(
+                (long) (median.toNanos() * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian())));
+        }
+    }
+
+    public static final class Builder {
+        private LatencyModel latency = LatencyModel.fixed(Duration.ZERO);
+        private double errorRate;
+        private double rateLimitRate;
+        private int requestsPerSecond;
+        private Duration retryAfter = Duration.ofMillis(200);
+        private String content = STRUCTURED_ANALYSIS;
+        private int deltaChars = 16;
+        private Duration interDeltaDelay = Duration.ZERO;
+
+        private Builder() {
+        }
+
+        public Builder latency(LatencyModel latency) {
+            this.latency = latency;
+            return this;
+        }
+
+        /** Share of calls answered with a 500. */
+        public Builder errorRate(double errorRate) {
+            this.errorRate = errorRate;
+            return this;
+        }
+
+        /** Share of calls answered with a 429, independent of the quota. */
+        public Builder rateLimitRate(double rateLimitRate) {
+            this.rateLimitRate = rateLimitRate;
+            return this;
+        }
+
+        /** Calls admitted per wall-clock second before answering 429; 0 disables the quota. */
+        public Builder requestsPerSecond(int requestsPerSecond) {
+            this.requestsPerSecond = requestsPerSecond;
+            return this;
+        }
+
+        /** Delay advertised in the {@code Retry-After-Ms} header of a 429. */
+        public Builder retryAfter(Duration retryAfter) {
+            this.retryAfter = retryAfter;
+            return this;
+        }
+
+        public Builder content(String content) {
+            this.content = content;
+            return this;
+        }
+
+        /** Size of each streamed delta and the pause between deltas. */
+        public Builder streaming(int deltaChars, Duration interDeltaDelay) {
+            this.deltaChars = Math.max(1, deltaChars);
+            this.interDeltaDelay = interDeltaDelay;
+            return this;
+        }
+
+        public MockChatCompletionServer start() throws IOException {
+            return new MockChatCompletionServer(this);
+        }
+    }
+}